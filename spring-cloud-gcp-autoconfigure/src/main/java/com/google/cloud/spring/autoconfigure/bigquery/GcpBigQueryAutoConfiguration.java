@@ -19,20 +19,28 @@ package com.google.cloud.spring.autoconfigure.bigquery;
 import com.google.api.gax.core.CredentialsProvider;
 import com.google.cloud.bigquery.BigQuery;
 import com.google.cloud.bigquery.BigQueryOptions;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadSettings;
 import com.google.cloud.bigquery.storage.v1.BigQueryWriteClient;
 import com.google.cloud.bigquery.storage.v1.BigQueryWriteSettings;
+import com.google.cloud.bigquery.storage.v1.stub.BigQueryReadStubSettings;
 import com.google.cloud.spring.autoconfigure.core.GcpContextAutoConfiguration;
+import com.google.cloud.spring.bigquery.core.BigQueryJobMetricsRecorder;
 import com.google.cloud.spring.bigquery.core.BigQueryTemplate;
+import com.google.cloud.spring.bigquery.core.MicrometerBigQueryJobMetricsRecorder;
 import com.google.cloud.spring.core.DefaultCredentialsProvider;
 import com.google.cloud.spring.core.GcpProjectIdProvider;
 import com.google.cloud.spring.core.UserAgentHeaderProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.HashMap;
 import java.util.Map;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -42,7 +50,11 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 /** Provides client objects for interfacing with BigQuery. */
 @AutoConfiguration
-@AutoConfigureAfter(GcpContextAutoConfiguration.class)
+@AutoConfigureAfter(
+    value = GcpContextAutoConfiguration.class,
+    name =
+        "org.springframework.boot.actuate.autoconfigure.metrics."
+            + "CompositeMeterRegistryAutoConfiguration")
 @ConditionalOnProperty(value = "spring.cloud.gcp.bigquery.enabled", matchIfMissing = true)
 @ConditionalOnClass({BigQuery.class, BigQueryTemplate.class})
 @EnableConfigurationProperties(GcpBigQueryProperties.class)
@@ -58,6 +70,8 @@ public class GcpBigQueryAutoConfiguration {
 
   private int threadPoolSize;
 
+  private int writeStreamCount;
+
   private String universeDomain;
   private String endpoint;
 
@@ -83,6 +97,8 @@ public class GcpBigQueryAutoConfiguration {
 
     this.threadPoolSize = getThreadPoolSize(gcpBigQueryProperties.getThreadPoolSize());
 
+    this.writeStreamCount = gcpBigQueryProperties.getWriteStreamCount();
+
     this.universeDomain = gcpBigQueryProperties.getUniverseDomain();
 
     this.endpoint = gcpBigQueryProperties.getEndpoint();
@@ -136,6 +152,28 @@ public class GcpBigQueryAutoConfiguration {
     return BigQueryWriteClient.create(bigQueryWriteSettingsBuilder.build());
   }
 
+  @Bean
+  @ConditionalOnMissingBean
+  public BigQueryReadClient bigQueryReadClient() throws IOException {
+    BigQueryReadSettings.Builder bigQueryReadSettingsBuilder =
+        BigQueryReadSettings.newBuilder()
+            .setCredentialsProvider(this.credentialsProvider)
+            .setQuotaProjectId(this.projectId)
+            .setHeaderProvider(new UserAgentHeaderProvider(GcpBigQueryAutoConfiguration.class));
+    if (this.universeDomain != null) {
+      bigQueryReadSettingsBuilder.setUniverseDomain(this.universeDomain);
+    }
+    if (this.endpoint != null) {
+      // The read stub has no mTLS endpoint of its own, so setting the endpoint would also make it
+      // the mTLS endpoint, which is rejected outside of googleapis.com.
+      bigQueryReadSettingsBuilder
+          .getStubSettingsBuilder()
+          .setMtlsEndpoint(BigQueryReadStubSettings.getDefaultMtlsEndpoint());
+      bigQueryReadSettingsBuilder.setEndpoint(this.endpoint);
+    }
+    return BigQueryReadClient.create(bigQueryReadSettingsBuilder.build());
+  }
+
   @Bean
   @ConditionalOnMissingBean(name = "bigQueryThreadPoolTaskScheduler")
   public ThreadPoolTaskScheduler bigQueryThreadPoolTaskScheduler() {
@@ -151,13 +189,20 @@ public class GcpBigQueryAutoConfiguration {
   public BigQueryTemplate bigQueryTemplate(
       BigQuery bigQuery,
       BigQueryWriteClient bigQueryWriteClient,
+      BigQueryReadClient bigQueryReadClient,
       @Qualifier("bigQueryThreadPoolTaskScheduler")
-      ThreadPoolTaskScheduler bigQueryThreadPoolTaskScheduler) {
+      ThreadPoolTaskScheduler bigQueryThreadPoolTaskScheduler,
+      ObjectProvider<BigQueryJobMetricsRecorder> bigQueryJobMetricsRecorder) {
     Map<String, Object> bqInitSettings = new HashMap<>();
     bqInitSettings.put("DATASET_NAME", this.datasetName);
     bqInitSettings.put("JSON_WRITER_BATCH_SIZE", this.jsonWriterBatchSize);
-    return new BigQueryTemplate(
-        bigQuery, bigQueryWriteClient, bqInitSettings, bigQueryThreadPoolTaskScheduler);
+    BigQueryTemplate bigQueryTemplate =
+        new BigQueryTemplate(
+            bigQuery, bigQueryWriteClient, bqInitSettings, bigQueryThreadPoolTaskScheduler);
+    bigQueryTemplate.setBigQueryReadClient(bigQueryReadClient);
+    bigQueryTemplate.setWriteStreamCount(this.writeStreamCount);
+    bigQueryJobMetricsRecorder.ifUnique(bigQueryTemplate::setJobMetricsRecorder);
+    return bigQueryTemplate;
   }
 
   private String resolveToHost(String endpoint) {
@@ -167,4 +212,15 @@ public class GcpBigQueryAutoConfiguration {
     }
     return "https://" + endpoint + "/";
   }
+
+  /** Micrometer meters for BigQuery jobs. */
+  @ConditionalOnClass(MeterRegistry.class)
+  @ConditionalOnBean(MeterRegistry.class)
+  static class BigQueryMetricsConfiguration {
+    @Bean
+    @ConditionalOnMissingBean
+    public BigQueryJobMetricsRecorder bigQueryJobMetricsRecorder(MeterRegistry meterRegistry) {
+      return new MicrometerBigQueryJobMetricsRecorder(meterRegistry);
+    }
+  }
 }
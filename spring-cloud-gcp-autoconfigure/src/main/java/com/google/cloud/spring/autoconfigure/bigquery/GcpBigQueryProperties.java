@@ -45,6 +45,12 @@ public class GcpBigQueryProperties implements CredentialsSupplier {
   /** The size of thread pool of ThreadPoolTaskScheduler used by GcpBigQueryAutoConfiguration */
   private int threadPoolSize;
 
+  /**
+   * Number of pending write streams a newline-delimited JSON input is split across by
+   * BigQueryTemplate.writeJsonStream. Defaulted to 1, which writes to a single stream.
+   */
+  private int writeStreamCount = 1;
+
   /**
    * Universe domain of the BigQuery and BigQueryWriteClient which is part of the endpoint that is
    * formatted as `{service}.{universeDomain}:${port}`.
@@ -75,6 +81,14 @@ public class GcpBigQueryProperties implements CredentialsSupplier {
     this.jsonWriterBatchSize = jsonWriterBatchSize;
   }
 
+  public int getWriteStreamCount() {
+    return writeStreamCount;
+  }
+
+  public void setWriteStreamCount(int writeStreamCount) {
+    this.writeStreamCount = writeStreamCount;
+  }
+
   public Credentials getCredentials() {
     return this.credentials;
   }
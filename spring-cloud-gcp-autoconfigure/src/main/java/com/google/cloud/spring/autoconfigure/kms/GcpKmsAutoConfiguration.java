@@ -44,6 +44,8 @@ public class GcpKmsAutoConfiguration {
   private final String universeDomain;
   private final String endpoint;
 
+  private final GcpKmsProperties properties;
+
   public GcpKmsAutoConfiguration(
       GcpProjectIdProvider coreProjectIdProvider,
       GcpKmsProperties properties,
@@ -51,6 +53,7 @@ public class GcpKmsAutoConfiguration {
       throws IOException {
     this.universeDomain = properties.getUniverseDomain();
     this.endpoint = properties.getEndpoint();
+    this.properties = properties;
     this.gcpProjectIdProvider =
         properties.getProjectId() != null
             ? properties::getProjectId
@@ -86,6 +89,10 @@ public class GcpKmsAutoConfiguration {
   @Bean
   @ConditionalOnMissingBean
   public KmsTemplate kmsTemplate(KeyManagementServiceClient client) {
-    return new KmsTemplate(client, gcpProjectIdProvider);
+    KmsTemplate kmsTemplate = new KmsTemplate(client, gcpProjectIdProvider);
+    kmsTemplate.setDataKeyTimeToLive(this.properties.getDataKeyTimeToLive());
+    kmsTemplate.setMaxCachedDataKeys(this.properties.getMaxCachedDataKeys());
+    kmsTemplate.setMaxInflightRequests(this.properties.getMaxInflightRequests());
+    return kmsTemplate;
   }
 }
@@ -19,6 +19,8 @@ package com.google.cloud.spring.autoconfigure.kms;
 import com.google.cloud.spring.core.Credentials;
 import com.google.cloud.spring.core.CredentialsSupplier;
 import com.google.cloud.spring.core.GcpScope;
+import com.google.cloud.spring.kms.KmsTemplate;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
@@ -41,6 +43,18 @@ public class GcpKmsProperties implements CredentialsSupplier {
   /** Endpoint of the KMS client which is formatted as`${service}.${universeDomain}:${port}` */
   private String endpoint;
 
+  /**
+   * Time a data key of envelope encryption is used to encrypt, and is kept unwrapped in memory
+   * after it was last used to decrypt.
+   */
+  private Duration dataKeyTimeToLive = KmsTemplate.DEFAULT_DATA_KEY_TIME_TO_LIVE;
+
+  /** Maximum number of unwrapped data keys of envelope encryption kept in memory. */
+  private long maxCachedDataKeys = KmsTemplate.DEFAULT_MAX_CACHED_DATA_KEYS;
+
+  /** Maximum number of asynchronous and bulk requests awaiting a response. */
+  private int maxInflightRequests = KmsTemplate.DEFAULT_MAX_INFLIGHT_REQUESTS;
+
   @Override
   public Credentials getCredentials() {
     return credentials;
@@ -69,4 +83,28 @@ public class GcpKmsProperties implements CredentialsSupplier {
   public void setEndpoint(String endpoint) {
     this.endpoint = endpoint;
   }
+
+  public Duration getDataKeyTimeToLive() {
+    return dataKeyTimeToLive;
+  }
+
+  public void setDataKeyTimeToLive(Duration dataKeyTimeToLive) {
+    this.dataKeyTimeToLive = dataKeyTimeToLive;
+  }
+
+  public long getMaxCachedDataKeys() {
+    return maxCachedDataKeys;
+  }
+
+  public void setMaxCachedDataKeys(long maxCachedDataKeys) {
+    this.maxCachedDataKeys = maxCachedDataKeys;
+  }
+
+  public int getMaxInflightRequests() {
+    return maxInflightRequests;
+  }
+
+  public void setMaxInflightRequests(int maxInflightRequests) {
+    this.maxInflightRequests = maxInflightRequests;
+  }
 }
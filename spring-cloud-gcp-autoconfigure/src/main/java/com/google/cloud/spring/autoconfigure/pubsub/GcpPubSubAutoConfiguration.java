@@ -41,7 +41,13 @@ import com.google.cloud.spring.pubsub.PubSubAdmin;
 import com.google.cloud.spring.pubsub.core.PubSubConfiguration;
 import com.google.cloud.spring.pubsub.core.PubSubException;
 import com.google.cloud.spring.pubsub.core.PubSubTemplate;
+import com.google.cloud.spring.pubsub.core.flowcontrol.AdaptiveFlowControlMeterBinder;
+import com.google.cloud.spring.pubsub.core.flowcontrol.AdaptiveFlowControlRegistry;
+import com.google.cloud.spring.pubsub.core.flowcontrol.AdaptiveFlowControlStrategy;
+import com.google.cloud.spring.pubsub.core.flowcontrol.AimdFlowControlStrategy;
 import com.google.cloud.spring.pubsub.core.health.HealthTrackerRegistry;
+import com.google.cloud.spring.pubsub.core.metrics.MicrometerPubSubMetricsRecorder;
+import com.google.cloud.spring.pubsub.core.metrics.PubSubMetricsRecorder;
 import com.google.cloud.spring.pubsub.core.publisher.PubSubPublisherTemplate;
 import com.google.cloud.spring.pubsub.core.publisher.PublisherCustomizer;
 import com.google.cloud.spring.pubsub.core.subscriber.PubSubSubscriberTemplate;
@@ -52,6 +58,8 @@ import com.google.cloud.spring.pubsub.support.PublisherFactory;
 import com.google.cloud.spring.pubsub.support.SubscriberFactory;
 import com.google.cloud.spring.pubsub.support.converter.PubSubMessageConverter;
 import com.google.pubsub.v1.ProjectSubscriptionName;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
@@ -69,6 +77,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -82,7 +91,11 @@ import org.threeten.bp.Duration;
 
 /** Auto-config for Pub/Sub. */
 @AutoConfiguration
-@AutoConfigureAfter(GcpContextAutoConfiguration.class)
+@AutoConfigureAfter(
+    value = GcpContextAutoConfiguration.class,
+    name =
+        "org.springframework.boot.actuate.autoconfigure.metrics."
+            + "CompositeMeterRegistryAutoConfiguration")
 @ConditionalOnProperty(value = "spring.cloud.gcp.pubsub.enabled", matchIfMissing = true)
 @ConditionalOnClass(PubSubTemplate.class)
 @EnableConfigurationProperties(GcpPubSubProperties.class)
@@ -179,9 +192,11 @@ public class GcpPubSubAutoConfiguration {
   @ConditionalOnMissingBean
   public PubSubPublisherTemplate pubSubPublisherTemplate(
       PublisherFactory publisherFactory,
-      ObjectProvider<PubSubMessageConverter> pubSubMessageConverter) {
+      ObjectProvider<PubSubMessageConverter> pubSubMessageConverter,
+      ObjectProvider<PubSubMetricsRecorder> pubSubMetricsRecorder) {
     PubSubPublisherTemplate pubSubPublisherTemplate = new PubSubPublisherTemplate(publisherFactory);
     pubSubMessageConverter.ifUnique(pubSubPublisherTemplate::setMessageConverter);
+    pubSubMetricsRecorder.ifUnique(pubSubPublisherTemplate::setMetricsRecorder);
     return pubSubPublisherTemplate;
   }
 
@@ -202,15 +217,32 @@ public class GcpPubSubAutoConfiguration {
       SubscriberFactory subscriberFactory,
       ObjectProvider<PubSubMessageConverter> pubSubMessageConverter,
       @Qualifier("pubSubAsynchronousPullExecutor") ObjectProvider<Executor> asyncPullExecutor,
-      @Qualifier("pubSubAcknowledgementExecutor") Executor ackExecutor) {
+      @Qualifier("pubSubAcknowledgementExecutor") Executor ackExecutor,
+      ObjectProvider<PubSubMetricsRecorder> pubSubMetricsRecorder) {
     PubSubSubscriberTemplate pubSubSubscriberTemplate =
         new PubSubSubscriberTemplate(subscriberFactory);
     pubSubMessageConverter.ifUnique(pubSubSubscriberTemplate::setMessageConverter);
+    pubSubMetricsRecorder.ifUnique(pubSubSubscriberTemplate::setMetricsRecorder);
     pubSubSubscriberTemplate.setAckExecutor(ackExecutor);
     asyncPullExecutor.ifAvailable(pubSubSubscriberTemplate::setAsyncPullExecutor);
+    pubSubSubscriberTemplate.setAckBatchingSettings(buildAckBatchingSettings(
+        this.gcpPubSubProperties.getSubscriber().getAckBatching()));
     return pubSubSubscriberTemplate;
   }
 
+  private BatchingSettings buildAckBatchingSettings(PubSubConfiguration.AckBatching ackBatching) {
+    if (!ackBatching.isEnabled()) {
+      return null;
+    }
+    BatchingSettings.Builder builder = BatchingSettings.newBuilder();
+    ifSet(ackBatching.getElementCountThreshold(), builder::setElementCountThreshold);
+    ifSet(ackBatching.getRequestByteThreshold(), builder::setRequestByteThreshold);
+    ifSet(
+        ackBatching.getDelayThresholdMillis(),
+        x -> builder.setDelayThreshold(Duration.ofMillis(x)));
+    return builder.build();
+  }
+
   @Bean
   @ConditionalOnMissingBean
   public PubSubTemplate pubSubTemplate(
@@ -245,6 +277,7 @@ public class GcpPubSubAutoConfiguration {
       @Qualifier("subscriberRetrySettings") ObjectProvider<RetrySettings> retrySettings,
       @Qualifier("healthTrackerRegistry")
           ObjectProvider<HealthTrackerRegistry> healthTrackerRegistry,
+      ObjectProvider<AdaptiveFlowControlRegistry> adaptiveFlowControlRegistry,
       @Qualifier("subscriberTransportChannelProvider")
           TransportChannelProvider subscriberTransportChannelProvider) {
     DefaultSubscriberFactory factory =
@@ -281,10 +314,40 @@ public class GcpPubSubAutoConfiguration {
     factory.setRetrySettingsMap(this.subscriberRetrySettingsMap);
     factory.setGlobalRetrySettings(this.globalRetrySettings);
     healthTrackerRegistry.ifAvailable(factory::setHealthTrackerRegistry);
+    adaptiveFlowControlRegistry.ifAvailable(factory::setAdaptiveFlowControlRegistry);
 
     return factory;
   }
 
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty("spring.cloud.gcp.pubsub.subscriber.adaptive-flow-control.enabled")
+  public AdaptiveFlowControlStrategy adaptiveFlowControlStrategy() {
+    PubSubConfiguration.AdaptiveFlowControl adaptiveFlowControl =
+        this.gcpPubSubProperties.getSubscriber().getAdaptiveFlowControl();
+    Long targetProcessingMillis = adaptiveFlowControl.getTargetProcessingMillis();
+    return new AimdFlowControlStrategy(
+        adaptiveFlowControl.getMinOutstandingElementCount(),
+        adaptiveFlowControl.getIncreaseStep(),
+        adaptiveFlowControl.getDecreaseFactor(),
+        adaptiveFlowControl.getMaxHeapUsage(),
+        targetProcessingMillis != null ? targetProcessingMillis : 0L);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty("spring.cloud.gcp.pubsub.subscriber.adaptive-flow-control.enabled")
+  public AdaptiveFlowControlRegistry adaptiveFlowControlRegistry(
+      AdaptiveFlowControlStrategy adaptiveFlowControlStrategy) {
+    return new AdaptiveFlowControlRegistry(
+        adaptiveFlowControlStrategy,
+        java.time.Duration.ofSeconds(
+            this.gcpPubSubProperties
+                .getSubscriber()
+                .getAdaptiveFlowControl()
+                .getAdjustmentIntervalSeconds()));
+  }
+
   @Bean
   @ConditionalOnMissingBean(name = "publisherBatchSettings")
   public BatchingSettings publisherBatchSettings() {
@@ -663,4 +726,27 @@ public class GcpPubSubAutoConfiguration {
     Integer numThreads = this.gcpPubSubProperties.getSubscriber().getExecutorThreads();
     return numThreads != null ? numThreads : PubSubConfiguration.DEFAULT_EXECUTOR_THREADS;
   }
+
+  /** Micrometer meters for Pub/Sub operations. */
+  @ConditionalOnClass(MeterRegistry.class)
+  @ConditionalOnBean(MeterRegistry.class)
+  static class PubSubMetricsConfiguration {
+    @Bean
+    @ConditionalOnMissingBean
+    public PubSubMetricsRecorder pubSubMetricsRecorder(MeterRegistry meterRegistry) {
+      return new MicrometerPubSubMetricsRecorder(meterRegistry);
+    }
+  }
+
+  /** Micrometer gauges for adaptive flow control. */
+  @ConditionalOnClass(MeterBinder.class)
+  @ConditionalOnProperty("spring.cloud.gcp.pubsub.subscriber.adaptive-flow-control.enabled")
+  static class AdaptiveFlowControlMetricsConfiguration {
+    @Bean
+    @ConditionalOnMissingBean
+    public AdaptiveFlowControlMeterBinder adaptiveFlowControlMeterBinder(
+        AdaptiveFlowControlRegistry adaptiveFlowControlRegistry) {
+      return new AdaptiveFlowControlMeterBinder(adaptiveFlowControlRegistry);
+    }
+  }
 }
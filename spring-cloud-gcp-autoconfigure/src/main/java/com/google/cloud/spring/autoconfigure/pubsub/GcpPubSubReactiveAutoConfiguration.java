@@ -16,12 +16,15 @@
 
 package com.google.cloud.spring.autoconfigure.pubsub;
 
+import com.google.cloud.spring.pubsub.core.publisher.PubSubPublisherTemplate;
 import com.google.cloud.spring.pubsub.core.subscriber.PubSubSubscriberTemplate;
 import com.google.cloud.spring.pubsub.reactive.PubSubReactiveFactory;
+import com.google.cloud.spring.pubsub.reactive.PubSubReactivePublisher;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -52,4 +55,12 @@ public class GcpPubSubReactiveAutoConfiguration {
     Scheduler scheduler = userProvidedScheduler.orElseGet(Schedulers::parallel);
     return new PubSubReactiveFactory(subscriberTemplate, scheduler);
   }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnBean(PubSubPublisherTemplate.class)
+  public PubSubReactivePublisher pubSubReactivePublisher(
+      PubSubPublisherTemplate publisherTemplate) {
+    return new PubSubReactivePublisher(publisherTemplate);
+  }
 }
@@ -22,10 +22,14 @@ import com.google.cloud.secretmanager.v1.SecretManagerServiceSettings;
 import com.google.cloud.spring.autoconfigure.core.GcpContextAutoConfiguration;
 import com.google.cloud.spring.core.GcpProjectIdProvider;
 import com.google.cloud.spring.core.UserAgentHeaderProvider;
+import com.google.cloud.spring.secretmanager.SecretManagerCacheMeterBinder;
+import com.google.cloud.spring.secretmanager.SecretManagerSecretCache;
 import com.google.cloud.spring.secretmanager.SecretManagerTemplate;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import java.io.IOException;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -81,4 +85,16 @@ public class GcpSecretManagerAutoConfiguration {
     return new SecretManagerTemplate(client, this.gcpProjectIdProvider)
         .setAllowDefaultSecretValue(this.properties.isAllowDefaultSecret());
   }
+
+  /** Micrometer counters of the cache of secrets looked up as properties. */
+  @ConditionalOnClass(MeterBinder.class)
+  @ConditionalOnBean(SecretManagerSecretCache.class)
+  static class SecretManagerCacheMetricsConfiguration {
+    @Bean
+    @ConditionalOnMissingBean
+    public SecretManagerCacheMeterBinder secretManagerCacheMeterBinder(
+        SecretManagerSecretCache secretCache) {
+      return new SecretManagerCacheMeterBinder(secretCache);
+    }
+  }
 }
@@ -16,17 +16,35 @@
 
 package com.google.cloud.spring.autoconfigure.secretmanager;
 
+import com.google.cloud.spring.secretmanager.SecretManagerPropertySource;
 import com.google.protobuf.ByteString;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.env.EnvironmentPostProcessor;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
 
 /**
- * Registers converters used by Spring Cloud GCP Secret Manager.
+ * Registers converters used by Spring Cloud GCP Secret Manager, and prefetches the secrets
+ * referenced by placeholders in the environment into the cache of the Secret Manager property
+ * source.
  */
 public class GcpSecretManagerEnvironmentPostProcessor implements EnvironmentPostProcessor {
 
+  private static final Log LOGGER =
+      LogFactory.getLog(GcpSecretManagerEnvironmentPostProcessor.class);
+
+  /** Matches the secret reference of placeholders such as {@code ${sm@my-secret:default}}. */
+  private static final Pattern SECRET_PLACEHOLDER = Pattern.compile("\\$\\{((?:sm@|sm://)[^}:]+)");
+
   @Override
   public void postProcessEnvironment(
       ConfigurableEnvironment environment, SpringApplication application) {
@@ -55,6 +73,48 @@ public class GcpSecretManagerEnvironmentPostProcessor implements EnvironmentPost
                   return source.toByteArray();
                 }
               });
+
+      GcpSecretManagerProperties properties =
+          Binder.get(environment)
+              .bind(GcpSecretManagerProperties.PREFIX, GcpSecretManagerProperties.class)
+              .orElse(new GcpSecretManagerProperties());
+      if (properties.getCache().isPrefetch()) {
+        prefetchSecrets(environment);
+      }
+    }
+  }
+
+  /**
+   * Accesses the secrets referenced by placeholders concurrently, instead of one at a time as the
+   * placeholders are resolved.
+   */
+  private static void prefetchSecrets(ConfigurableEnvironment environment) {
+    PropertySource<?> secretManagerPropertySource =
+        environment.getPropertySources().get(SecretManagerConfigDataLoader.PROPERTY_SOURCE_NAME);
+    if (!(secretManagerPropertySource instanceof SecretManagerPropertySource propertySource)
+        || propertySource.getSecretCache() == null) {
+      return;
+    }
+
+    Set<String> secretReferences = new LinkedHashSet<>();
+    for (PropertySource<?> source : environment.getPropertySources()) {
+      if (source instanceof EnumerablePropertySource<?> enumerableSource
+          && source != propertySource) {
+        for (String name : enumerableSource.getPropertyNames()) {
+          if (enumerableSource.getProperty(name) instanceof CharSequence value) {
+            Matcher matcher = SECRET_PLACEHOLDER.matcher(value);
+            while (matcher.find()) {
+              secretReferences.add(matcher.group(1));
+            }
+          }
+        }
+      }
+    }
+
+    try {
+      propertySource.prefetch(secretReferences);
+    } catch (RuntimeException ex) {
+      LOGGER.debug("Failed to prefetch secrets; they are accessed when first resolved.", ex);
     }
   }
 }
@@ -21,6 +21,8 @@ import static com.google.cloud.spring.autoconfigure.secretmanager.GcpSecretManag
 import com.google.cloud.spring.core.Credentials;
 import com.google.cloud.spring.core.CredentialsSupplier;
 import com.google.cloud.spring.core.GcpScope;
+import com.google.cloud.spring.secretmanager.SecretManagerSecretCache;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
@@ -52,6 +54,11 @@ public class GcpSecretManagerProperties implements CredentialsSupplier {
    */
   private boolean allowDefaultSecret;
 
+  /**
+   * Caching of secret payloads looked up through the {@code sm@} property syntax.
+   */
+  private final Cache cache = new Cache();
+
   public Credentials getCredentials() {
     return credentials;
   }
@@ -71,4 +78,57 @@ public class GcpSecretManagerProperties implements CredentialsSupplier {
   public void setAllowDefaultSecret(boolean allowDefaultSecret) {
     this.allowDefaultSecret = allowDefaultSecret;
   }
+
+  public Cache getCache() {
+    return cache;
+  }
+
+  /**
+   * Properties of the cache of secret payloads.
+   */
+  public static class Cache {
+
+    /**
+     * Whether payloads of secrets looked up as properties are cached. Disabled by default, since
+     * cached payloads of version aliases are refreshed in the background and may be stale for up
+     * to the refresh interval.
+     */
+    private boolean enabled;
+
+    /**
+     * Time after which cached payloads of version aliases, such as {@code latest}, are refreshed
+     * in the background. Payloads of numbered versions never change, and are not refreshed.
+     */
+    private Duration refreshInterval = SecretManagerSecretCache.DEFAULT_REFRESH_INTERVAL;
+
+    /**
+     * Whether all secrets referenced by placeholders in the environment are accessed concurrently
+     * once the configuration data is loaded. Only applies when the cache is enabled.
+     */
+    private boolean prefetch = true;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public Duration getRefreshInterval() {
+      return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+      this.refreshInterval = refreshInterval;
+    }
+
+    public boolean isPrefetch() {
+      return prefetch;
+    }
+
+    public void setPrefetch(boolean prefetch) {
+      this.prefetch = prefetch;
+    }
+  }
 }
@@ -18,6 +18,7 @@ package com.google.cloud.spring.autoconfigure.secretmanager;
 
 import com.google.cloud.spring.core.GcpProjectIdProvider;
 import com.google.cloud.spring.secretmanager.SecretManagerPropertySource;
+import com.google.cloud.spring.secretmanager.SecretManagerSecretCache;
 import com.google.cloud.spring.secretmanager.SecretManagerTemplate;
 import java.io.IOException;
 import java.util.Collections;
@@ -29,6 +30,8 @@ import org.springframework.boot.context.config.ConfigDataResourceNotFoundExcepti
 public class SecretManagerConfigDataLoader implements
     ConfigDataLoader<SecretManagerConfigDataResource> {
 
+  static final String PROPERTY_SOURCE_NAME = "spring-cloud-gcp-secret-manager";
+
   @Override
   public ConfigData load(
       ConfigDataLoaderContext context,
@@ -40,7 +43,12 @@ public class SecretManagerConfigDataLoader implements
     GcpProjectIdProvider projectIdProvider = context.getBootstrapContext()
         .get(GcpProjectIdProvider.class);
 
+    SecretManagerSecretCache secretCache =
+        context.getBootstrapContext().isRegistered(SecretManagerSecretCache.class)
+            ? context.getBootstrapContext().get(SecretManagerSecretCache.class)
+            : null;
+
     return new ConfigData(Collections.singleton(new SecretManagerPropertySource(
-        "spring-cloud-gcp-secret-manager", secretManagerTemplate, projectIdProvider)));
+        PROPERTY_SOURCE_NAME, secretManagerTemplate, projectIdProvider, secretCache)));
   }
 }
@@ -16,9 +16,6 @@
 
 package com.google.cloud.spring.autoconfigure.secretmanager;
 
-import static com.google.cloud.spring.secretmanager.SecretManagerSyntaxUtils.getMatchedPrefixes;
-import static com.google.cloud.spring.secretmanager.SecretManagerSyntaxUtils.warnIfUsingDeprecatedSyntax;
-
 import com.google.cloud.secretmanager.v1.SecretManagerServiceClient;
 import com.google.cloud.secretmanager.v1.SecretManagerServiceSettings;
 import com.google.cloud.spring.autoconfigure.core.GcpProperties;
@@ -26,6 +23,8 @@ import com.google.cloud.spring.core.DefaultCredentialsProvider;
 import com.google.cloud.spring.core.DefaultGcpProjectIdProvider;
 import com.google.cloud.spring.core.GcpProjectIdProvider;
 import com.google.cloud.spring.core.UserAgentHeaderProvider;
+import com.google.cloud.spring.secretmanager.SecretManagerSecretCache;
+import com.google.cloud.spring.secretmanager.SecretManagerSyntaxUtils;
 import com.google.cloud.spring.secretmanager.SecretManagerTemplate;
 import java.io.IOException;
 import java.util.Collections;
@@ -46,7 +45,8 @@ import org.springframework.boot.context.config.ConfigDataResourceNotFoundExcepti
 public class SecretManagerConfigDataLocationResolver implements
     ConfigDataLocationResolver<SecretManagerConfigDataResource> {
 
-  private static final Logger logger = LoggerFactory.getLogger(SecretManagerConfigDataLocationResolver.class);
+  private static final Logger logger =
+      LoggerFactory.getLogger(SecretManagerConfigDataLocationResolver.class);
 
   /**
    * A static client to avoid creating another client after refreshing.
@@ -66,12 +66,14 @@ public class SecretManagerConfigDataLocationResolver implements
   @Override
   public boolean isResolvable(ConfigDataLocationResolverContext context,
       ConfigDataLocation location) {
-    boolean secretManagerSyntaxUtilsPresent = isClassPresent("com.google.cloud.spring.secretmanager.SecretManagerSyntaxUtils");
+    boolean secretManagerSyntaxUtilsPresent =
+        isClassPresent("com.google.cloud.spring.secretmanager.SecretManagerSyntaxUtils");
     if (!secretManagerSyntaxUtilsPresent) {
       return false;
     }
-    Optional<String> matchedPrefix = getMatchedPrefixes(location::hasPrefix);
-    warnIfUsingDeprecatedSyntax(logger, matchedPrefix.orElse(""));
+    Optional<String> matchedPrefix =
+        SecretManagerSyntaxUtils.getMatchedPrefixes(location::hasPrefix);
+    SecretManagerSyntaxUtils.warnIfUsingDeprecatedSyntax(logger, matchedPrefix.orElse(""));
     return matchedPrefix.isPresent();
   }
 
@@ -119,6 +121,15 @@ public class SecretManagerConfigDataLocationResolver implements
         context,
         SecretManagerTemplate.class,
         BootstrapRegistry.InstanceSupplier.of(createSecretManagerTemplate(context)));
+    // Register the cache shared by all Secret Manager property sources.
+    GcpSecretManagerProperties properties =
+        context.getBootstrapContext().get(GcpSecretManagerProperties.class);
+    if (properties.getCache().isEnabled()) {
+      registerAndPromoteBean(
+          context,
+          SecretManagerSecretCache.class,
+          BootstrapRegistry.InstanceSupplier.from(() -> createSecretCache(context)));
+    }
   }
 
   private static GcpProperties getGcpProperties(ConfigDataLocationResolverContext context) {
@@ -189,6 +200,15 @@ public class SecretManagerConfigDataLocationResolver implements
         .setAllowDefaultSecretValue(properties.isAllowDefaultSecret());
   }
 
+  private static SecretManagerSecretCache createSecretCache(
+      ConfigDataLocationResolverContext context) {
+    SecretManagerSecretCache secretCache = new SecretManagerSecretCache(
+        context.getBootstrapContext().get(SecretManagerTemplate.class));
+    secretCache.setRefreshInterval(context.getBootstrapContext()
+        .get(GcpSecretManagerProperties.class).getCache().getRefreshInterval());
+    return secretCache;
+  }
+
   /**
    * Registers a bean in the Bootstrap Registry.
    *
@@ -80,8 +80,12 @@ public class FirebaseAuthenticationAutoConfiguration {
   public JwtDecoder firebaseAuthenticationJwtDecoder(
       DelegatingOAuth2TokenValidator<Jwt> firebaseJwtDelegatingValidator,
       FirebaseAuthenticationProperties properties) {
-    return new FirebaseJwtTokenDecoder(
-        restOperations(), properties.getPublicKeysEndpoint(), firebaseJwtDelegatingValidator);
+    FirebaseJwtTokenDecoder decoder =
+        new FirebaseJwtTokenDecoder(
+            restOperations(), properties.getPublicKeysEndpoint(), firebaseJwtDelegatingValidator);
+    decoder.setRefreshAhead(properties.getRefreshAhead());
+    decoder.setVerifiedTokenCacheSize(properties.getVerifiedTokenCacheSize());
+    return decoder;
   }
 
   @Bean
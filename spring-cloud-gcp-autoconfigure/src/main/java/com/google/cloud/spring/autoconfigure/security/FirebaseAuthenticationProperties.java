@@ -16,6 +16,8 @@
 
 package com.google.cloud.spring.autoconfigure.security;
 
+import com.google.cloud.spring.security.firebase.FirebaseJwtTokenDecoder;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -33,6 +35,15 @@ public class FirebaseAuthenticationProperties {
   /** Overrides the GCP project ID specified in the Core module. */
   private String projectId;
 
+  /** Time before the public keys expire from which they are refreshed in the background. */
+  private Duration refreshAhead = FirebaseJwtTokenDecoder.DEFAULT_REFRESH_AHEAD;
+
+  /**
+   * Maximum number of verified tokens cached until they expire, so that decoding them again skips
+   * their verification. 0 disables the cache.
+   */
+  private int verifiedTokenCacheSize;
+
   public String getPublicKeysEndpoint() {
     return publicKeysEndpoint;
   }
@@ -48,4 +59,20 @@ public class FirebaseAuthenticationProperties {
   public void setProjectId(String projectId) {
     this.projectId = projectId;
   }
+
+  public Duration getRefreshAhead() {
+    return refreshAhead;
+  }
+
+  public void setRefreshAhead(Duration refreshAhead) {
+    this.refreshAhead = refreshAhead;
+  }
+
+  public int getVerifiedTokenCacheSize() {
+    return verifiedTokenCacheSize;
+  }
+
+  public void setVerifiedTokenCacheSize(int verifiedTokenCacheSize) {
+    this.verifiedTokenCacheSize = verifiedTokenCacheSize;
+  }
 }
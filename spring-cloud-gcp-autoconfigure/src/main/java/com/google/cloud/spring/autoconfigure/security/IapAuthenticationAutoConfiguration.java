@@ -23,20 +23,27 @@ import com.google.cloud.spring.core.GcpProjectIdProvider;
 import com.google.cloud.spring.security.iap.AppEngineAudienceProvider;
 import com.google.cloud.spring.security.iap.AudienceProvider;
 import com.google.cloud.spring.security.iap.AudienceValidator;
+import com.google.cloud.spring.security.iap.CachingJwtDecoder;
+import com.google.cloud.spring.security.iap.IapMetricsRecorder;
+import com.google.cloud.spring.security.iap.MicrometerIapMetricsRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
 import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
@@ -46,6 +53,7 @@ import org.springframework.security.oauth2.jwt.JwtIssuerValidator;
 import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.web.client.RestTemplate;
 
 /**
  * Autoconfiguration for extracting pre-authenticated user identity from <a
@@ -64,6 +72,10 @@ import org.springframework.security.oauth2.server.resource.web.BearerTokenResolv
  *         <li>Audience (this validation is only enabled if running on AppEngine, or if a custom
  *             audience is provided through {@code spring.cloud.gcp.security.iap.audience} property)
  *       </ul>
+ *       The decoder caches verified assertions if {@code
+ *       spring.cloud.gcp.security.iap.verified-token-cache-size} is positive, and records
+ *       verification metrics if Micrometer is available.
+ *   <li>a refresher prefetching the JWK set at startup and keeping it up to date in the background
  * </ul>
  *
  * @since 1.1
@@ -72,7 +84,11 @@ import org.springframework.security.oauth2.server.resource.web.BearerTokenResolv
 @ConditionalOnProperty(value = "spring.cloud.gcp.security.iap.enabled", matchIfMissing = true)
 @ConditionalOnClass({AudienceValidator.class})
 @AutoConfigureBefore(OAuth2ResourceServerAutoConfiguration.class)
-@AutoConfigureAfter(GcpContextAutoConfiguration.class)
+@AutoConfigureAfter(
+    value = GcpContextAutoConfiguration.class,
+    name =
+        "org.springframework.boot.actuate.autoconfigure.metrics."
+            + "CompositeMeterRegistryAutoConfiguration")
 @EnableConfigurationProperties(IapAuthenticationProperties.class)
 public class IapAuthenticationAutoConfiguration {
 
@@ -124,18 +140,56 @@ public class IapAuthenticationAutoConfiguration {
     return new DelegatingOAuth2TokenValidator<>(validators);
   }
 
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty(
+      value = "spring.cloud.gcp.security.iap.jwk-set-prefetch",
+      matchIfMissing = true)
+  IapJwkSetRefresher iapJwkSetRefresher(IapAuthenticationProperties properties) {
+    SimpleClientHttpRequestFactory clientHttpRequestFactory = new SimpleClientHttpRequestFactory();
+    clientHttpRequestFactory.setConnectTimeout(5_000);
+    clientHttpRequestFactory.setReadTimeout(5_000);
+    return new IapJwkSetRefresher(
+        new RestTemplate(clientHttpRequestFactory),
+        properties.getRegistry(),
+        properties.getJwkSetRefreshInterval());
+  }
+
   @Bean
   @ConditionalOnMissingBean
   public JwtDecoder iapJwtDecoder(
       IapAuthenticationProperties properties,
-      @Qualifier("iapJwtDelegatingValidator") DelegatingOAuth2TokenValidator<Jwt> validator) {
+      @Qualifier("iapJwtDelegatingValidator") DelegatingOAuth2TokenValidator<Jwt> validator,
+      ObjectProvider<IapJwkSetRefresher> jwkSetRefresher,
+      ObjectProvider<IapMetricsRecorder> metricsRecorder) {
 
-    NimbusJwtDecoder jwtDecoder =
+    NimbusJwtDecoder.JwkSetUriJwtDecoderBuilder builder =
         NimbusJwtDecoder.withJwkSetUri(properties.getRegistry())
-            .jwsAlgorithm(SignatureAlgorithm.from(properties.getAlgorithm()))
-            .build();
+            .jwsAlgorithm(SignatureAlgorithm.from(properties.getAlgorithm()));
+    jwkSetRefresher.ifAvailable(refresher -> builder.cache(refresher.getCache()));
+    NimbusJwtDecoder jwtDecoder = builder.build();
     jwtDecoder.setJwtValidator(validator);
 
-    return jwtDecoder;
+    IapMetricsRecorder recorder = metricsRecorder.getIfUnique();
+    if (properties.getVerifiedTokenCacheSize() == 0 && recorder == null) {
+      return jwtDecoder;
+    }
+    CachingJwtDecoder cachingJwtDecoder =
+        new CachingJwtDecoder(jwtDecoder, properties.getVerifiedTokenCacheSize());
+    if (recorder != null) {
+      cachingJwtDecoder.setMetricsRecorder(recorder);
+    }
+    return cachingJwtDecoder;
+  }
+
+  /** Micrometer meters for IAP assertion verification. */
+  @ConditionalOnClass(MeterRegistry.class)
+  @ConditionalOnBean(MeterRegistry.class)
+  static class IapMetricsConfiguration {
+    @Bean
+    @ConditionalOnMissingBean
+    public IapMetricsRecorder iapMetricsRecorder(MeterRegistry meterRegistry) {
+      return new MicrometerIapMetricsRecorder(meterRegistry);
+    }
   }
 }
@@ -16,6 +16,7 @@
 
 package com.google.cloud.spring.autoconfigure.security;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -41,6 +42,18 @@ public class IapAuthenticationProperties {
   /** Non-dynamic audience string to validate. */
   private String audience;
 
+  /**
+   * Maximum number of verified assertions to cache until they expire, so that repeated requests
+   * with the same assertion skip signature verification. 0 disables the cache.
+   */
+  private int verifiedTokenCacheSize = 0;
+
+  /** Whether to fetch the JWK set at startup and keep it up to date in the background. */
+  private boolean jwkSetPrefetch = true;
+
+  /** Interval between background refreshes of the JWK set. 0 only fetches it at startup. */
+  private Duration jwkSetRefreshInterval = Duration.ofMinutes(10);
+
   public String getRegistry() {
     return this.registry;
   }
@@ -80,4 +93,28 @@ public class IapAuthenticationProperties {
   public void setAudience(String audience) {
     this.audience = audience;
   }
+
+  public int getVerifiedTokenCacheSize() {
+    return this.verifiedTokenCacheSize;
+  }
+
+  public void setVerifiedTokenCacheSize(int verifiedTokenCacheSize) {
+    this.verifiedTokenCacheSize = verifiedTokenCacheSize;
+  }
+
+  public boolean isJwkSetPrefetch() {
+    return this.jwkSetPrefetch;
+  }
+
+  public void setJwkSetPrefetch(boolean jwkSetPrefetch) {
+    this.jwkSetPrefetch = jwkSetPrefetch;
+  }
+
+  public Duration getJwkSetRefreshInterval() {
+    return this.jwkSetRefreshInterval;
+  }
+
+  public void setJwkSetRefreshInterval(Duration jwkSetRefreshInterval) {
+    this.jwkSetRefreshInterval = jwkSetRefreshInterval;
+  }
 }
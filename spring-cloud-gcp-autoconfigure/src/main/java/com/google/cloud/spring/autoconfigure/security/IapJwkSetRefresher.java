@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.autoconfigure.security;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestOperations;
+
+/**
+ * Keeps the IAP JWK set in the cache read by the JWT decoder, so that the first requests after
+ * startup and after key rotations don't wait for the JWK set to be downloaded.
+ *
+ * <p>The JWK set is fetched in the background as soon as the bean is initialized, and then again
+ * after every refresh interval. Failures are logged and leave the cached JWK set in place; the
+ * decoder still fetches the JWK set itself if it is missing or doesn't contain the signing key.
+ */
+class IapJwkSetRefresher implements InitializingBean, DisposableBean {
+
+  private static final Log LOGGER = LogFactory.getLog(IapJwkSetRefresher.class);
+
+  private final Cache cache = new ConcurrentMapCache("iap-jwk-set");
+
+  private final RestOperations restOperations;
+
+  private final String jwkSetUri;
+
+  private final Duration refreshInterval;
+
+  private ScheduledExecutorService scheduler;
+
+  IapJwkSetRefresher(RestOperations restOperations, String jwkSetUri, Duration refreshInterval) {
+    Assert.notNull(restOperations, "restOperations can't be null.");
+    Assert.hasText(jwkSetUri, "jwkSetUri can't be empty.");
+    Assert.isTrue(
+        refreshInterval != null && !refreshInterval.isNegative(),
+        "The JWK set refresh interval can't be negative.");
+    this.restOperations = restOperations;
+    this.jwkSetUri = jwkSetUri;
+    this.refreshInterval = refreshInterval;
+  }
+
+  /** Returns the cache of the JWK set, keyed by its URI as expected by the JWT decoder. */
+  Cache getCache() {
+    return this.cache;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("iap-jwk-set-");
+    threadFactory.setDaemon(true);
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    if (this.refreshInterval.isZero()) {
+      this.scheduler.execute(this::refresh);
+    } else {
+      this.scheduler.scheduleWithFixedDelay(
+          this::refresh, 0, this.refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    if (this.scheduler != null) {
+      this.scheduler.shutdownNow();
+    }
+  }
+
+  /** Fetches the JWK set and replaces the cached copy, keeping it if the fetch fails. */
+  void refresh() {
+    try {
+      String jwkSet = this.restOperations.getForObject(this.jwkSetUri, String.class);
+      if (jwkSet != null) {
+        this.cache.put(this.jwkSetUri, jwkSet);
+      }
+    } catch (RestClientException ex) {
+      LOGGER.warn("Failed to fetch the IAP JWK set from " + this.jwkSetUri, ex);
+    }
+  }
+}
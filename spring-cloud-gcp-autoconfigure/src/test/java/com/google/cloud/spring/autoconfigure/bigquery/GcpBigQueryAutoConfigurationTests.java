@@ -21,10 +21,15 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.google.api.gax.core.CredentialsProvider;
 import com.google.cloud.bigquery.BigQuery;
 import com.google.cloud.bigquery.BigQueryOptions;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
 import com.google.cloud.bigquery.storage.v1.BigQueryWriteClient;
 import com.google.cloud.spring.autoconfigure.TestUtils;
 import com.google.cloud.spring.autoconfigure.core.GcpContextAutoConfiguration;
+import com.google.cloud.spring.bigquery.core.BigQueryJobMetricsRecorder;
 import com.google.cloud.spring.bigquery.core.BigQueryTemplate;
+import com.google.cloud.spring.bigquery.core.MicrometerBigQueryJobMetricsRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
@@ -58,6 +63,37 @@ class GcpBigQueryAutoConfigurationTests {
         });
   }
 
+  @Test
+  void testWriteStreamCount() {
+    this.contextRunner
+        .withPropertyValues("spring.cloud.gcp.bigquery.writeStreamCount=4")
+        .run(
+            ctx ->
+                assertThat(ctx.getBean(BigQueryTemplate.class).getWriteStreamCount())
+                    .isEqualTo(4));
+  }
+
+  @Test
+  void testJobMetricsRecorder_withMeterRegistry() {
+    this.contextRunner
+        .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+        .run(
+            ctx -> {
+              BigQueryJobMetricsRecorder metricsRecorder =
+                  ctx.getBean(BigQueryJobMetricsRecorder.class);
+              assertThat(metricsRecorder)
+                  .isInstanceOf(MicrometerBigQueryJobMetricsRecorder.class);
+              assertThat(ctx.getBean(BigQueryTemplate.class))
+                  .hasFieldOrPropertyWithValue("jobWatcher.metricsRecorder", metricsRecorder);
+            });
+  }
+
+  @Test
+  void testJobMetricsRecorder_withoutMeterRegistry() {
+    this.contextRunner.run(
+        ctx -> assertThat(ctx).doesNotHaveBean(BigQueryJobMetricsRecorder.class));
+  }
+
   @Test
   void testBigQuery_universeDomain() {
     this.contextRunner
@@ -148,6 +184,21 @@ class GcpBigQueryAutoConfigurationTests {
             });
   }
 
+  @Test
+  void testBigQueryRead_bothUniverseDomainAndEndpointSet() {
+    this.contextRunner
+        .withPropertyValues("spring.cloud.gcp.bigquery.universe-domain=myUniverseDomain")
+        .withPropertyValues(
+            "spring.cloud.gcp.bigquery.endpoint=bigquerystorage.example.com:123")
+        .run(
+            ctx -> {
+              BigQueryReadClient client = ctx.getBean(BigQueryReadClient.class);
+              assertThat(client.getSettings().getUniverseDomain()).isEqualTo("myUniverseDomain");
+              assertThat(client.getSettings().getEndpoint())
+                  .isEqualTo("bigquerystorage.example.com:123");
+            });
+  }
+
   @Test
   void testBigQueryWrite_noUniverseDomainOrEndpointSet_useClientDefault() {
     this.contextRunner.run(
@@ -159,6 +210,19 @@ class GcpBigQueryAutoConfigurationTests {
         });
   }
 
+  @Test
+  void testBigQueryRead_endpoint() {
+    this.contextRunner
+        .withPropertyValues(
+            "spring.cloud.gcp.bigquery.endpoint=bigquerystorage.example.com:123")
+        .run(
+            ctx -> {
+              BigQueryReadClient client = ctx.getBean(BigQueryReadClient.class);
+              assertThat(client.getSettings().getEndpoint())
+                  .isEqualTo("bigquerystorage.example.com:123");
+            });
+  }
+
   /** Spring Boot config for tests. */
   @AutoConfigurationPackage
   static class TestConfiguration {
@@ -28,6 +28,7 @@ import com.google.auth.oauth2.UserCredentials;
 import com.google.cloud.kms.v1.KeyManagementServiceClient;
 import com.google.cloud.spring.core.GcpProjectIdProvider;
 import com.google.cloud.spring.kms.KmsTemplate;
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
@@ -166,6 +167,29 @@ class KmsAutoConfigurationTests {
         });
   }
 
+  @Test
+  void testEnvelopeEncryptionDataKeyCache() {
+    this.contextRunner
+        .withPropertyValues(
+            "spring.cloud.gcp.kms.data-key-time-to-live=30s",
+            "spring.cloud.gcp.kms.max-cached-data-keys=10")
+        .run(
+            ctx -> {
+              KmsTemplate kmsTemplate = ctx.getBean(KmsTemplate.class);
+              assertThat(kmsTemplate.getDataKeyTimeToLive()).isEqualTo(Duration.ofSeconds(30));
+              assertThat(kmsTemplate.getMaxCachedDataKeys()).isEqualTo(10);
+            });
+  }
+
+  @Test
+  void testMaxInflightRequests() {
+    this.contextRunner
+        .withPropertyValues("spring.cloud.gcp.kms.max-inflight-requests=8")
+        .run(
+            ctx ->
+                assertThat(ctx.getBean(KmsTemplate.class).getMaxInflightRequests()).isEqualTo(8));
+  }
+
   @Configuration
   static class TestConfiguration {
 
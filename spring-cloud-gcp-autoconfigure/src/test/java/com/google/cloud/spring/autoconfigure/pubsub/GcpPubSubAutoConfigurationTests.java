@@ -34,13 +34,19 @@ import com.google.cloud.pubsub.v1.Subscriber;
 import com.google.cloud.spring.autoconfigure.TestUtils;
 import com.google.cloud.spring.core.GcpProjectIdProvider;
 import com.google.cloud.spring.pubsub.core.PubSubConfiguration;
+import com.google.cloud.spring.pubsub.core.metrics.MicrometerPubSubMetricsRecorder;
+import com.google.cloud.spring.pubsub.core.metrics.PubSubMetricsRecorder;
+import com.google.cloud.spring.pubsub.core.publisher.PubSubPublisherTemplate;
 import com.google.cloud.spring.pubsub.core.publisher.PublisherCustomizer;
+import com.google.cloud.spring.pubsub.core.subscriber.PubSubSubscriberTemplate;
 import com.google.cloud.spring.pubsub.support.CachingPublisherFactory;
 import com.google.cloud.spring.pubsub.support.DefaultPublisherFactory;
 import com.google.cloud.spring.pubsub.support.DefaultSubscriberFactory;
 import com.google.cloud.spring.pubsub.support.PubSubSubscriptionUtils;
 import com.google.cloud.spring.pubsub.support.PublisherFactory;
 import com.google.pubsub.v1.ProjectSubscriptionName;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -1463,6 +1469,31 @@ class GcpPubSubAutoConfigurationTests {
             });
   }
 
+  @Test
+  void metricsRecorder_withMeterRegistry() {
+    contextRunner
+        .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+        .run(
+            ctx -> {
+              PubSubMetricsRecorder metricsRecorder = ctx.getBean(PubSubMetricsRecorder.class);
+              assertThat(metricsRecorder).isInstanceOf(MicrometerPubSubMetricsRecorder.class);
+              assertThat(ctx.getBean(PubSubPublisherTemplate.class))
+                  .hasFieldOrPropertyWithValue("metricsRecorder", metricsRecorder);
+              assertThat(ctx.getBean(PubSubSubscriberTemplate.class))
+                  .hasFieldOrPropertyWithValue("metricsRecorder", metricsRecorder);
+            });
+  }
+
+  @Test
+  void metricsRecorder_withoutMeterRegistry() {
+    contextRunner.run(
+        ctx -> {
+          assertThat(ctx).doesNotHaveBean(PubSubMetricsRecorder.class);
+          assertThat(ctx.getBean(PubSubPublisherTemplate.class))
+              .hasFieldOrPropertyWithValue("metricsRecorder", PubSubMetricsRecorder.NOOP);
+        });
+  }
+
   @Configuration
   static class CustomizerConfig {
 
@@ -68,6 +68,7 @@ class GcpPubSubReactiveAutoConfigurationTest {
     contextRunner.run(
         ctx -> {
           assertThat(ctx.containsBean("pubSubReactiveFactory")).isTrue();
+          assertThat(ctx.containsBean("pubSubReactivePublisher")).isTrue();
         });
   }
 
@@ -24,7 +24,10 @@ import com.google.auth.Credentials;
 import com.google.cloud.secretmanager.v1.SecretManagerServiceClient;
 import com.google.cloud.spring.autoconfigure.TestUtils;
 import com.google.cloud.spring.autoconfigure.core.GcpContextAutoConfiguration;
+import com.google.cloud.spring.secretmanager.SecretManagerCacheMeterBinder;
+import com.google.cloud.spring.secretmanager.SecretManagerSecretCache;
 import com.google.cloud.spring.secretmanager.SecretManagerTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
@@ -74,6 +77,23 @@ class GcpSecretManagerAutoConfigurationUnitTests {
             .isNotNull());
   }
 
+  @Test
+  void testSecretCacheMetersWithSecretCache() {
+    contextRunner
+        .withBean(SimpleMeterRegistry.class)
+        .withBean(
+            SecretManagerSecretCache.class,
+            () -> new SecretManagerSecretCache(mock(SecretManagerTemplate.class)))
+        .run(ctx -> assertThat(ctx).hasSingleBean(SecretManagerCacheMeterBinder.class));
+  }
+
+  @Test
+  void testNoSecretCacheMetersWithoutSecretCache() {
+    contextRunner
+        .withBean(SimpleMeterRegistry.class)
+        .run(ctx -> assertThat(ctx).doesNotHaveBean(SecretManagerCacheMeterBinder.class));
+  }
+
   static class TestConfig {
 
     @Bean
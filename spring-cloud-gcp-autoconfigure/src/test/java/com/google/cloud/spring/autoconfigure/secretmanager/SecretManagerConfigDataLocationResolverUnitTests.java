@@ -10,6 +10,7 @@ import com.google.cloud.secretmanager.v1.SecretManagerServiceClient;
 import com.google.cloud.spring.autoconfigure.core.GcpProperties;
 import com.google.cloud.spring.core.DefaultGcpProjectIdProvider;
 import com.google.cloud.spring.core.GcpProjectIdProvider;
+import com.google.cloud.spring.secretmanager.SecretManagerSecretCache;
 import java.util.List;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
@@ -79,6 +80,27 @@ class SecretManagerConfigDataLocationResolverUnitTests {
         () -> defaultBootstrapContext.close(applicationContext)).doesNotThrowAnyException();
   }
 
+  @Test
+  void resolveRegistersEnabledSecretCache() {
+    GcpSecretManagerProperties.Cache cache = new GcpSecretManagerProperties.Cache();
+    cache.setEnabled(true);
+    when(secretManagerProperties.getCache()).thenReturn(cache);
+    resolver.resolve(context, ConfigDataLocation.of("sm@my-secret"));
+    assertThat(defaultBootstrapContext.isRegistered(SecretManagerSecretCache.class)).isTrue();
+    DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    ConfigurableApplicationContext applicationContext = mock(ConfigurableApplicationContext.class);
+    when(applicationContext.getBeanFactory()).thenReturn(beanFactory);
+    defaultBootstrapContext.close(applicationContext);
+    assertThat(beanFactory.getBean(SecretManagerSecretCache.class).getRefreshInterval())
+        .isEqualTo(SecretManagerSecretCache.DEFAULT_REFRESH_INTERVAL);
+  }
+
+  @Test
+  void resolveDoesNotRegisterSecretCacheByDefault() {
+    resolver.resolve(context, ConfigDataLocation.of("sm@my-secret"));
+    assertThat(defaultBootstrapContext.isRegistered(SecretManagerSecretCache.class)).isFalse();
+  }
+
   @BeforeEach
   void registerBean() {
     CredentialsProvider credentialsProvider = mock(CredentialsProvider.class);
@@ -94,6 +116,7 @@ class SecretManagerConfigDataLocationResolverUnitTests {
     defaultBootstrapContext.register(SecretManagerServiceClient.class,
         BootstrapRegistry.InstanceSupplier.of(secretManagerServiceClient));
 
+    when(secretManagerProperties.getCache()).thenReturn(new GcpSecretManagerProperties.Cache());
     when(context.getBinder()).thenReturn(new Binder());
     when(context.getBootstrapContext()).thenReturn(defaultBootstrapContext);
   }
@@ -25,6 +25,7 @@ import com.google.auth.Credentials;
 import com.google.cloud.spring.autoconfigure.TestUtils;
 import com.google.cloud.spring.core.GcpProjectIdProvider;
 import com.google.cloud.spring.security.firebase.FirebaseJwtTokenDecoder;
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
@@ -64,6 +65,23 @@ class FirebaseAuthenticationAutoConfigurationTests {
             });
   }
 
+  @Test
+  void testDecoderSettings() {
+    this.contextRunner
+        .withPropertyValues(
+            "spring.cloud.gcp.security.firebase.enabled=true",
+            "spring.cloud.gcp.security.firebase.refresh-ahead=10m",
+            "spring.cloud.gcp.security.firebase.verified-token-cache-size=100")
+        .run(
+            context -> {
+              FirebaseAuthenticationProperties properties =
+                  context.getBean(FirebaseAuthenticationProperties.class);
+              assertThat(properties.getRefreshAhead()).isEqualTo(Duration.ofMinutes(10));
+              assertThat(properties.getVerifiedTokenCacheSize()).isEqualTo(100);
+              assertThat(context.getBean(FirebaseJwtTokenDecoder.class)).isNotNull();
+            });
+  }
+
   static class TestConfig {
 
     @Bean
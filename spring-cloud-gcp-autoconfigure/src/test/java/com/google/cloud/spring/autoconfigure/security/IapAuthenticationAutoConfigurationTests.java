@@ -29,6 +29,11 @@ import com.google.cloud.spring.core.MetadataProvider;
 import com.google.cloud.spring.security.iap.AppEngineAudienceProvider;
 import com.google.cloud.spring.security.iap.AudienceProvider;
 import com.google.cloud.spring.security.iap.AudienceValidator;
+import com.google.cloud.spring.security.iap.CachingJwtDecoder;
+import com.google.cloud.spring.security.iap.IapMetricsRecorder;
+import com.google.cloud.spring.security.iap.MicrometerIapMetricsRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.Instant;
 import java.util.Collections;
@@ -212,6 +217,59 @@ class IapAuthenticationAutoConfigurationTests {
             });
   }
 
+  @Test
+  void testVerifiedTokenCacheWrapsDecoder() {
+    this.contextRunner
+        .withPropertyValues(
+            "spring.cloud.gcp.security.iap.audience=unused",
+            "spring.cloud.gcp.security.iap.verified-token-cache-size=100")
+        .run(
+            context -> {
+              assertThat(context.getBean(JwtDecoder.class))
+                  .isInstanceOfSatisfying(
+                      CachingJwtDecoder.class,
+                      decoder -> {
+                        assertThat(decoder.getMaxSize()).isEqualTo(100);
+                        assertThat(decoder.getDelegate()).isInstanceOf(NimbusJwtDecoder.class);
+                      });
+              assertThat(context).doesNotHaveBean(IapMetricsRecorder.class);
+            });
+  }
+
+  @Test
+  void testMetricsRecorderWithMeterRegistry() {
+    this.contextRunner
+        .withPropertyValues("spring.cloud.gcp.security.iap.audience=unused")
+        .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+        .run(
+            context -> {
+              assertThat(context.getBean(IapMetricsRecorder.class))
+                  .isInstanceOf(MicrometerIapMetricsRecorder.class);
+              assertThat(context.getBean(JwtDecoder.class))
+                  .isInstanceOfSatisfying(
+                      CachingJwtDecoder.class,
+                      decoder -> assertThat(decoder.getMaxSize()).isZero());
+            });
+  }
+
+  @Test
+  void testJwkSetPrefetch() {
+    this.contextRunner
+        .withPropertyValues(
+            "spring.cloud.gcp.security.iap.audience=unused",
+            "spring.cloud.gcp.security.iap.jwk-set-refresh-interval=0")
+        .run(context -> assertThat(context).hasSingleBean(IapJwkSetRefresher.class));
+    this.contextRunner
+        .withPropertyValues(
+            "spring.cloud.gcp.security.iap.audience=unused",
+            "spring.cloud.gcp.security.iap.jwk-set-prefetch=false")
+        .run(
+            context -> {
+              assertThat(context).doesNotHaveBean(IapJwkSetRefresher.class);
+              assertThat(context.getBean(JwtDecoder.class)).isInstanceOf(NimbusJwtDecoder.class);
+            });
+  }
+
   private void verifyJwtBeans(AssertableApplicationContext context) {
     JwtDecoder jwtDecoder = context.getBean(JwtDecoder.class);
     assertThat(jwtDecoder).isNotNull();
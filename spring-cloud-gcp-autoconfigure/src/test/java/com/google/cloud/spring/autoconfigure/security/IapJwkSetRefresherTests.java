@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.autoconfigure.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestOperations;
+
+/** Tests for {@link IapJwkSetRefresher}. */
+class IapJwkSetRefresherTests {
+
+  private static final String JWK_SET_URI = "https://example.com/jwk";
+
+  private final RestOperations restOperations = mock(RestOperations.class);
+
+  @Test
+  void refreshReplacesCachedJwkSet() {
+    when(this.restOperations.getForObject(JWK_SET_URI, String.class))
+        .thenReturn("{\"keys\":[1]}", "{\"keys\":[2]}");
+    IapJwkSetRefresher refresher = refresher(Duration.ofMinutes(10));
+
+    refresher.refresh();
+    assertThat(refresher.getCache().get(JWK_SET_URI, String.class)).isEqualTo("{\"keys\":[1]}");
+    refresher.refresh();
+    assertThat(refresher.getCache().get(JWK_SET_URI, String.class)).isEqualTo("{\"keys\":[2]}");
+  }
+
+  @Test
+  void failedRefreshKeepsCachedJwkSet() {
+    when(this.restOperations.getForObject(JWK_SET_URI, String.class))
+        .thenReturn("{\"keys\":[]}")
+        .thenThrow(new ResourceAccessException("unavailable"));
+    IapJwkSetRefresher refresher = refresher(Duration.ofMinutes(10));
+
+    refresher.refresh();
+    refresher.refresh();
+
+    assertThat(refresher.getCache().get(JWK_SET_URI, String.class)).isEqualTo("{\"keys\":[]}");
+  }
+
+  @Test
+  void jwkSetIsPrefetchedOnStartup() {
+    when(this.restOperations.getForObject(JWK_SET_URI, String.class)).thenReturn("{\"keys\":[]}");
+    IapJwkSetRefresher refresher = refresher(Duration.ZERO);
+
+    refresher.afterPropertiesSet();
+    try {
+      verify(this.restOperations, timeout(5_000)).getForObject(JWK_SET_URI, String.class);
+    } finally {
+      refresher.destroy();
+    }
+  }
+
+  @Test
+  void negativeRefreshIntervalIsRejected() {
+    assertThatThrownBy(() -> refresher(Duration.ofSeconds(-1)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("The JWK set refresh interval can't be negative.");
+  }
+
+  private IapJwkSetRefresher refresher(Duration refreshInterval) {
+    return new IapJwkSetRefresher(this.restOperations, JWK_SET_URI, refreshInterval);
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+/**
+ * Receives measurements of the BigQuery jobs that {@link BigQueryTemplate} waits for.
+ *
+ * <p>All methods are no-ops by default, so that implementations only need to override the
+ * measurements they are interested in.
+ *
+ * @since 6.1.2
+ */
+public interface BigQueryJobMetricsRecorder {
+
+  /** A recorder that discards all measurements. */
+  BigQueryJobMetricsRecorder NOOP = new BigQueryJobMetricsRecorder() {};
+
+  /**
+   * Record the completion of waiting for a job.
+   *
+   * @param jobType the type of the job, such as {@code LOAD}
+   * @param durationNanos the time between starting to wait for the job and its completion
+   * @param statusChecks the number of requests made to check the status of the job
+   * @param success whether the job completed without errors
+   */
+  default void recordJobWait(
+      String jobType, long durationNanos, int statusChecks, boolean success) {}
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobStatus;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.concurrent.GuardedBy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.Assert;
+
+/**
+ * Waits for BigQuery jobs to complete, checking the status of all pending jobs from a single
+ * poller scheduled on a {@link TaskScheduler}.
+ *
+ * <p>The status of each job is first checked after the initial interval, and then with
+ * exponentially growing intervals up to the maximum interval, so that short jobs complete quickly
+ * while long-running jobs don't cause a steady stream of requests. Only the status of a job is
+ * requested while it is pending; the complete job is fetched once it is done. The poller only runs
+ * while there are pending jobs. At every run, it hands the jobs that are due to the task scheduler,
+ * so that their status is checked concurrently and a slow request doesn't delay other jobs.
+ */
+class BigQueryJobWatcher {
+
+  private static final int BACKOFF_MULTIPLIER = 2;
+
+  private final Logger logger = LoggerFactory.getLogger(BigQueryJobWatcher.class);
+
+  private final TaskScheduler taskScheduler;
+
+  private final Set<PendingJob> pendingJobs = ConcurrentHashMap.newKeySet();
+
+  private final Object scheduleLock = new Object();
+
+  private volatile Duration initialInterval = Duration.ofMillis(50);
+
+  private volatile Duration maxInterval = Duration.ofSeconds(2);
+
+  private volatile BigQueryJobMetricsRecorder metricsRecorder = BigQueryJobMetricsRecorder.NOOP;
+
+  @GuardedBy("scheduleLock")
+  private ScheduledFuture<?> nextPoll;
+
+  @GuardedBy("scheduleLock")
+  private Instant nextPollTime;
+
+  BigQueryJobWatcher(TaskScheduler taskScheduler) {
+    Assert.notNull(taskScheduler, "TaskScheduler must not be null");
+    this.taskScheduler = taskScheduler;
+  }
+
+  void setInitialInterval(Duration initialInterval) {
+    Assert.isTrue(
+        initialInterval != null && initialInterval.toNanos() > 0,
+        "Initial interval must be positive");
+    this.initialInterval = initialInterval;
+  }
+
+  void setMaxInterval(Duration maxInterval) {
+    Assert.isTrue(
+        maxInterval != null && !maxInterval.isNegative(),
+        "Max interval must not be null or negative");
+    this.maxInterval = maxInterval;
+  }
+
+  void setMetricsRecorder(BigQueryJobMetricsRecorder metricsRecorder) {
+    Assert.notNull(metricsRecorder, "BigQueryJobMetricsRecorder must not be null");
+    this.metricsRecorder = metricsRecorder;
+  }
+
+  /**
+   * Starts waiting for a job. The job is cancelled if the returned future is completed
+   * exceptionally, including when it is cancelled.
+   *
+   * @param job the job to wait for
+   * @return a future completed with the job once it is done, or with a {@link BigQueryException}
+   *     if it failed
+   */
+  CompletableFuture<Job> watch(Job job) {
+    PendingJob pendingJob = new PendingJob(job);
+    pendingJobs.add(pendingJob);
+    pendingJob.result.whenComplete(
+        (completedJob, exception) -> {
+          pendingJobs.remove(pendingJob);
+          if (exception != null) {
+            job.cancel();
+          }
+          metricsRecorder.recordJobWait(
+              pendingJob.jobType(),
+              System.nanoTime() - pendingJob.startNanos,
+              pendingJob.statusChecks.get(),
+              exception == null);
+        });
+    schedulePoll(pendingJob.nextCheck);
+    return pendingJob.result;
+  }
+
+  /** Schedules the poller to run at the given time, unless it is scheduled to run earlier. */
+  private void schedulePoll(Instant time) {
+    synchronized (scheduleLock) {
+      if (nextPoll != null) {
+        if (!nextPollTime.isAfter(time)) {
+          return;
+        }
+        nextPoll.cancel(false);
+      }
+      nextPollTime = time;
+      nextPoll = taskScheduler.schedule(this::poll, time);
+    }
+  }
+
+  private void poll() {
+    synchronized (scheduleLock) {
+      nextPoll = null;
+      nextPollTime = null;
+    }
+    Instant now = Instant.now();
+    Instant earliestCheck = null;
+    for (PendingJob pendingJob : pendingJobs) {
+      // A job that is being checked schedules the next poll itself once its check is done.
+      if (pendingJob.checking.get()) {
+        continue;
+      }
+      if (!pendingJob.nextCheck.isAfter(now)) {
+        if (pendingJob.checking.compareAndSet(false, true)) {
+          taskScheduler.schedule(() -> check(pendingJob), now);
+        }
+      } else if (earliestCheck == null || pendingJob.nextCheck.isBefore(earliestCheck)) {
+        earliestCheck = pendingJob.nextCheck;
+      }
+    }
+    if (earliestCheck != null) {
+      schedulePoll(earliestCheck);
+    }
+  }
+
+  private void check(PendingJob pendingJob) {
+    try {
+      pendingJob.check(Instant.now());
+    } finally {
+      pendingJob.checking.set(false);
+    }
+    if (!pendingJob.result.isDone()) {
+      schedulePoll(pendingJob.nextCheck);
+    }
+  }
+
+  private final class PendingJob {
+
+    private final Job job;
+
+    private final CompletableFuture<Job> result = new CompletableFuture<>();
+
+    private final long startNanos = System.nanoTime();
+
+    private Duration interval = initialInterval;
+
+    private volatile Instant nextCheck = Instant.now().plus(interval);
+
+    private final AtomicInteger statusChecks = new AtomicInteger();
+
+    // Set while the status of the job is checked, so that it is checked by one thread at a time.
+    private final AtomicBoolean checking = new AtomicBoolean();
+
+    private PendingJob(Job job) {
+      this.job = job;
+    }
+
+    /** Checks the status of the job, and completes the result or backs off. */
+    private void check(Instant now) {
+      statusChecks.incrementAndGet();
+      try {
+        Job status = job.reload(BigQuery.JobOption.fields(BigQuery.JobField.STATUS));
+        if (status == null) {
+          result.completeExceptionally(
+              new BigQueryException("The job " + job.getJobId() + " no longer exists."));
+        } else if (JobStatus.State.DONE.equals(status.getStatus().getState())) {
+          if (status.getStatus().getError() != null) {
+            result.completeExceptionally(
+                new BigQueryException(status.getStatus().getError().getMessage()));
+          } else {
+            result.complete(job.reload());
+          }
+        } else {
+          interval = min(interval.multipliedBy(BACKOFF_MULTIPLIER), maxInterval);
+          nextCheck = now.plus(interval);
+        }
+      } catch (Exception e) {
+        logger.debug("Failed to check the status of the job {}", job.getJobId(), e);
+        result.completeExceptionally(new BigQueryException(e.getMessage(), e));
+      }
+    }
+
+    private String jobType() {
+      return (job.getConfiguration() != null)
+          ? job.getConfiguration().getType().name()
+          : "UNKNOWN";
+    }
+  }
+
+  private static Duration min(Duration first, Duration second) {
+    return (first.compareTo(second) <= 0) ? first : second;
+  }
+}
@@ -26,21 +26,50 @@ import com.google.cloud.bigquery.storage.v1.Exceptions;
 import com.google.cloud.bigquery.storage.v1.Exceptions.StorageException;
 import com.google.cloud.bigquery.storage.v1.FinalizeWriteStreamResponse;
 import com.google.cloud.bigquery.storage.v1.JsonStreamWriter;
+import com.google.cloud.bigquery.storage.v1.ProtoRows;
+import com.google.cloud.bigquery.storage.v1.StreamWriter;
 import com.google.cloud.bigquery.storage.v1.TableName;
 import com.google.cloud.bigquery.storage.v1.WriteStream;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Descriptors.DescriptorValidationException;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
 import javax.annotation.concurrent.GuardedBy;
 import org.json.JSONArray;
+import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
 
-/** Helper class for using BigQuery storage write API in exactly once delivery mode. */
+/**
+ * Helper class for using BigQuery storage write API in exactly once delivery mode.
+ *
+ * <p>Rows are appended through a {@link JsonStreamWriter}, unless the writer is created with
+ * protobuf row encoding. Rows are then encoded directly as protocol buffer messages by a {@link
+ * BigQueryProtoRowEncoder} derived from the table schema, so newline-delimited JSON is tokenized
+ * without building JSON objects.
+ */
 public class BigQueryJsonDataWriter implements AutoCloseable {
 
-  private final JsonStreamWriter streamWriter;
+  /** Size of the serialized rows above which a batch is appended, below the 10 MB request limit. */
+  private static final int MAX_BATCH_BYTES = 8 * 1024 * 1024;
+
+  // Exactly one of the two stream writers is set, depending on the row encoding.
+  private final JsonStreamWriter jsonStreamWriter;
+
+  private final StreamWriter streamWriter;
+
+  private final BigQueryProtoRowEncoder rowEncoder;
   // Track the number of in-flight requests to wait for all responses before shutting down.
   private final Phaser inflightRequestCount = new Phaser(1);
 
@@ -53,6 +82,12 @@ public class BigQueryJsonDataWriter implements AutoCloseable {
   @GuardedBy("lock")
   private RuntimeException error = null;
 
+  // Offset of the next row appended by appendJsonLines or appendRows.
+  private long nextOffset;
+
+  // Bounds the number of in-flight append requests, if set.
+  private Semaphore inflightRequestPermits;
+
   /**
    * Package-Private constructor for initializing BigQueryJsonDataWriter
    *
@@ -62,6 +97,21 @@ public class BigQueryJsonDataWriter implements AutoCloseable {
    */
   BigQueryJsonDataWriter(TableName parentTable, BigQueryWriteClient bigQueryWriteClient)
       throws DescriptorValidationException, IOException, InterruptedException {
+    this(parentTable, bigQueryWriteClient, false);
+  }
+
+  /**
+   * Package-Private constructor for initializing BigQueryJsonDataWriter
+   *
+   * @param parentTable against which the writer has to be initialized
+   * @param bigQueryWriteClient BigQueryWriteClient reference which has to be used for writing to
+   *     the database
+   * @param protoRowEncoding whether to encode rows with a {@link BigQueryProtoRowEncoder} instead
+   *     of appending them through a {@link JsonStreamWriter}
+   */
+  BigQueryJsonDataWriter(
+      TableName parentTable, BigQueryWriteClient bigQueryWriteClient, boolean protoRowEncoding)
+      throws DescriptorValidationException, IOException, InterruptedException {
     // Initialize a write stream for the specified table.
     // For more information on WriteStream.Type, see:
     // https://googleapis.dev/java/google-cloud-bigquerystorage/latest/com/google/cloud/bigquery/storage/v1/WriteStream.Type.html
@@ -74,11 +124,26 @@ public class BigQueryJsonDataWriter implements AutoCloseable {
             .build();
     WriteStream writeStream = bigQueryWriteClient.createWriteStream(createWriteStreamRequest);
 
-    // Use the JSON stream writer to send records in JSON format.
-    // For more information about JsonStreamWriter, see:
-    // https://googleapis.dev/java/google-cloud-bigquerystorage/latest/com/google/cloud/bigquery/storage/v1beta2/JsonStreamWriter.html
-    streamWriter =
-        JsonStreamWriter.newBuilder(writeStream.getName(), writeStream.getTableSchema(), bigQueryWriteClient).build();
+    if (protoRowEncoding) {
+      // Encode rows with a descriptor derived from the table schema and send them as protobuf
+      // rows.
+      jsonStreamWriter = null;
+      rowEncoder = new BigQueryProtoRowEncoder(writeStream.getTableSchema());
+      streamWriter =
+          StreamWriter.newBuilder(writeStream.getName(), bigQueryWriteClient)
+              .setWriterSchema(rowEncoder.getProtoSchema())
+              .build();
+    } else {
+      // Use the JSON stream writer to send records in JSON format.
+      // For more information about JsonStreamWriter, see:
+      // https://googleapis.dev/java/google-cloud-bigquerystorage/latest/com/google/cloud/bigquery/storage/v1beta2/JsonStreamWriter.html
+      jsonStreamWriter =
+          JsonStreamWriter.newBuilder(
+                  writeStream.getName(), writeStream.getTableSchema(), bigQueryWriteClient)
+              .build();
+      rowEncoder = null;
+      streamWriter = null;
+    }
     this.bigQueryWriteClient = bigQueryWriteClient;
   }
 
@@ -88,17 +153,155 @@ public class BigQueryJsonDataWriter implements AutoCloseable {
    */
   public void append(JSONArray data, long offset)
       throws DescriptorValidationException, IOException {
+    if (jsonStreamWriter == null) {
+      ProtoRows.Builder rows = ProtoRows.newBuilder();
+      for (int i = 0; i < data.length(); i++) {
+        rows.addSerializedRows(rowEncoder.encode(data.getJSONObject(i).toMap()).toByteString());
+      }
+      append(rows.build(), offset);
+      return;
+    }
+    beforeAppend();
+    try {
+      addCallback(jsonStreamWriter.append(data, offset));
+    } catch (DescriptorValidationException | IOException | RuntimeException e) {
+      appendFailed();
+      throw e;
+    }
+  }
+
+  /**
+   * Appends newline-delimited JSON, in batches of at most the given number of rows.
+   *
+   * @param jsonInputStream the newline-delimited JSON, in UTF-8
+   * @param batchSize the maximum number of rows per append request
+   * @return the number of rows appended
+   * @since 6.1.2
+   */
+  public long appendJsonLines(InputStream jsonInputStream, int batchSize) throws IOException {
+    return appendJsonLines(
+        new InputStreamReader(jsonInputStream, StandardCharsets.UTF_8), batchSize);
+  }
+
+  /**
+   * Appends newline-delimited JSON, in batches of at most the given number of rows. Rows are
+   * appended after the rows of earlier calls. With protobuf row encoding, the JSON is read with a
+   * streaming tokenizer; otherwise every line is parsed into a {@link JSONObject}.
+   *
+   * @param jsonReader the newline-delimited JSON
+   * @param batchSize the maximum number of rows per append request
+   * @return the number of rows appended
+   * @since 6.1.2
+   */
+  public long appendJsonLines(Reader jsonReader, int batchSize) throws IOException {
+    if (jsonStreamWriter == null) {
+      return appendJsonLines(new JsonReader(jsonReader), batchSize);
+    }
+    long rowCount = 0;
+    BufferedReader lineReader = new BufferedReader(jsonReader);
+    String jsonLine;
+    JSONArray jsonBatch = new JSONArray();
+    while ((jsonLine = lineReader.readLine()) != null) { // read the input line by line
+      jsonBatch.put(new JSONObject(jsonLine)); // cast the JSON string into JSON Object
+      if (jsonBatch.length() == batchSize) {
+        rowCount += appendJsonBatch(jsonBatch);
+        jsonBatch = new JSONArray();
+      }
+    }
+    // there might be records less than the batch size, append those as well
+    return rowCount + appendJsonBatch(jsonBatch);
+  }
+
+  /** Appends a batch at the next offset, returning the number of rows appended. */
+  private int appendJsonBatch(JSONArray jsonBatch) throws IOException {
+    if (jsonBatch.length() == 0) {
+      return 0;
+    }
+    try {
+      append(jsonBatch, nextOffset);
+    } catch (DescriptorValidationException e) {
+      throw new IOException(e);
+    }
+    nextOffset += jsonBatch.length();
+    return jsonBatch.length();
+  }
+
+  private long appendJsonLines(JsonReader jsonReader, int batchSize) throws IOException {
+    // Lenient parsing accepts a sequence of top-level JSON values.
+    jsonReader.setLenient(true);
+    RowBatcher batcher = new RowBatcher(batchSize);
+    while (jsonReader.peek() != JsonToken.END_DOCUMENT) {
+      batcher.add(rowEncoder.encodeJson(jsonReader).toByteString());
+    }
+    return batcher.finish();
+  }
+
+  /**
+   * Appends rows given as maps, records or JavaBeans, in batches of at most the given number of
+   * rows. Requires protobuf row encoding.
+   *
+   * @param rows the rows
+   * @param batchSize the maximum number of rows per append request
+   * @return the number of rows appended
+   * @see BigQueryProtoRowEncoder#encode(Object)
+   * @since 6.1.2
+   */
+  public long appendRows(Iterable<?> rows, int batchSize) throws IOException {
+    Assert.state(rowEncoder != null, "Appending rows requires protobuf row encoding");
+    RowBatcher batcher = new RowBatcher(batchSize);
+    for (Object row : rows) {
+      batcher.add(rowEncoder.encode(row).toByteString());
+    }
+    return batcher.finish();
+  }
+
+  /**
+   * @param rows serialized rows, encoded with the descriptor of {@link #getRowEncoder()}
+   * @param offset offset at which data has to be added
+   * @since 6.1.2
+   */
+  public void append(ProtoRows rows, long offset) throws IOException {
+    Assert.state(streamWriter != null, "Appending protobuf rows requires protobuf row encoding");
+    beforeAppend();
+    try {
+      addCallback(streamWriter.append(rows, offset));
+    } catch (RuntimeException e) {
+      appendFailed();
+      throw e;
+    }
+  }
+
+  /** Checks for earlier failures and registers an in-flight request, waiting for a permit. */
+  private void beforeAppend() throws IOException {
     synchronized (this.lock) {
       // If earlier appends have failed, we need to reset before continuing.
       if (this.error != null) {
         throw this.error;
       }
     }
+    if (inflightRequestPermits != null) {
+      try {
+        inflightRequestPermits.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for in-flight appends");
+      }
+    }
+    // Increase the count of in-flight requests before the append can complete.
+    inflightRequestCount.register();
+  }
+
+  /** Undoes {@link #beforeAppend()} for an append that failed without returning a future. */
+  private void appendFailed() {
+    if (inflightRequestPermits != null) {
+      inflightRequestPermits.release();
+    }
+    inflightRequestCount.arriveAndDeregister();
+  }
+
+  private void addCallback(ApiFuture<AppendRowsResponse> future) {
     // Append asynchronously for increased throughput.
-    ApiFuture<AppendRowsResponse> future = streamWriter.append(data, offset);
     ApiFutures.addCallback(future, new AppendCompleteCallback(), MoreExecutors.directExecutor());
-    // Increase the count of in-flight requests.
-    inflightRequestCount.register();
   }
 
   /** Call this method before committing the stream */
@@ -115,18 +318,90 @@ public class BigQueryJsonDataWriter implements AutoCloseable {
 
     // Finalize the stream.
     FinalizeWriteStreamResponse finalizeResponse =
-        bigQueryWriteClient.finalizeWriteStream(streamWriter.getStreamName());
+        bigQueryWriteClient.finalizeWriteStream(getStreamName());
     logger.info("Rows written: {}", finalizeResponse.getRowCount());
   }
 
   public String getStreamName() {
-    return streamWriter.getStreamName();
+    return (jsonStreamWriter != null)
+        ? jsonStreamWriter.getStreamName()
+        : streamWriter.getStreamName();
+  }
+
+  /**
+   * Limits the number of append requests awaiting a response; further appends block until a
+   * response arrives. Must be called before appending. Unlimited by default.
+   *
+   * @param maxInflightRequests the maximum number of in-flight append requests
+   * @since 6.1.2
+   */
+  public void setMaxInflightRequests(int maxInflightRequests) {
+    Assert.isTrue(maxInflightRequests > 0, "Max in-flight requests must be positive");
+    inflightRequestPermits = new Semaphore(maxInflightRequests);
+  }
+
+  /**
+   * Returns the encoder of the rows, if the writer uses protobuf row encoding.
+   *
+   * @return the row encoder, or {@code null} if rows are appended through a {@link
+   *     JsonStreamWriter}
+   */
+  public BigQueryProtoRowEncoder getRowEncoder() {
+    return rowEncoder;
   }
 
   @Override
   public void close() {
     // Close the connection to the server.
-    streamWriter.close();
+    if (jsonStreamWriter != null) {
+      jsonStreamWriter.close();
+    } else {
+      streamWriter.close();
+    }
+  }
+
+  /** Collects serialized rows into append requests limited by row count and size. */
+  private class RowBatcher {
+
+    private final int batchSize;
+
+    private ProtoRows.Builder batch = ProtoRows.newBuilder();
+
+    private long batchBytes;
+
+    private long rowCount;
+
+    RowBatcher(int batchSize) {
+      this.batchSize = batchSize;
+    }
+
+    void add(ByteString row) throws IOException {
+      if (batch.getSerializedRowsCount() > 0 && batchBytes + row.size() > MAX_BATCH_BYTES) {
+        flush();
+      }
+      batch.addSerializedRows(row);
+      batchBytes += row.size();
+      if (batch.getSerializedRowsCount() >= batchSize) {
+        flush();
+      }
+    }
+
+    long finish() throws IOException {
+      flush();
+      return rowCount;
+    }
+
+    private void flush() throws IOException {
+      if (batch.getSerializedRowsCount() == 0) {
+        return;
+      }
+      int batchRowCount = batch.getSerializedRowsCount();
+      append(batch.build(), nextOffset);
+      nextOffset += batchRowCount;
+      rowCount += batchRowCount;
+      batch = ProtoRows.newBuilder();
+      batchBytes = 0;
+    }
   }
 
   class AppendCompleteCallback implements ApiFutureCallback<AppendRowsResponse> {
@@ -151,6 +426,9 @@ public class BigQueryJsonDataWriter implements AutoCloseable {
     }
 
     private void done() {
+      if (inflightRequestPermits != null) {
+        inflightRequestPermits.release();
+      }
       // Reduce the count of in-flight requests.
       inflightRequestCount.arriveAndDeregister();
     }
@@ -0,0 +1,562 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.bigquery.storage.v1.AppendRowsResponse;
+import com.google.cloud.bigquery.storage.v1.BigQueryWriteClient;
+import com.google.cloud.bigquery.storage.v1.CreateWriteStreamRequest;
+import com.google.cloud.bigquery.storage.v1.Exceptions;
+import com.google.cloud.bigquery.storage.v1.JsonStreamWriter;
+import com.google.cloud.bigquery.storage.v1.TableName;
+import com.google.cloud.bigquery.storage.v1.WriteStream;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.Descriptors.DescriptorValidationException;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.concurrent.GuardedBy;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.Assert;
+
+/**
+ * A long-lived, thread-safe writer that continuously appends JSON rows to a BigQuery table through
+ * the BigQuery Storage Write API, with the rows visible as soon as they are written.
+ *
+ * <p>Rows are collected into batches that are sent when they reach a number of rows or bytes, or
+ * when the oldest row has waited for the linger time. The future returned for each row completes
+ * once the batch containing it has been written.
+ *
+ * <p>In {@link StreamMode#DEFAULT} mode, rows are appended to the table's default stream, which
+ * gives at-least-once semantics. Failed batches are only sent again, on a new stream, when the
+ * stream broke.
+ *
+ * <p>In {@link StreamMode#COMMITTED} mode, rows are appended to an application-created committed
+ * stream at tracked offsets. A failed batch is sent again on the same stream at its original
+ * offset, so that a batch whose response was lost is not written twice: the service reports the
+ * offset as already written and the batch completes. Only when the stream itself is broken
+ * (finalized, not found or its writer closed), or when a batch fails for good and leaves a gap in
+ * the offsets, is a new stream created; batches sent again on the new stream get new offsets and
+ * are written at least once instead of exactly once. Each batch is sent again at most {@link
+ * #setMaxRetryAttempts(int)} times.
+ *
+ * <p>Full batches are sent by the thread that filled them, unless another thread is already sending,
+ * in which case that thread sends them. Batches are always sent in the order they were filled, and
+ * batches sent again after a failure are sent before newer ones, by the task scheduler rather than
+ * by the thread completing the failed append. Once {@link #setMaxPendingBatches(int)} batches are
+ * waiting to be sent or to complete, {@link #append(JSONObject)} blocks until one of them
+ * completes.
+ *
+ * @since 6.1.2
+ */
+public class BigQueryJsonStreamAppender implements AutoCloseable {
+
+  /** The kind of write stream rows are appended to. */
+  public enum StreamMode {
+    /** The default stream of the table, shared by all writers. */
+    DEFAULT,
+
+    /** A committed stream created by this appender, written at explicit offsets. */
+    COMMITTED
+  }
+
+  /** Default maximum number of rows per append request. */
+  public static final int DEFAULT_MAX_BATCH_ROWS = 1000;
+
+  /** Default maximum size, in bytes of JSON, of the rows of an append request. */
+  public static final long DEFAULT_MAX_BATCH_BYTES = 5L * 1024 * 1024;
+
+  /** Default maximum time a row waits for its batch to fill up. */
+  public static final Duration DEFAULT_LINGER = Duration.ofMillis(100);
+
+  /** Default number of times a failed batch is sent again. */
+  public static final int DEFAULT_MAX_RETRY_ATTEMPTS = 3;
+
+  /** Default maximum number of batches waiting to be sent or to complete. */
+  public static final int DEFAULT_MAX_PENDING_BATCHES = 16;
+
+  private final Logger logger = LoggerFactory.getLogger(BigQueryJsonStreamAppender.class);
+
+  private final BigQueryWriteClient bigQueryWriteClient;
+
+  private final TableName parentTable;
+
+  private final StreamMode streamMode;
+
+  private final TaskScheduler taskScheduler;
+
+  private int maxBatchRows = DEFAULT_MAX_BATCH_ROWS;
+
+  private long maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+
+  private Duration linger = DEFAULT_LINGER;
+
+  private int maxRetryAttempts = DEFAULT_MAX_RETRY_ATTEMPTS;
+
+  private int maxPendingBatches = DEFAULT_MAX_PENDING_BATCHES;
+
+  private final Object lock = new Object();
+
+  /** Held by the thread sending batches; never held while waiting for {@link #lock}. */
+  private final Lock sendLock = new ReentrantLock();
+
+  /** Batches to send, oldest first, so that batches sent again precede newer ones. */
+  private final Queue<PendingSend> sendQueue =
+      new PriorityBlockingQueue<>(
+          DEFAULT_MAX_PENDING_BATCHES,
+          Comparator.comparingLong(pendingSend -> pendingSend.batch.sequence));
+
+  private final Set<CompletableFuture<Void>> pendingBatches = ConcurrentHashMap.newKeySet();
+
+  /** Notified when a pending batch completes. */
+  private final Object capacityMonitor = new Object();
+
+  /** Writers whose appends failed in a way that requires a new write stream. */
+  private final Set<JsonStreamWriter> brokenWriters = ConcurrentHashMap.newKeySet();
+
+  /** Written while holding {@link #sendLock}, read by append callbacks. */
+  private volatile JsonStreamWriter streamWriter;
+
+  @GuardedBy("sendLock")
+  private long nextOffset;
+
+  @GuardedBy("lock")
+  private Batch currentBatch;
+
+  @GuardedBy("lock")
+  private long batchSequence;
+
+  @GuardedBy("lock")
+  private boolean closed;
+
+  /**
+   * Create an appender. The write stream is only opened by the first batch.
+   *
+   * @param bigQueryWriteClient the client of the BigQuery Storage Write API
+   * @param parentTable the table to write to
+   * @param streamMode the kind of write stream to append to
+   * @param taskScheduler the scheduler sending batches after the linger time
+   */
+  public BigQueryJsonStreamAppender(
+      BigQueryWriteClient bigQueryWriteClient,
+      TableName parentTable,
+      StreamMode streamMode,
+      TaskScheduler taskScheduler) {
+    Assert.notNull(bigQueryWriteClient, "BigQueryWriteClient must not be null");
+    Assert.notNull(parentTable, "Parent table must not be null");
+    Assert.notNull(streamMode, "Stream mode must not be null");
+    Assert.notNull(taskScheduler, "TaskScheduler must not be null");
+    this.bigQueryWriteClient = bigQueryWriteClient;
+    this.parentTable = parentTable;
+    this.streamMode = streamMode;
+    this.taskScheduler = taskScheduler;
+  }
+
+  /**
+   * Sets the maximum number of rows sent in one append request.
+   *
+   * @param maxBatchRows the maximum number of rows. Default is 1000.
+   */
+  public void setMaxBatchRows(int maxBatchRows) {
+    Assert.isTrue(maxBatchRows > 0, "Maximum batch rows must be positive");
+    this.maxBatchRows = maxBatchRows;
+  }
+
+  /**
+   * Sets the maximum size of the rows sent in one append request, estimated from the lengths of
+   * their keys and string values. Append requests are limited to 10 MB.
+   *
+   * @param maxBatchBytes the maximum size in bytes. Default is 5 MiB.
+   */
+  public void setMaxBatchBytes(long maxBatchBytes) {
+    Assert.isTrue(maxBatchBytes > 0, "Maximum batch bytes must be positive");
+    this.maxBatchBytes = maxBatchBytes;
+  }
+
+  /**
+   * Sets the maximum time a row waits for its batch to fill up before the batch is sent.
+   *
+   * @param linger the linger time. Default is 100 milliseconds.
+   */
+  public void setLinger(Duration linger) {
+    Assert.isTrue(linger != null && !linger.isNegative(), "Linger must not be null or negative");
+    this.linger = linger;
+  }
+
+  /**
+   * Sets how many times a failed batch is sent again: on the same stream in {@link
+   * StreamMode#COMMITTED} mode unless the stream broke, and on a new stream otherwise. Batches with
+   * rows the table rejects are never sent again.
+   *
+   * @param maxRetryAttempts the number of attempts. Default is 3.
+   */
+  public void setMaxRetryAttempts(int maxRetryAttempts) {
+    Assert.isTrue(maxRetryAttempts >= 0, "Maximum retry attempts must not be negative");
+    this.maxRetryAttempts = maxRetryAttempts;
+  }
+
+  /**
+   * Sets the maximum number of batches waiting to be sent or to complete before {@link
+   * #append(JSONObject)} blocks, which bounds the memory held by rows not yet written.
+   *
+   * @param maxPendingBatches the maximum number of batches. Default is 16.
+   */
+  public void setMaxPendingBatches(int maxPendingBatches) {
+    Assert.isTrue(maxPendingBatches > 0, "Maximum pending batches must be positive");
+    this.maxPendingBatches = maxPendingBatches;
+  }
+
+  public StreamMode getStreamMode() {
+    return this.streamMode;
+  }
+
+  /**
+   * Appends a row to the current batch. Blocks while the maximum number of pending batches is
+   * exceeded.
+   *
+   * @param row the row to append
+   * @return a future completing when the batch containing the row has been written, or
+   *     exceptionally with a {@link BigQueryException}
+   */
+  public CompletableFuture<Void> append(JSONObject row) {
+    Assert.notNull(row, "Row must not be null");
+    CompletableFuture<Void> rowFuture = new CompletableFuture<>();
+    long rowBytes = estimateSize(row);
+    synchronized (this.lock) {
+      Assert.state(!this.closed, "The appender is closed");
+      if (this.currentBatch == null) {
+        Batch batch = new Batch(this.batchSequence++);
+        batch.lingerFuture =
+            this.taskScheduler.schedule(
+                () -> sendIfCurrent(batch), Instant.now().plus(this.linger));
+        this.currentBatch = batch;
+      }
+      this.currentBatch.add(row, rowBytes, rowFuture);
+      if (this.currentBatch.rows.length() >= this.maxBatchRows
+          || this.currentBatch.bytes >= this.maxBatchBytes) {
+        queueCurrentBatch();
+      }
+    }
+    drainSendQueue();
+    awaitCapacity();
+    return rowFuture;
+  }
+
+  /**
+   * Sends the current batch without waiting for the linger time.
+   *
+   * @return a future completing when all batches sent so far have completed
+   */
+  public CompletableFuture<Void> flush() {
+    synchronized (this.lock) {
+      queueCurrentBatch();
+    }
+    drainSendQueue();
+    return CompletableFuture.allOf(this.pendingBatches.toArray(new CompletableFuture<?>[0]))
+        .exceptionally(ex -> null);
+  }
+
+  /** Sends the current batch, waits for all batches to complete and closes the write stream. */
+  @Override
+  public void close() {
+    synchronized (this.lock) {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+    }
+    flush().join();
+    this.sendLock.lock();
+    try {
+      if (this.streamWriter != null) {
+        this.streamWriter.close();
+        this.streamWriter = null;
+      }
+    } finally {
+      this.sendLock.unlock();
+    }
+  }
+
+  @VisibleForTesting
+  JsonStreamWriter createStreamWriter()
+      throws DescriptorValidationException, IOException, InterruptedException {
+    if (this.streamMode == StreamMode.DEFAULT) {
+      // The table name selects the default stream and fetches the table schema.
+      return JsonStreamWriter.newBuilder(this.parentTable.toString(), this.bigQueryWriteClient)
+          .build();
+    }
+    WriteStream writeStream =
+        this.bigQueryWriteClient.createWriteStream(
+            CreateWriteStreamRequest.newBuilder()
+                .setParent(this.parentTable.toString())
+                .setWriteStream(WriteStream.newBuilder().setType(WriteStream.Type.COMMITTED))
+                .build());
+    return JsonStreamWriter.newBuilder(
+            writeStream.getName(), writeStream.getTableSchema(), this.bigQueryWriteClient)
+        .build();
+  }
+
+  private void sendIfCurrent(Batch batch) {
+    synchronized (this.lock) {
+      if (this.currentBatch == batch) {
+        queueCurrentBatch();
+      }
+    }
+    drainSendQueue();
+  }
+
+  @GuardedBy("lock")
+  private void queueCurrentBatch() {
+    Batch batch = this.currentBatch;
+    if (batch == null) {
+      return;
+    }
+    this.currentBatch = null;
+    batch.lingerFuture.cancel(false);
+    this.pendingBatches.add(batch.future);
+    batch.future.whenComplete(
+        (result, ex) -> {
+          this.pendingBatches.remove(batch.future);
+          synchronized (this.capacityMonitor) {
+            this.capacityMonitor.notifyAll();
+          }
+        });
+    this.sendQueue.add(new PendingSend(batch, 0));
+  }
+
+  /** Waits while more batches than allowed are waiting to be sent or to complete. */
+  private void awaitCapacity() {
+    synchronized (this.capacityMonitor) {
+      while (this.pendingBatches.size() > this.maxPendingBatches) {
+        try {
+          this.capacityMonitor.wait();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /** Sends the queued batches, unless another thread is already sending them. */
+  private void drainSendQueue() {
+    while (!this.sendQueue.isEmpty() && this.sendLock.tryLock()) {
+      try {
+        PendingSend pendingSend;
+        while ((pendingSend = this.sendQueue.poll()) != null) {
+          send(pendingSend.batch, pendingSend.attempt);
+        }
+      } finally {
+        this.sendLock.unlock();
+      }
+    }
+  }
+
+  @GuardedBy("sendLock")
+  private void send(Batch batch, int attempt) {
+    JsonStreamWriter writer;
+    ApiFuture<AppendRowsResponse> response;
+    try {
+      writer = getStreamWriter();
+      if (this.streamMode == StreamMode.COMMITTED) {
+        if (batch.writer != writer) {
+          // First attempt, or the previous stream of the batch broke: the rows get new offsets.
+          batch.writer = writer;
+          batch.offset = this.nextOffset;
+          this.nextOffset += batch.rows.length();
+        }
+        response = writer.append(batch.rows, batch.offset);
+      } else {
+        response = writer.append(batch.rows);
+      }
+    } catch (Exception ex) {
+      if (ex instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      batch.fail(ex);
+      return;
+    }
+    ApiFutures.addCallback(
+        response,
+        new ApiFutureCallback<AppendRowsResponse>() {
+          @Override
+          public void onSuccess(AppendRowsResponse appendRowsResponse) {
+            batch.complete();
+          }
+
+          @Override
+          public void onFailure(Throwable throwable) {
+            handleFailure(batch, attempt, writer, throwable);
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  private void handleFailure(Batch batch, int attempt, JsonStreamWriter writer, Throwable failure) {
+    if (failure instanceof Exceptions.OffsetAlreadyExists) {
+      // The rows were already written at these offsets by an earlier attempt.
+      batch.complete();
+      return;
+    }
+    boolean broken =
+        writer != this.streamWriter
+            || this.brokenWriters.contains(writer)
+            || isBroken(writer, failure);
+    boolean rejectedRows = failure instanceof Exceptions.AppendSerializationError;
+    boolean retry =
+        !rejectedRows
+            && attempt < this.maxRetryAttempts
+            && (broken || this.streamMode == StreamMode.COMMITTED);
+    if (broken || (!retry && this.streamMode == StreamMode.COMMITTED)) {
+      // A batch that is not sent again leaves a gap that later offsets can't be written after.
+      this.brokenWriters.add(writer);
+    }
+    if (!retry) {
+      batch.fail(failure);
+      return;
+    }
+    // Creating a new write stream blocks, so it doesn't run on the thread of the callback.
+    this.sendQueue.add(new PendingSend(batch, attempt + 1));
+    this.taskScheduler.schedule(this::drainSendQueue, Instant.now());
+  }
+
+  /** Returns whether the stream of a writer can't be appended to anymore. */
+  private static boolean isBroken(JsonStreamWriter writer, Throwable failure) {
+    return writer.isClosed()
+        || failure instanceof Exceptions.StreamWriterClosedException
+        || failure instanceof Exceptions.StreamFinalizedException
+        || failure instanceof Exceptions.StreamNotFound;
+  }
+
+  @GuardedBy("sendLock")
+  private JsonStreamWriter getStreamWriter()
+      throws DescriptorValidationException, IOException, InterruptedException {
+    JsonStreamWriter writer = this.streamWriter;
+    if (writer != null && this.brokenWriters.contains(writer)) {
+      this.logger.warn("Write stream {} broke, sending pending batches on a new stream", writer.getStreamName());
+      this.streamWriter = null;
+      writer.close();
+    }
+    if (this.streamWriter == null) {
+      this.brokenWriters.clear();
+      this.streamWriter = createStreamWriter();
+      this.nextOffset = 0;
+    }
+    return this.streamWriter;
+  }
+
+  /**
+   * Estimates the size of a JSON value from the lengths of its keys and string values, without
+   * serializing it.
+   */
+  private static long estimateSize(Object value) {
+    if (value instanceof JSONObject jsonObject) {
+      long size = 2;
+      for (String key : jsonObject.keySet()) {
+        size += key.length() + 4 + estimateSize(jsonObject.opt(key));
+      }
+      return size;
+    }
+    if (value instanceof JSONArray jsonArray) {
+      long size = 2;
+      for (Object element : jsonArray) {
+        size += estimateSize(element) + 1;
+      }
+      return size;
+    }
+    if (value instanceof CharSequence text) {
+      return text.length() + 2L;
+    }
+    return 8;
+  }
+
+  /** A batch waiting to be sent, with the number of times it was sent before. */
+  private static final class PendingSend {
+
+    private final Batch batch;
+
+    private final int attempt;
+
+    private PendingSend(Batch batch, int attempt) {
+      this.batch = batch;
+      this.attempt = attempt;
+    }
+  }
+
+  /** Rows sent in one append request, with the futures of the rows. */
+  private final class Batch {
+
+    /** The position of the batch in the order batches were filled. */
+    private final long sequence;
+
+    private final JSONArray rows = new JSONArray();
+
+    private final List<CompletableFuture<Void>> rowFutures = new ArrayList<>();
+
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private long bytes;
+
+    private ScheduledFuture<?> lingerFuture;
+
+    /** The writer of the committed stream the batch was last sent to, set while sending. */
+    private JsonStreamWriter writer;
+
+    /** The offset of the batch in the committed stream of {@link #writer}. */
+    private long offset;
+
+    private Batch(long sequence) {
+      this.sequence = sequence;
+    }
+
+    private void add(JSONObject row, long rowBytes, CompletableFuture<Void> rowFuture) {
+      this.rows.put(row);
+      this.rowFutures.add(rowFuture);
+      this.bytes += rowBytes;
+    }
+
+    private void complete() {
+      this.rowFutures.forEach(rowFuture -> rowFuture.complete(null));
+      this.future.complete(null);
+    }
+
+    private void fail(Throwable failure) {
+      BigQueryException exception =
+          new BigQueryException("Failed to append rows to " + parentTable, failure);
+      this.rowFutures.forEach(rowFuture -> rowFuture.completeExceptionally(exception));
+      this.future.completeExceptionally(exception);
+    }
+  }
+}
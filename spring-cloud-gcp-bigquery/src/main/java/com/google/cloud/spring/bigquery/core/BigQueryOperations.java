@@ -20,7 +20,10 @@ import com.google.cloud.bigquery.FormatOptions;
 import com.google.cloud.bigquery.Job;
 import com.google.cloud.bigquery.Schema;
 import java.io.InputStream;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Defines operations for use with BigQuery.
@@ -91,4 +94,72 @@ public interface BigQueryOperations {
    */
   CompletableFuture<WriteApiResponse> writeJsonStream(
       String tableName, InputStream jsonInputStream, Schema schema);
+
+  /**
+   * Uses BigQuery Storage Write API to write rows given as maps, records or JavaBeans to the
+   * specified table. The rows are encoded as protocol buffer messages using the table schema,
+   * without going through JSON. The Table should already be created.
+   *
+   * @param tableName name of the table to write to
+   * @param rows the rows to be written, whose column names match map keys, record components or
+   *     bean properties
+   * @return {@link CompletableFuture} containing the WriteApiResponse indicating completion of
+   *     operation
+   * @since 6.1.2
+   */
+  CompletableFuture<WriteApiResponse> writeRows(String tableName, Iterable<?> rows);
+
+  /**
+   * Creates a long-lived appender that continuously writes JSON rows to the default stream of the
+   * specified table using the BigQuery Storage Write API. The table should already be created.
+   *
+   * @param tableName name of the table to write to
+   * @return the appender, to be closed when no longer needed
+   * @since 6.1.2
+   */
+  BigQueryJsonStreamAppender createJsonStreamAppender(String tableName);
+
+  /**
+   * Creates a long-lived appender that continuously writes JSON rows to the specified table using
+   * the BigQuery Storage Write API. The table should already be created.
+   *
+   * @param tableName name of the table to write to
+   * @param streamMode whether to write to the default stream or to a committed stream at tracked
+   *     offsets
+   * @return the appender, to be closed when no longer needed
+   * @since 6.1.2
+   */
+  BigQueryJsonStreamAppender createJsonStreamAppender(
+      String tableName, BigQueryJsonStreamAppender.StreamMode streamMode);
+
+  /**
+   * Reads the rows of the specified table using the BigQuery Storage Read API, consuming several
+   * read streams concurrently. The returned stream must be closed to stop reading early.
+   *
+   * @param tableName name of the table to read
+   * @param readOptions the columns, row restriction and parallelism of the read
+   * @param rowMapper the function mapping each row, given as a map from column names to values
+   * @param <T> the type of the mapped rows
+   * @return the stream of mapped rows
+   * @since 6.1.2
+   */
+  <T> Stream<T> readTable(
+      String tableName,
+      BigQueryReadOptions readOptions,
+      Function<Map<String, Object>, T> rowMapper);
+
+  /**
+   * Runs a query and reads its result using the BigQuery Storage Read API, consuming several read
+   * streams concurrently. The returned stream must be closed to stop reading early.
+   *
+   * @param query the SQL query to run
+   * @param readOptions the columns, row restriction and parallelism of the read of the result
+   * @param rowMapper the function mapping each row, given as a map from column names to values
+   * @param <T> the type of the mapped rows
+   * @return {@link CompletableFuture} containing the stream of mapped rows once the query has
+   *     completed, or completed with a {@link BigQueryException} if the query fails
+   * @since 6.1.2
+   */
+  <T> CompletableFuture<Stream<T>> queryForStream(
+      String query, BigQueryReadOptions readOptions, Function<Map<String, Object>, T> rowMapper);
 }
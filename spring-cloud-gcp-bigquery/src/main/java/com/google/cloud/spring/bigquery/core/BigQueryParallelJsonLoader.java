@@ -0,0 +1,213 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.util.Assert;
+
+/**
+ * Loads newline-delimited JSON into several pending write streams concurrently.
+ *
+ * <p>The calling thread splits the input into chunks of whole lines, which are handed round-robin
+ * to one worker per stream. Each worker encodes its chunks and appends them to its stream, so
+ * parsing and network I/O of the streams run in parallel while the rows of every stream keep
+ * consecutive offsets. Every worker holds at most {@value #QUEUED_CHUNKS} chunks waiting, which
+ * bounds the memory used when reading outpaces writing.
+ *
+ * <p>The streams are neither finalized nor committed by the loader.
+ */
+class BigQueryParallelJsonLoader {
+
+  private static final int QUEUED_CHUNKS = 2;
+
+  private static final Chunk END_OF_INPUT = new Chunk("");
+
+  private final List<BigQueryJsonDataWriter> writers;
+
+  private final Executor executor;
+
+  private final int batchSize;
+
+  private final AtomicBoolean failed = new AtomicBoolean();
+
+  private final AtomicLong rowCount = new AtomicLong();
+
+  /**
+   * Create a loader appending to the given writers.
+   *
+   * @param writers the writers of the pending streams to load into
+   * @param executor the executor running one worker per writer
+   * @param batchSize the number of lines per chunk, and the maximum number of rows per append
+   */
+  BigQueryParallelJsonLoader(
+      List<BigQueryJsonDataWriter> writers, Executor executor, int batchSize) {
+    Assert.notEmpty(writers, "Writers must not be empty");
+    Assert.notNull(executor, "Executor must not be null");
+    Assert.isTrue(batchSize > 0, "Batch size must be positive");
+    this.writers = writers;
+    this.executor = executor;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Appends all lines of the input, and waits until all rows have been handed to the writers.
+   *
+   * @param jsonInputStream the newline-delimited JSON, in UTF-8
+   * @return the number of rows appended
+   * @throws IOException if the input can't be read or the rows can't be appended
+   */
+  long load(InputStream jsonInputStream) throws IOException {
+    List<Worker> workers = new ArrayList<>(writers.size());
+    for (BigQueryJsonDataWriter writer : writers) {
+      Worker worker = new Worker(writer);
+      worker.future = CompletableFuture.runAsync(worker, executor);
+      workers.add(worker);
+    }
+
+    try {
+      split(jsonInputStream, workers);
+      for (Worker worker : workers) {
+        worker.offer(END_OF_INPUT);
+      }
+    } catch (IOException | RuntimeException e) {
+      failed.set(true);
+      workers.forEach(Worker::abort);
+      // Report the failure of a worker, which likely caused the reading to stop.
+      awaitWorkers(workers);
+      throw e;
+    }
+    awaitWorkers(workers);
+    return rowCount.get();
+  }
+
+  private void split(InputStream jsonInputStream, List<Worker> workers) throws IOException {
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(jsonInputStream, StandardCharsets.UTF_8));
+    StringBuilder chunk = new StringBuilder();
+    int lineCount = 0;
+    int nextWorker = 0;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (line.isBlank()) {
+        continue;
+      }
+      chunk.append(line).append('\n');
+      if (++lineCount == batchSize) {
+        workers.get(nextWorker).offer(new Chunk(chunk.toString()));
+        nextWorker = (nextWorker + 1) % workers.size();
+        chunk.setLength(0);
+        lineCount = 0;
+      }
+    }
+    if (lineCount > 0) {
+      workers.get(nextWorker).offer(new Chunk(chunk.toString()));
+    }
+  }
+
+  private static void awaitWorkers(List<Worker> workers) throws IOException {
+    Throwable failure = null;
+    for (Worker worker : workers) {
+      try {
+        worker.future.join();
+      } catch (CompletionException e) {
+        failure = (failure != null) ? failure : e.getCause();
+      }
+    }
+    if (failure instanceof UncheckedIOException uncheckedIoException) {
+      throw uncheckedIoException.getCause();
+    }
+    if (failure instanceof RuntimeException runtimeException) {
+      throw runtimeException;
+    }
+    if (failure != null) {
+      throw new IOException("Failed to append records.", failure);
+    }
+  }
+
+  private record Chunk(String lines) {}
+
+  /** Encodes and appends the chunks of one stream. */
+  private final class Worker implements Runnable {
+
+    private final BigQueryJsonDataWriter writer;
+
+    private final BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+
+    private CompletableFuture<Void> future;
+
+    private Worker(BigQueryJsonDataWriter writer) {
+      this.writer = writer;
+    }
+
+    @Override
+    public void run() {
+      try {
+        Chunk chunk;
+        while (!failed.get() && (chunk = chunks.take()) != END_OF_INPUT) {
+          rowCount.addAndGet(writer.appendJsonLines(new StringReader(chunk.lines()), batchSize));
+        }
+      } catch (IOException e) {
+        failed.set(true);
+        throw new UncheckedIOException(e);
+      } catch (InterruptedException e) {
+        failed.set(true);
+        Thread.currentThread().interrupt();
+        throw new UncheckedIOException(new InterruptedIOException("Interrupted while appending"));
+      } catch (RuntimeException e) {
+        failed.set(true);
+        throw e;
+      }
+    }
+
+    /** Waits for room in the queue, unless the load has failed. */
+    private void offer(Chunk chunk) throws IOException {
+      try {
+        while (failed.get() || !chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+          if (failed.get() || future.isDone()) {
+            throw new IOException("Stopped reading after a failure to append records.");
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while reading records");
+      }
+    }
+
+    /** Wakes the worker up, if it is waiting for a chunk. */
+    private void abort() {
+      chunks.clear();
+      chunks.offer(END_OF_INPUT);
+    }
+  }
+}
@@ -0,0 +1,464 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import com.google.cloud.bigquery.storage.v1.ProtoSchema;
+import com.google.cloud.bigquery.storage.v1.ProtoSchemaConverter;
+import com.google.cloud.bigquery.storage.v1.TableFieldSchema;
+import com.google.cloud.bigquery.storage.v1.TableSchema;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.DescriptorValidationException;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.DynamicMessage;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.Assert;
+
+/**
+ * Encodes rows as protocol buffer messages described by a descriptor derived from a BigQuery
+ * table schema, for appending them through the BigQuery Storage Write API without going through
+ * a JSON object model.
+ *
+ * <p>Rows can be given as maps from column names to values, as records or JavaBeans whose
+ * component or property names match the column names, or as JSON objects read from a streaming
+ * {@link JsonReader}. Column names are matched case-insensitively, and unknown columns are
+ * rejected. Values are converted according to the column type:
+ *
+ * <ul>
+ *   <li>{@code INT64} and {@code FLOAT64} from numbers or their string representation; {@code
+ *       INT64} values must be integral
+ *   <li>{@code BOOL} from booleans or the strings {@code true} and {@code false}, ignoring case
+ *   <li>{@code BYTES} from byte arrays, {@link ByteBuffer}, {@link ByteString} or base64 strings
+ *   <li>{@code DATE} from {@link LocalDate}, ISO dates or days since the epoch
+ *   <li>{@code TIMESTAMP} from {@link Instant}, {@link OffsetDateTime}, {@link ZonedDateTime},
+ *       microseconds since the epoch, or timestamps such as {@code 2024-01-01 12:00:00 UTC}, with
+ *       a {@code T} or a space before the time and an optional offset, {@code Z} or {@code UTC}
+ *       suffix; timestamps without an offset are in UTC
+ *   <li>{@code STRUCT} from nested rows
+ *   <li>other types, such as {@code NUMERIC}, {@code DATETIME} or {@code JSON}, from their string
+ *       representation
+ * </ul>
+ *
+ * @since 6.1.2
+ */
+public class BigQueryProtoRowEncoder {
+
+  /** Timestamps in the canonical formats accepted by BigQuery. */
+  private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+      new DateTimeFormatterBuilder()
+          .append(DateTimeFormatter.ISO_LOCAL_DATE)
+          .optionalStart()
+          .appendLiteral('T')
+          .optionalEnd()
+          .optionalStart()
+          .appendLiteral(' ')
+          .optionalEnd()
+          .append(DateTimeFormatter.ISO_LOCAL_TIME)
+          .optionalStart()
+          .appendLiteral(' ')
+          .optionalEnd()
+          .optionalStart()
+          .appendLiteral("UTC")
+          .optionalEnd()
+          .optionalStart()
+          .appendOffsetId()
+          .optionalEnd()
+          .toFormatter();
+
+  private final MessageCodec rootCodec;
+
+  private final ProtoSchema protoSchema;
+
+  private final Map<Class<?>, Map<String, Method>> accessorCache = new ConcurrentHashMap<>();
+
+  /**
+   * Create an encoder for the rows of a table.
+   *
+   * @param tableSchema the schema of the table, as returned when creating a write stream
+   * @throws DescriptorValidationException if no descriptor can be derived from the schema
+   */
+  public BigQueryProtoRowEncoder(TableSchema tableSchema) throws DescriptorValidationException {
+    Assert.notNull(tableSchema, "Table schema must not be null");
+    DescriptorProto.Builder rootMessage = DescriptorProto.newBuilder().setName("TableRow");
+    addFields(rootMessage, tableSchema.getFieldsList());
+    FileDescriptor file =
+        FileDescriptor.buildFrom(
+            FileDescriptorProto.newBuilder().addMessageType(rootMessage).build(),
+            new FileDescriptor[0]);
+    Descriptor descriptor = file.findMessageTypeByName("TableRow");
+    this.rootCodec = new MessageCodec(descriptor, tableSchema.getFieldsList());
+    this.protoSchema = ProtoSchemaConverter.convert(descriptor);
+  }
+
+  public Descriptor getDescriptor() {
+    return this.rootCodec.descriptor;
+  }
+
+  /**
+   * Returns the schema to set on a {@code StreamWriter} appending the encoded rows.
+   *
+   * @return the writer schema
+   */
+  public ProtoSchema getProtoSchema() {
+    return this.protoSchema;
+  }
+
+  /**
+   * Encodes a row given as a map, a record or a JavaBean.
+   *
+   * @param row the row
+   * @return the encoded row
+   * @throws IllegalArgumentException if the row has unknown columns or values of the wrong type
+   */
+  public DynamicMessage encode(Object row) {
+    Assert.notNull(row, "Row must not be null");
+    return this.rootCodec.encode(row);
+  }
+
+  /**
+   * Encodes the next JSON object read from a streaming reader.
+   *
+   * @param jsonReader the reader, positioned before a JSON object
+   * @return the encoded row
+   * @throws IOException if the JSON can't be read
+   * @throws IllegalArgumentException if the row has unknown columns or values of the wrong type
+   */
+  public DynamicMessage encodeJson(JsonReader jsonReader) throws IOException {
+    return this.rootCodec.encodeJson(jsonReader);
+  }
+
+  /** Adds fields, and nested message types for structs, to a message type. */
+  private static void addFields(DescriptorProto.Builder message, List<TableFieldSchema> fields) {
+    for (int i = 0; i < fields.size(); i++) {
+      TableFieldSchema field = fields.get(i);
+      FieldDescriptorProto.Builder protoField =
+          FieldDescriptorProto.newBuilder()
+              .setName(field.getName())
+              .setNumber(i + 1)
+              .setLabel(
+                  (field.getMode() == TableFieldSchema.Mode.REPEATED)
+                      ? FieldDescriptorProto.Label.LABEL_REPEATED
+                      : FieldDescriptorProto.Label.LABEL_OPTIONAL);
+      if (field.getType() == TableFieldSchema.Type.STRUCT) {
+        String nestedName = "Struct" + (i + 1);
+        DescriptorProto.Builder nested = DescriptorProto.newBuilder().setName(nestedName);
+        addFields(nested, field.getFieldsList());
+        message.addNestedType(nested);
+        protoField.setType(FieldDescriptorProto.Type.TYPE_MESSAGE).setTypeName(nestedName);
+      } else {
+        protoField.setType(protoType(field.getType()));
+      }
+      message.addField(protoField);
+    }
+  }
+
+  private static FieldDescriptorProto.Type protoType(TableFieldSchema.Type type) {
+    return switch (type) {
+      case INT64 -> FieldDescriptorProto.Type.TYPE_INT64;
+      case DOUBLE -> FieldDescriptorProto.Type.TYPE_DOUBLE;
+      case BOOL -> FieldDescriptorProto.Type.TYPE_BOOL;
+      case BYTES -> FieldDescriptorProto.Type.TYPE_BYTES;
+      case DATE -> FieldDescriptorProto.Type.TYPE_INT32;
+      case TIMESTAMP -> FieldDescriptorProto.Type.TYPE_INT64;
+      default -> FieldDescriptorProto.Type.TYPE_STRING;
+    };
+  }
+
+  /** Accessor methods of the components of a record, or of the properties of a JavaBean. */
+  private Map<String, Method> accessors(Class<?> type) {
+    return this.accessorCache.computeIfAbsent(
+        type,
+        t -> {
+          Map<String, Method> accessors = new LinkedHashMap<>();
+          if (t.isRecord()) {
+            for (RecordComponent component : t.getRecordComponents()) {
+              accessors.put(component.getName(), component.getAccessor());
+            }
+          } else {
+            for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(t)) {
+              if (property.getReadMethod() != null && !"class".equals(property.getName())) {
+                accessors.put(property.getName(), property.getReadMethod());
+              }
+            }
+          }
+          accessors.values().forEach(method -> method.setAccessible(true));
+          return accessors;
+        });
+  }
+
+  private final class MessageCodec {
+
+    private final Descriptor descriptor;
+
+    private final Map<String, FieldCodec> fields = new HashMap<>();
+
+    private MessageCodec(Descriptor descriptor, List<TableFieldSchema> tableFields) {
+      this.descriptor = descriptor;
+      for (TableFieldSchema tableField : tableFields) {
+        FieldDescriptor field = descriptor.findFieldByName(tableField.getName());
+        MessageCodec nested =
+            (tableField.getType() == TableFieldSchema.Type.STRUCT)
+                ? new MessageCodec(field.getMessageType(), tableField.getFieldsList())
+                : null;
+        // Column names are case-insensitive.
+        this.fields.put(
+            field.getName().toLowerCase(Locale.ROOT),
+            new FieldCodec(field, tableField.getType(), nested));
+      }
+    }
+
+    private FieldCodec field(String name) {
+      FieldCodec field = this.fields.get(name.toLowerCase(Locale.ROOT));
+      if (field == null) {
+        throw new IllegalArgumentException(
+            "Unknown column " + name + " in " + this.descriptor.getName());
+      }
+      return field;
+    }
+
+    private DynamicMessage encode(Object row) {
+      DynamicMessage.Builder message = DynamicMessage.newBuilder(this.descriptor);
+      if (row instanceof Map<?, ?> map) {
+        map.forEach((name, value) -> set(message, field(name.toString()), value));
+      } else {
+        accessors(row.getClass())
+            .forEach(
+                (name, accessor) -> {
+                  try {
+                    set(message, field(name), accessor.invoke(row));
+                  } catch (IllegalAccessException | InvocationTargetException ex) {
+                    throw new IllegalArgumentException("Failed to read " + name, ex);
+                  }
+                });
+      }
+      return message.build();
+    }
+
+    private void set(DynamicMessage.Builder message, FieldCodec field, Object value) {
+      if (value == null) {
+        return;
+      }
+      if (!field.descriptor.isRepeated()) {
+        message.setField(field.descriptor, field.convert(value));
+      } else if (value instanceof Iterable<?> values) {
+        values.forEach(
+            element -> message.addRepeatedField(field.descriptor, field.convert(element)));
+      } else if (value.getClass().isArray()) {
+        for (int i = 0; i < Array.getLength(value); i++) {
+          message.addRepeatedField(field.descriptor, field.convert(Array.get(value, i)));
+        }
+      } else {
+        throw new IllegalArgumentException(
+            "Expected a list of values for the repeated column " + field.descriptor.getName());
+      }
+    }
+
+    private DynamicMessage encodeJson(JsonReader jsonReader) throws IOException {
+      DynamicMessage.Builder message = DynamicMessage.newBuilder(this.descriptor);
+      jsonReader.beginObject();
+      while (jsonReader.hasNext()) {
+        FieldCodec field = field(jsonReader.nextName());
+        if (jsonReader.peek() == JsonToken.NULL) {
+          jsonReader.nextNull();
+        } else if (field.descriptor.isRepeated()) {
+          jsonReader.beginArray();
+          while (jsonReader.hasNext()) {
+            message.addRepeatedField(field.descriptor, field.readJson(jsonReader));
+          }
+          jsonReader.endArray();
+        } else {
+          message.setField(field.descriptor, field.readJson(jsonReader));
+        }
+      }
+      jsonReader.endObject();
+      return message.build();
+    }
+  }
+
+  private static final class FieldCodec {
+
+    private final FieldDescriptor descriptor;
+
+    private final TableFieldSchema.Type type;
+
+    private final MessageCodec nested;
+
+    private FieldCodec(
+        FieldDescriptor descriptor, TableFieldSchema.Type type, MessageCodec nested) {
+      this.descriptor = descriptor;
+      this.type = type;
+      this.nested = nested;
+    }
+
+    private Object readJson(JsonReader jsonReader) throws IOException {
+      if (this.nested != null) {
+        return this.nested.encodeJson(jsonReader);
+      }
+      return switch (jsonReader.peek()) {
+        case BOOLEAN -> convert(jsonReader.nextBoolean());
+        // Numbers are read as their literal, so that NUMERIC values keep their precision.
+        case NUMBER, STRING -> convert(jsonReader.nextString());
+        default -> convert(JsonParser.parseReader(jsonReader).toString());
+      };
+    }
+
+    private Object convert(Object value) {
+      if (this.nested != null) {
+        return this.nested.encode(value);
+      }
+      try {
+        return switch (this.type) {
+          case INT64 -> toLong(value);
+          case DOUBLE -> (value instanceof Number number)
+              ? number.doubleValue()
+              : Double.parseDouble(value.toString());
+          case BOOL -> toBoolean(value);
+          case BYTES -> toByteString(value);
+          case DATE -> toEpochDay(value);
+          case TIMESTAMP -> toEpochMicros(value);
+          default -> (value instanceof BigDecimal decimal)
+              ? decimal.toPlainString()
+              : value.toString();
+        };
+      } catch (RuntimeException ex) {
+        throw new IllegalArgumentException(
+            "Invalid " + this.type + " value for column " + this.descriptor.getName(), ex);
+      }
+    }
+
+    private static long toLong(Object value) {
+      if (value instanceof Long || value instanceof Integer
+          || value instanceof Short || value instanceof Byte) {
+        return ((Number) value).longValue();
+      }
+      String text = value.toString();
+      if (isInteger(text)) {
+        return Long.parseLong(text);
+      }
+      // Integral values written as decimals, such as 1.0 or 1e3, are accepted.
+      return new BigDecimal(text).longValueExact();
+    }
+
+    private static boolean toBoolean(Object value) {
+      if (value instanceof Boolean bool) {
+        return bool;
+      }
+      String text = value.toString();
+      if ("true".equalsIgnoreCase(text)) {
+        return true;
+      }
+      if ("false".equalsIgnoreCase(text)) {
+        return false;
+      }
+      throw new IllegalArgumentException("Not a boolean: " + text);
+    }
+
+    private static ByteString toByteString(Object value) {
+      if (value instanceof ByteString byteString) {
+        return byteString;
+      }
+      if (value instanceof byte[] bytes) {
+        return ByteString.copyFrom(bytes);
+      }
+      if (value instanceof ByteBuffer buffer) {
+        return ByteString.copyFrom(buffer.duplicate());
+      }
+      return ByteString.copyFrom(Base64.getDecoder().decode(value.toString()));
+    }
+
+    private static int toEpochDay(Object value) {
+      if (value instanceof LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+      }
+      if (value instanceof Number number) {
+        return number.intValue();
+      }
+      String text = value.toString();
+      if (isInteger(text)) {
+        return Integer.parseInt(text);
+      }
+      return Math.toIntExact(LocalDate.parse(text).toEpochDay());
+    }
+
+    private static long toEpochMicros(Object value) {
+      Instant instant;
+      if (value instanceof Instant i) {
+        instant = i;
+      } else if (value instanceof OffsetDateTime offsetDateTime) {
+        instant = offsetDateTime.toInstant();
+      } else if (value instanceof ZonedDateTime zonedDateTime) {
+        instant = zonedDateTime.toInstant();
+      } else if (value instanceof Number number) {
+        return number.longValue();
+      } else {
+        String text = value.toString();
+        if (isInteger(text)) {
+          return Long.parseLong(text);
+        }
+        instant = parseTimestamp(text);
+      }
+      return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static Instant parseTimestamp(String text) {
+      TemporalAccessor parsed = TIMESTAMP_FORMATTER.parse(text.trim());
+      ZoneOffset offset =
+          parsed.isSupported(ChronoField.OFFSET_SECONDS)
+              ? ZoneOffset.from(parsed)
+              : ZoneOffset.UTC;
+      return LocalDateTime.from(parsed).toInstant(offset);
+    }
+
+    private static boolean isInteger(String text) {
+      int start = text.startsWith("-") ? 1 : 0;
+      return text.length() > start && text.chars().skip(start).allMatch(Character::isDigit);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.util.Assert;
+
+/**
+ * Options of reads through the BigQuery Storage Read API.
+ *
+ * @since 6.1.2
+ */
+public class BigQueryReadOptions {
+
+  /** Default number of read streams consumed concurrently. */
+  public static final int DEFAULT_PARALLELISM = 4;
+
+  private List<String> selectedFields = new ArrayList<>();
+
+  private String rowRestriction;
+
+  private int maxStreamCount;
+
+  private int parallelism = DEFAULT_PARALLELISM;
+
+  public List<String> getSelectedFields() {
+    return this.selectedFields;
+  }
+
+  /**
+   * Sets the columns to read. All columns are read by default.
+   *
+   * @param selectedFields the names of the columns, or of nested fields such as {@code a.b}
+   */
+  public void setSelectedFields(List<String> selectedFields) {
+    Assert.notNull(selectedFields, "Selected fields must not be null");
+    this.selectedFields = new ArrayList<>(selectedFields);
+  }
+
+  public String getRowRestriction() {
+    return this.rowRestriction;
+  }
+
+  /**
+   * Sets a SQL predicate the rows must match, such as {@code state = "WA" AND year > 2020}. The
+   * predicate is evaluated by BigQuery, so rows that don't match it are never transferred.
+   *
+   * @param rowRestriction the predicate, or {@code null} to read all rows
+   */
+  public void setRowRestriction(String rowRestriction) {
+    this.rowRestriction = rowRestriction;
+  }
+
+  public int getMaxStreamCount() {
+    return this.maxStreamCount;
+  }
+
+  /**
+   * Sets the maximum number of streams the rows are split into. BigQuery may create fewer streams.
+   *
+   * @param maxStreamCount the maximum number of streams. Default is 0, letting BigQuery decide.
+   */
+  public void setMaxStreamCount(int maxStreamCount) {
+    Assert.isTrue(maxStreamCount >= 0, "Maximum stream count must not be negative");
+    this.maxStreamCount = maxStreamCount;
+  }
+
+  public int getParallelism() {
+    return this.parallelism;
+  }
+
+  /**
+   * Sets how many streams are consumed concurrently. Rows of different streams are interleaved in
+   * no particular order.
+   *
+   * @param parallelism the number of streams consumed concurrently. Default is 4.
+   */
+  public void setParallelism(int parallelism) {
+    Assert.isTrue(parallelism > 0, "Parallelism must be positive");
+    this.parallelism = parallelism;
+  }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import com.google.api.gax.rpc.ServerStream;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
+import com.google.cloud.bigquery.storage.v1.CreateReadSessionRequest;
+import com.google.cloud.bigquery.storage.v1.DataFormat;
+import com.google.cloud.bigquery.storage.v1.ReadRowsRequest;
+import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
+import com.google.cloud.bigquery.storage.v1.ReadSession;
+import com.google.cloud.bigquery.storage.v1.ReadSession.TableReadOptions;
+import com.google.cloud.bigquery.storage.v1.TableName;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorLoader;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ReadChannel;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
+import org.apache.arrow.vector.ipc.message.MessageSerializer;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.arrow.vector.util.ByteArrayReadableSeekableByteChannel;
+import org.apache.arrow.vector.util.Text;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Reads tables through the BigQuery Storage Read API, consuming the streams of a read session
+ * concurrently and decoding their Arrow record batches into rows.
+ *
+ * <p>Each row is passed to the row mapper as a map from column names to values, in column order.
+ * Strings are decoded to {@link String}, including within lists and maps; other values are the
+ * Java objects of the Arrow vectors, such as {@link Long}, {@link Double}, {@link
+ * java.math.BigDecimal} or {@link java.time.LocalDateTime}, and lists and maps for repeated and
+ * nested fields.
+ *
+ * <p>Arrow accesses direct buffers reflectively, so the JVM must be started with {@code
+ * --add-opens=java.base/java.nio=ALL-UNNAMED}; reads fail with an {@link IllegalStateException}
+ * otherwise.
+ *
+ * @since 6.1.2
+ */
+public class BigQueryStorageReader {
+
+  /** Default maximum number of threads consuming read streams, shared by all reads. */
+  public static final int DEFAULT_THREADS = 8;
+
+  private static final Object END_OF_STREAM = new Object();
+
+  private final BigQueryReadClient bigQueryReadClient;
+
+  private final String projectId;
+
+  private Executor executor;
+
+  /**
+   * Create a reader.
+   *
+   * @param bigQueryReadClient the client of the BigQuery Storage Read API
+   * @param projectId the project billed for the reads
+   */
+  public BigQueryStorageReader(BigQueryReadClient bigQueryReadClient, String projectId) {
+    Assert.notNull(bigQueryReadClient, "BigQueryReadClient must not be null");
+    Assert.notNull(projectId, "Project ID must not be null");
+    this.bigQueryReadClient = bigQueryReadClient;
+    this.projectId = projectId;
+    this.executor = newDefaultExecutor();
+  }
+
+  /**
+   * Sets the executor consuming the read streams. Defaults to a pool of {@link #DEFAULT_THREADS}
+   * daemon threads shared by all reads of this reader, so the streams of concurrent reads may wait
+   * for threads. A returned stream that is neither consumed nor closed keeps its threads busy.
+   *
+   * @param executor the executor
+   */
+  public void setExecutor(Executor executor) {
+    Assert.notNull(executor, "Executor must not be null");
+    this.executor = executor;
+  }
+
+  /**
+   * Reads the rows of a table. The streams of the read session are consumed in the background
+   * while the returned stream is consumed, which must be closed to stop reading early.
+   *
+   * @param table the table to read
+   * @param readOptions the columns, row restriction and parallelism of the read
+   * @param rowMapper the function mapping rows, called by the threads of the executor
+   * @param <T> the type of the mapped rows
+   * @return the stream of mapped rows
+   */
+  public <T> Stream<T> read(
+      TableName table,
+      BigQueryReadOptions readOptions,
+      Function<Map<String, Object>, T> rowMapper) {
+    Assert.notNull(table, "Table must not be null");
+    Assert.notNull(readOptions, "Read options must not be null");
+    Assert.notNull(rowMapper, "Row mapper must not be null");
+    assertNioOpenToArrow();
+    TableReadOptions.Builder tableReadOptions =
+        TableReadOptions.newBuilder().addAllSelectedFields(readOptions.getSelectedFields());
+    if (readOptions.getRowRestriction() != null) {
+      tableReadOptions.setRowRestriction(readOptions.getRowRestriction());
+    }
+    ReadSession session =
+        this.bigQueryReadClient.createReadSession(
+            CreateReadSessionRequest.newBuilder()
+                .setParent("projects/" + this.projectId)
+                .setReadSession(
+                    ReadSession.newBuilder()
+                        .setTable(table.toString())
+                        .setDataFormat(DataFormat.ARROW)
+                        .setReadOptions(tableReadOptions))
+                .setMaxStreamCount(readOptions.getMaxStreamCount())
+                .build());
+
+    RowIterator<T> rows = new RowIterator<>(session, readOptions.getParallelism(), rowMapper);
+    rows.start();
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(rows, Spliterator.NONNULL), false)
+        .onClose(rows::cancel);
+  }
+
+  /** Fails before creating a read session when Arrow would fail to allocate buffers. */
+  private static void assertNioOpenToArrow() {
+    if (!ByteBuffer.class.getModule().isOpen("java.nio", BufferAllocator.class.getModule())) {
+      throw new IllegalStateException(
+          "Decoding rows of the Storage Read API with Apache Arrow requires the JVM option "
+              + "--add-opens=java.base/java.nio=ALL-UNNAMED");
+    }
+  }
+
+  private static Schema deserializeSchema(ByteString serializedSchema) throws IOException {
+    return MessageSerializer.deserializeSchema(
+        new ReadChannel(new ByteArrayReadableSeekableByteChannel(serializedSchema.toByteArray())));
+  }
+
+  private static Executor newDefaultExecutor() {
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("bigquery-read-");
+    threadFactory.setDaemon(true);
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            DEFAULT_THREADS,
+            DEFAULT_THREADS,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            threadFactory);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /** Converts the Arrow text of string columns, including those in repeated and nested fields. */
+  @VisibleForTesting
+  static Object toValue(Object arrowValue) {
+    if (arrowValue instanceof Text text) {
+      return text.toString();
+    }
+    if (arrowValue instanceof List<?> list) {
+      List<Object> values = new ArrayList<>(list.size());
+      list.forEach(element -> values.add(toValue(element)));
+      return values;
+    }
+    if (arrowValue instanceof Map<?, ?> map) {
+      Map<String, Object> values = new LinkedHashMap<>();
+      map.forEach((name, value) -> values.put(String.valueOf(toValue(name)), toValue(value)));
+      return values;
+    }
+    return arrowValue;
+  }
+
+  /**
+   * Iterates over the rows of all streams of a read session, which are decoded by workers and
+   * handed over in batches through a bounded queue.
+   */
+  private final class RowIterator<T> implements Iterator<T> {
+
+    private final ReadSession session;
+
+    private final Function<Map<String, Object>, T> rowMapper;
+
+    private final int workerCount;
+
+    private final AtomicInteger nextStream = new AtomicInteger();
+
+    private final BlockingQueue<Object> batches;
+
+    private final Set<ServerStream<ReadRowsResponse>> activeStreams =
+        ConcurrentHashMap.newKeySet();
+
+    private volatile boolean cancelled;
+
+    private int finishedWorkers;
+
+    private Iterator<T> currentBatch = Stream.<T>empty().iterator();
+
+    private RowIterator(
+        ReadSession session, int parallelism, Function<Map<String, Object>, T> rowMapper) {
+      this.session = session;
+      this.rowMapper = rowMapper;
+      this.workerCount = Math.min(parallelism, session.getStreamsCount());
+      this.batches = new ArrayBlockingQueue<>(Math.max(1, this.workerCount) * 2);
+    }
+
+    private void start() {
+      for (int i = 0; i < this.workerCount; i++) {
+        executor.execute(this::readStreams);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!this.currentBatch.hasNext()) {
+        if (this.finishedWorkers == this.workerCount) {
+          return false;
+        }
+        Object item;
+        try {
+          item = this.batches.take();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          cancel();
+          throw new BigQueryException("Interrupted while reading rows.", ex);
+        }
+        if (item == END_OF_STREAM) {
+          this.finishedWorkers++;
+        } else if (item instanceof Throwable failure) {
+          cancel();
+          throw new BigQueryException("Failed to read rows.", failure);
+        } else {
+          @SuppressWarnings("unchecked")
+          List<T> batch = (List<T>) item;
+          this.currentBatch = batch.iterator();
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return this.currentBatch.next();
+    }
+
+    private void cancel() {
+      this.cancelled = true;
+      this.activeStreams.forEach(ServerStream::cancel);
+      this.batches.clear();
+    }
+
+    private void readStreams() {
+      try {
+        Schema schema = deserializeSchema(this.session.getArrowSchema().getSerializedSchema());
+        int stream;
+        while (!this.cancelled
+            && (stream = this.nextStream.getAndIncrement()) < this.session.getStreamsCount()) {
+          readStream(this.session.getStreams(stream).getName(), schema);
+        }
+        publish(END_OF_STREAM);
+      } catch (Exception ex) {
+        if (ex instanceof InterruptedException) {
+          Thread.currentThread().interrupt();
+        }
+        try {
+          publish(ex instanceof UncheckedIOException unchecked ? unchecked.getCause() : ex);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+
+    private void readStream(String streamName, Schema schema)
+        throws IOException, InterruptedException {
+      ServerStream<ReadRowsResponse> responses =
+          bigQueryReadClient
+              .readRowsCallable()
+              .call(ReadRowsRequest.newBuilder().setReadStream(streamName).build());
+      this.activeStreams.add(responses);
+      try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+          VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator)) {
+        VectorLoader loader = new VectorLoader(root);
+        for (ReadRowsResponse response : responses) {
+          if (this.cancelled) {
+            return;
+          }
+          if (response.hasArrowRecordBatch()) {
+            publish(decode(response, allocator, root, loader));
+          }
+        }
+      } finally {
+        this.activeStreams.remove(responses);
+      }
+    }
+
+    private List<T> decode(
+        ReadRowsResponse response,
+        BufferAllocator allocator,
+        VectorSchemaRoot root,
+        VectorLoader loader)
+        throws IOException {
+      ByteString serializedBatch = response.getArrowRecordBatch().getSerializedRecordBatch();
+      try (ArrowRecordBatch recordBatch =
+          MessageSerializer.deserializeRecordBatch(
+              new ReadChannel(
+                  new ByteArrayReadableSeekableByteChannel(serializedBatch.toByteArray())),
+              allocator)) {
+        loader.load(recordBatch);
+        List<FieldVector> vectors = root.getFieldVectors();
+        List<T> rows = new ArrayList<>(root.getRowCount());
+        for (int i = 0; i < root.getRowCount(); i++) {
+          Map<String, Object> row = new LinkedHashMap<>();
+          for (FieldVector vector : vectors) {
+            row.put(vector.getName(), toValue(vector.getObject(i)));
+          }
+          rows.add(this.rowMapper.apply(row));
+        }
+        root.clear();
+        return rows;
+      }
+    }
+
+    /** Hands an item to the consumer, giving up when the read is cancelled. */
+    private void publish(Object item) throws InterruptedException {
+      while (!this.cancelled) {
+        if (this.batches.offer(item, 100, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+      }
+    }
+  }
+}
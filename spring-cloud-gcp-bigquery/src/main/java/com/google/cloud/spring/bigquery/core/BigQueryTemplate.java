@@ -19,9 +19,10 @@ package com.google.cloud.spring.bigquery.core;
 import com.google.cloud.bigquery.BigQuery;
 import com.google.cloud.bigquery.FormatOptions;
 import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobInfo;
 import com.google.cloud.bigquery.JobInfo.CreateDisposition;
 import com.google.cloud.bigquery.JobInfo.WriteDisposition;
-import com.google.cloud.bigquery.JobStatus.State;
+import com.google.cloud.bigquery.QueryJobConfiguration;
 import com.google.cloud.bigquery.Schema;
 import com.google.cloud.bigquery.StandardTableDefinition;
 import com.google.cloud.bigquery.Table;
@@ -32,27 +33,31 @@ import com.google.cloud.bigquery.TableInfo;
 import com.google.cloud.bigquery.WriteChannelConfiguration;
 import com.google.cloud.bigquery.storage.v1.BatchCommitWriteStreamsRequest;
 import com.google.cloud.bigquery.storage.v1.BatchCommitWriteStreamsResponse;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
 import com.google.cloud.bigquery.storage.v1.BigQueryWriteClient;
 import com.google.cloud.bigquery.storage.v1.StorageError;
 import com.google.cloud.bigquery.storage.v1.TableName;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.Descriptors.DescriptorValidationException;
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.channels.Channels;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledFuture;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.Assert;
 import org.springframework.util.StreamUtils;
@@ -70,6 +75,8 @@ public class BigQueryTemplate implements BigQueryOperations {
 
   private final TaskScheduler taskScheduler;
 
+  private final BigQueryJobWatcher jobWatcher;
+
   private final BigQueryWriteClient bigQueryWriteClient;
 
   private boolean autoDetectSchema = true;
@@ -78,17 +85,27 @@ public class BigQueryTemplate implements BigQueryOperations {
 
   private CreateDisposition createDisposition;
 
-  private Duration jobPollInterval = Duration.ofSeconds(2);
-
   private static final int DEFAULT_JSON_STREAM_WRITER_BATCH_SIZE =
       1000; // write records in batches of 1000
 
   private static final int MIN_JSON_STREAM_WRITER_BATCH_SIZE = 10; // minimum batch size
 
+  private static final int DEFAULT_MAX_INFLIGHT_REQUESTS_PER_STREAM = 4;
+
   private final Logger logger = LoggerFactory.getLogger(BigQueryTemplate.class);
 
   private final int jsonWriterBatchSize;
 
+  private BigQueryStorageReader bigQueryStorageReader;
+
+  private int writeStreamCount = 1;
+
+  private boolean protoRowEncoding;
+
+  private int maxInflightRequestsPerStream = DEFAULT_MAX_INFLIGHT_REQUESTS_PER_STREAM;
+
+  private Executor writeExecutor = new SimpleAsyncTaskExecutor("bigquery-write-");
+
   /**
    * A Full constructor which creates the {@link BigQuery} template.
    *
@@ -117,6 +134,7 @@ public class BigQueryTemplate implements BigQueryOperations {
     this.datasetName = bqDatasetName;
     this.taskScheduler = taskScheduler;
     this.bigQueryWriteClient = bigQueryWriteClient;
+    this.jobWatcher = new BigQueryJobWatcher(taskScheduler);
   }
 
   /**
@@ -156,14 +174,103 @@ public class BigQueryTemplate implements BigQueryOperations {
   }
 
   /**
-   * Sets the {@link Duration} amount of time to wait between successive polls on the status of a
-   * BigQuery job.
+   * Sets the maximum {@link Duration} amount of time to wait between successive polls on the status
+   * of a BigQuery job. The interval starts at the initial poll interval and doubles after every
+   * poll of a pending job until it reaches this interval.
    *
-   * @param jobPollInterval the {@link Duration} poll interval for BigQuery job status polling
+   * @param jobPollInterval the maximum {@link Duration} poll interval for BigQuery job status
+   *     polling. Default is 2 seconds.
    */
   public void setJobPollInterval(Duration jobPollInterval) {
     Assert.notNull(jobPollInterval, "BigQuery job polling interval must not be null");
-    this.jobPollInterval = jobPollInterval;
+    this.jobWatcher.setMaxInterval(jobPollInterval);
+  }
+
+  /**
+   * Sets the {@link Duration} amount of time to wait before the first poll on the status of a
+   * BigQuery job.
+   *
+   * @param jobPollInitialInterval the initial poll interval. Default is 50 milliseconds.
+   * @since 6.1.2
+   */
+  public void setJobPollInitialInterval(Duration jobPollInitialInterval) {
+    Assert.notNull(
+        jobPollInitialInterval, "BigQuery job initial polling interval must not be null");
+    this.jobWatcher.setInitialInterval(jobPollInitialInterval);
+  }
+
+  /**
+   * Sets the recorder of the time spent waiting for the jobs of {@link #writeDataToTable}.
+   *
+   * @param jobMetricsRecorder the recorder
+   * @since 6.1.2
+   */
+  public void setJobMetricsRecorder(BigQueryJobMetricsRecorder jobMetricsRecorder) {
+    this.jobWatcher.setMetricsRecorder(jobMetricsRecorder);
+  }
+
+  /**
+   * Sets the client of the BigQuery Storage Read API used by {@link #readTable} and {@link
+   * #queryForStream}.
+   *
+   * @param bigQueryReadClient the BigQuery Storage Read client
+   * @since 6.1.2
+   */
+  public void setBigQueryReadClient(BigQueryReadClient bigQueryReadClient) {
+    this.bigQueryStorageReader =
+        new BigQueryStorageReader(bigQueryReadClient, bigQuery.getOptions().getProjectId());
+  }
+
+  /**
+   * Sets the number of pending write streams that {@link #writeJsonStream(String, InputStream)}
+   * splits its input across. With more than one stream, the lines are parsed and appended by one
+   * worker per stream, and all streams are committed atomically once the input is exhausted. The
+   * order of the rows is not preserved then, and each line must hold one JSON object.
+   *
+   * @param writeStreamCount the number of write streams per load. Default is 1.
+   * @since 6.1.2
+   */
+  public void setWriteStreamCount(int writeStreamCount) {
+    Assert.isTrue(writeStreamCount > 0, "Write stream count must be positive");
+    this.writeStreamCount = writeStreamCount;
+  }
+
+  /**
+   * Sets whether {@link #writeJsonStream(String, InputStream)} encodes rows with a {@link
+   * BigQueryProtoRowEncoder} instead of appending them through a {@code JsonStreamWriter}. The
+   * encoder tokenizes the JSON without building a JSON object for every row, and keeps numbers as
+   * written, but its value conversions are stricter than the ones of {@code JsonStreamWriter}.
+   *
+   * @param protoRowEncoding whether to encode JSON rows as protobuf messages. Default is false.
+   * @since 6.1.2
+   */
+  public void setProtoRowEncoding(boolean protoRowEncoding) {
+    this.protoRowEncoding = protoRowEncoding;
+  }
+
+  /**
+   * Sets the maximum number of append requests awaiting a response for each stream of a load
+   * split across several write streams.
+   *
+   * @param maxInflightRequestsPerStream the maximum number of in-flight requests. Default is 4.
+   * @since 6.1.2
+   */
+  public void setMaxInflightRequestsPerStream(int maxInflightRequestsPerStream) {
+    Assert.isTrue(
+        maxInflightRequestsPerStream > 0, "Max in-flight requests per stream must be positive");
+    this.maxInflightRequestsPerStream = maxInflightRequestsPerStream;
+  }
+
+  /**
+   * Sets the executor running the workers of loads split across several write streams, one per
+   * stream. Defaults to a {@link SimpleAsyncTaskExecutor}.
+   *
+   * @param writeExecutor the executor
+   * @since 6.1.2
+   */
+  public void setWriteExecutor(Executor writeExecutor) {
+    Assert.notNull(writeExecutor, "Write executor must not be null");
+    this.writeExecutor = writeExecutor;
   }
 
   @Override
@@ -248,12 +355,20 @@ public class BigQueryTemplate implements BigQueryOperations {
   @Override
   public CompletableFuture<WriteApiResponse> writeJsonStream(
       String tableName, InputStream jsonInputStream) {
+    return writeAsync(() -> getWriteApiResponse(tableName, jsonInputStream));
+  }
+
+  @Override
+  public CompletableFuture<WriteApiResponse> writeRows(String tableName, Iterable<?> rows) {
+    return writeAsync(() -> getWriteRowsResponse(tableName, rows));
+  }
 
+  private CompletableFuture<WriteApiResponse> writeAsync(Callable<WriteApiResponse> write) {
     CompletableFuture<WriteApiResponse> writeApiFutureResponse = new CompletableFuture<>();
     Runnable asyncTask =
         () -> {
           try {
-            WriteApiResponse apiResponse = getWriteApiResponse(tableName, jsonInputStream);
+            WriteApiResponse apiResponse = write.call();
             writeApiFutureResponse.complete(apiResponse);
           } catch (Exception e) {
             writeApiFutureResponse.completeExceptionally(e);
@@ -282,45 +397,118 @@ public class BigQueryTemplate implements BigQueryOperations {
     return writeApiFutureResponse;
   }
 
+  @Override
+  public BigQueryJsonStreamAppender createJsonStreamAppender(String tableName) {
+    return createJsonStreamAppender(tableName, BigQueryJsonStreamAppender.StreamMode.DEFAULT);
+  }
+
+  @Override
+  public BigQueryJsonStreamAppender createJsonStreamAppender(
+      String tableName, BigQueryJsonStreamAppender.StreamMode streamMode) {
+    TableName parentTable =
+        TableName.of(bigQuery.getOptions().getProjectId(), datasetName, tableName);
+    BigQueryJsonStreamAppender appender =
+        new BigQueryJsonStreamAppender(
+            bigQueryWriteClient, parentTable, streamMode, taskScheduler);
+    appender.setMaxBatchRows(getBatchSize());
+    return appender;
+  }
+
+  @Override
+  public <T> Stream<T> readTable(
+      String tableName,
+      BigQueryReadOptions readOptions,
+      Function<Map<String, Object>, T> rowMapper) {
+    return getBigQueryStorageReader()
+        .read(
+            TableName.of(bigQuery.getOptions().getProjectId(), datasetName, tableName),
+            readOptions,
+            rowMapper);
+  }
+
+  @Override
+  public <T> CompletableFuture<Stream<T>> queryForStream(
+      String query, BigQueryReadOptions readOptions, Function<Map<String, Object>, T> rowMapper) {
+    BigQueryStorageReader reader = getBigQueryStorageReader();
+    Job queryJob = bigQuery.create(JobInfo.of(QueryJobConfiguration.of(query)));
+    // The read session is created on the task scheduler, not on the thread polling the job.
+    return createJobFuture(queryJob)
+        .thenApplyAsync(
+            job -> {
+              // The result of a query is written to a table, anonymous unless a destination was
+              // given.
+              TableId destinationTable =
+                  job.<QueryJobConfiguration>getConfiguration().getDestinationTable();
+              return reader.read(
+                  TableName.of(
+                      destinationTable.getProject(),
+                      destinationTable.getDataset(),
+                      destinationTable.getTable()),
+                  readOptions,
+                  rowMapper);
+            },
+            task -> taskScheduler.schedule(task, Instant.now()));
+  }
+
+  private BigQueryStorageReader getBigQueryStorageReader() {
+    Assert.state(
+        this.bigQueryStorageReader != null,
+        "Reading requires a BigQueryReadClient, set with setBigQueryReadClient");
+    return this.bigQueryStorageReader;
+  }
+
   @VisibleForTesting
   public BigQueryJsonDataWriter getBigQueryJsonDataWriter(TableName parentTable)
       throws DescriptorValidationException, IOException, InterruptedException {
-    return new BigQueryJsonDataWriter(parentTable, bigQueryWriteClient);
+    return new BigQueryJsonDataWriter(parentTable, bigQueryWriteClient, protoRowEncoding);
+  }
+
+  @VisibleForTesting
+  public BigQueryJsonDataWriter getBigQueryProtoDataWriter(TableName parentTable)
+      throws DescriptorValidationException, IOException, InterruptedException {
+    return new BigQueryJsonDataWriter(parentTable, bigQueryWriteClient, true);
   }
 
   public WriteApiResponse getWriteApiResponse(String tableName, InputStream jsonInputStream)
       throws DescriptorValidationException, IOException, InterruptedException {
-    WriteApiResponse apiResponse = new WriteApiResponse();
+    if (writeStreamCount > 1) {
+      return getParallelWriteApiResponse(tableName, jsonInputStream);
+    }
+    return writeToPendingStream(
+        tableName,
+        this::getBigQueryJsonDataWriter,
+        writer -> writer.appendJsonLines(jsonInputStream, getBatchSize()));
+  }
+
+  /**
+   * Writes rows given as maps, records or JavaBeans to the specified table through a pending
+   * stream of the BigQuery Storage Write API, encoding them directly as protobuf rows whatever
+   * {@link #setProtoRowEncoding(boolean)} is set to.
+   *
+   * @param tableName name of the table to write to
+   * @param rows the rows to be written
+   * @return the WriteApiResponse indicating completion of operation
+   * @see BigQueryProtoRowEncoder#encode(Object)
+   * @since 6.1.2
+   */
+  public WriteApiResponse getWriteRowsResponse(String tableName, Iterable<?> rows)
+      throws DescriptorValidationException, IOException, InterruptedException {
+    return writeToPendingStream(
+        tableName,
+        this::getBigQueryProtoDataWriter,
+        writer -> writer.appendRows(rows, getBatchSize()));
+  }
+
+  private WriteApiResponse writeToPendingStream(
+      String tableName, WriterFactory writerFactory, RowAppender rowAppender)
+      throws DescriptorValidationException, IOException, InterruptedException {
     TableName parentTable =
         TableName.of(bigQuery.getOptions().getProjectId(), datasetName, tableName);
 
-    try (BigQueryJsonDataWriter writer = getBigQueryJsonDataWriter(parentTable)) {
+    try (BigQueryJsonDataWriter writer = writerFactory.create(parentTable)) {
       try {
         // Write data in batches. Ref: https://cloud.google.com/bigquery/quotas#write-api-limits
-        long offset = 0;
-        int currentBatchSize = 0;
-
-        BufferedReader jsonReader = new BufferedReader(new InputStreamReader(jsonInputStream));
-        String jsonLine = null;
-        JSONArray jsonBatch = new JSONArray();
-        while ((jsonLine = jsonReader.readLine()) != null) { // read the inputstream line by line
-          JSONObject jsonObj = new JSONObject(jsonLine); // cast the JSON string into JSON Object
-          jsonBatch.put(jsonObj);
-          currentBatchSize++;
-          if (currentBatchSize == getBatchSize()) {
-            // append the batch, increment the offset and reset the batch
-            writer.append(jsonBatch, offset);
-            offset += jsonBatch.length();
-            jsonBatch = new JSONArray();
-            currentBatchSize = 0;
-          }
-        }
-
-        if (jsonBatch.length() != 0) {
-          // there might be records less than JSON_STREAM_WRITER_BATCH_SIZE, append those as well
-          writer.append(jsonBatch, offset);
-        }
-
+        rowAppender.append(writer);
       } catch (Exception e) {
         throw new BigQueryException("Failed to append records.", e);
       }
@@ -328,21 +516,73 @@ public class BigQueryTemplate implements BigQueryOperations {
       // Finalize the stream before committing it
       writer.finalizeWriteStream();
 
-      BatchCommitWriteStreamsResponse commitResponse = getCommitResponse(parentTable, writer);
-      // If the response does not have a commit time, it means the commit operation failed.
-      if (!commitResponse.hasCommitTime()) {
-        for (StorageError err : commitResponse.getStreamErrorsList()) {
-          apiResponse.addError(err); // this object is returned to the user
-        }
+      return toWriteApiResponse(getCommitResponse(parentTable, writer));
+    }
+  }
+
+  /**
+   * Writes newline-delimited JSON through several pending streams of the BigQuery Storage Write
+   * API, which are committed together, so that either all or none of the rows are written.
+   */
+  private WriteApiResponse getParallelWriteApiResponse(
+      String tableName, InputStream jsonInputStream)
+      throws DescriptorValidationException, IOException, InterruptedException {
+    TableName parentTable =
+        TableName.of(bigQuery.getOptions().getProjectId(), datasetName, tableName);
+    List<BigQueryJsonDataWriter> writers = new ArrayList<>(writeStreamCount);
+    try {
+      for (int i = 0; i < writeStreamCount; i++) {
+        BigQueryJsonDataWriter writer = getBigQueryJsonDataWriter(parentTable);
+        writers.add(writer);
+        writer.setMaxInflightRequests(maxInflightRequestsPerStream);
+      }
+
+      try {
+        new BigQueryParallelJsonLoader(writers, writeExecutor, getBatchSize())
+            .load(jsonInputStream);
+      } catch (Exception e) {
+        throw new BigQueryException("Failed to append records.", e);
+      }
+
+      // Finalize all streams before committing them
+      for (BigQueryJsonDataWriter writer : writers) {
+        writer.finalizeWriteStream();
       }
+      return toWriteApiResponse(getCommitResponse(parentTable, writers));
+    } finally {
+      writers.forEach(BigQueryJsonDataWriter::close);
+    }
+  }
 
-      // set isSuccessful flag to true of there were no errors
-      if (apiResponse.getErrors().isEmpty()) {
-        apiResponse.setSuccessful(true);
+  private static WriteApiResponse toWriteApiResponse(
+      BatchCommitWriteStreamsResponse commitResponse) {
+    WriteApiResponse apiResponse = new WriteApiResponse();
+    // If the response does not have a commit time, it means the commit operation failed.
+    if (!commitResponse.hasCommitTime()) {
+      for (StorageError err : commitResponse.getStreamErrorsList()) {
+        apiResponse.addError(err); // this object is returned to the user
       }
+    }
 
-      return apiResponse;
+    // set isSuccessful flag to true of there were no errors
+    if (apiResponse.getErrors().isEmpty()) {
+      apiResponse.setSuccessful(true);
     }
+
+    return apiResponse;
+  }
+
+  /** Appends rows to the pending stream of a writer. */
+  @FunctionalInterface
+  private interface RowAppender {
+    void append(BigQueryJsonDataWriter writer) throws IOException;
+  }
+
+  /** Creates the writer of a pending stream. */
+  @FunctionalInterface
+  private interface WriterFactory {
+    BigQueryJsonDataWriter create(TableName parentTable)
+        throws DescriptorValidationException, IOException, InterruptedException;
   }
 
   @VisibleForTesting
@@ -357,6 +597,25 @@ public class BigQueryTemplate implements BigQueryOperations {
     return bigQueryWriteClient.batchCommitWriteStreams(commitRequest);
   }
 
+  /**
+   * Commits the streams of several writers atomically.
+   *
+   * @param parentTable the table the streams write to
+   * @param writers the writers of the finalized streams
+   * @return the response of the commit request
+   * @since 6.1.2
+   */
+  @VisibleForTesting
+  public BatchCommitWriteStreamsResponse getCommitResponse(
+      TableName parentTable, List<BigQueryJsonDataWriter> writers) {
+    BatchCommitWriteStreamsRequest.Builder commitRequest =
+        BatchCommitWriteStreamsRequest.newBuilder().setParent(parentTable.toString());
+    for (BigQueryJsonDataWriter writer : writers) {
+      commitRequest.addWriteStreams(writer.getStreamName());
+    }
+    return bigQueryWriteClient.batchCommitWriteStreams(commitRequest.build());
+  }
+
   /**
    * This method ensures that we use the DEFAULT_JSON_STREAM_WRITER_BATCH_SIZE if the user doesn't
    * set this property or if they set it too low.
@@ -379,38 +638,18 @@ public class BigQueryTemplate implements BigQueryOperations {
     return this.jsonWriterBatchSize;
   }
 
-  private CompletableFuture<Job> createJobFuture(Job pendingJob) {
-    // Prepare the polling task for the CompletableFuture result returned to end-user
-    CompletableFuture<Job> result = new CompletableFuture<>();
-    ScheduledFuture<?> scheduledFuture =
-        taskScheduler.scheduleAtFixedRate(
-            () -> {
-              try {
-                Job job = pendingJob.reload();
-                if (State.DONE.equals(job.getStatus().getState())) {
-                  if (job.getStatus().getError() != null) {
-                    result.completeExceptionally(
-                        new BigQueryException(job.getStatus().getError().getMessage()));
-                  } else {
-                    result.complete(job);
-                  }
-                }
-              } catch (Exception e) {
-                result.completeExceptionally(new BigQueryException(e.getMessage()));
-              }
-            },
-            this.jobPollInterval);
-
-    result.whenComplete(
-        (response, exception) -> {
-          if (exception != null) {
-            pendingJob.cancel();
-            scheduledFuture.cancel(true);
-            return;
-          }
-          scheduledFuture.cancel(true);
-        });
+  /**
+   * Returns the number of pending write streams that JSON loads are split across.
+   *
+   * @return the number of write streams per load
+   * @since 6.1.2
+   */
+  public int getWriteStreamCount() {
+    return this.writeStreamCount;
+  }
 
-    return result;
+  private CompletableFuture<Job> createJobFuture(Job pendingJob) {
+    // Wait for the job along with all other pending jobs, backing off while it runs
+    return jobWatcher.watch(pendingJob);
   }
 }
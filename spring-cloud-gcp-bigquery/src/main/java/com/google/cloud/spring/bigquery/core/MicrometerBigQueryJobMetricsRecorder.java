@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link BigQueryJobMetricsRecorder} that records measurements as Micrometer meters.
+ *
+ * <p>The following meters are registered, tagged with the job {@code type} and {@code outcome}:
+ *
+ * <ul>
+ *   <li>{@code bigquery.job.wait}: timer of the time spent waiting for jobs to complete
+ *   <li>{@code bigquery.job.status.checks}: number of status requests made per job
+ * </ul>
+ *
+ * @since 6.1.2
+ */
+public class MicrometerBigQueryJobMetricsRecorder implements BigQueryJobMetricsRecorder {
+
+  private final MeterRegistry meterRegistry;
+
+  public MicrometerBigQueryJobMetricsRecorder(MeterRegistry meterRegistry) {
+    Assert.notNull(meterRegistry, "MeterRegistry must not be null");
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public void recordJobWait(
+      String jobType, long durationNanos, int statusChecks, boolean success) {
+    String outcome = success ? "success" : "failure";
+    Timer.builder("bigquery.job.wait")
+        .description("Time spent waiting for a BigQuery job to complete.")
+        .tags("type", jobType, "outcome", outcome)
+        .publishPercentileHistogram()
+        .register(this.meterRegistry)
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+    DistributionSummary.builder("bigquery.job.status.checks")
+        .description("Number of requests made to check the status of a BigQuery job.")
+        .tags("type", jobType, "outcome", outcome)
+        .register(this.meterRegistry)
+        .record(statusChecks);
+  }
+}
@@ -27,9 +27,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -55,6 +57,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -374,4 +377,50 @@ class BigQueryTemplateTest {
 
     verify(writer).close();
   }
+
+  @Test
+  void testWriteRowsEncodesRowsAsProtobuf() throws Exception {
+    BigQueryJsonDataWriter writer = mock(BigQueryJsonDataWriter.class);
+    doReturn(writer)
+        .when(bqTemplateSpy)
+        .getBigQueryProtoDataWriter(any(TableName.class));
+    doReturn(BatchCommitWriteStreamsResponse.getDefaultInstance())
+        .when(bqTemplateSpy)
+        .getCommitResponse(any(TableName.class), any(BigQueryJsonDataWriter.class));
+    List<Map<String, Object>> rows = List.of(Map.of("name", "widget"));
+
+    WriteApiResponse apiRes = bqTemplateSpy.getWriteRowsResponse(TABLE, rows);
+
+    assertThat(apiRes.isSuccessful()).isTrue();
+    verify(writer).appendRows(rows, JSON_WRITER_BATCH_SIZE);
+    verify(writer).finalizeWriteStream();
+    verify(bqTemplateSpy, never()).getBigQueryJsonDataWriter(any(TableName.class));
+  }
+
+  @Test
+  void testParallelWriteCommitsAllStreamsAtOnce() throws Exception {
+    BigQueryJsonDataWriter firstWriter = mock(BigQueryJsonDataWriter.class);
+    BigQueryJsonDataWriter secondWriter = mock(BigQueryJsonDataWriter.class);
+    doReturn(firstWriter, secondWriter)
+        .when(bqTemplateSpy)
+        .getBigQueryJsonDataWriter(any(TableName.class));
+    doReturn(BatchCommitWriteStreamsResponse.getDefaultInstance())
+        .when(bqTemplateSpy)
+        .getCommitResponse(any(TableName.class), anyList());
+    bqTemplateSpy.setWriteStreamCount(2);
+
+    WriteApiResponse apiRes = bqTemplateSpy.getWriteApiResponse(
+        TABLE,
+        new ByteArrayInputStream(newLineSeperatedJson.getBytes()));
+
+    assertThat(apiRes.isSuccessful()).isTrue();
+    verify(firstWriter).setMaxInflightRequests(4);
+    verify(firstWriter).finalizeWriteStream();
+    verify(secondWriter).finalizeWriteStream();
+    verify(bqTemplateSpy)
+        .getCommitResponse(
+            TableName.of(PROJECT, DATASET, TABLE), List.of(firstWriter, secondWriter));
+    verify(firstWriter).close();
+    verify(secondWriter).close();
+  }
 }
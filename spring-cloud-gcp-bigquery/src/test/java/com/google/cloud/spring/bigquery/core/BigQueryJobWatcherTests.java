@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryError;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobConfiguration;
+import com.google.cloud.bigquery.JobId;
+import com.google.cloud.bigquery.JobStatus;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/** Tests for {@link BigQueryJobWatcher}. */
+class BigQueryJobWatcherTests {
+
+  private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+  private final BigQueryJobMetricsRecorder metricsRecorder =
+      mock(BigQueryJobMetricsRecorder.class);
+
+  private BigQueryJobWatcher watcher;
+
+  @BeforeEach
+  void setUp() {
+    this.scheduler.setPoolSize(2);
+    this.scheduler.initialize();
+    this.watcher = new BigQueryJobWatcher(this.scheduler);
+    this.watcher.setInitialInterval(Duration.ofMillis(5));
+    this.watcher.setMaxInterval(Duration.ofMillis(40));
+    this.watcher.setMetricsRecorder(this.metricsRecorder);
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.scheduler.shutdown();
+  }
+
+  @Test
+  void completesWithReloadedJobOnceDone() throws Exception {
+    Job job = job("load");
+    Job doneJob = mock(Job.class);
+    Job running = statusJob(JobStatus.State.RUNNING, null);
+    Job done = statusJob(JobStatus.State.DONE, null);
+    when(job.reload(any(BigQuery.JobOption.class))).thenReturn(running, running, done);
+    doReturn(doneJob).when(job).reload();
+
+    assertThat(this.watcher.watch(job).get(5, TimeUnit.SECONDS)).isSameAs(doneJob);
+
+    verify(job, times(3)).reload(BigQuery.JobOption.fields(BigQuery.JobField.STATUS));
+    verify(job, never()).cancel();
+    verify(this.metricsRecorder, timeout(1000))
+        .recordJobWait(eq("LOAD"), anyLong(), eq(3), eq(true));
+  }
+
+  @Test
+  void failsWithJobError() {
+    Job job = job("load");
+    Job failed = statusJob(JobStatus.State.DONE, new BigQueryError("invalid", "table", "Bad row"));
+    when(job.reload(any(BigQuery.JobOption.class))).thenReturn(failed);
+
+    CompletableFuture<Job> result = this.watcher.watch(job);
+
+    assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(BigQueryException.class)
+        .hasRootCauseMessage("Bad row");
+    verify(job, never()).reload();
+    verify(this.metricsRecorder, timeout(1000))
+        .recordJobWait(eq("LOAD"), anyLong(), eq(1), eq(false));
+  }
+
+  @Test
+  void cancellingResultCancelsJob() {
+    Job job = job("running");
+    Job running = statusJob(JobStatus.State.RUNNING, null);
+    when(job.reload(any(BigQuery.JobOption.class))).thenReturn(running);
+
+    CompletableFuture<Job> result = this.watcher.watch(job);
+    result.cancel(true);
+
+    verify(job).cancel();
+  }
+
+  @Test
+  void pollsManyJobsFromOnePoller() throws Exception {
+    Job running = statusJob(JobStatus.State.RUNNING, null);
+    Job done = statusJob(JobStatus.State.DONE, null);
+    List<CompletableFuture<Job>> results = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      Job job = job("job-" + i);
+      when(job.reload(any(BigQuery.JobOption.class))).thenReturn(running, done);
+      doReturn(job).when(job).reload();
+      results.add(this.watcher.watch(job));
+    }
+
+    CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+
+    verify(this.metricsRecorder, timeout(1000).times(50))
+        .recordJobWait(eq("LOAD"), anyLong(), anyInt(), eq(true));
+  }
+
+  @Test
+  void slowStatusCheckDoesNotDelayOtherJobs() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    Job done = statusJob(JobStatus.State.DONE, null);
+    Job slowJob = job("slow");
+    when(slowJob.reload(any(BigQuery.JobOption.class)))
+        .thenAnswer(
+            invocation -> {
+              release.await(5, TimeUnit.SECONDS);
+              return done;
+            });
+    doReturn(slowJob).when(slowJob).reload();
+    Job fastJob = job("fast");
+    when(fastJob.reload(any(BigQuery.JobOption.class))).thenReturn(done);
+    doReturn(fastJob).when(fastJob).reload();
+
+    CompletableFuture<Job> slowResult = this.watcher.watch(slowJob);
+    CompletableFuture<Job> fastResult = this.watcher.watch(fastJob);
+
+    assertThat(fastResult.get(5, TimeUnit.SECONDS)).isSameAs(fastJob);
+    assertThat(slowResult).isNotDone();
+    release.countDown();
+    assertThat(slowResult.get(5, TimeUnit.SECONDS)).isSameAs(slowJob);
+  }
+
+  @Test
+  void initialIntervalMustBePositive() {
+    assertThatThrownBy(() -> this.watcher.setInitialInterval(Duration.ZERO))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Initial interval must be positive");
+  }
+
+  private static Job job(String name) {
+    Job job = mock(Job.class);
+    JobConfiguration configuration = mock(JobConfiguration.class);
+    when(configuration.getType()).thenReturn(JobConfiguration.Type.LOAD);
+    when(job.getConfiguration()).thenReturn(configuration);
+    when(job.getJobId()).thenReturn(JobId.of(name));
+    return job;
+  }
+
+  private static Job statusJob(JobStatus.State state, BigQueryError error) {
+    JobStatus status = mock(JobStatus.class);
+    when(status.getState()).thenReturn(state);
+    when(status.getError()).thenReturn(error);
+    Job job = mock(Job.class);
+    when(job.getStatus()).thenReturn(status);
+    return job;
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.cloud.bigquery.storage.v1.AppendRowsResponse;
+import com.google.cloud.bigquery.storage.v1.BigQueryWriteClient;
+import com.google.cloud.bigquery.storage.v1.Exceptions;
+import com.google.cloud.bigquery.storage.v1.JsonStreamWriter;
+import com.google.cloud.bigquery.storage.v1.StorageError;
+import com.google.cloud.bigquery.storage.v1.StorageError.StorageErrorCode;
+import com.google.cloud.bigquery.storage.v1.TableName;
+import com.google.cloud.spring.bigquery.core.BigQueryJsonStreamAppender.StreamMode;
+import com.google.protobuf.Any;
+import com.google.rpc.Code;
+import com.google.rpc.Status;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/** Tests for {@link BigQueryJsonStreamAppender}. */
+class BigQueryJsonStreamAppenderTests {
+
+  private static final TableName TABLE = TableName.of("project", "dataset", "table");
+
+  private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+
+  private final Deque<JsonStreamWriter> streamWriters = new ArrayDeque<>();
+
+  private int createdStreamWriters;
+
+  @BeforeEach
+  void setUp() {
+    this.taskScheduler.initialize();
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.taskScheduler.shutdown();
+  }
+
+  @Test
+  void sendsBatchWhenMaxRowsReached() throws Exception {
+    JsonStreamWriter writer = succeedingWriter();
+    BigQueryJsonStreamAppender appender = appender(StreamMode.DEFAULT);
+    appender.setMaxBatchRows(2);
+    appender.setLinger(Duration.ofMinutes(1));
+
+    CompletableFuture<Void> first = appender.append(row(1));
+    CompletableFuture<Void> second = appender.append(row(2));
+    CompletableFuture<Void> third = appender.append(row(3));
+
+    ArgumentCaptor<JSONArray> rows = ArgumentCaptor.forClass(JSONArray.class);
+    verify(writer).append(rows.capture());
+    assertThat(rows.getValue().length()).isEqualTo(2);
+    assertThat(first).isCompleted();
+    assertThat(second).isCompleted();
+    assertThat(third).isNotDone();
+
+    appender.flush().get(5, TimeUnit.SECONDS);
+    assertThat(third).isCompleted();
+  }
+
+  @Test
+  void sendsPartialBatchAfterLinger() throws Exception {
+    succeedingWriter();
+    BigQueryJsonStreamAppender appender = appender(StreamMode.DEFAULT);
+    appender.setLinger(Duration.ofMillis(10));
+
+    appender.append(row(1)).get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void sendsBatchWhenMaxBytesReached() throws Exception {
+    JsonStreamWriter writer = succeedingWriter();
+    BigQueryJsonStreamAppender appender = appender(StreamMode.DEFAULT);
+    appender.setMaxBatchBytes(1);
+    appender.setLinger(Duration.ofMinutes(1));
+
+    appender.append(row(1));
+
+    verify(writer).append(any(JSONArray.class));
+  }
+
+  @Test
+  void committedStreamAppendsAtTrackedOffsets() throws Exception {
+    JsonStreamWriter writer = succeedingWriter();
+    BigQueryJsonStreamAppender appender = appender(StreamMode.COMMITTED);
+    appender.setMaxBatchRows(2);
+
+    appender.append(row(1));
+    appender.append(row(2));
+    appender.append(row(3));
+    appender.close();
+
+    verify(writer).append(any(JSONArray.class), eq(0L));
+    verify(writer).append(any(JSONArray.class), eq(2L));
+    verify(writer, never()).append(any(JSONArray.class));
+    verify(writer).close();
+  }
+
+  @Test
+  void resendsBatchOnNewStreamWhenStreamFails() throws Exception {
+    JsonStreamWriter brokenWriter = mock(JsonStreamWriter.class);
+    when(brokenWriter.isClosed()).thenReturn(true);
+    when(brokenWriter.append(any(JSONArray.class), anyLong()))
+        .thenReturn(ApiFutures.immediateFailedFuture(new IllegalStateException("broken")));
+    this.streamWriters.add(brokenWriter);
+    JsonStreamWriter writer = succeedingWriter();
+    BigQueryJsonStreamAppender appender = appender(StreamMode.COMMITTED);
+    appender.setMaxBatchRows(1);
+
+    appender.append(row(1)).get(5, TimeUnit.SECONDS);
+
+    assertThat(this.createdStreamWriters).isEqualTo(2);
+    verify(brokenWriter).close();
+    verify(writer).append(any(JSONArray.class), eq(0L));
+  }
+
+  @Test
+  void resendsBatchAtSameOffsetAndCompletesWhenItWasAlreadyWritten() throws Exception {
+    JsonStreamWriter writer = mock(JsonStreamWriter.class);
+    when(writer.append(any(JSONArray.class), eq(0L)))
+        .thenReturn(ApiFutures.immediateFailedFuture(new IllegalStateException("lost response")))
+        .thenReturn(ApiFutures.immediateFailedFuture(offsetAlreadyExists()));
+    when(writer.append(any(JSONArray.class), eq(1L)))
+        .thenReturn(ApiFutures.immediateFuture(AppendRowsResponse.getDefaultInstance()));
+    this.streamWriters.add(writer);
+    BigQueryJsonStreamAppender appender = appender(StreamMode.COMMITTED);
+    appender.setMaxBatchRows(1);
+
+    appender.append(row(1)).get(5, TimeUnit.SECONDS);
+    appender.append(row(2)).get(5, TimeUnit.SECONDS);
+
+    assertThat(this.createdStreamWriters).isEqualTo(1);
+    verify(writer, times(2)).append(any(JSONArray.class), eq(0L));
+    verify(writer).append(any(JSONArray.class), eq(1L));
+    verify(writer, never()).close();
+  }
+
+  @Test
+  void blocksAppendWhileMaxPendingBatchesExceeded() throws Exception {
+    SettableApiFuture<AppendRowsResponse> response = SettableApiFuture.create();
+    JsonStreamWriter writer = mock(JsonStreamWriter.class);
+    when(writer.append(any(JSONArray.class))).thenReturn(response);
+    this.streamWriters.add(writer);
+    BigQueryJsonStreamAppender appender = appender(StreamMode.DEFAULT);
+    appender.setMaxBatchRows(1);
+    appender.setMaxPendingBatches(1);
+
+    CompletableFuture<Void> first = appender.append(row(1));
+    CompletableFuture<CompletableFuture<Void>> second =
+        CompletableFuture.supplyAsync(() -> appender.append(row(2)));
+
+    verify(writer, timeout(5000).times(2)).append(any(JSONArray.class));
+    assertThat(second).isNotDone();
+    response.set(AppendRowsResponse.getDefaultInstance());
+    first.get(5, TimeUnit.SECONDS);
+    second.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void failsRowsWhenRetryAttemptsExhausted() throws Exception {
+    JsonStreamWriter brokenWriter = mock(JsonStreamWriter.class);
+    when(brokenWriter.isClosed()).thenReturn(true);
+    when(brokenWriter.append(any(JSONArray.class)))
+        .thenReturn(ApiFutures.immediateFailedFuture(new IllegalStateException("broken")));
+    this.streamWriters.add(brokenWriter);
+    BigQueryJsonStreamAppender appender = appender(StreamMode.DEFAULT);
+    appender.setMaxBatchRows(1);
+    appender.setMaxRetryAttempts(0);
+
+    CompletableFuture<Void> future = appender.append(row(1));
+
+    assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(BigQueryException.class)
+        .hasRootCauseMessage("broken");
+  }
+
+  @Test
+  void appendsWithoutWaitingForAnotherThreadOpeningTheStream() throws Exception {
+    CountDownLatch opening = new CountDownLatch(1);
+    CountDownLatch opened = new CountDownLatch(1);
+    JsonStreamWriter writer = succeedingWriter();
+    BigQueryJsonStreamAppender appender =
+        new BigQueryJsonStreamAppender(
+            mock(BigQueryWriteClient.class), TABLE, StreamMode.DEFAULT, this.taskScheduler) {
+          @Override
+          JsonStreamWriter createStreamWriter() throws InterruptedException {
+            opening.countDown();
+            opened.await();
+            return writer;
+          }
+        };
+    appender.setMaxBatchRows(1);
+    appender.setLinger(Duration.ofMinutes(1));
+
+    CompletableFuture<CompletableFuture<Void>> first =
+        CompletableFuture.supplyAsync(() -> appender.append(row(1)));
+    assertThat(opening.await(5, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<Void> second = appender.append(row(2));
+
+    assertThat(second).isNotDone();
+    opened.countDown();
+    first.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+    second.get(5, TimeUnit.SECONDS);
+    verify(writer, times(2)).append(any(JSONArray.class));
+  }
+
+  @Test
+  void rejectsAppendsAfterClose() {
+    BigQueryJsonStreamAppender appender = appender(StreamMode.DEFAULT);
+    appender.close();
+
+    assertThatThrownBy(() -> appender.append(row(1)))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("The appender is closed");
+  }
+
+  private BigQueryJsonStreamAppender appender(StreamMode streamMode) {
+    return new BigQueryJsonStreamAppender(
+        mock(BigQueryWriteClient.class), TABLE, streamMode, this.taskScheduler) {
+      @Override
+      JsonStreamWriter createStreamWriter() {
+        BigQueryJsonStreamAppenderTests.this.createdStreamWriters++;
+        return BigQueryJsonStreamAppenderTests.this.streamWriters.remove();
+      }
+    };
+  }
+
+  private JsonStreamWriter succeedingWriter() throws Exception {
+    JsonStreamWriter writer = mock(JsonStreamWriter.class);
+    when(writer.append(any(JSONArray.class)))
+        .thenReturn(ApiFutures.immediateFuture(AppendRowsResponse.getDefaultInstance()));
+    when(writer.append(any(JSONArray.class), anyLong()))
+        .thenReturn(ApiFutures.immediateFuture(AppendRowsResponse.getDefaultInstance()));
+    this.streamWriters.add(writer);
+    return writer;
+  }
+
+  private static Throwable offsetAlreadyExists() {
+    StorageError error =
+        StorageError.newBuilder()
+            .setCode(StorageErrorCode.OFFSET_ALREADY_EXISTS)
+            .setEntity(TABLE.toString())
+            .setErrorMessage("Offset already exists")
+            .build();
+    Status status =
+        Status.newBuilder()
+            .setCode(Code.ALREADY_EXISTS.getNumber())
+            .addDetails(Any.pack(error))
+            .build();
+    return Exceptions.toStorageException(status, null);
+  }
+
+  private static JSONObject row(int id) {
+    return new JSONObject().put("id", id);
+  }
+}
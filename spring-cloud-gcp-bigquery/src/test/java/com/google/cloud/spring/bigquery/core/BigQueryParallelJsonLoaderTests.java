@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link BigQueryParallelJsonLoader}. */
+class BigQueryParallelJsonLoaderTests {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+  private final Map<BigQueryJsonDataWriter, List<String>> appendedLines =
+      new ConcurrentHashMap<>();
+
+  @AfterEach
+  void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  void splitsLinesAcrossStreams() throws Exception {
+    List<BigQueryJsonDataWriter> writers = List.of(writer(), writer(), writer());
+    String input =
+        IntStream.range(0, 25)
+            .mapToObj(i -> "{\"id\":" + i + "}")
+            .collect(Collectors.joining("\n"));
+
+    long rowCount =
+        new BigQueryParallelJsonLoader(writers, this.executor, 10)
+            .load(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+
+    assertThat(rowCount).isEqualTo(25);
+    assertThat(this.appendedLines.get(writers.get(0))).hasSize(10).startsWith("{\"id\":0}");
+    assertThat(this.appendedLines.get(writers.get(1))).hasSize(10).startsWith("{\"id\":10}");
+    assertThat(this.appendedLines.get(writers.get(2))).hasSize(5).startsWith("{\"id\":20}");
+    verify(writers.get(0)).appendJsonLines(any(Reader.class), eq(10));
+  }
+
+  @Test
+  void skipsBlankLines() throws Exception {
+    List<BigQueryJsonDataWriter> writers = List.of(writer(), writer());
+
+    long rowCount =
+        new BigQueryParallelJsonLoader(writers, this.executor, 10)
+            .load(new ByteArrayInputStream("{}\n\n  \n{}\n".getBytes(StandardCharsets.UTF_8)));
+
+    assertThat(rowCount).isEqualTo(2);
+    assertThat(this.appendedLines.get(writers.get(0))).containsExactly("{}", "{}");
+    assertThat(this.appendedLines.get(writers.get(1))).isEmpty();
+  }
+
+  @Test
+  void failedAppendFailsLoad() throws Exception {
+    BigQueryJsonDataWriter failingWriter = mock(BigQueryJsonDataWriter.class);
+    willThrow(new IOException("append failed"))
+        .given(failingWriter)
+        .appendJsonLines(any(Reader.class), anyInt());
+    List<BigQueryJsonDataWriter> writers = List.of(writer(), failingWriter);
+    String input =
+        IntStream.range(0, 1000).mapToObj(i -> "{}").collect(Collectors.joining("\n"));
+
+    assertThatThrownBy(
+            () ->
+                new BigQueryParallelJsonLoader(writers, this.executor, 10)
+                    .load(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))))
+        .isInstanceOf(IOException.class)
+        .hasMessage("append failed");
+  }
+
+  private BigQueryJsonDataWriter writer() throws IOException {
+    BigQueryJsonDataWriter writer = mock(BigQueryJsonDataWriter.class);
+    List<String> lines = new CopyOnWriteArrayList<>();
+    this.appendedLines.put(writer, lines);
+    willAnswer(
+            invocation -> {
+              List<String> chunk = new ArrayList<>();
+              new BufferedReader(invocation.<Reader>getArgument(0)).lines().forEach(chunk::add);
+              lines.addAll(chunk);
+              return (long) chunk.size();
+            })
+        .given(writer)
+        .appendJsonLines(any(Reader.class), anyInt());
+    return writer;
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.cloud.bigquery.storage.v1.TableFieldSchema;
+import com.google.cloud.bigquery.storage.v1.TableSchema;
+import com.google.gson.stream.JsonReader;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.DynamicMessage;
+import java.io.StringReader;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link BigQueryProtoRowEncoder}. */
+class BigQueryProtoRowEncoderTests {
+
+  private static final TableSchema SCHEMA =
+      TableSchema.newBuilder()
+          .addFields(field("name", TableFieldSchema.Type.STRING))
+          .addFields(field("count", TableFieldSchema.Type.INT64))
+          .addFields(field("price", TableFieldSchema.Type.NUMERIC))
+          .addFields(field("day", TableFieldSchema.Type.DATE))
+          .addFields(field("created", TableFieldSchema.Type.TIMESTAMP))
+          .addFields(field("payload", TableFieldSchema.Type.BYTES))
+          .addFields(
+              field("tags", TableFieldSchema.Type.STRING).toBuilder()
+                  .setMode(TableFieldSchema.Mode.REPEATED))
+          .addFields(
+              field("address", TableFieldSchema.Type.STRUCT).toBuilder()
+                  .addFields(field("city", TableFieldSchema.Type.STRING))
+                  .addFields(field("zip", TableFieldSchema.Type.INT64)))
+          .build();
+
+  private BigQueryProtoRowEncoder encoder;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    this.encoder = new BigQueryProtoRowEncoder(SCHEMA);
+  }
+
+  @Test
+  void encodesMap() {
+    DynamicMessage row =
+        this.encoder.encode(
+            Map.of(
+                "Name", "widget",
+                "count", 3,
+                "day", LocalDate.of(2024, 1, 2),
+                "created", Instant.ofEpochSecond(1, 500_000),
+                "payload", new byte[] {1, 2},
+                "tags", List.of("a", "b"),
+                "address", Map.of("city", "Paris", "zip", "75001")));
+
+    assertThat(value(row, "name")).isEqualTo("widget");
+    assertThat(value(row, "count")).isEqualTo(3L);
+    assertThat(value(row, "day")).isEqualTo((int) LocalDate.of(2024, 1, 2).toEpochDay());
+    assertThat(value(row, "created")).isEqualTo(1_000_500L);
+    assertThat(value(row, "payload")).isEqualTo(ByteString.copyFrom(new byte[] {1, 2}));
+    assertThat(value(row, "tags")).isEqualTo(List.of("a", "b"));
+    DynamicMessage address = (DynamicMessage) value(row, "address");
+    assertThat(value(address, "city")).isEqualTo("Paris");
+    assertThat(value(address, "zip")).isEqualTo(75001L);
+    assertThat(row.hasField(field(row, "price"))).isFalse();
+  }
+
+  @Test
+  void encodesRecord() {
+    DynamicMessage row = this.encoder.encode(new Item("widget", 7L, new Address("Oslo", 150L)));
+
+    assertThat(value(row, "name")).isEqualTo("widget");
+    assertThat(value(row, "count")).isEqualTo(7L);
+    DynamicMessage address = (DynamicMessage) value(row, "address");
+    assertThat(value(address, "city")).isEqualTo("Oslo");
+    assertThat(value(address, "zip")).isEqualTo(150L);
+  }
+
+  @Test
+  void encodesJsonLinesKeepingNumericPrecision() throws Exception {
+    JsonReader jsonReader =
+        new JsonReader(
+            new StringReader(
+                "{\"name\":\"a\",\"price\":12345678901234567890.123456789,"
+                    + "\"day\":\"2024-01-02\",\"created\":\"1970-01-01T00:00:01Z\","
+                    + "\"tags\":[\"x\"],\"address\":{\"city\":\"Rome\",\"zip\":10}}\n"
+                    + "{\"name\":\"b\",\"count\":\"42\",\"created\":2,\"tags\":null}"));
+    jsonReader.setLenient(true);
+
+    DynamicMessage first = this.encoder.encodeJson(jsonReader);
+    DynamicMessage second = this.encoder.encodeJson(jsonReader);
+
+    assertThat(value(first, "price")).isEqualTo("12345678901234567890.123456789");
+    assertThat(value(first, "day")).isEqualTo((int) LocalDate.of(2024, 1, 2).toEpochDay());
+    assertThat(value(first, "created")).isEqualTo(1_000_000L);
+    assertThat(value(first, "tags")).isEqualTo(List.of("x"));
+    assertThat(value((DynamicMessage) value(first, "address"), "zip")).isEqualTo(10L);
+    assertThat(value(second, "name")).isEqualTo("b");
+    assertThat(value(second, "count")).isEqualTo(42L);
+    assertThat(value(second, "created")).isEqualTo(2L);
+    assertThat((List<?>) value(second, "tags")).isEmpty();
+  }
+
+  @Test
+  void convertsValuesLikeJsonStreamWriter() throws Exception {
+    BigQueryProtoRowEncoder flagEncoder =
+        new BigQueryProtoRowEncoder(
+            TableSchema.newBuilder()
+                .addFields(field("enabled", TableFieldSchema.Type.BOOL))
+                .build());
+
+    assertThat(value(this.encoder.encode(Map.of("count", "1.0")), "count")).isEqualTo(1L);
+    assertThat(value(this.encoder.encode(Map.of("count", 2.0)), "count")).isEqualTo(2L);
+    assertThat(value(flagEncoder.encode(Map.of("enabled", "TRUE")), "enabled")).isEqualTo(true);
+    assertThat(
+            value(
+                this.encoder.encode(Map.of("created", "1970-01-01 00:00:01.5 UTC")), "created"))
+        .isEqualTo(1_500_000L);
+    assertThat(value(this.encoder.encode(Map.of("created", "1970-01-01 00:00:01")), "created"))
+        .isEqualTo(1_000_000L);
+    assertThat(
+            value(
+                this.encoder.encode(Map.of("created", "1970-01-01T01:00:01+01:00")), "created"))
+        .isEqualTo(1_000_000L);
+  }
+
+  @Test
+  void rejectsInexactValues() throws Exception {
+    BigQueryProtoRowEncoder flagEncoder =
+        new BigQueryProtoRowEncoder(
+            TableSchema.newBuilder()
+                .addFields(field("enabled", TableFieldSchema.Type.BOOL))
+                .build());
+
+    assertThatThrownBy(() -> flagEncoder.encode(Map.of("enabled", "yes")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid BOOL value for column enabled");
+    assertThatThrownBy(() -> this.encoder.encode(Map.of("count", "1.5")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid INT64 value for column count");
+  }
+
+  @Test
+  void keepsCaseOfColumnNames() throws Exception {
+    BigQueryProtoRowEncoder mixedCaseEncoder =
+        new BigQueryProtoRowEncoder(
+            TableSchema.newBuilder()
+                .addFields(field("userName", TableFieldSchema.Type.STRING))
+                .build());
+
+    DynamicMessage row = mixedCaseEncoder.encode(Map.of("USERNAME", "ada"));
+
+    assertThat(value(row, "userName")).isEqualTo("ada");
+  }
+
+  @Test
+  void rejectsUnknownColumn() {
+    assertThatThrownBy(() -> this.encoder.encode(Map.of("unknown", 1)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Unknown column unknown");
+  }
+
+  @Test
+  void rejectsInvalidValue() {
+    assertThatThrownBy(() -> this.encoder.encode(Map.of("count", "many")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid INT64 value for column count");
+  }
+
+  @Test
+  void describesColumnsWithWireCompatibleTypes() {
+    Descriptor descriptor = this.encoder.getDescriptor();
+
+    assertThat(descriptor.findFieldByName("tags").isRepeated()).isTrue();
+    assertThat(descriptor.findFieldByName("day").getJavaType())
+        .isEqualTo(FieldDescriptor.JavaType.INT);
+    assertThat(descriptor.findFieldByName("address").getMessageType().getFields()).hasSize(2);
+    assertThat(this.encoder.getProtoSchema().hasProtoDescriptor()).isTrue();
+  }
+
+  private static TableFieldSchema field(String name, TableFieldSchema.Type type) {
+    return TableFieldSchema.newBuilder()
+        .setName(name)
+        .setType(type)
+        .setMode(TableFieldSchema.Mode.NULLABLE)
+        .build();
+  }
+
+  private static FieldDescriptor field(DynamicMessage row, String name) {
+    return row.getDescriptorForType().findFieldByName(name);
+  }
+
+  private static Object value(DynamicMessage row, String name) {
+    return row.getField(field(row, name));
+  }
+
+  record Address(String city, Long zip) {}
+
+  record Item(String name, Long count, Address address) {}
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.google.api.gax.rpc.ServerStream;
+import com.google.api.gax.rpc.ServerStreamingCallable;
+import com.google.cloud.bigquery.storage.v1.ArrowSchema;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
+import com.google.cloud.bigquery.storage.v1.CreateReadSessionRequest;
+import com.google.cloud.bigquery.storage.v1.DataFormat;
+import com.google.cloud.bigquery.storage.v1.ReadRowsRequest;
+import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
+import com.google.cloud.bigquery.storage.v1.ReadSession;
+import com.google.cloud.bigquery.storage.v1.ReadStream;
+import com.google.cloud.bigquery.storage.v1.TableName;
+import com.google.protobuf.ByteString;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.VectorUnloader;
+import org.apache.arrow.vector.ipc.WriteChannel;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
+import org.apache.arrow.vector.ipc.message.MessageSerializer;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.arrow.vector.util.Text;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockMakers;
+
+/** Tests for {@link BigQueryStorageReader}. */
+class BigQueryStorageReaderTests {
+
+  private static final TableName TABLE = TableName.of("project", "dataset", "table");
+
+  private static final Schema SCHEMA =
+      new Schema(
+          List.of(
+              Field.nullable("id", new ArrowType.Int(64, true)),
+              Field.nullable("name", ArrowType.Utf8.INSTANCE)));
+
+  // The methods of BigQueryReadClient are final.
+  private final BigQueryReadClient readClient =
+      mock(BigQueryReadClient.class, withSettings().mockMaker(MockMakers.INLINE));
+
+  @SuppressWarnings("unchecked")
+  private final ServerStreamingCallable<ReadRowsRequest, ReadRowsResponse> readRowsCallable =
+      mock(ServerStreamingCallable.class);
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  private BigQueryStorageReader reader;
+
+  @BeforeEach
+  void setUp() {
+    when(this.readClient.readRowsCallable()).thenReturn(this.readRowsCallable);
+    this.reader = new BigQueryStorageReader(this.readClient, "billing-project");
+    this.reader.setExecutor(this.executor);
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  void readsRowsOfAllStreamsWithReadOptions() throws Exception {
+    ArgumentCaptor<CreateReadSessionRequest> request =
+        ArgumentCaptor.forClass(CreateReadSessionRequest.class);
+    when(this.readClient.createReadSession(request.capture())).thenReturn(session("s1", "s2"));
+    stubStream("s1", response(1L, "one"), response(2L, "two"));
+    stubStream("s2", response(3L, "three"));
+    BigQueryReadOptions readOptions = new BigQueryReadOptions();
+    readOptions.setSelectedFields(List.of("id", "name"));
+    readOptions.setRowRestriction("id > 0");
+    readOptions.setMaxStreamCount(2);
+
+    List<String> rows;
+    try (Stream<String> stream =
+        this.reader.read(TABLE, readOptions, row -> row.get("id") + ":" + row.get("name"))) {
+      rows = stream.collect(Collectors.toList());
+    }
+
+    assertThat(rows).containsExactlyInAnyOrder("1:one", "2:two", "3:three");
+    assertThat(request.getValue().getParent()).isEqualTo("projects/billing-project");
+    assertThat(request.getValue().getMaxStreamCount()).isEqualTo(2);
+    ReadSession requestedSession = request.getValue().getReadSession();
+    assertThat(requestedSession.getTable()).isEqualTo(TABLE.toString());
+    assertThat(requestedSession.getDataFormat()).isEqualTo(DataFormat.ARROW);
+    assertThat(requestedSession.getReadOptions().getSelectedFieldsList())
+        .containsExactly("id", "name");
+    assertThat(requestedSession.getReadOptions().getRowRestriction()).isEqualTo("id > 0");
+  }
+
+  @Test
+  void readsNothingFromEmptySession() throws Exception {
+    when(this.readClient.createReadSession(any(CreateReadSessionRequest.class)))
+        .thenReturn(session());
+
+    try (Stream<Map<String, Object>> stream =
+        this.reader.read(TABLE, new BigQueryReadOptions(), row -> row)) {
+      assertThat(stream).isEmpty();
+    }
+  }
+
+  @Test
+  void failedStreamFailsRead() throws Exception {
+    when(this.readClient.createReadSession(any(CreateReadSessionRequest.class)))
+        .thenReturn(session("s1"));
+    when(this.readRowsCallable.call(any(ReadRowsRequest.class)))
+        .thenThrow(new IllegalStateException("unavailable"));
+
+    try (Stream<Map<String, Object>> stream =
+        this.reader.read(TABLE, new BigQueryReadOptions(), row -> row)) {
+      assertThatThrownBy(stream::count)
+          .isInstanceOf(BigQueryException.class)
+          .hasRootCauseMessage("unavailable");
+    }
+  }
+
+  @Test
+  void decodesTextInRepeatedAndNestedFields() {
+    Object value =
+        BigQueryStorageReader.toValue(
+            List.of(new Text("one"), Map.of("name", new Text("two"), "id", 2L)));
+
+    assertThat(value).isEqualTo(List.of("one", Map.of("name", "two", "id", 2L)));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void stubStream(String streamName, ReadRowsResponse... responses) {
+    ServerStream<ReadRowsResponse> serverStream = mock(ServerStream.class);
+    when(serverStream.iterator()).thenReturn(List.of(responses).iterator());
+    when(this.readRowsCallable.call(
+            ReadRowsRequest.newBuilder().setReadStream(streamName).build()))
+        .thenReturn(serverStream);
+  }
+
+  private static ReadSession session(String... streamNames) throws IOException {
+    ByteArrayOutputStream schema = new ByteArrayOutputStream();
+    MessageSerializer.serialize(new WriteChannel(Channels.newChannel(schema)), SCHEMA);
+    ReadSession.Builder session =
+        ReadSession.newBuilder()
+            .setArrowSchema(
+                ArrowSchema.newBuilder()
+                    .setSerializedSchema(ByteString.copyFrom(schema.toByteArray())));
+    for (String streamName : streamNames) {
+      session.addStreams(ReadStream.newBuilder().setName(streamName));
+    }
+    return session.build();
+  }
+
+  private static ReadRowsResponse response(long id, String name) throws IOException {
+    try (RootAllocator allocator = new RootAllocator();
+        VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator)) {
+      BigIntVector ids = (BigIntVector) root.getVector("id");
+      VarCharVector names = (VarCharVector) root.getVector("name");
+      ids.allocateNew(1);
+      names.allocateNew(1);
+      ids.set(0, id);
+      names.set(0, name.getBytes(StandardCharsets.UTF_8));
+      root.setRowCount(1);
+      ByteArrayOutputStream recordBatch = new ByteArrayOutputStream();
+      try (ArrowRecordBatch batch = new VectorUnloader(root).getRecordBatch()) {
+        MessageSerializer.serialize(new WriteChannel(Channels.newChannel(recordBatch)), batch);
+      }
+      return ReadRowsResponse.newBuilder()
+          .setRowCount(1)
+          .setArrowRecordBatch(
+              com.google.cloud.bigquery.storage.v1.ArrowRecordBatch.newBuilder()
+                  .setSerializedRecordBatch(ByteString.copyFrom(recordBatch.toByteArray()))
+                  .setRowCount(1))
+          .build();
+    }
+  }
+}
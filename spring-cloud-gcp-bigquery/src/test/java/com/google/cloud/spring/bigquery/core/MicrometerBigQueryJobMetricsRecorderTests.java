@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link MicrometerBigQueryJobMetricsRecorder}. */
+class MicrometerBigQueryJobMetricsRecorderTests {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final MicrometerBigQueryJobMetricsRecorder recorder =
+      new MicrometerBigQueryJobMetricsRecorder(this.meterRegistry);
+
+  @Test
+  void recordsJobWaits() {
+    this.recorder.recordJobWait("LOAD", TimeUnit.MILLISECONDS.toNanos(150), 3, true);
+    this.recorder.recordJobWait("LOAD", TimeUnit.MILLISECONDS.toNanos(50), 1, true);
+    this.recorder.recordJobWait("LOAD", TimeUnit.MILLISECONDS.toNanos(10), 1, false);
+
+    Timer successes =
+        this.meterRegistry
+            .get("bigquery.job.wait")
+            .tags("type", "LOAD", "outcome", "success")
+            .timer();
+    assertThat(successes.count()).isEqualTo(2);
+    assertThat(successes.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(200);
+    DistributionSummary checks =
+        this.meterRegistry
+            .get("bigquery.job.status.checks")
+            .tags("type", "LOAD", "outcome", "success")
+            .summary();
+    assertThat(checks.totalAmount()).isEqualTo(4);
+    assertThat(
+            this.meterRegistry
+                .get("bigquery.job.wait")
+                .tags("type", "LOAD", "outcome", "failure")
+                .timer()
+                .count())
+        .isEqualTo(1);
+  }
+}
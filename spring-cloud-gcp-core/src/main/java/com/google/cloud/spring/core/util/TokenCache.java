@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.core.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.function.Function;
+import org.springframework.util.Assert;
+
+/**
+ * A bounded cache of values obtained from tokens, such as verified JWTs, each kept until its own
+ * expiration time.
+ *
+ * <p>Entries are keyed by a SHA-256 digest of the token, so that the cache doesn't hold on to
+ * credentials. Once the cache holds {@code maxSize} entries, adding an entry evicts the least
+ * recently used one. Entries are never returned once their expiration time has passed, and values
+ * without an expiration time are never cached.
+ *
+ * @param <T> the type of cached values
+ * @since 6.1.2
+ */
+public final class TokenCache<T> {
+
+  private final Cache<ByteBuffer, T> cache;
+
+  private final Function<? super T, Instant> expirationTime;
+
+  private final Clock clock;
+
+  /**
+   * Create a token cache.
+   *
+   * @param maxSize the maximum number of cached values
+   * @param expirationTime returns the time a value expires, or {@code null} if it doesn't
+   */
+  public TokenCache(int maxSize, Function<? super T, Instant> expirationTime) {
+    this(maxSize, expirationTime, Clock.systemUTC());
+  }
+
+  TokenCache(int maxSize, Function<? super T, Instant> expirationTime, Clock clock) {
+    Assert.isTrue(maxSize > 0, "maxSize must be positive.");
+    Assert.notNull(expirationTime, "expirationTime can't be null.");
+    Assert.notNull(clock, "clock can't be null.");
+    this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    this.expirationTime = expirationTime;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the value cached for a token.
+   *
+   * @param token the token
+   * @return the cached value, or {@code null} if there is none or it has expired
+   */
+  public T get(String token) {
+    ByteBuffer key = hash(token);
+    T value = this.cache.getIfPresent(key);
+    if (value != null && isExpired(value)) {
+      this.cache.invalidate(key);
+      return null;
+    }
+    return value;
+  }
+
+  /**
+   * Caches the value obtained from a token until it expires. Values that have no expiration time
+   * or have already expired are not cached.
+   *
+   * @param token the token
+   * @param value the value
+   */
+  public void put(String token, T value) {
+    if (!isExpired(value)) {
+      this.cache.put(hash(token), value);
+    }
+  }
+
+  long size() {
+    return this.cache.size();
+  }
+
+  private boolean isExpired(T value) {
+    Instant expiresAt = this.expirationTime.apply(value);
+    return expiresAt == null || !this.clock.instant().isBefore(expiresAt);
+  }
+
+  private static ByteBuffer hash(String token) {
+    try {
+      return ByteBuffer.wrap(
+          MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link TokenCache}. */
+class TokenCacheTests {
+
+  private final MutableClock clock = new MutableClock();
+
+  private final TokenCache<Instant> cache = new TokenCache<>(2, Function.identity(), this.clock);
+
+  @Test
+  void returnsValueUntilItExpires() {
+    Instant expiresAt = this.clock.instant().plusSeconds(10);
+    this.cache.put("token", expiresAt);
+    assertThat(this.cache.get("token")).isEqualTo(expiresAt);
+    assertThat(this.cache.get("other")).isNull();
+
+    this.clock.advance(Duration.ofSeconds(10));
+
+    assertThat(this.cache.get("token")).isNull();
+    assertThat(this.cache.size()).isZero();
+  }
+
+  @Test
+  void doesNotCacheExpiredValues() {
+    this.cache.put("expired", this.clock.instant());
+    this.cache.put("never-expires", null);
+
+    assertThat(this.cache.size()).isZero();
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedValueWhenFull() {
+    Instant expiresAt = this.clock.instant().plusSeconds(10);
+    this.cache.put("first", expiresAt);
+    this.cache.put("second", expiresAt);
+    this.cache.get("first");
+
+    this.cache.put("third", expiresAt);
+
+    assertThat(this.cache.size()).isEqualTo(2);
+    assertThat(this.cache.get("first")).isNotNull();
+    assertThat(this.cache.get("second")).isNull();
+    assertThat(this.cache.get("third")).isNotNull();
+  }
+
+  @Test
+  void rejectsNonPositiveMaxSize() {
+    assertThatThrownBy(() -> new TokenCache<Instant>(0, Function.identity()))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxSize must be positive.");
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant instant = Instant.parse("2024-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      this.instant = this.instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return this.instant;
+    }
+  }
+}
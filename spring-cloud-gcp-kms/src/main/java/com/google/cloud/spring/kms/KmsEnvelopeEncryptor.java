@@ -0,0 +1,196 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.kms;
+
+import com.google.cloud.kms.v1.CryptoKeyName;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encrypts payloads locally with AES-GCM data keys that are wrapped by a Cloud KMS key, so that
+ * Cloud KMS is only called to wrap a new data key or to unwrap a data key that isn't cached.
+ *
+ * <p>The cipher text is self-describing: it holds the format version, the wrapped data key, the
+ * nonce, and the AES-GCM cipher text and tag. The format version and wrapped data key are
+ * authenticated as additional data.
+ *
+ * <pre>
+ * version (1 byte) | wrapped key length (2 bytes) | wrapped key | nonce (12 bytes) | cipher text
+ * </pre>
+ */
+class KmsEnvelopeEncryptor {
+
+  static final byte FORMAT_VERSION = 1;
+
+  /** Number of encryptions after which a data key is replaced, to bound nonce reuse risks. */
+  static final long MAX_ENCRYPTIONS_PER_DATA_KEY = 1L << 32;
+
+  private static final int DATA_KEY_SIZE = 32;
+
+  private static final int NONCE_SIZE = 12;
+
+  private static final int TAG_SIZE_BITS = 128;
+
+  private static final int HEADER_SIZE = 3;
+
+  private static final String CIPHER = "AES/GCM/NoPadding";
+
+  private final SecureRandom random = new SecureRandom();
+
+  private final BiFunction<CryptoKeyName, byte[], byte[]> wrapper;
+
+  private final BiFunction<CryptoKeyName, byte[], byte[]> unwrapper;
+
+  /** The data key each Cloud KMS key currently encrypts with. */
+  private final Cache<CryptoKeyName, DataKey> encryptionKeys;
+
+  /** Unwrapped data keys, by the Cloud KMS key and wrapped data key. */
+  private final Cache<DataKeyId, SecretKey> decryptionKeys;
+
+  KmsEnvelopeEncryptor(
+      BiFunction<CryptoKeyName, byte[], byte[]> wrapper,
+      BiFunction<CryptoKeyName, byte[], byte[]> unwrapper,
+      Duration dataKeyTimeToLive,
+      long maximumCachedDataKeys) {
+    this.wrapper = wrapper;
+    this.unwrapper = unwrapper;
+    this.encryptionKeys =
+        CacheBuilder.newBuilder()
+            .expireAfterWrite(dataKeyTimeToLive)
+            .maximumSize(maximumCachedDataKeys)
+            .build();
+    this.decryptionKeys =
+        CacheBuilder.newBuilder()
+            .expireAfterAccess(dataKeyTimeToLive)
+            .maximumSize(maximumCachedDataKeys)
+            .build();
+  }
+
+  byte[] encrypt(CryptoKeyName cryptoKeyName, byte[] plaintext) {
+    DataKey dataKey = getEncryptionKey(cryptoKeyName);
+    byte[] wrappedKey = dataKey.wrappedKey();
+    byte[] nonce = new byte[NONCE_SIZE];
+    this.random.nextBytes(nonce);
+
+    ByteBuffer cipherText =
+        ByteBuffer.allocate(
+            HEADER_SIZE + wrappedKey.length + NONCE_SIZE + plaintext.length + TAG_SIZE_BITS / 8);
+    cipherText.put(FORMAT_VERSION).putShort((short) wrappedKey.length).put(wrappedKey);
+    try {
+      Cipher cipher = Cipher.getInstance(CIPHER);
+      cipher.init(Cipher.ENCRYPT_MODE, dataKey.key(), new GCMParameterSpec(TAG_SIZE_BITS, nonce));
+      cipher.updateAAD(cipherText.array(), 0, cipherText.position());
+      cipherText.put(nonce);
+      cipher.doFinal(ByteBuffer.wrap(plaintext), cipherText);
+    } catch (GeneralSecurityException ex) {
+      throw new KmsException("Envelope encryption failed.", ex);
+    }
+    return cipherText.array();
+  }
+
+  byte[] decrypt(CryptoKeyName cryptoKeyName, byte[] cipherText) {
+    ByteBuffer buffer = ByteBuffer.wrap(cipherText);
+    if (buffer.remaining() < HEADER_SIZE || buffer.get() != FORMAT_VERSION) {
+      throw new KmsException("The cipher text is not in the envelope encryption format.");
+    }
+    int wrappedKeyLength = Short.toUnsignedInt(buffer.getShort());
+    if (buffer.remaining() < wrappedKeyLength + NONCE_SIZE + TAG_SIZE_BITS / 8) {
+      throw new KmsException("The cipher text is not in the envelope encryption format.");
+    }
+    byte[] wrappedKey = new byte[wrappedKeyLength];
+    buffer.get(wrappedKey);
+    byte[] nonce = new byte[NONCE_SIZE];
+    buffer.get(nonce);
+
+    SecretKey key = getDecryptionKey(cryptoKeyName, wrappedKey);
+    try {
+      Cipher cipher = Cipher.getInstance(CIPHER);
+      cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_SIZE_BITS, nonce));
+      cipher.updateAAD(cipherText, 0, HEADER_SIZE + wrappedKeyLength);
+      return cipher.doFinal(cipherText, buffer.position(), buffer.remaining());
+    } catch (AEADBadTagException ex) {
+      throw new KmsException("Envelope decryption failed: the cipher text was modified.", ex);
+    } catch (GeneralSecurityException ex) {
+      throw new KmsException("Envelope decryption failed.", ex);
+    }
+  }
+
+  private DataKey getEncryptionKey(CryptoKeyName cryptoKeyName) {
+    while (true) {
+      DataKey dataKey = getCached(this.encryptionKeys, cryptoKeyName, this::createDataKey);
+      if (dataKey.encryptions().incrementAndGet() <= MAX_ENCRYPTIONS_PER_DATA_KEY) {
+        return dataKey;
+      }
+      this.encryptionKeys.asMap().remove(cryptoKeyName, dataKey);
+    }
+  }
+
+  private DataKey createDataKey(CryptoKeyName cryptoKeyName) {
+    byte[] keyBytes = new byte[DATA_KEY_SIZE];
+    this.random.nextBytes(keyBytes);
+    SecretKey key = new SecretKeySpec(keyBytes, "AES");
+    byte[] wrappedKey = this.wrapper.apply(cryptoKeyName, keyBytes);
+    if (wrappedKey.length > 0xFFFF) {
+      throw new KmsException("The wrapped data key is too large.");
+    }
+    // Data encrypted by this process can be decrypted without unwrapping the key.
+    this.decryptionKeys.put(new DataKeyId(cryptoKeyName, ByteString.copyFrom(wrappedKey)), key);
+    return new DataKey(key, wrappedKey, new AtomicLong());
+  }
+
+  private SecretKey getDecryptionKey(CryptoKeyName cryptoKeyName, byte[] wrappedKey) {
+    return getCached(
+        this.decryptionKeys,
+        new DataKeyId(cryptoKeyName, ByteString.copyFrom(wrappedKey)),
+        id -> new SecretKeySpec(this.unwrapper.apply(cryptoKeyName, wrappedKey), "AES"));
+  }
+
+  /** Loads a cache entry, rethrowing failures to load it unwrapped. */
+  private static <K, V> V getCached(Cache<K, V> cache, K key, Function<K, V> loader) {
+    try {
+      return cache.get(key, () -> loader.apply(key));
+    } catch (ExecutionException | UncheckedExecutionException | ExecutionError ex) {
+      if (ex.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (ex.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new KmsException("Failed to load the data key.", ex.getCause());
+    }
+  }
+
+  private record DataKey(SecretKey key, byte[] wrappedKey, AtomicLong encryptions) {}
+
+  private record DataKeyId(CryptoKeyName cryptoKeyName, ByteString wrappedKey) {}
+}
@@ -17,6 +17,8 @@
 package com.google.cloud.spring.kms;
 
 import com.google.cloud.spring.core.GcpProjectIdProvider;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Describes supported operations that one can perform on the KMS API.
@@ -81,4 +83,133 @@ public interface KmsOperations {
    * @return The decrypted bytes UTF-8 encoded
    */
   String decryptText(String cryptoKey, byte[] cipherText);
+
+  /**
+   * Encrypt the {@code text} with envelope encryption, using a data key wrapped by the specified
+   * KMS resource string {@code cryptoKey}.
+   *
+   * @param cryptoKey The KMS resource string
+   * @param text UTF-8 encoded text to encrypt
+   * @return The encrypted bytes, including the wrapped data key
+   * @see #envelopeEncryptBytes(String, byte[])
+   * @since 6.1.2
+   */
+  byte[] envelopeEncryptText(String cryptoKey, String text);
+
+  /**
+   * Encrypt the {@code bytes} with envelope encryption, using a data key wrapped by the specified
+   * KMS resource string {@code cryptoKey}.
+   *
+   * <p>The bytes are encrypted locally with an AES-GCM data key. A new data key is generated and
+   * wrapped by GCP KMS only when no data key for {@code cryptoKey} is cached, so most calls don't
+   * issue any request, and the size of the bytes isn't limited by GCP KMS. The result can only be
+   * decrypted with {@link #envelopeDecryptBytes(String, byte[])}.
+   *
+   * @param cryptoKey The KMS resource string
+   * @param bytes The bytes to encrypt
+   * @return The encrypted bytes, including the wrapped data key
+   * @since 6.1.2
+   */
+  byte[] envelopeEncryptBytes(String cryptoKey, byte[] bytes);
+
+  /**
+   * Decrypt bytes encrypted with {@link #envelopeEncryptBytes(String, byte[])}.
+   *
+   * <p>A decryption request unwrapping the data key will be issued using GCP KMS only when the
+   * data key isn't cached.
+   *
+   * @param cryptoKey The KMS resource string that wrapped the data key
+   * @param cipherText The encrypted bytes
+   * @return The decrypted bytes
+   * @since 6.1.2
+   */
+  byte[] envelopeDecryptBytes(String cryptoKey, byte[] cipherText);
+
+  /**
+   * Decrypt text encrypted with {@link #envelopeEncryptText(String, String)}.
+   *
+   * @param cryptoKey The KMS resource string that wrapped the data key
+   * @param cipherText The encrypted bytes
+   * @return The decrypted bytes UTF-8 encoded
+   * @since 6.1.2
+   */
+  String envelopeDecryptText(String cryptoKey, byte[] cipherText);
+
+  /**
+   * Encrypt the {@code text} using the specified KMS resource string {@code cryptoKey}, without
+   * waiting for the response.
+   *
+   * @param cryptoKey The KMS resource string
+   * @param text UTF-8 encoded text to encrypt
+   * @return A future of the encrypted bytes
+   * @see #encryptBytesAsync(String, byte[])
+   * @since 6.1.2
+   */
+  CompletableFuture<byte[]> encryptTextAsync(String cryptoKey, String text);
+
+  /**
+   * Encrypt the {@code bytes} using the specified KMS resource string {@code cryptoKey}, without
+   * waiting for the response.
+   *
+   * <p>An encryption request will be issued using GCP KMS. The calling thread blocks while the
+   * maximum number of requests awaiting a response is reached.
+   *
+   * @param cryptoKey The KMS resource string
+   * @param bytes The bytes to encrypt
+   * @return A future of the encrypted bytes
+   * @since 6.1.2
+   */
+  CompletableFuture<byte[]> encryptBytesAsync(String cryptoKey, byte[] bytes);
+
+  /**
+   * Decrypt the text using the specified KMS resource string {@code cryptoKey}, without waiting
+   * for the response.
+   *
+   * @param cryptoKey The KMS resource string
+   * @param cipherText The encrypted bytes
+   * @return A future of the decrypted bytes UTF-8 encoded
+   * @see #decryptBytesAsync(String, byte[])
+   * @since 6.1.2
+   */
+  CompletableFuture<String> decryptTextAsync(String cryptoKey, byte[] cipherText);
+
+  /**
+   * Decrypt the bytes using the specified KMS resource string {@code cryptoKey}, without waiting
+   * for the response.
+   *
+   * <p>A decryption request will be issued using GCP KMS. The calling thread blocks while the
+   * maximum number of requests awaiting a response is reached.
+   *
+   * @param cryptoKey The KMS resource string
+   * @param cipherText The encrypted bytes
+   * @return A future of the decrypted bytes
+   * @since 6.1.2
+   */
+  CompletableFuture<byte[]> decryptBytesAsync(String cryptoKey, byte[] cipherText);
+
+  /**
+   * Encrypt each of the {@code bytesList} using the specified KMS resource string {@code
+   * cryptoKey}, issuing the requests concurrently.
+   *
+   * <p>A failed item doesn't fail the others; its result holds the exception instead.
+   *
+   * @param cryptoKey The KMS resource string
+   * @param bytesList The bytes to encrypt
+   * @return The results, in the order of the bytes
+   * @since 6.1.2
+   */
+  List<KmsResult<byte[]>> encryptAll(String cryptoKey, List<byte[]> bytesList);
+
+  /**
+   * Decrypt each of the {@code cipherTexts} using the specified KMS resource string {@code
+   * cryptoKey}, issuing the requests concurrently.
+   *
+   * <p>A failed item doesn't fail the others; its result holds the exception instead.
+   *
+   * @param cryptoKey The KMS resource string
+   * @param cipherTexts The encrypted bytes
+   * @return The results, in the order of the cipher texts
+   * @since 6.1.2
+   */
+  List<KmsResult<byte[]>> decryptAll(String cryptoKey, List<byte[]> cipherTexts);
 }
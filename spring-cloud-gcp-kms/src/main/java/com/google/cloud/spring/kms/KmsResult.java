@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.kms;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * The outcome of one item of a bulk KMS operation: either its result, or the exception that
+ * failed it.
+ *
+ * @param <T> the type of the result
+ * @since 6.1.2
+ */
+public final class KmsResult<T> {
+
+  @Nullable private final T value;
+
+  @Nullable private final Throwable exception;
+
+  private KmsResult(@Nullable T value, @Nullable Throwable exception) {
+    this.value = value;
+    this.exception = exception;
+  }
+
+  static <T> KmsResult<T> success(T value) {
+    return new KmsResult<>(value, null);
+  }
+
+  static <T> KmsResult<T> failure(Throwable exception) {
+    return new KmsResult<>(null, exception);
+  }
+
+  public boolean isSuccess() {
+    return this.exception == null;
+  }
+
+  /**
+   * Returns the result of the item.
+   *
+   * @return the result
+   * @throws KmsException if the item failed, caused by the exception that failed it
+   */
+  public T getValue() {
+    if (this.exception != null) {
+      throw new KmsException("The KMS operation failed.", this.exception);
+    }
+    return this.value;
+  }
+
+  /** Returns the exception that failed the item, or null if it succeeded. */
+  @Nullable
+  public Throwable getException() {
+    return this.exception;
+  }
+}
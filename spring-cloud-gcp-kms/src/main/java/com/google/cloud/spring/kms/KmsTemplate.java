@@ -16,6 +16,9 @@
 
 package com.google.cloud.spring.kms;
 
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.rpc.UnaryCallable;
 import com.google.cloud.kms.v1.CryptoKeyName;
 import com.google.cloud.kms.v1.DecryptRequest;
 import com.google.cloud.kms.v1.DecryptResponse;
@@ -24,9 +27,18 @@ import com.google.cloud.kms.v1.EncryptResponse;
 import com.google.cloud.kms.v1.KeyManagementServiceClient;
 import com.google.cloud.spring.core.GcpProjectIdProvider;
 import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Int64Value;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import org.springframework.util.Assert;
 
 /**
  * Offers convenience methods for performing common operations on KMS including encrypting and
@@ -34,15 +46,90 @@ import java.nio.charset.StandardCharsets;
  */
 public class KmsTemplate implements KmsOperations {
 
+  /** Default time a data key of envelope encryption is used and cached. */
+  public static final Duration DEFAULT_DATA_KEY_TIME_TO_LIVE = Duration.ofMinutes(5);
+
+  /** Default maximum number of cached data keys of envelope encryption. */
+  public static final long DEFAULT_MAX_CACHED_DATA_KEYS = 1000;
+
+  /** Default maximum number of asynchronous requests awaiting a response. */
+  public static final int DEFAULT_MAX_INFLIGHT_REQUESTS = 100;
+
   private final KeyManagementServiceClient client;
 
   private final GcpProjectIdProvider projectIdProvider;
 
+  private Duration dataKeyTimeToLive = DEFAULT_DATA_KEY_TIME_TO_LIVE;
+
+  private long maxCachedDataKeys = DEFAULT_MAX_CACHED_DATA_KEYS;
+
+  private KmsEnvelopeEncryptor envelopeEncryptor;
+
+  private int maxInflightRequests = DEFAULT_MAX_INFLIGHT_REQUESTS;
+
+  private Semaphore inflightRequests = new Semaphore(DEFAULT_MAX_INFLIGHT_REQUESTS);
+
   public KmsTemplate(
       KeyManagementServiceClient keyManagementServiceClient,
       GcpProjectIdProvider projectIdProvider) {
     this.client = keyManagementServiceClient;
     this.projectIdProvider = projectIdProvider;
+    this.envelopeEncryptor = createEnvelopeEncryptor();
+  }
+
+  /**
+   * Set the time a data key of envelope encryption is used to encrypt, and is kept unwrapped in
+   * memory after it was last used to decrypt. Replaces the cached data keys.
+   *
+   * @param dataKeyTimeToLive the time to live; defaults to {@link #DEFAULT_DATA_KEY_TIME_TO_LIVE}
+   * @since 6.1.2
+   */
+  public void setDataKeyTimeToLive(Duration dataKeyTimeToLive) {
+    Assert.isTrue(
+        dataKeyTimeToLive != null && dataKeyTimeToLive.compareTo(Duration.ZERO) > 0,
+        "dataKeyTimeToLive must be positive.");
+    this.dataKeyTimeToLive = dataKeyTimeToLive;
+    this.envelopeEncryptor = createEnvelopeEncryptor();
+  }
+
+  /**
+   * Set the maximum number of unwrapped data keys of envelope encryption kept in memory. Replaces
+   * the cached data keys.
+   *
+   * @param maxCachedDataKeys the maximum number of data keys; defaults to {@link
+   *     #DEFAULT_MAX_CACHED_DATA_KEYS}
+   * @since 6.1.2
+   */
+  public void setMaxCachedDataKeys(long maxCachedDataKeys) {
+    Assert.isTrue(maxCachedDataKeys > 0, "maxCachedDataKeys must be positive.");
+    this.maxCachedDataKeys = maxCachedDataKeys;
+    this.envelopeEncryptor = createEnvelopeEncryptor();
+  }
+
+  /**
+   * Set the maximum number of asynchronous requests awaiting a response. Asynchronous and bulk
+   * operations block the calling thread while the limit is reached.
+   *
+   * @param maxInflightRequests the maximum number of requests; defaults to {@link
+   *     #DEFAULT_MAX_INFLIGHT_REQUESTS}
+   * @since 6.1.2
+   */
+  public void setMaxInflightRequests(int maxInflightRequests) {
+    Assert.isTrue(maxInflightRequests > 0, "maxInflightRequests must be positive.");
+    this.maxInflightRequests = maxInflightRequests;
+    this.inflightRequests = new Semaphore(maxInflightRequests);
+  }
+
+  public int getMaxInflightRequests() {
+    return this.maxInflightRequests;
+  }
+
+  public Duration getDataKeyTimeToLive() {
+    return this.dataKeyTimeToLive;
+  }
+
+  public long getMaxCachedDataKeys() {
+    return this.maxCachedDataKeys;
   }
 
   @Override
@@ -54,17 +141,46 @@ public class KmsTemplate implements KmsOperations {
   @Override
   public byte[] encryptBytes(String cryptoKey, byte[] bytes) {
     CryptoKeyName cryptoKeyName = KmsPropertyUtils.getCryptoKeyName(cryptoKey, projectIdProvider);
+    return encrypt(cryptoKeyName, bytes);
+  }
+
+  private byte[] encrypt(CryptoKeyName cryptoKeyName, byte[] bytes) {
+    return ciphertext(client.encrypt(encryptRequest(cryptoKeyName, bytes)));
+  }
+
+  @Override
+  public CompletableFuture<byte[]> encryptTextAsync(String cryptoKey, String text) {
+    return encryptBytesAsync(cryptoKey, text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public CompletableFuture<byte[]> encryptBytesAsync(String cryptoKey, byte[] bytes) {
+    CryptoKeyName cryptoKeyName = KmsPropertyUtils.getCryptoKeyName(cryptoKey, projectIdProvider);
+    return call(
+        client.encryptCallable(), encryptRequest(cryptoKeyName, bytes), this::ciphertext);
+  }
 
-    long crc32c = longCrc32c(bytes);
+  @Override
+  public List<KmsResult<byte[]>> encryptAll(String cryptoKey, List<byte[]> bytesList) {
+    CryptoKeyName cryptoKeyName = KmsPropertyUtils.getCryptoKeyName(cryptoKey, projectIdProvider);
+    List<CompletableFuture<byte[]>> futures = new ArrayList<>(bytesList.size());
+    for (byte[] bytes : bytesList) {
+      futures.add(
+          call(client.encryptCallable(), encryptRequest(cryptoKeyName, bytes), this::ciphertext));
+    }
+    return awaitAll(futures);
+  }
 
-    EncryptRequest request =
-        EncryptRequest.newBuilder()
-            .setName(cryptoKeyName.toString())
-            .setPlaintext(ByteString.copyFrom(bytes))
-            .setPlaintextCrc32C(Int64Value.newBuilder().setValue(crc32c).build())
-            .build();
+  private EncryptRequest encryptRequest(CryptoKeyName cryptoKeyName, byte[] bytes) {
+    ByteString plaintext = ByteString.copyFrom(bytes);
+    return EncryptRequest.newBuilder()
+        .setName(cryptoKeyName.toString())
+        .setPlaintext(plaintext)
+        .setPlaintextCrc32C(Int64Value.newBuilder().setValue(longCrc32c(plaintext)).build())
+        .build();
+  }
 
-    EncryptResponse response = client.encrypt(request);
+  private byte[] ciphertext(EncryptResponse response) {
     assertCrcMatch(response);
     return response.getCiphertext().toByteArray();
   }
@@ -78,28 +194,143 @@ public class KmsTemplate implements KmsOperations {
   @Override
   public byte[] decryptBytes(String cryptoKey, byte[] cipherText) {
     CryptoKeyName cryptoKeyName = KmsPropertyUtils.getCryptoKeyName(cryptoKey, projectIdProvider);
+    return decrypt(cryptoKeyName, cipherText);
+  }
+
+  private byte[] decrypt(CryptoKeyName cryptoKeyName, byte[] cipherText) {
+    return plaintext(client.decrypt(decryptRequest(cryptoKeyName, cipherText)));
+  }
+
+  @Override
+  public CompletableFuture<String> decryptTextAsync(String cryptoKey, byte[] cipherText) {
+    return decryptBytesAsync(cryptoKey, cipherText)
+        .thenApply(bytes -> new String(bytes, StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public CompletableFuture<byte[]> decryptBytesAsync(String cryptoKey, byte[] cipherText) {
+    CryptoKeyName cryptoKeyName = KmsPropertyUtils.getCryptoKeyName(cryptoKey, projectIdProvider);
+    return call(
+        client.decryptCallable(), decryptRequest(cryptoKeyName, cipherText), this::plaintext);
+  }
 
-    ByteString encryptedByteString = ByteString.copyFrom(cipherText);
-    long crc32c = longCrc32c(encryptedByteString);
+  @Override
+  public List<KmsResult<byte[]>> decryptAll(String cryptoKey, List<byte[]> cipherTexts) {
+    CryptoKeyName cryptoKeyName = KmsPropertyUtils.getCryptoKeyName(cryptoKey, projectIdProvider);
+    List<CompletableFuture<byte[]>> futures = new ArrayList<>(cipherTexts.size());
+    for (byte[] cipherText : cipherTexts) {
+      futures.add(
+          call(
+              client.decryptCallable(),
+              decryptRequest(cryptoKeyName, cipherText),
+              this::plaintext));
+    }
+    return awaitAll(futures);
+  }
 
-    DecryptRequest request =
-        DecryptRequest.newBuilder()
-            .setName(cryptoKeyName.toString())
-            .setCiphertext(encryptedByteString)
-            .setCiphertextCrc32C(Int64Value.newBuilder().setValue(crc32c).build())
-            .build();
+  private DecryptRequest decryptRequest(CryptoKeyName cryptoKeyName, byte[] cipherText) {
+    ByteString ciphertext = ByteString.copyFrom(cipherText);
+    return DecryptRequest.newBuilder()
+        .setName(cryptoKeyName.toString())
+        .setCiphertext(ciphertext)
+        .setCiphertextCrc32C(Int64Value.newBuilder().setValue(longCrc32c(ciphertext)).build())
+        .build();
+  }
 
-    DecryptResponse response = client.decrypt(request);
+  private byte[] plaintext(DecryptResponse response) {
     assertCrcMatch(response);
     return response.getPlaintext().toByteArray();
   }
 
-  private long longCrc32c(ByteString plaintextByteString) {
-    return longCrc32c(plaintextByteString.toByteArray());
+  /**
+   * Issues a request without waiting for the response, once fewer than the maximum number of
+   * requests are in flight.
+   */
+  private <Q, R, T> CompletableFuture<T> call(
+      UnaryCallable<Q, R> callable, Q request, Function<R, T> responseMapper) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    Semaphore permits = this.inflightRequests;
+    try {
+      permits.acquire();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      result.completeExceptionally(new KmsException("Interrupted while awaiting a request.", ex));
+      return result;
+    }
+    try {
+      ApiFutures.addCallback(
+          callable.futureCall(request),
+          new ApiFutureCallback<R>() {
+            @Override
+            public void onFailure(Throwable throwable) {
+              permits.release();
+              result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onSuccess(R response) {
+              permits.release();
+              try {
+                result.complete(responseMapper.apply(response));
+              } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+              }
+            }
+          },
+          MoreExecutors.directExecutor());
+    } catch (RuntimeException ex) {
+      permits.release();
+      result.completeExceptionally(ex);
+    }
+    return result;
+  }
+
+  private static List<KmsResult<byte[]>> awaitAll(List<CompletableFuture<byte[]>> futures) {
+    List<KmsResult<byte[]>> results = new ArrayList<>(futures.size());
+    for (CompletableFuture<byte[]> future : futures) {
+      try {
+        results.add(KmsResult.success(future.join()));
+      } catch (CompletionException ex) {
+        results.add(KmsResult.failure(ex.getCause()));
+      }
+    }
+    return results;
+  }
+
+  @Override
+  public byte[] envelopeEncryptText(String cryptoKey, String text) {
+    return envelopeEncryptBytes(cryptoKey, text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public byte[] envelopeEncryptBytes(String cryptoKey, byte[] bytes) {
+    CryptoKeyName cryptoKeyName = KmsPropertyUtils.getCryptoKeyName(cryptoKey, projectIdProvider);
+    return this.envelopeEncryptor.encrypt(cryptoKeyName, bytes);
+  }
+
+  @Override
+  public String envelopeDecryptText(String cryptoKey, byte[] cipherText) {
+    return new String(envelopeDecryptBytes(cryptoKey, cipherText), StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public byte[] envelopeDecryptBytes(String cryptoKey, byte[] cipherText) {
+    CryptoKeyName cryptoKeyName = KmsPropertyUtils.getCryptoKeyName(cryptoKey, projectIdProvider);
+    return this.envelopeEncryptor.decrypt(cryptoKeyName, cipherText);
+  }
+
+  private KmsEnvelopeEncryptor createEnvelopeEncryptor() {
+    return new KmsEnvelopeEncryptor(
+        this::encrypt, this::decrypt, this.dataKeyTimeToLive, this.maxCachedDataKeys);
   }
 
-  private long longCrc32c(byte[] bytes) {
-    return Hashing.crc32c().hashBytes(bytes).padToLong();
+  private long longCrc32c(ByteString byteString) {
+    // Hashes the bytes in place instead of copying them to an array.
+    return Hashing.crc32c()
+        .newHasher()
+        .putBytes(byteString.asReadOnlyByteBuffer())
+        .hash()
+        .padToLong();
   }
 
   private void assertCrcMatch(EncryptResponse response) {
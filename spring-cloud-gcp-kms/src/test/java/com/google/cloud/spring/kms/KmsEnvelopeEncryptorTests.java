@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.kms;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.cloud.kms.v1.CryptoKeyName;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link KmsEnvelopeEncryptor}. */
+class KmsEnvelopeEncryptorTests {
+
+  private static final CryptoKeyName KEY_A =
+      CryptoKeyName.of("my-project", "global", "key-ring", "key-a");
+
+  private static final CryptoKeyName KEY_B =
+      CryptoKeyName.of("my-project", "global", "key-ring", "key-b");
+
+  private final AtomicInteger wraps = new AtomicInteger();
+
+  private final AtomicInteger unwraps = new AtomicInteger();
+
+  @Test
+  void encryptsWithCachedDataKey() {
+    KmsEnvelopeEncryptor encryptor = encryptor();
+
+    byte[] first = encryptor.encrypt(KEY_A, bytes("first"));
+    byte[] second = encryptor.encrypt(KEY_A, bytes("second"));
+
+    assertThat(this.wraps).hasValue(1);
+    assertThat(first[0]).isEqualTo(KmsEnvelopeEncryptor.FORMAT_VERSION);
+    assertThat(encryptor.decrypt(KEY_A, first)).isEqualTo(bytes("first"));
+    assertThat(encryptor.decrypt(KEY_A, second)).isEqualTo(bytes("second"));
+    assertThat(this.unwraps).hasValue(0);
+  }
+
+  @Test
+  void unwrapsDataKeyOnceOnCacheMiss() {
+    byte[] cipherText = encryptor().encrypt(KEY_A, bytes("payload"));
+    KmsEnvelopeEncryptor otherEncryptor = encryptor();
+
+    assertThat(otherEncryptor.decrypt(KEY_A, cipherText)).isEqualTo(bytes("payload"));
+    assertThat(otherEncryptor.decrypt(KEY_A, cipherText)).isEqualTo(bytes("payload"));
+
+    assertThat(this.unwraps).hasValue(1);
+  }
+
+  @Test
+  void usesOneDataKeyPerCryptoKey() {
+    KmsEnvelopeEncryptor encryptor = encryptor();
+
+    byte[] cipherText = encryptor.encrypt(KEY_B, bytes("payload"));
+    encryptor.encrypt(KEY_A, bytes("payload"));
+
+    assertThat(this.wraps).hasValue(2);
+    // A data key wrapped by another crypto key is unwrapped by that crypto key, which fails.
+    assertThatThrownBy(() -> encryptor.decrypt(KEY_A, cipherText))
+        .isInstanceOf(KmsException.class)
+        .hasMessage("Wrong key");
+  }
+
+  @Test
+  void rejectsModifiedCipherText() {
+    KmsEnvelopeEncryptor encryptor = encryptor();
+    byte[] cipherText = encryptor.encrypt(KEY_A, bytes("payload"));
+    cipherText[cipherText.length - 1] ^= 1;
+
+    assertThatThrownBy(() -> encryptor.decrypt(KEY_A, cipherText))
+        .isInstanceOf(KmsException.class)
+        .hasMessageStartingWith("Envelope decryption failed");
+  }
+
+  @Test
+  void rejectsUnknownFormat() {
+    KmsEnvelopeEncryptor encryptor = encryptor();
+
+    assertThatThrownBy(() -> encryptor.decrypt(KEY_A, bytes("not enveloped")))
+        .isInstanceOf(KmsException.class)
+        .hasMessage("The cipher text is not in the envelope encryption format.");
+  }
+
+  @Test
+  void encryptsEmptyAndLargePayloads() {
+    KmsEnvelopeEncryptor encryptor = encryptor();
+    byte[] large = new byte[1024 * 1024];
+    Arrays.fill(large, (byte) 7);
+
+    assertThat(encryptor.decrypt(KEY_A, encryptor.encrypt(KEY_A, new byte[0]))).isEmpty();
+    assertThat(encryptor.decrypt(KEY_A, encryptor.encrypt(KEY_A, large))).isEqualTo(large);
+  }
+
+  /** Wraps data keys by prefixing them with the crypto key ID. */
+  private KmsEnvelopeEncryptor encryptor() {
+    return new KmsEnvelopeEncryptor(
+        (cryptoKeyName, key) -> {
+          this.wraps.incrementAndGet();
+          byte[] prefix = bytes(cryptoKeyName.getCryptoKey());
+          byte[] wrapped = Arrays.copyOf(prefix, prefix.length + key.length);
+          System.arraycopy(key, 0, wrapped, prefix.length, key.length);
+          return wrapped;
+        },
+        (cryptoKeyName, wrapped) -> {
+          this.unwraps.incrementAndGet();
+          byte[] prefix = bytes(cryptoKeyName.getCryptoKey());
+          if (!Arrays.equals(prefix, Arrays.copyOf(wrapped, prefix.length))) {
+            throw new KmsException("Wrong key");
+          }
+          return Arrays.copyOfRange(wrapped, prefix.length, wrapped.length);
+        },
+        Duration.ofMinutes(5),
+        1000);
+  }
+
+  private static byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+}
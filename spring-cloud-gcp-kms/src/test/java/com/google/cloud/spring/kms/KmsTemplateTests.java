@@ -16,15 +16,20 @@
 
 package com.google.cloud.spring.kms;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.api.core.ApiFutures;
 import com.google.api.gax.rpc.InvalidArgumentException;
 import com.google.api.gax.rpc.NotFoundException;
 import com.google.api.gax.rpc.PermissionDeniedException;
+import com.google.api.gax.rpc.UnaryCallable;
 import com.google.cloud.kms.v1.DecryptRequest;
 import com.google.cloud.kms.v1.DecryptResponse;
 import com.google.cloud.kms.v1.EncryptRequest;
@@ -33,6 +38,7 @@ import com.google.cloud.kms.v1.KeyManagementServiceClient;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Int64Value;
 import java.util.Base64;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -42,6 +48,14 @@ class KmsTemplateTests {
 
   private KmsTemplate kmsTemplate;
 
+  @SuppressWarnings("unchecked")
+  private final UnaryCallable<EncryptRequest, EncryptResponse> encryptCallable =
+      mock(UnaryCallable.class);
+
+  @SuppressWarnings("unchecked")
+  private final UnaryCallable<DecryptRequest, DecryptResponse> decryptCallable =
+      mock(UnaryCallable.class);
+
   @BeforeEach
   void setupMocks() {
     this.client = mock(KeyManagementServiceClient.class);
@@ -134,6 +148,90 @@ class KmsTemplateTests {
 
   }
 
+  @Test
+  void testEnvelopeEncryptDecryptWrapsDataKeyOnce() {
+    when(this.client.encrypt(any(EncryptRequest.class))).thenReturn(createEncryptResponse());
+
+    String cryptoKeyNameStr = "test-project/europe-west2/key-ring-id/key-id";
+
+    byte[] first = kmsTemplate.envelopeEncryptText(cryptoKeyNameStr, "1234");
+    byte[] second = kmsTemplate.envelopeEncryptText(cryptoKeyNameStr, "5678");
+
+    assertEquals("1234", kmsTemplate.envelopeDecryptText(cryptoKeyNameStr, first));
+    assertEquals("5678", kmsTemplate.envelopeDecryptText(cryptoKeyNameStr, second));
+    verify(this.client).encrypt(any(EncryptRequest.class));
+    verify(this.client, never()).decrypt(any(DecryptRequest.class));
+  }
+
+  @Test
+  void testEncryptDecryptAsync() throws Exception {
+    mockCallables();
+    when(this.encryptCallable.futureCall(any(EncryptRequest.class)))
+        .thenReturn(ApiFutures.immediateFuture(createEncryptResponse()));
+    when(this.decryptCallable.futureCall(any(DecryptRequest.class)))
+        .thenReturn(ApiFutures.immediateFuture(createDecryptResponse()));
+
+    String cryptoKeyNameStr = "test-project/europe-west2/key-ring-id/key-id";
+
+    byte[] encryptedBytes = kmsTemplate.encryptTextAsync(cryptoKeyNameStr, "1234").get();
+    String decryptedText = kmsTemplate.decryptTextAsync(cryptoKeyNameStr, encryptedBytes).get();
+
+    assertEquals("1234", decryptedText);
+  }
+
+  @Test
+  void testDecryptAllReportsFailedItems() {
+    mockCallables();
+    when(this.decryptCallable.futureCall(any(DecryptRequest.class)))
+        .thenReturn(
+            ApiFutures.immediateFuture(createDecryptResponse()),
+            ApiFutures.immediateFailedFuture(mock(InvalidArgumentException.class)),
+            ApiFutures.immediateFuture(createDecryptResponse()));
+
+    List<KmsResult<byte[]>> results =
+        kmsTemplate.decryptAll(
+            "key-ring-id/key-id", List.of(new byte[] {1}, new byte[] {2}, new byte[] {3}));
+
+    assertThat(results).extracting(KmsResult::isSuccess).containsExactly(true, false, true);
+    assertThat(results.get(0).getValue()).isEqualTo("1234".getBytes());
+    assertThat(results.get(1).getException()).isInstanceOf(InvalidArgumentException.class);
+    assertThatThrownBy(() -> results.get(1).getValue()).isInstanceOf(KmsException.class);
+  }
+
+  @Test
+  void testEncryptAllReleasesInflightPermits() {
+    mockCallables();
+    when(this.encryptCallable.futureCall(any(EncryptRequest.class)))
+        .thenReturn(ApiFutures.immediateFuture(createEncryptResponse()));
+    kmsTemplate.setMaxInflightRequests(1);
+
+    List<KmsResult<byte[]>> results =
+        kmsTemplate.encryptAll(
+            "key-ring-id/key-id", List.of(new byte[] {1}, new byte[] {2}, new byte[] {3}));
+
+    assertThat(results).hasSize(3).allMatch(KmsResult::isSuccess);
+  }
+
+  @Test
+  void testEncryptAsyncCorrupt() {
+    mockCallables();
+    when(this.encryptCallable.futureCall(any(EncryptRequest.class)))
+        .thenReturn(
+            ApiFutures.immediateFuture(
+                EncryptResponse.newBuilder()
+                    .setCiphertext(ByteString.copyFromUtf8("invalid"))
+                    .setCiphertextCrc32C(Int64Value.newBuilder().setValue(0L).build())
+                    .build()));
+
+    assertThatThrownBy(() -> kmsTemplate.encryptTextAsync("key-ring-id/key-id", "1234").get())
+        .hasCauseInstanceOf(KmsException.class);
+  }
+
+  private void mockCallables() {
+    when(this.client.encryptCallable()).thenReturn(this.encryptCallable);
+    when(this.client.decryptCallable()).thenReturn(this.decryptCallable);
+  }
+
   private DecryptResponse createDecryptResponse() {
     return DecryptResponse.newBuilder()
         .setPlaintext(ByteString.copyFromUtf8("1234"))
@@ -19,6 +19,7 @@ package com.google.cloud.spring.stream.binder.pubsub.config;
 import com.google.cloud.spring.pubsub.PubSubAdmin;
 import com.google.cloud.spring.pubsub.core.PubSubTemplate;
 import com.google.cloud.spring.pubsub.core.health.HealthTrackerRegistry;
+import com.google.cloud.spring.pubsub.core.metrics.PubSubMetricsRecorder;
 import com.google.cloud.spring.pubsub.integration.inbound.PubSubInboundChannelAdapter;
 import com.google.cloud.spring.pubsub.integration.outbound.PubSubMessageHandler;
 import com.google.cloud.spring.stream.binder.pubsub.PubSubMessageChannelBinder;
@@ -58,7 +59,8 @@ public class PubSubBinderConfiguration {
       PubSubExtendedBindingProperties pubSubExtendedBindingProperties,
       @Nullable ProducerMessageHandlerCustomizer<PubSubMessageHandler> producerCustomizer,
       @Nullable ConsumerEndpointCustomizer<PubSubInboundChannelAdapter> consumerCustomizer,
-      @Nullable HealthTrackerRegistry healthTrackerRegistry) {
+      @Nullable HealthTrackerRegistry healthTrackerRegistry,
+      @Nullable PubSubMetricsRecorder metricsRecorder) {
     PubSubMessageChannelBinder binder =
         new PubSubMessageChannelBinder(
             null, pubSubChannelProvisioner, pubSubTemplate, pubSubExtendedBindingProperties);
@@ -69,6 +71,10 @@ public class PubSubBinderConfiguration {
       binder.setHealthTrackerRegistry(healthTrackerRegistry);
     }
 
+    if (metricsRecorder != null) {
+      binder.setMetricsRecorder(metricsRecorder);
+    }
+
     return binder;
   }
 }
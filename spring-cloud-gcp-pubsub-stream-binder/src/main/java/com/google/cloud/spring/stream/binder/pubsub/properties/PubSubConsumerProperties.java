@@ -30,6 +30,12 @@ public class PubSubConsumerProperties extends PubSubCommonProperties {
 
   private DeadLetterPolicy deadLetterPolicy = null;
 
+  /** Maximum number of messages per batch when the binding is in batch mode. */
+  private int batchSize = 100;
+
+  /** Maximum time to wait for a batch to fill up when the binding is in batch mode. */
+  private Duration batchTimeout = Duration.ofSeconds(1);
+
   /**
    * Policy for how soon the subscription should be deleted after no activity.
    *
@@ -63,6 +69,22 @@ public class PubSubConsumerProperties extends PubSubCommonProperties {
     this.subscriptionName = subscriptionName;
   }
 
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public Duration getBatchTimeout() {
+    return batchTimeout;
+  }
+
+  public void setBatchTimeout(Duration batchTimeout) {
+    this.batchTimeout = batchTimeout;
+  }
+
   public DeadLetterPolicy getDeadLetterPolicy() {
     return deadLetterPolicy;
   }
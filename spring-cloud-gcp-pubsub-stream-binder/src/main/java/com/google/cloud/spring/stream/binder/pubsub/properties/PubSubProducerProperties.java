@@ -20,6 +20,12 @@ package com.google.cloud.spring.stream.binder.pubsub.properties;
 public class PubSubProducerProperties extends PubSubCommonProperties {
   private boolean sync = false;
 
+  /**
+   * Maximum number of asynchronous publishes awaiting a response before sending blocks. 0 means no
+   * limit.
+   */
+  private int maxInFlight = 0;
+
   public boolean isSync() {
     return sync;
   }
@@ -27,4 +33,12 @@ public class PubSubProducerProperties extends PubSubCommonProperties {
   public void setSync(boolean sync) {
     this.sync = sync;
   }
+
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  public void setMaxInFlight(int maxInFlight) {
+    this.maxInFlight = maxInFlight;
+  }
 }
@@ -34,6 +34,7 @@ import com.google.cloud.spring.stream.binder.pubsub.config.PubSubBinderConfigura
 import com.google.cloud.spring.stream.binder.pubsub.properties.PubSubConsumerProperties;
 import com.google.cloud.spring.stream.binder.pubsub.properties.PubSubExtendedBindingProperties;
 import com.google.cloud.spring.stream.binder.pubsub.provisioning.PubSubChannelProvisioner;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -158,6 +159,29 @@ class PubSubMessageChannelBinderTests {
             });
   }
 
+  @Test
+  void producerMaxInFlightPropertyPropagatesToMessageHandler() {
+    when(producerDestination.getName()).thenReturn("test-topic");
+    baseContext
+        .withPropertyValues("spring.cloud.stream.gcp.pubsub.default.producer.maxInFlight=25")
+        .run(
+            ctx -> {
+              PubSubMessageChannelBinder binder = ctx.getBean(PubSubMessageChannelBinder.class);
+
+              PubSubExtendedBindingProperties props =
+                  ctx.getBean(
+                      "pubSubExtendedBindingProperties", PubSubExtendedBindingProperties.class);
+              PubSubMessageHandler messageHandler =
+                  (PubSubMessageHandler)
+                      binder.createProducerMessageHandler(
+                          producerDestination,
+                          new ExtendedProducerProperties<>(
+                              props.getExtendedProducerProperties("test")),
+                          errorChannel);
+              assertThat(messageHandler.getMaxInFlight()).isEqualTo(25);
+            });
+  }
+
   @Test
   void producerHeaderPropertyPropagatesToMessageHandler() {
     when(producerDestination.getName()).thenReturn("test-topic");
@@ -306,6 +330,41 @@ class PubSubMessageChannelBinderTests {
             });
   }
 
+  @Test
+  void testConsumerEndpointCreation_batchMode() {
+    when(consumerDestination.getName()).thenReturn("test-subscription");
+    baseContext
+        .withPropertyValues(
+            "spring.cloud.stream.gcp.pubsub.default.consumer.batchSize=50",
+            "spring.cloud.stream.gcp.pubsub.default.consumer.batchTimeout=250ms")
+        .run(
+            ctx -> {
+              PubSubMessageChannelBinder binder = ctx.getBean(PubSubMessageChannelBinder.class);
+              PubSubExtendedBindingProperties props =
+                  ctx.getBean(
+                      "pubSubExtendedBindingProperties", PubSubExtendedBindingProperties.class);
+              ExtendedConsumerProperties<PubSubConsumerProperties> batchProperties =
+                  new ExtendedConsumerProperties<>(props.getExtendedConsumerProperties("test"));
+              batchProperties.setBatchMode(true);
+
+              PubSubInboundChannelAdapter batchAdapter =
+                  (PubSubInboundChannelAdapter)
+                      binder.createConsumerEndpoint(
+                          consumerDestination, "testGroup", batchProperties);
+              PubSubInboundChannelAdapter singleAdapter =
+                  (PubSubInboundChannelAdapter)
+                      binder.createConsumerEndpoint(
+                          consumerDestination,
+                          "testGroup",
+                          new ExtendedConsumerProperties<>(
+                              props.getExtendedConsumerProperties("test")));
+
+              assertThat(batchAdapter.getBatchSize()).isEqualTo(50);
+              assertThat(batchAdapter.getBatchTimeout()).isEqualTo(Duration.ofMillis(250));
+              assertThat(singleAdapter.getBatchSize()).isEqualTo(1);
+            });
+  }
+
   @Test
   void testConsumerEndpointCreationWithNoHeadersProvided() {
     when(consumerDestination.getName()).thenReturn("test-subscription");
@@ -24,6 +24,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +50,13 @@ public class PubSubConfiguration {
    */
   private Map<ProjectSubscriptionName, Subscriber> fullyQualifiedSubscriptionProperties;
 
+  /**
+   * Resolved settings keyed by fully qualified subscription name. Populated for configured
+   * subscriptions in initialize(), and on first use for all other subscriptions.
+   */
+  private final ConcurrentMap<ProjectSubscriptionName, ResolvedSubscriberSettings>
+      resolvedSubscriberSettings = new ConcurrentHashMap<>();
+
   /** Contains global and default subscriber settings. */
   private final Subscriber globalSubscriber = new Subscriber();
 
@@ -128,6 +137,48 @@ public class PubSubConfiguration {
     }
 
     this.fullyQualifiedSubscriptionProperties = Collections.unmodifiableMap(fullyQualifiedProps);
+    for (Entry<ProjectSubscriptionName, Subscriber> entry : fullyQualifiedProps.entrySet()) {
+      this.resolvedSubscriberSettings.put(
+          entry.getKey(),
+          new ResolvedSubscriberSettings(entry.getKey(), entry.getValue(), this.globalSubscriber));
+    }
+  }
+
+  /**
+   * Returns the settings in effect for the specified subscription. Settings are resolved once per
+   * subscription and cached, so global and subscription-specific properties must not be changed
+   * after {@link #initialize(String)}.
+   *
+   * @param projectSubscriptionName fully-qualified {@link ProjectSubscriptionName}
+   * @return resolved subscriber settings
+   * @since 6.1.2
+   */
+  public ResolvedSubscriberSettings getResolvedSubscriberSettings(
+      ProjectSubscriptionName projectSubscriptionName) {
+    ResolvedSubscriberSettings settings =
+        this.resolvedSubscriberSettings.get(projectSubscriptionName);
+    if (settings != null) {
+      return settings;
+    }
+    Subscriber subscriptionProperties = getSubscriptionProperties(projectSubscriptionName);
+    return this.resolvedSubscriberSettings.computeIfAbsent(
+        projectSubscriptionName,
+        name -> new ResolvedSubscriberSettings(name, subscriptionProperties, this.globalSubscriber));
+  }
+
+  /**
+   * Returns the settings in effect for the specified subscription.
+   *
+   * @param subscriptionName short or fully-qualified subscription name
+   * @param projectId project to use with a short subscription name
+   * @return resolved subscriber settings
+   * @see #getResolvedSubscriberSettings(ProjectSubscriptionName)
+   * @since 6.1.2
+   */
+  public ResolvedSubscriberSettings getResolvedSubscriberSettings(
+      String subscriptionName, String projectId) {
+    return getResolvedSubscriberSettings(
+        PubSubSubscriptionUtils.toProjectSubscriptionName(subscriptionName, projectId));
   }
 
   /**
@@ -155,20 +206,7 @@ public class PubSubConfiguration {
    * @return flow control settings defaulting to global where not provided
    */
   public FlowControl computeSubscriberFlowControlSettings(ProjectSubscriptionName projectSubscriptionName) {
-    FlowControl flowControl = getSubscriptionProperties(projectSubscriptionName).getFlowControl();
-    FlowControl globalFlowControl = this.globalSubscriber.getFlowControl();
-    // It is possible for flowControl and globalFlowControl to be the same object.
-    // In the future, can return it here if that's the case.
-    if (flowControl.getMaxOutstandingRequestBytes() == null) {
-      flowControl.setMaxOutstandingRequestBytes(globalFlowControl.getMaxOutstandingRequestBytes());
-    }
-    if (flowControl.getMaxOutstandingElementCount() == null) {
-      flowControl.setMaxOutstandingElementCount(globalFlowControl.getMaxOutstandingElementCount());
-    }
-    if (flowControl.getLimitExceededBehavior() == null) {
-      flowControl.setLimitExceededBehavior(globalFlowControl.getLimitExceededBehavior());
-    }
-    return flowControl;
+    return getResolvedSubscriberSettings(projectSubscriptionName).toFlowControl();
   }
 
   /**
@@ -181,13 +219,7 @@ public class PubSubConfiguration {
    * @return parallel pull count
    */
   public Integer computeParallelPullCount(String subscriptionName, String projectId) {
-    Integer parallelPullCount =
-        getSubscriptionProperties(PubSubSubscriptionUtils.toProjectSubscriptionName(subscriptionName, projectId))
-            .getParallelPullCount();
-
-    return parallelPullCount != null
-        ? parallelPullCount
-        : this.globalSubscriber.getParallelPullCount();
+    return getResolvedSubscriberSettings(subscriptionName, projectId).getParallelPullCount();
   }
 
   /**
@@ -200,10 +232,7 @@ public class PubSubConfiguration {
    * @return retryable codes
    */
   public Code[] computeRetryableCodes(String subscriptionName, String projectId) {
-    Code[] retryableCodes =
-        getSubscriptionProperties(PubSubSubscriptionUtils.toProjectSubscriptionName(subscriptionName, projectId))
-            .getRetryableCodes();
-    return retryableCodes != null ? retryableCodes : this.globalSubscriber.getRetryableCodes();
+    return getResolvedSubscriberSettings(subscriptionName, projectId).getRetryableCodes();
   }
 
   /**
@@ -216,14 +245,7 @@ public class PubSubConfiguration {
    * @return max extension period
    */
   public Long computeMaxAckExtensionPeriod(String subscriptionName, String projectId) {
-    Long maxAckExtensionPeriod =
-        getSubscriptionProperties(PubSubSubscriptionUtils.toProjectSubscriptionName(subscriptionName, projectId))
-        .getMaxAckExtensionPeriod();
-
-    if (maxAckExtensionPeriod != null) {
-      return maxAckExtensionPeriod;
-    }
-    return this.globalSubscriber.getMaxAckExtensionPeriod();
+    return getResolvedSubscriberSettings(subscriptionName, projectId).getMaxAckExtensionPeriod();
   }
 
   /**
@@ -237,15 +259,7 @@ public class PubSubConfiguration {
    */
   @Nullable
   public Long computeMinDurationPerAckExtension(String subscriptionName, String projectId) {
-    Long minDurationPerAckExtension =
-        getSubscriptionProperties(PubSubSubscriptionUtils.toProjectSubscriptionName(subscriptionName, projectId))
-            .getMinDurationPerAckExtension();
-
-    if (minDurationPerAckExtension != null) {
-      return minDurationPerAckExtension;
-    }
-
-    return this.globalSubscriber.getMinDurationPerAckExtension();
+    return getResolvedSubscriberSettings(subscriptionName, projectId).getMinDurationPerAckExtension();
   }
 
   /**
@@ -259,15 +273,7 @@ public class PubSubConfiguration {
    */
   @Nullable
   public Long computeMaxDurationPerAckExtension(String subscriptionName, String projectId) {
-    Long maxDurationPerAckExtension =
-        getSubscriptionProperties(PubSubSubscriptionUtils.toProjectSubscriptionName(subscriptionName, projectId))
-            .getMaxDurationPerAckExtension();
-
-    if (maxDurationPerAckExtension != null) {
-      return maxDurationPerAckExtension;
-    }
-
-    return this.globalSubscriber.getMaxDurationPerAckExtension();
+    return getResolvedSubscriberSettings(subscriptionName, projectId).getMaxDurationPerAckExtension();
   }
 
   /**
@@ -280,10 +286,7 @@ public class PubSubConfiguration {
    * @return pull endpoint
    */
   public String computePullEndpoint(String subscriptionName, String projectId) {
-    String pullEndpoint =
-        getSubscriptionProperties(PubSubSubscriptionUtils.toProjectSubscriptionName(subscriptionName, projectId))
-        .getPullEndpoint();
-    return pullEndpoint != null ? pullEndpoint : this.globalSubscriber.getPullEndpoint();
+    return getResolvedSubscriberSettings(subscriptionName, projectId).getPullEndpoint();
   }
 
   /**
@@ -296,10 +299,7 @@ public class PubSubConfiguration {
    * @return pull endpoint
    */
   public String computeSubscriberUniverseDomain(String subscriptionName, String projectId) {
-    String universeDomain =
-            getSubscriptionProperties(PubSubSubscriptionUtils.toProjectSubscriptionName(subscriptionName, projectId))
-                    .getUniverseDomain();
-    return universeDomain != null ? universeDomain : this.globalSubscriber.getUniverseDomain();
+    return getResolvedSubscriberSettings(subscriptionName, projectId).getUniverseDomain();
   }
 
   /**
@@ -311,36 +311,7 @@ public class PubSubConfiguration {
    * @return retry settings
    */
   public Retry computeSubscriberRetrySettings(ProjectSubscriptionName projectSubscriptionName) {
-    Retry retry = getSubscriptionProperties(projectSubscriptionName).getRetry();
-    Retry globalRetry = this.globalSubscriber.getRetry();
-    if (retry.getTotalTimeoutSeconds() == null) {
-      retry.setTotalTimeoutSeconds(globalRetry.getTotalTimeoutSeconds());
-    }
-    if (retry.getInitialRetryDelaySeconds() == null) {
-      retry.setInitialRetryDelaySeconds(globalRetry.getInitialRetryDelaySeconds());
-    }
-    if (retry.getRetryDelayMultiplier() == null) {
-      retry.setRetryDelayMultiplier(globalRetry.getRetryDelayMultiplier());
-    }
-    if (retry.getMaxRetryDelaySeconds() == null) {
-      retry.setMaxRetryDelaySeconds(globalRetry.getMaxRetryDelaySeconds());
-    }
-    if (retry.getMaxAttempts() == null) {
-      retry.setMaxAttempts(globalRetry.getMaxAttempts());
-    }
-    if (retry.getJittered() == null) {
-      retry.setJittered(globalRetry.getJittered());
-    }
-    if (retry.getInitialRpcTimeoutSeconds() == null) {
-      retry.setInitialRpcTimeoutSeconds(globalRetry.getInitialRpcTimeoutSeconds());
-    }
-    if (retry.getRpcTimeoutMultiplier() == null) {
-      retry.setRpcTimeoutMultiplier(globalRetry.getRpcTimeoutMultiplier());
-    }
-    if (retry.getMaxRpcTimeoutSeconds() == null) {
-      retry.setMaxRpcTimeoutSeconds(globalRetry.getMaxRpcTimeoutSeconds());
-    }
-    return retry;
+    return getResolvedSubscriberSettings(projectSubscriptionName).toRetry();
   }
 
   /** Publisher settings. */
@@ -505,6 +476,12 @@ public class PubSubConfiguration {
     /** Flow control settings for subscriber factory. */
     private final FlowControl flowControl = new FlowControl();
 
+    /** Client-side batching of acknowledgements for pulled messages. */
+    private final AckBatching ackBatching = new AckBatching();
+
+    /** Runtime adjustment of the messages outstanding in subscriber receivers. */
+    private final AdaptiveFlowControl adaptiveFlowControl = new AdaptiveFlowControl();
+
     /** RPC status codes that should be retried when pulling messages. */
     private Code[] retryableCodes = null;
 
@@ -538,6 +515,14 @@ public class PubSubConfiguration {
       return this.flowControl;
     }
 
+    public AckBatching getAckBatching() {
+      return this.ackBatching;
+    }
+
+    public AdaptiveFlowControl getAdaptiveFlowControl() {
+      return this.adaptiveFlowControl;
+    }
+
     public String getPullEndpoint() {
       return this.pullEndpoint;
     }
@@ -893,5 +878,135 @@ public class PubSubConfiguration {
     }
   }
 
+  /** Acknowledgement batching settings for messages pulled through the subscriber template. */
+  public static class AckBatching {
+
+    /** Enables coalescing of individual ack, nack and modify ack deadline calls if true. */
+    private boolean enabled;
+
+    /** Maximum number of ack IDs per request; capped at the service limit of 2,500. */
+    private Long elementCountThreshold = 2500L;
+
+    /** Maximum request size in bytes; capped at the service limit of 512KB. */
+    private Long requestByteThreshold = 512L * 1024L;
+
+    /** Maximum time in milliseconds an ack ID waits for its batch to be sent. */
+    private Long delayThresholdMillis = 100L;
+
+    public boolean isEnabled() {
+      return this.enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public Long getElementCountThreshold() {
+      return this.elementCountThreshold;
+    }
 
+    public void setElementCountThreshold(Long elementCountThreshold) {
+      this.elementCountThreshold = elementCountThreshold;
+    }
+
+    public Long getRequestByteThreshold() {
+      return this.requestByteThreshold;
+    }
+
+    public void setRequestByteThreshold(Long requestByteThreshold) {
+      this.requestByteThreshold = requestByteThreshold;
+    }
+
+    public Long getDelayThresholdMillis() {
+      return this.delayThresholdMillis;
+    }
+
+    public void setDelayThresholdMillis(Long delayThresholdMillis) {
+      this.delayThresholdMillis = delayThresholdMillis;
+    }
+  }
+
+  /** Adaptive flow control settings for subscribers created by the subscriber factory. */
+  public static class AdaptiveFlowControl {
+
+    /** Enables runtime adjustment of the outstanding message limits of subscribers if true. */
+    private boolean enabled;
+
+    /** Interval in seconds between adjustments of the limits. */
+    private Long adjustmentIntervalSeconds = 5L;
+
+    /**
+     * Average message processing time in milliseconds above which the limits are decreased. If not
+     * set, the limits are only decreased on heap pressure.
+     */
+    private Long targetProcessingMillis;
+
+    /** Fraction of the maximum heap in use above which the limits are decreased. */
+    private Double maxHeapUsage = 0.85;
+
+    /** Factor the outstanding element count is multiplied by when decreasing the limits. */
+    private Double decreaseFactor = 0.5;
+
+    /** Number of elements added to the outstanding element count when increasing the limits. */
+    private Long increaseStep = 10L;
+
+    /** Outstanding element count the limits are never decreased below. */
+    private Long minOutstandingElementCount = 1L;
+
+    public boolean isEnabled() {
+      return this.enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public Long getAdjustmentIntervalSeconds() {
+      return this.adjustmentIntervalSeconds;
+    }
+
+    public void setAdjustmentIntervalSeconds(Long adjustmentIntervalSeconds) {
+      this.adjustmentIntervalSeconds = adjustmentIntervalSeconds;
+    }
+
+    public Long getTargetProcessingMillis() {
+      return this.targetProcessingMillis;
+    }
+
+    public void setTargetProcessingMillis(Long targetProcessingMillis) {
+      this.targetProcessingMillis = targetProcessingMillis;
+    }
+
+    public Double getMaxHeapUsage() {
+      return this.maxHeapUsage;
+    }
+
+    public void setMaxHeapUsage(Double maxHeapUsage) {
+      this.maxHeapUsage = maxHeapUsage;
+    }
+
+    public Double getDecreaseFactor() {
+      return this.decreaseFactor;
+    }
+
+    public void setDecreaseFactor(Double decreaseFactor) {
+      this.decreaseFactor = decreaseFactor;
+    }
+
+    public Long getIncreaseStep() {
+      return this.increaseStep;
+    }
+
+    public void setIncreaseStep(Long increaseStep) {
+      this.increaseStep = increaseStep;
+    }
+
+    public Long getMinOutstandingElementCount() {
+      return this.minOutstandingElementCount;
+    }
+
+    public void setMinOutstandingElementCount(Long minOutstandingElementCount) {
+      this.minOutstandingElementCount = minOutstandingElementCount;
+    }
+  }
 }
@@ -18,6 +18,7 @@ package com.google.cloud.spring.pubsub.core;
 
 import com.google.cloud.pubsub.v1.Subscriber;
 import com.google.cloud.spring.pubsub.core.publisher.PubSubPublisherTemplate;
+import com.google.cloud.spring.pubsub.core.publisher.PublishBatchResult;
 import com.google.cloud.spring.pubsub.core.subscriber.PubSubSubscriberTemplate;
 import com.google.cloud.spring.pubsub.support.AcknowledgeablePubsubMessage;
 import com.google.cloud.spring.pubsub.support.BasicAcknowledgeablePubsubMessage;
@@ -120,6 +121,11 @@ public class PubSubTemplate implements PubSubOperations {
     return this.pubSubPublisherTemplate.publish(topic, pubsubMessage);
   }
 
+  @Override
+  public CompletableFuture<PublishBatchResult> publishAll(String topic, Collection<?> payloads) {
+    return this.pubSubPublisherTemplate.publishAll(topic, payloads);
+  }
+
   @Override
   public Subscriber subscribe(
       String subscription, Consumer<BasicAcknowledgeablePubsubMessage> messageConsumer) {
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core;
+
+import com.google.api.gax.batching.FlowController.LimitExceededBehavior;
+import com.google.api.gax.rpc.StatusCode.Code;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import javax.annotation.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Immutable snapshot of the subscriber properties in effect for one subscription. Each value is
+ * the subscription-specific property if set, and the global subscriber property otherwise.
+ *
+ * @since 6.1.2
+ */
+public final class ResolvedSubscriberSettings {
+
+  private final ProjectSubscriptionName projectSubscriptionName;
+
+  private final Integer parallelPullCount;
+
+  private final Code[] retryableCodes;
+
+  private final Long maxAckExtensionPeriod;
+
+  private final Long minDurationPerAckExtension;
+
+  private final Long maxDurationPerAckExtension;
+
+  private final String pullEndpoint;
+
+  private final String universeDomain;
+
+  private final Long maxOutstandingElementCount;
+
+  private final Long maxOutstandingRequestBytes;
+
+  private final LimitExceededBehavior limitExceededBehavior;
+
+  private final PubSubConfiguration.Retry retry;
+
+  /**
+   * Resolves the settings of a subscription from its properties and the global properties. Neither
+   * of the property objects is modified.
+   *
+   * @param projectSubscriptionName the fully-qualified subscription name
+   * @param subscriptionProperties the subscription-specific properties; may be the same object as
+   *     {@code globalProperties} when the subscription has no specific configuration
+   * @param globalProperties the global subscriber properties
+   */
+  public ResolvedSubscriberSettings(
+      ProjectSubscriptionName projectSubscriptionName,
+      PubSubConfiguration.Subscriber subscriptionProperties,
+      PubSubConfiguration.Subscriber globalProperties) {
+    Assert.notNull(projectSubscriptionName, "projectSubscriptionName can't be null.");
+    Assert.notNull(subscriptionProperties, "subscriptionProperties can't be null.");
+    Assert.notNull(globalProperties, "globalProperties can't be null.");
+    this.projectSubscriptionName = projectSubscriptionName;
+    this.parallelPullCount =
+        firstNonNull(
+            subscriptionProperties.getParallelPullCount(), globalProperties.getParallelPullCount());
+    Code[] codes =
+        firstNonNull(
+            subscriptionProperties.getRetryableCodes(), globalProperties.getRetryableCodes());
+    this.retryableCodes = codes != null ? codes.clone() : null;
+    this.maxAckExtensionPeriod =
+        firstNonNull(
+            subscriptionProperties.getMaxAckExtensionPeriod(),
+            globalProperties.getMaxAckExtensionPeriod());
+    this.minDurationPerAckExtension =
+        firstNonNull(
+            subscriptionProperties.getMinDurationPerAckExtension(),
+            globalProperties.getMinDurationPerAckExtension());
+    this.maxDurationPerAckExtension =
+        firstNonNull(
+            subscriptionProperties.getMaxDurationPerAckExtension(),
+            globalProperties.getMaxDurationPerAckExtension());
+    this.pullEndpoint =
+        firstNonNull(subscriptionProperties.getPullEndpoint(), globalProperties.getPullEndpoint());
+    this.universeDomain =
+        firstNonNull(
+            subscriptionProperties.getUniverseDomain(), globalProperties.getUniverseDomain());
+
+    PubSubConfiguration.FlowControl flowControl = subscriptionProperties.getFlowControl();
+    PubSubConfiguration.FlowControl globalFlowControl = globalProperties.getFlowControl();
+    this.maxOutstandingElementCount =
+        firstNonNull(
+            flowControl.getMaxOutstandingElementCount(),
+            globalFlowControl.getMaxOutstandingElementCount());
+    this.maxOutstandingRequestBytes =
+        firstNonNull(
+            flowControl.getMaxOutstandingRequestBytes(),
+            globalFlowControl.getMaxOutstandingRequestBytes());
+    this.limitExceededBehavior =
+        firstNonNull(
+            flowControl.getLimitExceededBehavior(), globalFlowControl.getLimitExceededBehavior());
+    this.retry = resolveRetry(subscriptionProperties.getRetry(), globalProperties.getRetry());
+  }
+
+  public ProjectSubscriptionName getProjectSubscriptionName() {
+    return this.projectSubscriptionName;
+  }
+
+  @Nullable
+  public Integer getParallelPullCount() {
+    return this.parallelPullCount;
+  }
+
+  @Nullable
+  public Code[] getRetryableCodes() {
+    return this.retryableCodes != null ? this.retryableCodes.clone() : null;
+  }
+
+  @Nullable
+  public Long getMaxAckExtensionPeriod() {
+    return this.maxAckExtensionPeriod;
+  }
+
+  @Nullable
+  public Long getMinDurationPerAckExtension() {
+    return this.minDurationPerAckExtension;
+  }
+
+  @Nullable
+  public Long getMaxDurationPerAckExtension() {
+    return this.maxDurationPerAckExtension;
+  }
+
+  @Nullable
+  public String getPullEndpoint() {
+    return this.pullEndpoint;
+  }
+
+  @Nullable
+  public String getUniverseDomain() {
+    return this.universeDomain;
+  }
+
+  @Nullable
+  public Long getMaxOutstandingElementCount() {
+    return this.maxOutstandingElementCount;
+  }
+
+  @Nullable
+  public Long getMaxOutstandingRequestBytes() {
+    return this.maxOutstandingRequestBytes;
+  }
+
+  @Nullable
+  public LimitExceededBehavior getLimitExceededBehavior() {
+    return this.limitExceededBehavior;
+  }
+
+  /**
+   * Returns the resolved flow control properties as a new {@link PubSubConfiguration.FlowControl}
+   * that the caller is free to modify.
+   *
+   * @return resolved flow control properties
+   */
+  public PubSubConfiguration.FlowControl toFlowControl() {
+    PubSubConfiguration.FlowControl flowControl = new PubSubConfiguration.FlowControl();
+    flowControl.setMaxOutstandingElementCount(this.maxOutstandingElementCount);
+    flowControl.setMaxOutstandingRequestBytes(this.maxOutstandingRequestBytes);
+    flowControl.setLimitExceededBehavior(this.limitExceededBehavior);
+    return flowControl;
+  }
+
+  /**
+   * Returns the resolved retry properties as a new {@link PubSubConfiguration.Retry} that the
+   * caller is free to modify.
+   *
+   * @return resolved retry properties
+   */
+  public PubSubConfiguration.Retry toRetry() {
+    return resolveRetry(this.retry, this.retry);
+  }
+
+  private static PubSubConfiguration.Retry resolveRetry(
+      PubSubConfiguration.Retry subscriptionRetry, PubSubConfiguration.Retry globalRetry) {
+    PubSubConfiguration.Retry retry = new PubSubConfiguration.Retry();
+    retry.setTotalTimeoutSeconds(
+        firstNonNull(
+            subscriptionRetry.getTotalTimeoutSeconds(), globalRetry.getTotalTimeoutSeconds()));
+    retry.setInitialRetryDelaySeconds(
+        firstNonNull(
+            subscriptionRetry.getInitialRetryDelaySeconds(),
+            globalRetry.getInitialRetryDelaySeconds()));
+    retry.setRetryDelayMultiplier(
+        firstNonNull(
+            subscriptionRetry.getRetryDelayMultiplier(), globalRetry.getRetryDelayMultiplier()));
+    retry.setMaxRetryDelaySeconds(
+        firstNonNull(
+            subscriptionRetry.getMaxRetryDelaySeconds(), globalRetry.getMaxRetryDelaySeconds()));
+    retry.setMaxAttempts(
+        firstNonNull(subscriptionRetry.getMaxAttempts(), globalRetry.getMaxAttempts()));
+    retry.setJittered(firstNonNull(subscriptionRetry.getJittered(), globalRetry.getJittered()));
+    retry.setInitialRpcTimeoutSeconds(
+        firstNonNull(
+            subscriptionRetry.getInitialRpcTimeoutSeconds(),
+            globalRetry.getInitialRpcTimeoutSeconds()));
+    retry.setRpcTimeoutMultiplier(
+        firstNonNull(
+            subscriptionRetry.getRpcTimeoutMultiplier(), globalRetry.getRpcTimeoutMultiplier()));
+    retry.setMaxRpcTimeoutSeconds(
+        firstNonNull(
+            subscriptionRetry.getMaxRpcTimeoutSeconds(), globalRetry.getMaxRpcTimeoutSeconds()));
+    return retry;
+  }
+
+  private static <T> T firstNonNull(T value, T fallback) {
+    return value != null ? value : fallback;
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.flowcontrol;
+
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import org.springframework.util.Assert;
+
+/**
+ * Registers Micrometer gauges for the limits and outstanding messages of the flow controllers in an
+ * {@link AdaptiveFlowControlRegistry}, tagged by subscription. Subscribers of the same subscription
+ * are reported together. The gauges of a subscription are removed once none of its flow
+ * controllers is registered anymore, and all gauges are removed when the binder is closed.
+ *
+ * @since 6.1.2
+ */
+public class AdaptiveFlowControlMeterBinder implements MeterBinder, AutoCloseable {
+
+  private static final String PREFIX = "pubsub.subscriber.flow.control.";
+
+  private final AdaptiveFlowControlRegistry flowControlRegistry;
+
+  private final Object lock = new Object();
+
+  private final Map<MeterRegistry, Map<ProjectSubscriptionName, List<Meter>>> boundMeters =
+      new HashMap<>();
+
+  private boolean listening;
+
+  public AdaptiveFlowControlMeterBinder(AdaptiveFlowControlRegistry flowControlRegistry) {
+    Assert.notNull(flowControlRegistry, "flowControlRegistry can't be null.");
+    this.flowControlRegistry = flowControlRegistry;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry meterRegistry) {
+    synchronized (this.lock) {
+      if (!this.listening) {
+        this.listening = true;
+        this.flowControlRegistry.addRegistrationListener(this::bindSubscription);
+        this.flowControlRegistry.addDeregistrationListener(this::unbindSubscriptionIfUnused);
+      }
+      this.boundMeters.putIfAbsent(meterRegistry, new HashMap<>());
+      for (AdaptiveFlowController flowController : this.flowControlRegistry.flowControllers()) {
+        bindSubscription(flowController);
+      }
+    }
+  }
+
+  /** Remove the gauges of all subscriptions from the registries they were bound to. */
+  @Override
+  public void close() {
+    synchronized (this.lock) {
+      this.boundMeters.forEach(
+          (meterRegistry, subscriptionMeters) ->
+              subscriptionMeters.values().forEach(meters -> meters.forEach(meterRegistry::remove)));
+      this.boundMeters.clear();
+    }
+  }
+
+  private void bindSubscription(AdaptiveFlowController flowController) {
+    ProjectSubscriptionName subscription = flowController.getSubscription();
+    synchronized (this.lock) {
+      this.boundMeters.forEach(
+          (meterRegistry, subscriptionMeters) ->
+              subscriptionMeters.computeIfAbsent(
+                  subscription, key -> registerGauges(meterRegistry, key)));
+    }
+  }
+
+  private void unbindSubscriptionIfUnused(AdaptiveFlowController flowController) {
+    ProjectSubscriptionName subscription = flowController.getSubscription();
+    synchronized (this.lock) {
+      boolean inUse =
+          this.flowControlRegistry.flowControllers().stream()
+              .anyMatch(registered -> subscription.equals(registered.getSubscription()));
+      if (inUse) {
+        return;
+      }
+      this.boundMeters.forEach(
+          (meterRegistry, subscriptionMeters) -> {
+            List<Meter> meters = subscriptionMeters.remove(subscription);
+            if (meters != null) {
+              meters.forEach(meterRegistry::remove);
+            }
+          });
+    }
+  }
+
+  private List<Meter> registerGauges(
+      MeterRegistry meterRegistry, ProjectSubscriptionName subscription) {
+    List<Meter> meters = new ArrayList<>();
+    meters.add(
+        gauge(
+            meterRegistry,
+            subscription,
+            "max.outstanding.elements",
+            "The adaptive maximum number of outstanding messages.",
+            flowController -> flowController.getLimits().getMaxOutstandingElementCount()));
+    meters.add(
+        gauge(
+            meterRegistry,
+            subscription,
+            "max.outstanding.bytes",
+            "The adaptive maximum number of outstanding message bytes.",
+            flowController -> flowController.getLimits().getMaxOutstandingRequestBytes()));
+    meters.add(
+        gauge(
+            meterRegistry,
+            subscription,
+            "outstanding.elements",
+            "The number of messages handed to the receiver and not yet acked or nacked.",
+            AdaptiveFlowController::getOutstandingElementCount));
+    meters.add(
+        gauge(
+            meterRegistry,
+            subscription,
+            "outstanding.bytes",
+            "The bytes of messages handed to the receiver and not yet acked or nacked.",
+            AdaptiveFlowController::getOutstandingRequestBytes));
+    return meters;
+  }
+
+  private Gauge gauge(
+      MeterRegistry meterRegistry,
+      ProjectSubscriptionName subscription,
+      String name,
+      String description,
+      ToLongFunction<AdaptiveFlowController> value) {
+    return Gauge.builder(
+            PREFIX + name,
+            this.flowControlRegistry,
+            registry ->
+                registry.flowControllers().stream()
+                    .filter(flowController -> subscription.equals(flowController.getSubscription()))
+                    .mapToLong(value)
+                    .sum())
+        .description(description)
+        .tag("subscription", subscription.toString())
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.flowcontrol;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+
+import com.google.api.core.ApiService;
+import com.google.api.core.ApiService.State;
+import com.google.api.gax.batching.FlowControlSettings;
+import com.google.cloud.pubsub.v1.Subscriber;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.Assert;
+
+/**
+ * A registry for the {@link AdaptiveFlowController} flow controllers created per subscriber, which
+ * periodically adjusts the limits of every registered controller.
+ *
+ * @since 6.1.2
+ */
+public class AdaptiveFlowControlRegistry {
+
+  private static final Log LOGGER = LogFactory.getLog(AdaptiveFlowControlRegistry.class);
+
+  /** Default maximum outstanding element count of the Pub/Sub subscriber client. */
+  static final long DEFAULT_MAX_OUTSTANDING_ELEMENT_COUNT = 1000L;
+
+  /** Default maximum outstanding request bytes of the Pub/Sub subscriber client. */
+  static final long DEFAULT_MAX_OUTSTANDING_REQUEST_BYTES = 100L * 1024L * 1024L;
+
+  private final AdaptiveFlowControlStrategy strategy;
+
+  private final Set<AdaptiveFlowController> flowControllers = ConcurrentHashMap.newKeySet();
+
+  private final List<Consumer<AdaptiveFlowController>> registrationListeners =
+      new CopyOnWriteArrayList<>();
+
+  private final List<Consumer<AdaptiveFlowController>> deregistrationListeners =
+      new CopyOnWriteArrayList<>();
+
+  private final ScheduledExecutorService scheduler;
+
+  /**
+   * Create a registry that adjusts its flow controllers at a fixed interval.
+   *
+   * @param strategy the strategy computing the limits
+   * @param adjustmentInterval the interval between adjustments
+   */
+  public AdaptiveFlowControlRegistry(
+      AdaptiveFlowControlStrategy strategy, Duration adjustmentInterval) {
+    Assert.notNull(strategy, "strategy can't be null.");
+    Assert.notNull(adjustmentInterval, "adjustmentInterval can't be null.");
+    Assert.isTrue(adjustmentInterval.toMillis() > 0, "adjustmentInterval must be positive.");
+    this.strategy = strategy;
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "pubsub-adaptive-flow-control");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long intervalMillis = adjustmentInterval.toMillis();
+    this.scheduler.scheduleWithFixedDelay(
+        this::adjustAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Create and register a flow controller for a new subscriber.
+   *
+   * @param subscription the subscription of the subscriber
+   * @param flowControlSettings the flow control settings of the subscriber, used as the maximum
+   *     limits; may be {@code null} to use the client defaults
+   * @return the registered flow controller
+   */
+  public AdaptiveFlowController registerFlowController(
+      ProjectSubscriptionName subscription, FlowControlSettings flowControlSettings) {
+    AdaptiveFlowController flowController =
+        new AdaptiveFlowController(
+            subscription, toMaximumLimits(flowControlSettings), this.strategy);
+    this.flowControllers.add(flowController);
+    this.registrationListeners.forEach(listener -> listener.accept(flowController));
+    return flowController;
+  }
+
+  /**
+   * Unregister the flow controller once its subscriber terminates.
+   *
+   * @param subscriber the subscriber created with the flow controller
+   * @param flowController the flow controller of the subscriber
+   */
+  public void addListener(Subscriber subscriber, AdaptiveFlowController flowController) {
+    subscriber.addListener(
+        new ApiService.Listener() {
+          @Override
+          public void terminated(State from) {
+            deregisterFlowController(flowController);
+          }
+
+          @Override
+          public void failed(State from, Throwable failure) {
+            deregisterFlowController(flowController);
+          }
+        },
+        directExecutor());
+  }
+
+  /**
+   * Add a listener notified of every flow controller registered from now on.
+   *
+   * @param listener the listener
+   */
+  public void addRegistrationListener(Consumer<AdaptiveFlowController> listener) {
+    this.registrationListeners.add(listener);
+  }
+
+  /**
+   * Add a listener notified of every flow controller unregistered from now on.
+   *
+   * @param listener the listener
+   */
+  public void addDeregistrationListener(Consumer<AdaptiveFlowController> listener) {
+    this.deregistrationListeners.add(listener);
+  }
+
+  public Collection<AdaptiveFlowController> flowControllers() {
+    return this.flowControllers;
+  }
+
+  /** Stop adjusting the registered flow controllers. */
+  public void close() {
+    this.scheduler.shutdownNow();
+  }
+
+  private void deregisterFlowController(AdaptiveFlowController flowController) {
+    if (this.flowControllers.remove(flowController)) {
+      this.deregistrationListeners.forEach(listener -> listener.accept(flowController));
+    }
+  }
+
+  void adjustAll() {
+    for (AdaptiveFlowController flowController : this.flowControllers) {
+      try {
+        flowController.adjust();
+      } catch (RuntimeException ex) {
+        LOGGER.warn(
+            "Failed to adjust flow control of subscription " + flowController.getSubscription(),
+            ex);
+      }
+    }
+  }
+
+  private static FlowControlLimits toMaximumLimits(FlowControlSettings flowControlSettings) {
+    Long elementCount =
+        flowControlSettings != null ? flowControlSettings.getMaxOutstandingElementCount() : null;
+    Long requestBytes =
+        flowControlSettings != null ? flowControlSettings.getMaxOutstandingRequestBytes() : null;
+    return new FlowControlLimits(
+        elementCount != null && elementCount > 0
+            ? elementCount
+            : DEFAULT_MAX_OUTSTANDING_ELEMENT_COUNT,
+        requestBytes != null && requestBytes > 0
+            ? requestBytes
+            : DEFAULT_MAX_OUTSTANDING_REQUEST_BYTES);
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.flowcontrol;
+
+import com.google.pubsub.v1.ProjectSubscriptionName;
+
+/**
+ * Computes the outstanding message limits of a subscription from the statistics observed since
+ * the previous adjustment.
+ *
+ * @since 6.1.2
+ */
+@FunctionalInterface
+public interface AdaptiveFlowControlStrategy {
+
+  /**
+   * Compute new limits for a subscription.
+   *
+   * @param subscription the subscription being adjusted
+   * @param current the limits currently applied
+   * @param maximum the configured flow control settings, which the result must not exceed
+   * @param statistics the statistics observed since the previous adjustment
+   * @return the limits to apply until the next adjustment
+   */
+  FlowControlLimits adjust(
+      ProjectSubscriptionName subscription,
+      FlowControlLimits current,
+      FlowControlLimits maximum,
+      FlowControlStatistics statistics);
+}
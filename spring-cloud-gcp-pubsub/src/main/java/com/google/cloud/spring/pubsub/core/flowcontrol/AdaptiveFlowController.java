@@ -0,0 +1,302 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.flowcontrol;
+
+import com.google.cloud.pubsub.v1.AckReplyConsumer;
+import com.google.cloud.pubsub.v1.MessageReceiver;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Limits the messages outstanding in the receiver of one subscriber, adjusting the limits at
+ * runtime with an {@link AdaptiveFlowControlStrategy}.
+ *
+ * <p>The flow control settings of a running {@link com.google.cloud.pubsub.v1.Subscriber} cannot be
+ * changed, so the subscriber keeps its configured settings as the upper bound and this controller
+ * applies the adaptive limits in front of the wrapped {@link MessageReceiver}: a message is only
+ * handed to the receiver once it fits within the current limits, and counts against them until it
+ * is acked or nacked.
+ *
+ * <p>Waiting messages block the subscriber's callback thread; they have already been pulled, so
+ * the subscriber still buffers messages up to its configured flow control settings. The adaptive
+ * limits bound the work in progress in the receiver, not the memory used by buffered messages.
+ *
+ * @since 6.1.2
+ */
+public class AdaptiveFlowController {
+
+  private static final Log LOGGER = LogFactory.getLog(AdaptiveFlowController.class);
+
+  private final ProjectSubscriptionName subscription;
+
+  private final FlowControlLimits maximumLimits;
+
+  private final AdaptiveFlowControlStrategy strategy;
+
+  private final DoubleSupplier heapUsageSupplier;
+
+  private final Object lock = new Object();
+
+  private final LongAdder completedMessages = new LongAdder();
+
+  private final LongAdder processingNanos = new LongAdder();
+
+  private volatile FlowControlLimits limits;
+
+  private long outstandingElementCount;
+
+  private long outstandingRequestBytes;
+
+  private boolean limitReached;
+
+  private long lastAdjustmentNanos = System.nanoTime();
+
+  /**
+   * Create a controller that starts at the maximum limits.
+   *
+   * @param subscription the subscription of the controlled subscriber
+   * @param maximumLimits the limits the controller never exceeds
+   * @param strategy the strategy computing the limits
+   */
+  public AdaptiveFlowController(
+      ProjectSubscriptionName subscription,
+      FlowControlLimits maximumLimits,
+      AdaptiveFlowControlStrategy strategy) {
+    this(subscription, maximumLimits, strategy, AdaptiveFlowController::currentHeapUsage);
+  }
+
+  AdaptiveFlowController(
+      ProjectSubscriptionName subscription,
+      FlowControlLimits maximumLimits,
+      AdaptiveFlowControlStrategy strategy,
+      DoubleSupplier heapUsageSupplier) {
+    Assert.notNull(subscription, "subscription can't be null.");
+    Assert.notNull(maximumLimits, "maximumLimits can't be null.");
+    Assert.notNull(strategy, "strategy can't be null.");
+    this.subscription = subscription;
+    this.maximumLimits = maximumLimits;
+    this.strategy = strategy;
+    this.heapUsageSupplier = heapUsageSupplier;
+    this.limits = maximumLimits;
+  }
+
+  /**
+   * The fraction of the maximum heap still in use after the most recent collection of each heap
+   * pool. Unlike the current usage, this does not count garbage that has not been collected yet.
+   */
+  private static double currentHeapUsage() {
+    long used = 0;
+    boolean collectionUsageReported = false;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      MemoryUsage collectionUsage =
+          pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+      if (collectionUsage != null) {
+        used += collectionUsage.getUsed();
+        collectionUsageReported = true;
+      }
+    }
+    MemoryUsage heapUsage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    long max = heapUsage.getMax() > 0 ? heapUsage.getMax() : heapUsage.getCommitted();
+    if (!collectionUsageReported) {
+      used = heapUsage.getUsed();
+    }
+    return max > 0 ? (double) used / max : 0.0;
+  }
+
+  /**
+   * Wrap a message receiver so that the messages it handles are limited by this controller.
+   *
+   * @param receiver the receiver to wrap
+   * @return the wrapped receiver
+   */
+  public MessageReceiver wrap(MessageReceiver receiver) {
+    return (message, consumer) -> {
+      long bytes = message.getSerializedSize();
+      try {
+        acquire(bytes);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        consumer.nack();
+        return;
+      }
+
+      Permit permit = new Permit(bytes);
+      try {
+        receiver.receiveMessage(message, permit.wrap(consumer));
+      } catch (RuntimeException ex) {
+        permit.release();
+        throw ex;
+      }
+    };
+  }
+
+  /**
+   * Collect the statistics observed since the previous adjustment and apply the limits computed by
+   * the strategy.
+   */
+  public void adjust() {
+    long completed = this.completedMessages.sumThenReset();
+    long nanos = this.processingNanos.sumThenReset();
+    long now = System.nanoTime();
+    boolean reached;
+    long elapsedNanos;
+    synchronized (this.lock) {
+      reached = this.limitReached;
+      this.limitReached = false;
+      elapsedNanos = now - this.lastAdjustmentNanos;
+      this.lastAdjustmentNanos = now;
+    }
+
+    FlowControlStatistics statistics =
+        new FlowControlStatistics(
+            completed,
+            completed > 0 ? nanos / 1_000_000.0 / completed : 0,
+            elapsedNanos > 0 ? completed * 1_000_000_000.0 / elapsedNanos : 0,
+            this.heapUsageSupplier.getAsDouble(),
+            reached);
+
+    FlowControlLimits current = this.limits;
+    FlowControlLimits adjusted =
+        this.strategy.adjust(this.subscription, current, this.maximumLimits, statistics);
+    if (adjusted == null || adjusted.equals(current)) {
+      return;
+    }
+    adjusted =
+        new FlowControlLimits(
+            Math.min(
+                adjusted.getMaxOutstandingElementCount(),
+                this.maximumLimits.getMaxOutstandingElementCount()),
+            Math.min(
+                adjusted.getMaxOutstandingRequestBytes(),
+                this.maximumLimits.getMaxOutstandingRequestBytes()));
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(
+          "Adjusting flow control of " + this.subscription + " to " + adjusted + " after "
+              + statistics);
+    }
+    synchronized (this.lock) {
+      this.limits = adjusted;
+      this.lock.notifyAll();
+    }
+  }
+
+  private void acquire(long bytes) throws InterruptedException {
+    synchronized (this.lock) {
+      while (!fits(bytes)) {
+        this.limitReached = true;
+        this.lock.wait();
+      }
+      this.outstandingElementCount++;
+      this.outstandingRequestBytes += bytes;
+    }
+  }
+
+  private boolean fits(long bytes) {
+    if (this.outstandingElementCount == 0) {
+      // Always admit one message, even if it is larger than the byte limit.
+      return true;
+    }
+    FlowControlLimits current = this.limits;
+    return this.outstandingElementCount < current.getMaxOutstandingElementCount()
+        && this.outstandingRequestBytes + bytes <= current.getMaxOutstandingRequestBytes();
+  }
+
+  private void release(long bytes, long startNanos) {
+    this.completedMessages.increment();
+    this.processingNanos.add(System.nanoTime() - startNanos);
+    synchronized (this.lock) {
+      this.outstandingElementCount--;
+      this.outstandingRequestBytes -= bytes;
+      this.lock.notifyAll();
+    }
+  }
+
+  public ProjectSubscriptionName getSubscription() {
+    return this.subscription;
+  }
+
+  public FlowControlLimits getLimits() {
+    return this.limits;
+  }
+
+  public FlowControlLimits getMaximumLimits() {
+    return this.maximumLimits;
+  }
+
+  public long getOutstandingElementCount() {
+    synchronized (this.lock) {
+      return this.outstandingElementCount;
+    }
+  }
+
+  public long getOutstandingRequestBytes() {
+    synchronized (this.lock) {
+      return this.outstandingRequestBytes;
+    }
+  }
+
+  private final class Permit {
+
+    private final long bytes;
+
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    Permit(long bytes) {
+      this.bytes = bytes;
+    }
+
+    void release() {
+      if (this.released.compareAndSet(false, true)) {
+        AdaptiveFlowController.this.release(this.bytes, this.startNanos);
+      }
+    }
+
+    AckReplyConsumer wrap(AckReplyConsumer consumer) {
+      return new AckReplyConsumer() {
+        @Override
+        public void ack() {
+          try {
+            consumer.ack();
+          } finally {
+            release();
+          }
+        }
+
+        @Override
+        public void nack() {
+          try {
+            consumer.nack();
+          } finally {
+            release();
+          }
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.flowcontrol;
+
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import org.springframework.util.Assert;
+
+/**
+ * An additive-increase/multiplicative-decrease {@link AdaptiveFlowControlStrategy}.
+ *
+ * <p>The outstanding element count is multiplied by the decrease factor when heap usage exceeds
+ * the configured threshold or, if a target is set, when the average processing time exceeds the
+ * target. Otherwise, it is increased by a fixed step when messages had to wait for the current
+ * limit during the interval. The outstanding byte limit is scaled in proportion to the element
+ * count.
+ *
+ * @since 6.1.2
+ */
+public class AimdFlowControlStrategy implements AdaptiveFlowControlStrategy {
+
+  private final long minOutstandingElementCount;
+
+  private final long increaseStep;
+
+  private final double decreaseFactor;
+
+  private final double maxHeapUsage;
+
+  private final long targetProcessingMillis;
+
+  /**
+   * Create an AIMD strategy.
+   *
+   * @param minOutstandingElementCount the element count the limit never drops below
+   * @param increaseStep the number of elements added when the limit was reached
+   * @param decreaseFactor the factor, between 0 and 1, the limit is multiplied by on pressure
+   * @param maxHeapUsage the heap usage fraction above which the limit is decreased
+   * @param targetProcessingMillis the average processing time above which the limit is decreased,
+   *     or {@code 0} to adjust on heap usage only
+   */
+  public AimdFlowControlStrategy(
+      long minOutstandingElementCount,
+      long increaseStep,
+      double decreaseFactor,
+      double maxHeapUsage,
+      long targetProcessingMillis) {
+    Assert.isTrue(
+        minOutstandingElementCount > 0, "minOutstandingElementCount must be greater than 0.");
+    Assert.isTrue(increaseStep > 0, "increaseStep must be greater than 0.");
+    Assert.isTrue(
+        decreaseFactor > 0 && decreaseFactor < 1, "decreaseFactor must be between 0 and 1.");
+    Assert.isTrue(maxHeapUsage > 0 && maxHeapUsage <= 1, "maxHeapUsage must be between 0 and 1.");
+    Assert.isTrue(targetProcessingMillis >= 0, "targetProcessingMillis can't be negative.");
+    this.minOutstandingElementCount = minOutstandingElementCount;
+    this.increaseStep = increaseStep;
+    this.decreaseFactor = decreaseFactor;
+    this.maxHeapUsage = maxHeapUsage;
+    this.targetProcessingMillis = targetProcessingMillis;
+  }
+
+  @Override
+  public FlowControlLimits adjust(
+      ProjectSubscriptionName subscription,
+      FlowControlLimits current,
+      FlowControlLimits maximum,
+      FlowControlStatistics statistics) {
+    long maxCount = maximum.getMaxOutstandingElementCount();
+    long minCount = Math.min(this.minOutstandingElementCount, maxCount);
+    long currentCount = current.getMaxOutstandingElementCount();
+
+    long newCount;
+    if (isUnderPressure(statistics)) {
+      newCount = Math.max(minCount, (long) (currentCount * this.decreaseFactor));
+    } else if (statistics.isLimitReached() && statistics.getThroughputPerSecond() > 0) {
+      newCount = Math.min(maxCount, currentCount + this.increaseStep);
+    } else {
+      return current;
+    }
+
+    if (newCount == currentCount) {
+      return current;
+    }
+    long newBytes =
+        Math.max(
+            1L, (long) ((double) maximum.getMaxOutstandingRequestBytes() * newCount / maxCount));
+    return new FlowControlLimits(newCount, newBytes);
+  }
+
+  private boolean isUnderPressure(FlowControlStatistics statistics) {
+    if (statistics.getHeapUsage() > this.maxHeapUsage) {
+      return true;
+    }
+    return this.targetProcessingMillis > 0
+        && statistics.getCompletedMessages() > 0
+        && statistics.getAverageProcessingMillis() > this.targetProcessingMillis;
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.flowcontrol;
+
+import org.springframework.util.Assert;
+
+/**
+ * Immutable outstanding message limits applied by an {@link AdaptiveFlowController}.
+ *
+ * @since 6.1.2
+ */
+public final class FlowControlLimits {
+
+  private final long maxOutstandingElementCount;
+
+  private final long maxOutstandingRequestBytes;
+
+  public FlowControlLimits(long maxOutstandingElementCount, long maxOutstandingRequestBytes) {
+    Assert.isTrue(
+        maxOutstandingElementCount > 0, "maxOutstandingElementCount must be greater than 0.");
+    Assert.isTrue(
+        maxOutstandingRequestBytes > 0, "maxOutstandingRequestBytes must be greater than 0.");
+    this.maxOutstandingElementCount = maxOutstandingElementCount;
+    this.maxOutstandingRequestBytes = maxOutstandingRequestBytes;
+  }
+
+  public long getMaxOutstandingElementCount() {
+    return this.maxOutstandingElementCount;
+  }
+
+  public long getMaxOutstandingRequestBytes() {
+    return this.maxOutstandingRequestBytes;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    FlowControlLimits that = (FlowControlLimits) o;
+    return this.maxOutstandingElementCount == that.maxOutstandingElementCount
+        && this.maxOutstandingRequestBytes == that.maxOutstandingRequestBytes;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Long.hashCode(this.maxOutstandingElementCount)
+        + Long.hashCode(this.maxOutstandingRequestBytes);
+  }
+
+  @Override
+  public String toString() {
+    return "FlowControlLimits{"
+        + "maxOutstandingElementCount="
+        + this.maxOutstandingElementCount
+        + ", maxOutstandingRequestBytes="
+        + this.maxOutstandingRequestBytes
+        + '}';
+  }
+}
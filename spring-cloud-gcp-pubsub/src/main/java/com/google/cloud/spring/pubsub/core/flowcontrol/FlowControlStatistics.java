@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.flowcontrol;
+
+/**
+ * Processing statistics observed by an {@link AdaptiveFlowController} since the previous
+ * adjustment.
+ *
+ * @since 6.1.2
+ */
+public final class FlowControlStatistics {
+
+  private final long completedMessages;
+
+  private final double averageProcessingMillis;
+
+  private final double throughputPerSecond;
+
+  private final double heapUsage;
+
+  private final boolean limitReached;
+
+  public FlowControlStatistics(
+      long completedMessages,
+      double averageProcessingMillis,
+      double throughputPerSecond,
+      double heapUsage,
+      boolean limitReached) {
+    this.completedMessages = completedMessages;
+    this.averageProcessingMillis = averageProcessingMillis;
+    this.throughputPerSecond = throughputPerSecond;
+    this.heapUsage = heapUsage;
+    this.limitReached = limitReached;
+  }
+
+  /**
+   * Get the number of messages acked or nacked during the interval.
+   *
+   * @return the number of completed messages
+   */
+  public long getCompletedMessages() {
+    return this.completedMessages;
+  }
+
+  /**
+   * Get the average time between a message being handed to the receiver and its ack or nack.
+   *
+   * @return the average processing time in milliseconds, or {@code 0} if nothing completed
+   */
+  public double getAverageProcessingMillis() {
+    return this.averageProcessingMillis;
+  }
+
+  /**
+   * Get the number of messages completed per second during the interval.
+   *
+   * @return the processing throughput
+   */
+  public double getThroughputPerSecond() {
+    return this.throughputPerSecond;
+  }
+
+  /**
+   * Get the fraction of the maximum heap in use at the time of the adjustment.
+   *
+   * @return heap usage between {@code 0} and {@code 1}
+   */
+  public double getHeapUsage() {
+    return this.heapUsage;
+  }
+
+  /**
+   * Whether a message had to wait for outstanding messages to complete during the interval.
+   *
+   * @return true if the current limits were reached
+   */
+  public boolean isLimitReached() {
+    return this.limitReached;
+  }
+
+  @Override
+  public String toString() {
+    return "FlowControlStatistics{"
+        + "completedMessages="
+        + this.completedMessages
+        + ", averageProcessingMillis="
+        + this.averageProcessingMillis
+        + ", throughputPerSecond="
+        + this.throughputPerSecond
+        + ", heapUsage="
+        + this.heapUsage
+        + ", limitReached="
+        + this.limitReached
+        + '}';
+  }
+}
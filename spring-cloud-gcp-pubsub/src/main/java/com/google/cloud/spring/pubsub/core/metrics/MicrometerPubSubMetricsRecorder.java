@@ -0,0 +1,241 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.metrics;
+
+import com.google.protobuf.Timestamp;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link PubSubMetricsRecorder} that records measurements as Micrometer meters.
+ *
+ * <p>The following meters are registered, tagged with {@code topic} or {@code subscription}:
+ *
+ * <ul>
+ *   <li>{@code pubsub.publish}: timer of individual publishes, tagged with {@code outcome}
+ *   <li>{@code pubsub.publish.batch.size}: number of messages per bulk publish call
+ *   <li>{@code pubsub.pull}: timer of pull requests, tagged with {@code outcome}
+ *   <li>{@code pubsub.pull.messages}: number of messages per pull request
+ *   <li>{@code pubsub.acknowledge}: timer of acknowledgement requests, tagged with {@code
+ *       operation} and {@code outcome}
+ *   <li>{@code pubsub.acknowledge.failures}: number of ack IDs in failed acknowledgement
+ *       requests, tagged with {@code operation}
+ *   <li>{@code pubsub.delivery.lag}: time between publishing and receiving a message
+ *   <li>{@code pubsub.processing}: timer of message handlers, tagged with {@code outcome}
+ *   <li>{@code pubsub.publish.in.flight}: gauge of publishes awaiting a response
+ * </ul>
+ *
+ * @since 6.1.2
+ */
+public class MicrometerPubSubMetricsRecorder implements PubSubMetricsRecorder {
+
+  private static final String TOPIC = "topic";
+
+  private static final String SUBSCRIPTION = "subscription";
+
+  private static final String OUTCOME = "outcome";
+
+  private static final String OPERATION = "operation";
+
+  private final MeterRegistry meterRegistry;
+
+  private final ConcurrentMap<String, Meter> meters = new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<String, AtomicReference<IntSupplier>> inFlightSources =
+      new ConcurrentHashMap<>();
+
+  public MicrometerPubSubMetricsRecorder(MeterRegistry meterRegistry) {
+    Assert.notNull(meterRegistry, "meterRegistry can't be null.");
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public void recordPublish(String topic, long durationNanos, boolean success) {
+    timer("pubsub.publish", "Time to publish a message.", TOPIC, topic, OUTCOME, outcome(success))
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void recordPublishBatch(String topic, int messageCount) {
+    summary(
+            "pubsub.publish.batch.size",
+            "Number of messages handed to the publisher in one bulk publish call.",
+            TOPIC,
+            topic)
+        .record(messageCount);
+  }
+
+  @Override
+  public void recordPull(
+      String subscription, long durationNanos, int messageCount, boolean success) {
+    timer(
+            "pubsub.pull",
+            "Time to complete a pull request.",
+            SUBSCRIPTION,
+            subscription,
+            OUTCOME,
+            outcome(success))
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+    if (success) {
+      summary(
+              "pubsub.pull.messages",
+              "Number of messages received per pull request.",
+              SUBSCRIPTION,
+              subscription)
+          .record(messageCount);
+    }
+  }
+
+  @Override
+  public void recordAcknowledgement(
+      String subscription,
+      AcknowledgementOperation operation,
+      int ackIdCount,
+      long durationNanos,
+      boolean success) {
+    String operationTag = operation.name().toLowerCase(Locale.ROOT);
+    timer(
+            "pubsub.acknowledge",
+            "Time to complete an acknowledgement request.",
+            SUBSCRIPTION,
+            subscription,
+            OPERATION,
+            operationTag,
+            OUTCOME,
+            outcome(success))
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+    if (!success) {
+      counter(
+              "pubsub.acknowledge.failures",
+              "Number of ack IDs in failed acknowledgement requests.",
+              SUBSCRIPTION,
+              subscription,
+              OPERATION,
+              operationTag)
+          .increment(ackIdCount);
+    }
+  }
+
+  @Override
+  public void recordDelivery(String subscription, PubsubMessage message) {
+    if (!message.hasPublishTime()) {
+      return;
+    }
+    Timestamp publishTime = message.getPublishTime();
+    long publishTimeMillis = publishTime.getSeconds() * 1000L + publishTime.getNanos() / 1_000_000;
+    long lagMillis = Math.max(0L, System.currentTimeMillis() - publishTimeMillis);
+    timer(
+            "pubsub.delivery.lag",
+            "Time between publishing and receiving a message.",
+            SUBSCRIPTION,
+            subscription)
+        .record(lagMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void recordProcessing(String subscription, long durationNanos, boolean success) {
+    timer(
+            "pubsub.processing",
+            "Time spent by the message handler processing a received message.",
+            SUBSCRIPTION,
+            subscription,
+            OUTCOME,
+            outcome(success))
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void registerInFlightPublishes(String topic, IntSupplier inFlightCount) {
+    Assert.notNull(inFlightCount, "inFlightCount can't be null.");
+    // The gauge outlives rebinding of the producer, so it reads from a replaceable source.
+    this.inFlightSources
+        .computeIfAbsent(
+            topic,
+            t -> {
+              AtomicReference<IntSupplier> source = new AtomicReference<>(inFlightCount);
+              Gauge.builder("pubsub.publish.in.flight", source, s -> s.get().getAsInt())
+                  .description("Number of publishes awaiting a response from Pub/Sub.")
+                  .tag(TOPIC, t)
+                  .strongReference(true)
+                  .register(this.meterRegistry);
+              return source;
+            })
+        .set(inFlightCount);
+  }
+
+  private static String outcome(boolean success) {
+    return success ? "success" : "failure";
+  }
+
+  private Timer timer(String name, String description, String... tags) {
+    return meter(
+        name,
+        tags,
+        () ->
+            Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(this.meterRegistry));
+  }
+
+  private DistributionSummary summary(String name, String description, String... tags) {
+    return meter(
+        name,
+        tags,
+        () ->
+            DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("messages")
+                .tags(tags)
+                .register(this.meterRegistry));
+  }
+
+  private Counter counter(String name, String description, String... tags) {
+    return meter(
+        name,
+        tags,
+        () ->
+            Counter.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(this.meterRegistry));
+  }
+
+  /** Looks up meters without building a Micrometer meter ID on every measurement. */
+  @SuppressWarnings("unchecked")
+  private <M extends Meter> M meter(String name, String[] tags, Supplier<M> registration) {
+    StringBuilder key = new StringBuilder(name);
+    for (String tag : tags) {
+      key.append('\u0000').append(tag);
+    }
+    return (M) this.meters.computeIfAbsent(key.toString(), k -> registration.get());
+  }
+}
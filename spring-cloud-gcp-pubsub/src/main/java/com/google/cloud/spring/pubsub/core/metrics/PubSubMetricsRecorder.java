@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.metrics;
+
+import com.google.pubsub.v1.PubsubMessage;
+import java.util.function.IntSupplier;
+
+/**
+ * Receives measurements of Pub/Sub operations performed by the templates and integration adapters.
+ *
+ * <p>All methods are no-ops by default, so that implementations only need to override the
+ * measurements they are interested in. Topic and subscription names are passed in the form used for
+ * the operation, which is fully-qualified for pull and acknowledgement requests.
+ *
+ * @since 6.1.2
+ */
+public interface PubSubMetricsRecorder {
+
+  /** A recorder that discards all measurements. */
+  PubSubMetricsRecorder NOOP = new PubSubMetricsRecorder() {};
+
+  /**
+   * Record the completion of a single publish.
+   *
+   * @param topic the topic published to
+   * @param durationNanos the time between handing the message to the publisher and its completion
+   * @param success whether the message was published
+   */
+  default void recordPublish(String topic, long durationNanos, boolean success) {}
+
+  /**
+   * Record the number of messages handed to the publisher in one bulk publish call.
+   *
+   * @param topic the topic published to
+   * @param messageCount the number of messages
+   */
+  default void recordPublishBatch(String topic, int messageCount) {}
+
+  /**
+   * Record the completion of a pull request.
+   *
+   * @param subscription the subscription pulled from
+   * @param durationNanos the duration of the request
+   * @param messageCount the number of messages received
+   * @param success whether the request succeeded
+   */
+  default void recordPull(
+      String subscription, long durationNanos, int messageCount, boolean success) {}
+
+  /**
+   * Record the completion of an acknowledge, nack or modify ack deadline request.
+   *
+   * @param subscription the subscription of the acknowledged messages
+   * @param operation the kind of request
+   * @param ackIdCount the number of ack IDs in the request
+   * @param durationNanos the duration of the request
+   * @param success whether the request succeeded
+   */
+  default void recordAcknowledgement(
+      String subscription,
+      AcknowledgementOperation operation,
+      int ackIdCount,
+      long durationNanos,
+      boolean success) {}
+
+  /**
+   * Record the receipt of a message, to measure the time since it was published.
+   *
+   * @param subscription the subscription the message was received from
+   * @param message the received message
+   */
+  default void recordDelivery(String subscription, PubsubMessage message) {}
+
+  /**
+   * Record the time a message handler spent processing a received message.
+   *
+   * @param subscription the subscription the message was received from
+   * @param durationNanos the processing time
+   * @param success whether the message was processed without an exception
+   */
+  default void recordProcessing(String subscription, long durationNanos, boolean success) {}
+
+  /**
+   * Register the source of the number of in-flight publishes of a producer. A later registration
+   * for the same topic replaces the earlier one.
+   *
+   * @param topic the topic published to
+   * @param inFlightCount supplies the current number of publishes awaiting a response
+   */
+  default void registerInFlightPublishes(String topic, IntSupplier inFlightCount) {}
+
+  /** The kinds of acknowledgement requests. */
+  enum AcknowledgementOperation {
+    ACK,
+    NACK,
+    MODIFY_ACK_DEADLINE
+  }
+}
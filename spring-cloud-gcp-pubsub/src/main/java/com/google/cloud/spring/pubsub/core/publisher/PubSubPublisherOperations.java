@@ -16,7 +16,10 @@
 
 package com.google.cloud.spring.pubsub.core.publisher;
 
+import com.google.cloud.spring.pubsub.core.PubSubDeliveryException;
 import com.google.pubsub.v1.PubsubMessage;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -59,4 +62,61 @@ public interface PubSubPublisherOperations {
    * @return the listenable future of the call
    */
   CompletableFuture<String> publish(String topic, PubsubMessage pubsubMessage);
+
+  /**
+   * Send a collection of messages to the same Pub/Sub topic.
+   *
+   * <p>Payloads that are {@link PubsubMessage} instances are published as is; other payloads are
+   * serialized by the configured message converter. The returned future completes once every
+   * message has either been published or failed, and never completes exceptionally because of an
+   * individual publish failure; per-message outcomes are reported by index in the {@link
+   * PublishBatchResult}.
+   *
+   * <p>The default implementation publishes each message individually through {@link
+   * #publish(String, Object)}.
+   *
+   * @param topic short topic name, e.g., "topicName", or the fully-qualified topic name in the
+   *     {@code projects/[project_name]/topics/[topic_name]} format
+   * @param payloads the payloads to publish
+   * @return the future of the aggregate result
+   * @since 6.1.2
+   */
+  default CompletableFuture<PublishBatchResult> publishAll(
+      String topic, Collection<?> payloads) {
+    String[] messageIds = new String[payloads.size()];
+    Map<Integer, PubSubDeliveryException> failures = new HashMap<>();
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[payloads.size()];
+    int i = 0;
+    for (Object payload : payloads) {
+      int index = i++;
+      CompletableFuture<String> publishFuture =
+          payload instanceof PubsubMessage
+              ? publish(topic, (PubsubMessage) payload)
+              : publish(topic, payload);
+      futures[index] =
+          publishFuture.handle(
+              (messageId, throwable) -> {
+                synchronized (failures) {
+                  if (throwable == null) {
+                    messageIds[index] = messageId;
+                  } else if (throwable instanceof PubSubDeliveryException) {
+                    failures.put(index, (PubSubDeliveryException) throwable);
+                  } else {
+                    failures.put(
+                        index,
+                        new PubSubDeliveryException(
+                            null, "Publishing to " + topic + " topic failed.", throwable));
+                  }
+                }
+                return null;
+              });
+    }
+    return CompletableFuture.allOf(futures)
+        .thenApply(
+            ignored -> {
+              synchronized (failures) {
+                return new PublishBatchResult(messageIds, failures);
+              }
+            });
+  }
 }
@@ -21,13 +21,21 @@ import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import com.google.api.core.ApiFuture;
 import com.google.api.core.ApiFutureCallback;
 import com.google.api.core.ApiFutures;
+import com.google.cloud.pubsub.v1.Publisher;
 import com.google.cloud.spring.pubsub.core.PubSubDeliveryException;
+import com.google.cloud.spring.pubsub.core.metrics.PubSubMetricsRecorder;
 import com.google.cloud.spring.pubsub.support.PublisherFactory;
 import com.google.cloud.spring.pubsub.support.converter.PubSubMessageConverter;
 import com.google.cloud.spring.pubsub.support.converter.SimplePubSubMessageConverter;
 import com.google.pubsub.v1.PubsubMessage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.util.Assert;
@@ -47,6 +55,8 @@ public class PubSubPublisherTemplate implements PubSubPublisherOperations {
 
   private final PublisherFactory publisherFactory;
 
+  private PubSubMetricsRecorder metricsRecorder = PubSubMetricsRecorder.NOOP;
+
   /**
    * Default {@link PubSubPublisherTemplate} constructor that uses {@link
    * SimplePubSubMessageConverter} to serialize and deserialize payloads.
@@ -70,6 +80,17 @@ public class PubSubPublisherTemplate implements PubSubPublisherOperations {
     this.pubSubMessageConverter = pubSubMessageConverter;
   }
 
+  /**
+   * Set the recorder of publish latencies and bulk publish sizes.
+   *
+   * @param metricsRecorder the metrics recorder
+   * @since 6.1.2
+   */
+  public void setMetricsRecorder(PubSubMetricsRecorder metricsRecorder) {
+    Assert.notNull(metricsRecorder, "The metricsRecorder can't be null.");
+    this.metricsRecorder = metricsRecorder;
+  }
+
   /**
    * Uses the configured message converter to first convert the payload and headers to a {@code
    * PubsubMessage} and then publish it.
@@ -90,6 +111,7 @@ public class PubSubPublisherTemplate implements PubSubPublisherOperations {
     Assert.hasText(topic, "The topic can't be null or empty.");
     Assert.notNull(pubsubMessage, "The pubsubMessage can't be null.");
 
+    long startNanos = System.nanoTime();
     ApiFuture<String> publishFuture =
         this.publisherFactory.createPublisher(topic).publish(pubsubMessage);
 
@@ -100,6 +122,7 @@ public class PubSubPublisherTemplate implements PubSubPublisherOperations {
 
           @Override
           public void onFailure(Throwable throwable) {
+            metricsRecorder.recordPublish(topic, System.nanoTime() - startNanos, false);
             String errorMessage = "Publishing to " + topic + " topic failed.";
             LOGGER.warn(errorMessage, throwable);
             PubSubDeliveryException pubSubDeliveryException =
@@ -109,6 +132,7 @@ public class PubSubPublisherTemplate implements PubSubPublisherOperations {
 
           @Override
           public void onSuccess(String result) {
+            metricsRecorder.recordPublish(topic, System.nanoTime() - startNanos, true);
             if (LOGGER.isDebugEnabled()) {
               LOGGER.debug("Publishing to " + topic + " was successful. Message ID: " + result);
             }
@@ -120,7 +144,135 @@ public class PubSubPublisherTemplate implements PubSubPublisherOperations {
     return completableFuture;
   }
 
+  /**
+   * Publishes all payloads to the same topic, resolving the {@link Publisher} once and converting
+   * all payloads before handing them to the client, which groups them into requests according to
+   * its {@code BatchingSettings}. A single aggregate future tracks the outcome of the whole
+   * collection.
+   */
+  @Override
+  public CompletableFuture<PublishBatchResult> publishAll(String topic, Collection<?> payloads) {
+    Assert.hasText(topic, "The topic can't be null or empty.");
+    Assert.notNull(payloads, "The payloads can't be null.");
+
+    List<PubsubMessage> messages = new ArrayList<>(payloads.size());
+    for (Object payload : payloads) {
+      Assert.notNull(payload, "The payloads can't contain null elements.");
+      messages.add(
+          payload instanceof PubsubMessage
+              ? (PubsubMessage) payload
+              : this.pubSubMessageConverter.toPubSubMessage(payload, null));
+    }
+
+    this.metricsRecorder.recordPublishBatch(topic, messages.size());
+    BulkPublishTracker tracker = new BulkPublishTracker(topic, messages, this.metricsRecorder);
+    if (messages.isEmpty()) {
+      tracker.complete();
+      return tracker.result;
+    }
+
+    Publisher publisher = this.publisherFactory.createPublisher(topic);
+    for (int i = 0; i < messages.size(); i++) {
+      int index = i;
+      long startNanos = System.nanoTime();
+      ApiFuture<String> publishFuture;
+      try {
+        publishFuture = publisher.publish(messages.get(i));
+      } catch (RuntimeException ex) {
+        // A synchronous failure only affects this message; the rest of the batch still goes out.
+        tracker.onPublishFailed(index, startNanos, ex);
+        continue;
+      }
+      publishFuture.addListener(
+          () -> tracker.onPublished(index, startNanos, publishFuture), directExecutor());
+    }
+
+    return tracker.result;
+  }
+
   public PublisherFactory getPublisherFactory() {
     return this.publisherFactory;
   }
+
+  /** Collects the outcomes of a bulk publish and completes one aggregate future. */
+  private static final class BulkPublishTracker {
+
+    private final String topic;
+
+    private final List<PubsubMessage> messages;
+
+    private final String[] messageIds;
+
+    private final Map<Integer, PubSubDeliveryException> failures = new HashMap<>();
+
+    private final AtomicInteger pending;
+
+    private final CompletableFuture<PublishBatchResult> result = new CompletableFuture<>();
+
+    private final PubSubMetricsRecorder metricsRecorder;
+
+    BulkPublishTracker(
+        String topic, List<PubsubMessage> messages, PubSubMetricsRecorder metricsRecorder) {
+      this.topic = topic;
+      this.messages = messages;
+      this.metricsRecorder = metricsRecorder;
+      this.messageIds = new String[messages.size()];
+      this.pending = new AtomicInteger(messages.size());
+    }
+
+    void onPublished(int index, long startNanos, ApiFuture<String> publishFuture) {
+      try {
+        // Listeners run once the future is done, so this does not block.
+        this.messageIds[index] = publishFuture.get();
+        this.metricsRecorder.recordPublish(this.topic, System.nanoTime() - startNanos, true);
+      } catch (ExecutionException ex) {
+        recordFailure(index, startNanos, ex.getCause());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        recordFailure(index, startNanos, ex);
+      } catch (RuntimeException ex) {
+        recordFailure(index, startNanos, ex);
+      }
+      countDown();
+    }
+
+    void onPublishFailed(int index, long startNanos, Throwable cause) {
+      recordFailure(index, startNanos, cause);
+      countDown();
+    }
+
+    private void countDown() {
+      if (this.pending.decrementAndGet() == 0) {
+        complete();
+      }
+    }
+
+    private void recordFailure(int index, long startNanos, Throwable cause) {
+      this.metricsRecorder.recordPublish(this.topic, System.nanoTime() - startNanos, false);
+      String errorMessage = "Publishing to " + this.topic + " topic failed.";
+      LOGGER.warn(errorMessage, cause);
+      PubSubDeliveryException exception =
+          new PubSubDeliveryException(this.messages.get(index), errorMessage, cause);
+      synchronized (this.failures) {
+        this.failures.put(index, exception);
+      }
+    }
+
+    void complete() {
+      // The decrement of the pending counter publishes the message ID writes of other threads.
+      synchronized (this.failures) {
+        this.result.complete(new PublishBatchResult(this.messageIds, this.failures));
+      }
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(
+            "Published "
+                + (this.messageIds.length - this.failures.size())
+                + " of "
+                + this.messageIds.length
+                + " messages to "
+                + this.topic
+                + ".");
+      }
+    }
+  }
 }
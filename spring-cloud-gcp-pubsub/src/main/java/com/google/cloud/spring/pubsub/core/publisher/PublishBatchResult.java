@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.publisher;
+
+import com.google.cloud.spring.pubsub.core.PubSubDeliveryException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.lang.Nullable;
+
+/**
+ * The outcome of publishing a collection of messages in bulk.
+ *
+ * <p>Results are reported by the position of each message in the published collection: {@link
+ * #getMessageIds()} holds the server-assigned message ID of each successfully published message
+ * (or {@code null} for failed messages), and {@link #getFailures()} maps the index of each failed
+ * message to the {@link PubSubDeliveryException} describing the failure.
+ *
+ * @since 6.1.2
+ */
+public final class PublishBatchResult {
+
+  private final List<String> messageIds;
+
+  private final Map<Integer, PubSubDeliveryException> failures;
+
+  PublishBatchResult(String[] messageIds, Map<Integer, PubSubDeliveryException> failures) {
+    this.messageIds = Collections.unmodifiableList(Arrays.asList(messageIds));
+    this.failures = Collections.unmodifiableMap(new TreeMap<>(failures));
+  }
+
+  /**
+   * Get the message IDs in the order of the published collection.
+   *
+   * @return message IDs, with {@code null} entries at the indices of failed messages
+   */
+  public List<String> getMessageIds() {
+    return this.messageIds;
+  }
+
+  /**
+   * Get the failures keyed by the index of the failed message in the published collection.
+   *
+   * @return failures sorted by index; empty if all messages were published
+   */
+  public Map<Integer, PubSubDeliveryException> getFailures() {
+    return this.failures;
+  }
+
+  /**
+   * Get the message ID of the message at the given index.
+   *
+   * @param index position of the message in the published collection
+   * @return the message ID, or {@code null} if publishing that message failed
+   */
+  @Nullable
+  public String getMessageId(int index) {
+    return this.messageIds.get(index);
+  }
+
+  public boolean hasFailures() {
+    return !this.failures.isEmpty();
+  }
+
+  public int size() {
+    return this.messageIds.size();
+  }
+
+  @Override
+  public String toString() {
+    return "PublishBatchResult{"
+        + "size="
+        + this.messageIds.size()
+        + ", failedIndices="
+        + this.failures.keySet()
+        + '}';
+  }
+}
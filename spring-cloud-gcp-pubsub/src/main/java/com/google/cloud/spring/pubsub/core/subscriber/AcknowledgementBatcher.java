@@ -0,0 +1,288 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.subscriber;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.batching.BatchingSettings;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Empty;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.springframework.util.Assert;
+
+/**
+ * Coalesces individual acknowledgement, nack and modify-ack-deadline requests into batched
+ * requests, one batch per subscription and ack deadline.
+ *
+ * <p>A batch is sent when it reaches the element count or request byte threshold of the configured
+ * {@link BatchingSettings}, or when its delay threshold elapses, whichever comes first. The
+ * thresholds are capped at the Pub/Sub service limits of {@value #MAX_ACK_IDS_PER_REQUEST} ack IDs
+ * and {@value #MAX_REQUEST_BYTES} bytes per request.
+ *
+ * @since 6.1.2
+ */
+class AcknowledgementBatcher {
+
+  /** Maximum number of ack IDs accepted by the service in a single request. */
+  static final int MAX_ACK_IDS_PER_REQUEST = 2500;
+
+  /** Maximum request size accepted by the service for acknowledgement operations. */
+  static final long MAX_REQUEST_BYTES = 512L * 1024L;
+
+  /** Pseudo ack deadline used to key plain acknowledgements. */
+  static final int ACK = -1;
+
+  /** Field tag and length prefix overhead budgeted for each ack ID and the subscription name. */
+  private static final int FIELD_OVERHEAD_BYTES = 1 + CodedOutputStream.computeUInt32SizeNoTag(
+      (int) MAX_REQUEST_BYTES);
+
+  private final long elementCountThreshold;
+
+  private final long requestByteThreshold;
+
+  private final long delayThresholdMillis;
+
+  private final AcknowledgementSender sender;
+
+  private final ScheduledExecutorService scheduler;
+
+  private final Executor callbackExecutor;
+
+  private final Map<BatchKey, Batch> openBatches = new HashMap<>();
+
+  private boolean shutdown;
+
+  AcknowledgementBatcher(
+      BatchingSettings batchingSettings,
+      AcknowledgementSender sender,
+      ScheduledExecutorService scheduler,
+      Executor callbackExecutor) {
+    Assert.notNull(batchingSettings, "batchingSettings can't be null.");
+    Assert.notNull(sender, "sender can't be null.");
+    Assert.notNull(scheduler, "scheduler can't be null.");
+    Assert.notNull(callbackExecutor, "callbackExecutor can't be null.");
+
+    this.elementCountThreshold =
+        cap(batchingSettings.getElementCountThreshold(), MAX_ACK_IDS_PER_REQUEST);
+    this.requestByteThreshold = cap(batchingSettings.getRequestByteThreshold(), MAX_REQUEST_BYTES);
+    this.delayThresholdMillis =
+        batchingSettings.getDelayThreshold() != null
+            ? Math.max(1L, batchingSettings.getDelayThreshold().toMillis())
+            : 1L;
+    this.sender = sender;
+    this.scheduler = scheduler;
+    this.callbackExecutor = callbackExecutor;
+  }
+
+  private static long cap(Long threshold, long limit) {
+    return threshold == null || threshold <= 0 ? limit : Math.min(threshold, limit);
+  }
+
+  /**
+   * Adds an ack ID to the open batch for its subscription and deadline.
+   *
+   * @param subscriptionName fully-qualified subscription name
+   * @param ackDeadlineSeconds the new ack deadline, or {@link #ACK} to acknowledge
+   * @param ackId the ack ID to add
+   * @return a future completed when the batch containing the ack ID has been sent
+   */
+  CompletableFuture<Void> add(String subscriptionName, int ackDeadlineSeconds, String ackId) {
+    BatchKey key = new BatchKey(subscriptionName, ackDeadlineSeconds);
+    int ackIdSize = ackId.length() + FIELD_OVERHEAD_BYTES;
+
+    Batch readyBatch = null;
+    Batch fullBatch = null;
+    CompletableFuture<Void> result;
+    synchronized (this) {
+      if (this.shutdown) {
+        return CompletableFuture.failedFuture(
+            new IllegalStateException("The acknowledgement batcher has been shut down."));
+      }
+      Batch batch = this.openBatches.get(key);
+      if (batch != null && batch.byteSize + ackIdSize > this.requestByteThreshold) {
+        // Adding this ack ID would push the request over the byte threshold.
+        readyBatch = removeOpenBatch(key);
+        batch = null;
+      }
+      if (batch == null) {
+        batch = new Batch(key);
+        this.openBatches.put(key, batch);
+        Batch scheduledBatch = batch;
+        batch.delayedFlush =
+            this.scheduler.schedule(
+                () -> flush(scheduledBatch), this.delayThresholdMillis, TimeUnit.MILLISECONDS);
+      }
+      result = batch.add(ackId, ackIdSize);
+      if (batch.ackIds.size() >= this.elementCountThreshold
+          || batch.byteSize >= this.requestByteThreshold) {
+        fullBatch = removeOpenBatch(key);
+      }
+    }
+
+    send(readyBatch);
+    send(fullBatch);
+    return result;
+  }
+
+  /** Sends all open batches immediately. */
+  void flushAll() {
+    List<Batch> batches;
+    synchronized (this) {
+      batches = new ArrayList<>(this.openBatches.values());
+      this.openBatches.clear();
+    }
+    batches.forEach(
+        batch -> {
+          batch.delayedFlush.cancel(false);
+          send(batch);
+        });
+  }
+
+  /** Sends all open batches and rejects further additions. */
+  void shutdown() {
+    synchronized (this) {
+      this.shutdown = true;
+    }
+    flushAll();
+  }
+
+  private void flush(Batch batch) {
+    synchronized (this) {
+      if (this.openBatches.get(batch.key) != batch) {
+        // Already sent because a threshold was reached.
+        return;
+      }
+      this.openBatches.remove(batch.key);
+    }
+    send(batch);
+  }
+
+  private Batch removeOpenBatch(BatchKey key) {
+    Batch batch = this.openBatches.remove(key);
+    batch.delayedFlush.cancel(false);
+    return batch;
+  }
+
+  private void send(Batch batch) {
+    if (batch == null) {
+      return;
+    }
+    ApiFuture<Empty> apiFuture;
+    try {
+      apiFuture =
+          this.sender.send(batch.key.subscriptionName, batch.key.ackDeadlineSeconds, batch.ackIds);
+    } catch (RuntimeException ex) {
+      batch.completion.completeExceptionally(ex);
+      return;
+    }
+
+    ApiFutures.addCallback(
+        apiFuture,
+        new ApiFutureCallback<>() {
+          @Override
+          public void onFailure(Throwable throwable) {
+            batch.completion.completeExceptionally(throwable);
+          }
+
+          @Override
+          public void onSuccess(Empty empty) {
+            batch.completion.complete(null);
+          }
+        },
+        this.callbackExecutor);
+  }
+
+  /** Sends one batched acknowledgement operation. */
+  @FunctionalInterface
+  interface AcknowledgementSender {
+
+    /**
+     * Sends a batched request.
+     *
+     * @param subscriptionName fully-qualified subscription name
+     * @param ackDeadlineSeconds the new ack deadline, or {@link #ACK} to acknowledge
+     * @param ackIds the ack IDs in the batch
+     * @return the future of the RPC
+     */
+    ApiFuture<Empty> send(String subscriptionName, int ackDeadlineSeconds, List<String> ackIds);
+  }
+
+  private static final class BatchKey {
+
+    private final String subscriptionName;
+
+    private final int ackDeadlineSeconds;
+
+    BatchKey(String subscriptionName, int ackDeadlineSeconds) {
+      this.subscriptionName = subscriptionName;
+      this.ackDeadlineSeconds = ackDeadlineSeconds;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      BatchKey that = (BatchKey) o;
+      return this.ackDeadlineSeconds == that.ackDeadlineSeconds
+          && this.subscriptionName.equals(that.subscriptionName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.subscriptionName, this.ackDeadlineSeconds);
+    }
+  }
+
+  private static final class Batch {
+
+    private final BatchKey key;
+
+    private final List<String> ackIds = new ArrayList<>();
+
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    private long byteSize;
+
+    private ScheduledFuture<?> delayedFlush;
+
+    Batch(BatchKey key) {
+      this.key = key;
+      this.byteSize = key.subscriptionName.length() + FIELD_OVERHEAD_BYTES;
+    }
+
+    CompletableFuture<Void> add(String ackId, int ackIdSize) {
+      this.ackIds.add(ackId);
+      this.byteSize += ackIdSize;
+      // Each caller gets its own dependent future so that cancelling one does not affect others.
+      return this.completion.thenApply(ignored -> null);
+    }
+  }
+}
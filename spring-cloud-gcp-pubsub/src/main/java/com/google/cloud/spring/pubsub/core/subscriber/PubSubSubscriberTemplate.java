@@ -19,9 +19,12 @@ package com.google.cloud.spring.pubsub.core.subscriber;
 import com.google.api.core.ApiFuture;
 import com.google.api.core.ApiFutureCallback;
 import com.google.api.core.ApiFutures;
+import com.google.api.gax.batching.BatchingSettings;
 import com.google.cloud.pubsub.v1.AckReplyConsumer;
 import com.google.cloud.pubsub.v1.Subscriber;
 import com.google.cloud.pubsub.v1.stub.SubscriberStub;
+import com.google.cloud.spring.pubsub.core.metrics.PubSubMetricsRecorder;
+import com.google.cloud.spring.pubsub.core.metrics.PubSubMetricsRecorder.AcknowledgementOperation;
 import com.google.cloud.spring.pubsub.support.AcknowledgeablePubsubMessage;
 import com.google.cloud.spring.pubsub.support.BasicAcknowledgeablePubsubMessage;
 import com.google.cloud.spring.pubsub.support.PubSubSubscriptionUtils;
@@ -44,6 +47,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -52,6 +56,7 @@ import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.util.Assert;
 
 /**
@@ -68,6 +73,10 @@ import org.springframework.util.Assert;
  * the asynchronous pull callback operations. By default, this is executed on the same thread that
  * executes the callback.
  *
+ * <p>Acknowledgement batching can be enabled with {@link #setAckBatchingSettings(BatchingSettings)}.
+ * When enabled, individual {@code ack()}, {@code nack()} and {@code modifyAckDeadline()} calls on
+ * pulled messages are coalesced into per-subscription requests instead of being sent one by one.
+ *
  * @since 1.1
  */
 public class PubSubSubscriberTemplate implements PubSubSubscriberOperations, DisposableBean {
@@ -82,6 +91,14 @@ public class PubSubSubscriberTemplate implements PubSubSubscriberOperations, Dis
 
   private Executor asyncPullExecutor = Runnable::run;
 
+  private ThreadPoolTaskScheduler ackBatchingScheduler;
+
+  private BatchingSettings ackBatchingSettings;
+
+  private volatile AcknowledgementBatcher acknowledgementBatcher;
+
+  private PubSubMetricsRecorder metricsRecorder = PubSubMetricsRecorder.NOOP;
+
   private final ConcurrentHashMap<String, SubscriberStub> subscriptionNameToStubMap =
       new ConcurrentHashMap<>();
 
@@ -119,13 +136,17 @@ public class PubSubSubscriberTemplate implements PubSubSubscriberOperations, Dis
 
   /**
    * Sets the {@link Executor} to control per-subscription batch parallelization in acknowledgement
-   * and deadline operations.
+   * and deadline operations. Pending batched acknowledgements are sent, and later ones are sent
+   * through the new executor.
    *
    * @param ackExecutor the executor to set
    */
-  public void setAckExecutor(Executor ackExecutor) {
+  public synchronized void setAckExecutor(Executor ackExecutor) {
     Assert.notNull(ackExecutor, "ackExecutor can't be null.");
     this.ackExecutor = ackExecutor;
+    if (this.acknowledgementBatcher != null) {
+      initAcknowledgementBatcher();
+    }
   }
 
   /**
@@ -139,6 +160,63 @@ public class PubSubSubscriberTemplate implements PubSubSubscriberOperations, Dis
     this.asyncPullExecutor = asyncPullExecutor;
   }
 
+  /**
+   * Set the recorder of pull and acknowledgement latencies and of the delivery lag of received
+   * messages.
+   *
+   * @param metricsRecorder the metrics recorder
+   * @since 6.1.2
+   */
+  public void setMetricsRecorder(PubSubMetricsRecorder metricsRecorder) {
+    Assert.notNull(metricsRecorder, "The metricsRecorder can't be null.");
+    this.metricsRecorder = metricsRecorder;
+  }
+
+  /**
+   * Enables coalescing of acknowledgement operations triggered on individual pulled messages.
+   *
+   * <p>Ack IDs are grouped per subscription (and per ack deadline for nack and modify ack deadline
+   * operations) and sent when the element count, request byte or delay threshold of the {@link
+   * BatchingSettings} is reached. Thresholds are capped at the service limit of 2,500 ack IDs and
+   * 512KB per request. The future returned by each message's {@code ack()} completes when the
+   * request containing it completes.
+   *
+   * @param ackBatchingSettings the batching thresholds; {@code null} or disabled settings turn
+   *     batching off
+   * @since 6.1.2
+   */
+  public synchronized void setAckBatchingSettings(BatchingSettings ackBatchingSettings) {
+    this.ackBatchingSettings = ackBatchingSettings;
+    initAcknowledgementBatcher();
+  }
+
+  private void initAcknowledgementBatcher() {
+    if (this.acknowledgementBatcher != null) {
+      this.acknowledgementBatcher.shutdown();
+      this.acknowledgementBatcher = null;
+    }
+    if (this.ackBatchingSettings == null
+        || Boolean.FALSE.equals(this.ackBatchingSettings.getIsEnabled())) {
+      return;
+    }
+    if (this.ackBatchingScheduler == null) {
+      ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+      scheduler.setThreadNamePrefix("gcp-pubsub-ack-batching-");
+      scheduler.setDaemon(true);
+      scheduler.initialize();
+      this.ackBatchingScheduler = scheduler;
+    }
+    this.acknowledgementBatcher =
+        new AcknowledgementBatcher(
+            this.ackBatchingSettings,
+            (subscriptionName, ackDeadlineSeconds, ackIds) ->
+                ackDeadlineSeconds == AcknowledgementBatcher.ACK
+                    ? ack(subscriptionName, ackIds)
+                    : modifyAckDeadline(subscriptionName, ackIds, ackDeadlineSeconds),
+            this.ackBatchingScheduler.getScheduledExecutor(),
+            this.ackExecutor);
+  }
+
   @Override
   public Subscriber subscribe(
       String subscription, Consumer<BasicAcknowledgeablePubsubMessage> messageConsumer) {
@@ -147,13 +225,15 @@ public class PubSubSubscriberTemplate implements PubSubSubscriberOperations, Dis
     Subscriber subscriber =
         this.subscriberFactory.createSubscriber(
             subscription,
-            (message, ackReplyConsumer) ->
-                messageConsumer.accept(
-                    new PushedAcknowledgeablePubsubMessage(
-                        PubSubSubscriptionUtils.toProjectSubscriptionName(
-                            subscription, this.subscriberFactory.getProjectId()),
-                        message,
-                        ackReplyConsumer)));
+            (message, ackReplyConsumer) -> {
+              ProjectSubscriptionName projectSubscriptionName =
+                  PubSubSubscriptionUtils.toProjectSubscriptionName(
+                      subscription, this.subscriberFactory.getProjectId());
+              this.metricsRecorder.recordDelivery(projectSubscriptionName.toString(), message);
+              messageConsumer.accept(
+                  new PushedAcknowledgeablePubsubMessage(
+                      projectSubscriptionName, message, ackReplyConsumer));
+            });
     subscriber.startAsync();
     return subscriber;
   }
@@ -168,14 +248,18 @@ public class PubSubSubscriberTemplate implements PubSubSubscriberOperations, Dis
     Subscriber subscriber =
         this.subscriberFactory.createSubscriber(
             subscription,
-            (message, ackReplyConsumer) ->
-                messageConsumer.accept(
-                    new ConvertedPushedAcknowledgeablePubsubMessage<>(
-                        PubSubSubscriptionUtils.toProjectSubscriptionName(
-                            subscription, this.subscriberFactory.getProjectId()),
-                        message,
-                        this.getMessageConverter().fromPubSubMessage(message, payloadType),
-                        ackReplyConsumer)));
+            (message, ackReplyConsumer) -> {
+              ProjectSubscriptionName projectSubscriptionName =
+                  PubSubSubscriptionUtils.toProjectSubscriptionName(
+                      subscription, this.subscriberFactory.getProjectId());
+              this.metricsRecorder.recordDelivery(projectSubscriptionName.toString(), message);
+              messageConsumer.accept(
+                  new ConvertedPushedAcknowledgeablePubsubMessage<>(
+                      projectSubscriptionName,
+                      message,
+                      this.getMessageConverter().fromPubSubMessage(message, payloadType),
+                      ackReplyConsumer));
+            });
     subscriber.startAsync();
     return subscriber;
   }
@@ -189,8 +273,21 @@ public class PubSubSubscriberTemplate implements PubSubSubscriberOperations, Dis
    */
   private List<AcknowledgeablePubsubMessage> pull(PullRequest pullRequest) {
     Assert.notNull(pullRequest, "The pull request can't be null.");
-    PullResponse pullResponse =
-        getSubscriberStub(pullRequest.getSubscription()).pullCallable().call(pullRequest);
+    long startNanos = System.nanoTime();
+    PullResponse pullResponse;
+    try {
+      pullResponse =
+          getSubscriberStub(pullRequest.getSubscription()).pullCallable().call(pullRequest);
+    } catch (RuntimeException ex) {
+      this.metricsRecorder.recordPull(
+          pullRequest.getSubscription(), System.nanoTime() - startNanos, 0, false);
+      throw ex;
+    }
+    this.metricsRecorder.recordPull(
+        pullRequest.getSubscription(),
+        System.nanoTime() - startNanos,
+        pullResponse.getReceivedMessagesCount(),
+        true);
     return toAcknowledgeablePubsubMessageList(
         pullResponse.getReceivedMessagesList(), pullRequest.getSubscription());
   }
@@ -204,6 +301,7 @@ public class PubSubSubscriberTemplate implements PubSubSubscriberOperations, Dis
    */
   private CompletableFuture<List<AcknowledgeablePubsubMessage>> pullAsync(PullRequest pullRequest) {
     Assert.notNull(pullRequest, "The pull request can't be null.");
+    long startNanos = System.nanoTime();
     ApiFuture<PullResponse> pullFuture =
         getSubscriberStub(pullRequest.getSubscription()).pullCallable().futureCall(pullRequest);
 
@@ -215,11 +313,18 @@ public class PubSubSubscriberTemplate implements PubSubSubscriberOperations, Dis
 
           @Override
           public void onFailure(Throwable throwable) {
+            metricsRecorder.recordPull(
+                pullRequest.getSubscription(), System.nanoTime() - startNanos, 0, false);
             completableFuture.completeExceptionally(throwable);
           }
 
           @Override
           public void onSuccess(PullResponse pullResponse) {
+            metricsRecorder.recordPull(
+                pullRequest.getSubscription(),
+                System.nanoTime() - startNanos,
+                pullResponse.getReceivedMessagesCount(),
+                true);
             List<AcknowledgeablePubsubMessage> result =
                 toAcknowledgeablePubsubMessageList(
                     pullResponse.getReceivedMessagesList(), pullRequest.getSubscription());
@@ -236,12 +341,14 @@ public class PubSubSubscriberTemplate implements PubSubSubscriberOperations, Dis
       List<ReceivedMessage> messages, String subscriptionId) {
     return messages.stream()
         .map(
-            message ->
-                (AcknowledgeablePubsubMessage) new PulledAcknowledgeablePubsubMessage(
-                    PubSubSubscriptionUtils.toProjectSubscriptionName(
-                        subscriptionId, this.subscriberFactory.getProjectId()),
-                    message.getMessage(),
-                    message.getAckId()))
+            message -> {
+              this.metricsRecorder.recordDelivery(subscriptionId, message.getMessage());
+              return (AcknowledgeablePubsubMessage) new PulledAcknowledgeablePubsubMessage(
+                  PubSubSubscriptionUtils.toProjectSubscriptionName(
+                      subscriptionId, this.subscriberFactory.getProjectId()),
+                  message.getMessage(),
+                  message.getAckId());
+            })
         .toList();
   }
 
@@ -435,9 +542,18 @@ public class PubSubSubscriberTemplate implements PubSubSubscriberOperations, Dis
             modifyAckDeadline(subscriptionName, ackIds, ackDeadlineSeconds));
   }
 
-  /** Destroys the default executor, regardless of whether it was used. */
+  /**
+   * Destroys the default executor, regardless of whether it was used. Pending batched
+   * acknowledgements are sent before the subscriber stubs are closed.
+   */
   @Override
   public void destroy() {
+    if (this.acknowledgementBatcher != null) {
+      this.acknowledgementBatcher.shutdown();
+    }
+    if (this.ackBatchingScheduler != null) {
+      this.ackBatchingScheduler.shutdown();
+    }
     this.defaultAckExecutor.shutdown();
     for (SubscriberStub stub : subscriptionNameToStubMap.values()) {
       stub.close();
@@ -451,7 +567,12 @@ public class PubSubSubscriberTemplate implements PubSubSubscriberOperations, Dis
             .setSubscription(subscriptionName)
             .build();
     SubscriberStub subscriberStub = getSubscriberStub(subscriptionName);
-    return subscriberStub.acknowledgeCallable().futureCall(acknowledgeRequest);
+    return recordAcknowledgement(
+        subscriptionName,
+        AcknowledgementOperation.ACK,
+        ackIds.size(),
+        System.nanoTime(),
+        subscriberStub.acknowledgeCallable().futureCall(acknowledgeRequest));
   }
 
   private ApiFuture<Empty> modifyAckDeadline(
@@ -463,7 +584,42 @@ public class PubSubSubscriberTemplate implements PubSubSubscriberOperations, Dis
             .setSubscription(subscriptionName)
             .build();
     SubscriberStub subscriberStub = getSubscriberStub(subscriptionName);
-    return subscriberStub.modifyAckDeadlineCallable().futureCall(modifyAckDeadlineRequest);
+    return recordAcknowledgement(
+        subscriptionName,
+        ackDeadlineSeconds == 0
+            ? AcknowledgementOperation.NACK
+            : AcknowledgementOperation.MODIFY_ACK_DEADLINE,
+        ackIds.size(),
+        System.nanoTime(),
+        subscriberStub.modifyAckDeadlineCallable().futureCall(modifyAckDeadlineRequest));
+  }
+
+  private ApiFuture<Empty> recordAcknowledgement(
+      String subscriptionName,
+      AcknowledgementOperation operation,
+      int ackIdCount,
+      long startNanos,
+      ApiFuture<Empty> future) {
+    if (this.metricsRecorder == PubSubMetricsRecorder.NOOP) {
+      return future;
+    }
+    future.addListener(
+        () -> {
+          boolean success;
+          try {
+            future.get();
+            success = true;
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            success = false;
+          } catch (ExecutionException | RuntimeException ex) {
+            success = false;
+          }
+          this.metricsRecorder.recordAcknowledgement(
+              subscriptionName, operation, ackIdCount, System.nanoTime() - startNanos, success);
+        },
+        Runnable::run);
+    return future;
   }
 
   /**
@@ -584,6 +740,11 @@ public class PubSubSubscriberTemplate implements PubSubSubscriberOperations, Dis
 
     @Override
     public CompletableFuture<Void> ack() {
+      AcknowledgementBatcher batcher = PubSubSubscriberTemplate.this.acknowledgementBatcher;
+      if (batcher != null) {
+        return batcher.add(
+            getProjectSubscriptionName().toString(), AcknowledgementBatcher.ACK, this.ackId);
+      }
       return PubSubSubscriberTemplate.this.ack(Collections.singleton(this));
     }
 
@@ -594,6 +755,12 @@ public class PubSubSubscriberTemplate implements PubSubSubscriberOperations, Dis
 
     @Override
     public CompletableFuture<Void> modifyAckDeadline(int ackDeadlineSeconds) {
+      AcknowledgementBatcher batcher = PubSubSubscriberTemplate.this.acknowledgementBatcher;
+      if (batcher != null) {
+        Assert.isTrue(ackDeadlineSeconds >= 0, "The ackDeadlineSeconds must not be negative.");
+        return batcher.add(
+            getProjectSubscriptionName().toString(), ackDeadlineSeconds, this.ackId);
+      }
       return PubSubSubscriberTemplate.this.modifyAckDeadline(
           Collections.singleton(this), ackDeadlineSeconds);
     }
@@ -18,23 +18,37 @@ package com.google.cloud.spring.pubsub.integration.inbound;
 
 import com.google.cloud.pubsub.v1.Subscriber;
 import com.google.cloud.spring.pubsub.core.health.HealthTrackerRegistry;
+import com.google.cloud.spring.pubsub.core.metrics.PubSubMetricsRecorder;
 import com.google.cloud.spring.pubsub.core.subscriber.PubSubSubscriberOperations;
 import com.google.cloud.spring.pubsub.integration.AckMode;
 import com.google.cloud.spring.pubsub.integration.PubSubHeaderMapper;
 import com.google.cloud.spring.pubsub.support.GcpPubSubHeaders;
 import com.google.cloud.spring.pubsub.support.converter.ConvertedBasicAcknowledgeablePubsubMessage;
 import com.google.pubsub.v1.ProjectSubscriptionName;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.integration.endpoint.MessageProducerSupport;
 import org.springframework.integration.mapping.HeaderMapper;
 import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.util.Assert;
 
 /**
  * Converts from GCP Pub/Sub message to Spring message and sends the Spring message to the attached
  * channels.
+ *
+ * <p>With a batch size greater than 1, received messages are accumulated and sent as a single
+ * Spring message whose payload is the list of converted payloads. The batch is sent once the batch
+ * size is reached or the batch timeout has elapsed since its first message, whichever comes first.
+ * The headers of each message are available as a list in the {@link
+ * GcpPubSubHeaders#BATCH_CONVERTED_HEADERS} header, in payload order. Batches completed by the
+ * timeout are sent from a scheduler thread owned by the adapter.
  */
 public class PubSubInboundChannelAdapter extends MessageProducerSupport {
 
@@ -54,6 +68,20 @@ public class PubSubInboundChannelAdapter extends MessageProducerSupport {
 
   private HealthTrackerRegistry healthTrackerRegistry;
 
+  private PubSubMetricsRecorder metricsRecorder = PubSubMetricsRecorder.NOOP;
+
+  private int batchSize = 1;
+
+  private Duration batchTimeout = Duration.ofSeconds(1);
+
+  private final Object batchMonitor = new Object();
+
+  private List<ConvertedBasicAcknowledgeablePubsubMessage<?>> pendingBatch = new ArrayList<>();
+
+  private ScheduledFuture<?> batchTimeoutFuture;
+
+  private ThreadPoolTaskScheduler batchTimeoutScheduler;
+
   /**
    * Instantiates a streaming Pub/Sub subscription adapter.
    *
@@ -82,6 +110,51 @@ public class PubSubInboundChannelAdapter extends MessageProducerSupport {
     this.healthTrackerRegistry = healthTrackerRegistry;
   }
 
+  /**
+   * Set the recorder of the time spent sending each received message downstream.
+   *
+   * @param metricsRecorder the metrics recorder
+   * @since 6.1.2
+   */
+  public void setMetricsRecorder(PubSubMetricsRecorder metricsRecorder) {
+    Assert.notNull(metricsRecorder, "The metricsRecorder can't be null.");
+    this.metricsRecorder = metricsRecorder;
+  }
+
+  public int getBatchSize() {
+    return this.batchSize;
+  }
+
+  /**
+   * Set the maximum number of messages sent downstream as one batch. The default of 1 sends each
+   * message individually.
+   *
+   * @param batchSize the maximum number of messages per batch
+   * @since 6.1.2
+   */
+  public void setBatchSize(int batchSize) {
+    Assert.isTrue(batchSize > 0, "The batch size must be greater than 0.");
+    this.batchSize = batchSize;
+  }
+
+  public Duration getBatchTimeout() {
+    return this.batchTimeout;
+  }
+
+  /**
+   * Set the maximum time to wait for a batch to fill up after its first message is received. Only
+   * used when the batch size is greater than 1.
+   *
+   * @param batchTimeout the maximum time a message waits in an incomplete batch
+   * @since 6.1.2
+   */
+  public void setBatchTimeout(Duration batchTimeout) {
+    Assert.isTrue(
+        batchTimeout != null && !batchTimeout.isNegative() && !batchTimeout.isZero(),
+        "The batch timeout must be positive.");
+    this.batchTimeout = batchTimeout;
+  }
+
   public Class<?> getPayloadType() {
     return this.payloadType;
   }
@@ -118,9 +191,21 @@ public class PubSubInboundChannelAdapter extends MessageProducerSupport {
 
     addToHealthRegistry();
 
+    if (this.batchSize > 1) {
+      // Batches completed by the timeout are sent downstream from this thread, so they must not
+      // occupy the shared task scheduler of the application.
+      ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+      scheduler.setThreadNamePrefix("pubsub-batch-" + this.subscriptionName + "-");
+      scheduler.setDaemon(true);
+      scheduler.initialize();
+      this.batchTimeoutScheduler = scheduler;
+    }
+
     this.subscriber =
         this.pubSubSubscriberOperations.subscribeAndConvert(
-            this.subscriptionName, this::consumeMessage, this.payloadType);
+            this.subscriptionName,
+            this.batchSize > 1 ? this::addToBatch : this::consumeMessage,
+            this.payloadType);
 
     addListeners();
   }
@@ -131,6 +216,16 @@ public class PubSubInboundChannelAdapter extends MessageProducerSupport {
       this.subscriber.stopAsync();
     }
 
+    // Messages that were never sent downstream are redelivered.
+    List<ConvertedBasicAcknowledgeablePubsubMessage<?>> unsent = drainBatch();
+    if (!unsent.isEmpty()) {
+      acknowledgeBatch(unsent, false);
+    }
+    if (this.batchTimeoutScheduler != null) {
+      this.batchTimeoutScheduler.shutdown();
+      this.batchTimeoutScheduler = null;
+    }
+
     super.doStop();
   }
 
@@ -142,12 +237,19 @@ public class PubSubInboundChannelAdapter extends MessageProducerSupport {
     // ack/nack, or just have access to the original message for any other reason.
     messageHeaders.put(GcpPubSubHeaders.ORIGINAL_MESSAGE, message);
 
+    long startNanos = System.nanoTime();
     try {
-      sendMessage(
-          getMessageBuilderFactory()
-              .withPayload(message.getPayload())
-              .copyHeaders(messageHeaders)
-              .build());
+      try {
+        sendMessage(
+            getMessageBuilderFactory()
+                .withPayload(message.getPayload())
+                .copyHeaders(messageHeaders)
+                .build());
+      } catch (RuntimeException re) {
+        recordProcessing(message, startNanos, false);
+        throw re;
+      }
+      recordProcessing(message, startNanos, true);
 
       processedMessage(message.getProjectSubscriptionName());
 
@@ -164,6 +266,99 @@ public class PubSubInboundChannelAdapter extends MessageProducerSupport {
     }
   }
 
+  private void addToBatch(ConvertedBasicAcknowledgeablePubsubMessage<?> message) {
+    List<ConvertedBasicAcknowledgeablePubsubMessage<?>> batch = null;
+    synchronized (this.batchMonitor) {
+      this.pendingBatch.add(message);
+      if (this.pendingBatch.size() >= this.batchSize) {
+        batch = drainBatch();
+      } else if (this.pendingBatch.size() == 1) {
+        this.batchTimeoutFuture =
+            this.batchTimeoutScheduler
+                .schedule(this::sendPendingBatch, Instant.now().plus(this.batchTimeout));
+      }
+    }
+    if (batch != null) {
+      consumeBatch(batch);
+    }
+  }
+
+  private void sendPendingBatch() {
+    List<ConvertedBasicAcknowledgeablePubsubMessage<?>> batch = drainBatch();
+    if (!batch.isEmpty()) {
+      consumeBatch(batch);
+    }
+  }
+
+  private List<ConvertedBasicAcknowledgeablePubsubMessage<?>> drainBatch() {
+    synchronized (this.batchMonitor) {
+      if (this.batchTimeoutFuture != null) {
+        this.batchTimeoutFuture.cancel(false);
+        this.batchTimeoutFuture = null;
+      }
+      List<ConvertedBasicAcknowledgeablePubsubMessage<?>> batch = this.pendingBatch;
+      this.pendingBatch = new ArrayList<>(this.batchSize);
+      return batch;
+    }
+  }
+
+  private void consumeBatch(List<ConvertedBasicAcknowledgeablePubsubMessage<?>> batch) {
+    List<Object> payloads = new ArrayList<>(batch.size());
+    List<Map<String, Object>> batchHeaders = new ArrayList<>(batch.size());
+    for (ConvertedBasicAcknowledgeablePubsubMessage<?> message : batch) {
+      Map<String, Object> messageHeaders =
+          this.headerMapper.toHeaders(message.getPubsubMessage().getAttributesMap());
+      messageHeaders.put(GcpPubSubHeaders.ORIGINAL_MESSAGE, message);
+      payloads.add(message.getPayload());
+      batchHeaders.add(messageHeaders);
+    }
+    ConvertedBasicAcknowledgeablePubsubMessage<?> first = batch.get(0);
+
+    long startNanos = System.nanoTime();
+    try {
+      try {
+        sendMessage(
+            getMessageBuilderFactory()
+                .withPayload(payloads)
+                .setHeader(GcpPubSubHeaders.BATCH_CONVERTED_HEADERS, batchHeaders)
+                .build());
+      } catch (RuntimeException re) {
+        recordProcessing(first, startNanos, false);
+        throw re;
+      }
+      recordProcessing(first, startNanos, true);
+
+      processedMessage(first.getProjectSubscriptionName());
+
+      if (this.ackMode == AckMode.AUTO_ACK || this.ackMode == AckMode.AUTO) {
+        acknowledgeBatch(batch, true);
+      }
+    } catch (RuntimeException re) {
+      if (this.ackMode == AckMode.AUTO) {
+        acknowledgeBatch(batch, false);
+        LOGGER.warn(String.format("Sending batch of %d Spring messages failed; "
+            + "messages nacked automatically.", batch.size()));
+      } else {
+        LOGGER.warn(String.format("Sending batch of %d Spring messages failed; "
+            + "messages neither acked nor nacked.", batch.size()));
+      }
+      LOGGER.warn(re.getMessage(), re);
+    }
+  }
+
+  /**
+   * Acks or nacks every message of a batch. Each message is acknowledged through the subscriber it
+   * was received from, which coalesces acknowledgements into its own requests.
+   */
+  private void acknowledgeBatch(
+      List<ConvertedBasicAcknowledgeablePubsubMessage<?>> batch, boolean ack) {
+    if (ack) {
+      batch.forEach(ConvertedBasicAcknowledgeablePubsubMessage::ack);
+    } else {
+      batch.forEach(ConvertedBasicAcknowledgeablePubsubMessage::nack);
+    }
+  }
+
   private void logWarning(
       ConvertedBasicAcknowledgeablePubsubMessage<?> message,
       RuntimeException re,
@@ -193,6 +388,16 @@ public class PubSubInboundChannelAdapter extends MessageProducerSupport {
     }
   }
 
+  private void recordProcessing(
+      ConvertedBasicAcknowledgeablePubsubMessage<?> message, long startNanos, boolean success) {
+    if (this.metricsRecorder != PubSubMetricsRecorder.NOOP) {
+      this.metricsRecorder.recordProcessing(
+          message.getProjectSubscriptionName().toString(),
+          System.nanoTime() - startNanos,
+          success);
+    }
+  }
+
   private void processedMessage(ProjectSubscriptionName projectSubscriptionName) {
     if (healthCheckEnabled()) {
       healthTrackerRegistry.processedMessage(projectSubscriptionName);
@@ -23,8 +23,10 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
@@ -66,6 +68,12 @@ public class PubSubMessageHandler extends AbstractMessageHandler {
 
   private HeaderMapper<Map<String, String>> headerMapper = new PubSubHeaderMapper();
 
+  private int maxInFlight;
+
+  private Semaphore inFlightPermits;
+
+  private final AtomicInteger inFlightCount = new AtomicInteger();
+
   /**
    * Instantiates an outbound adapter for publishing messages to a topic.
    *
@@ -94,6 +102,39 @@ public class PubSubMessageHandler extends AbstractMessageHandler {
     this.sync = sync;
   }
 
+  public int getMaxInFlight() {
+    return this.maxInFlight;
+  }
+
+  /**
+   * Set the maximum number of asynchronous publishes that may be awaiting a response from Pub/Sub.
+   * When the limit is reached, handling a message blocks until an outstanding publish completes or
+   * the publish timeout elapses. Has no effect on synchronous publishing, which waits for each
+   * publish anyway.
+   *
+   * <p>The default of 0 does not limit the number of outstanding publishes.
+   *
+   * @param maxInFlight the maximum number of outstanding publishes, or 0 for no limit
+   * @since 6.1.2
+   */
+  public void setMaxInFlight(int maxInFlight) {
+    Assert.isTrue(maxInFlight >= 0, "The maximum number of in-flight publishes can't be negative.");
+    this.maxInFlight = maxInFlight;
+    this.inFlightPermits = maxInFlight > 0 ? new Semaphore(maxInFlight) : null;
+  }
+
+  /**
+   * Returns the number of publishes handed to the publisher that have not completed yet. Only
+   * tracked for asynchronous publishing with a limit set by {@link #setMaxInFlight(int)}; always 0
+   * otherwise.
+   *
+   * @return the number of in-flight publishes
+   * @since 6.1.2
+   */
+  public int getInFlightCount() {
+    return this.inFlightCount.get();
+  }
+
   public Expression getPublishTimeoutExpression() {
     return this.publishTimeoutExpression;
   }
@@ -206,8 +247,24 @@ public class PubSubMessageHandler extends AbstractMessageHandler {
     Map<String, String> headers = new HashMap<>();
     this.headerMapper.fromHeaders(message.getHeaders(), headers);
 
-    CompletableFuture<String> pubsubFuture =
-        this.pubSubPublisherOperations.publish(topic, payload, headers);
+    Semaphore permits = this.sync ? null : this.inFlightPermits;
+    if (permits != null) {
+      acquireInFlightPermit(permits, message);
+    }
+
+    CompletableFuture<String> pubsubFuture;
+    if (permits != null) {
+      this.inFlightCount.incrementAndGet();
+      try {
+        pubsubFuture = this.pubSubPublisherOperations.publish(topic, payload, headers);
+      } catch (RuntimeException ex) {
+        releaseInFlight(permits);
+        throw ex;
+      }
+      pubsubFuture.whenComplete((messageId, throwable) -> releaseInFlight(permits));
+    } else {
+      pubsubFuture = this.pubSubPublisherOperations.publish(topic, payload, headers);
+    }
 
     if (this.publishCallback != null) {
       pubsubFuture.whenComplete(this.publishCallback);
@@ -244,6 +301,30 @@ public class PubSubMessageHandler extends AbstractMessageHandler {
     return this.topicExpression.getValue(this.evaluationContext, message, String.class);
   }
 
+  private void acquireInFlightPermit(Semaphore permits, Message<?> message) {
+    if (permits.tryAcquire()) {
+      return;
+    }
+    Long timeout =
+        this.publishTimeoutExpression.getValue(this.evaluationContext, message, Long.class);
+    try {
+      if (timeout == null || timeout < 0) {
+        permits.acquire();
+      } else if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+        throw new MessageTimeoutException(
+            message, "Timeout waiting for in-flight Pub/Sub publishes to complete");
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new MessageHandlingException(message, ie);
+    }
+  }
+
+  private void releaseInFlight(Semaphore permits) {
+    this.inFlightCount.decrementAndGet();
+    permits.release();
+  }
+
   private void blockOnPublishFuture(
       CompletableFuture<String> pubsubFuture, Message<?> message, Long timeout) {
     try {
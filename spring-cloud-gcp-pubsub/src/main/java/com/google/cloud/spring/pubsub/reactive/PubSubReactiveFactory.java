@@ -16,12 +16,18 @@
 
 package com.google.cloud.spring.pubsub.reactive;
 
+import com.google.api.core.ApiService;
 import com.google.api.gax.rpc.DeadlineExceededException;
+import com.google.cloud.pubsub.v1.Subscriber;
 import com.google.cloud.spring.pubsub.core.subscriber.PubSubSubscriberOperations;
 import com.google.cloud.spring.pubsub.support.AcknowledgeablePubsubMessage;
+import com.google.cloud.spring.pubsub.support.BasicAcknowledgeablePubsubMessage;
+import com.google.cloud.spring.pubsub.support.converter.ConvertedBasicAcknowledgeablePubsubMessage;
 import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.util.Assert;
@@ -29,6 +35,7 @@ import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
 import reactor.core.scheduler.Scheduler;
 
 /**
@@ -38,6 +45,9 @@ import reactor.core.scheduler.Scheduler;
  * subscription, when the demand is unlimited. The scheduler is not used when there is a specific
  * demand (a.k.a backpressure).
  *
+ * <p>Streams created by {@link #streamingPull(String)} are backed by a StreamingPull {@link
+ * Subscriber} instead and do not use the scheduler.
+ *
  * @since 1.2
  */
 public final class PubSubReactiveFactory {
@@ -120,6 +130,91 @@ public final class PubSubReactiveFactory {
                 }));
   }
 
+  /**
+   * Create an infinite stream {@link Flux} of {@link BasicAcknowledgeablePubsubMessage} objects
+   * backed by a StreamingPull {@link Subscriber}.
+   *
+   * <p>Messages are pushed by the server as soon as they are available, so delivery latency is not
+   * bounded by a polling period and no round trip is spent per demand signal. The subscriber is
+   * created through {@link PubSubSubscriberOperations#subscribe}, so it uses the executor, flow
+   * control and ack extension settings of the configured {@code SubscriberFactory}.
+   *
+   * <p>Backpressure is honored by holding the subscriber's message receiver until the stream
+   * signals demand. Messages that are received but not yet requested stay outstanding and count
+   * towards the subscriber's flow control limits, so {@code max-outstanding-element-count} and
+   * {@code max-outstanding-request-bytes} bound the number of messages held on the client while the
+   * stream has no demand. Such messages have their ack deadline extended like any other
+   * outstanding message, and are nacked if the stream is cancelled.
+   *
+   * <p>Failures of the underlying subscriber are passed as an error to the stream.
+   *
+   * @param subscriptionName subscription from which to retrieve messages.
+   * @return infinite stream of {@link BasicAcknowledgeablePubsubMessage} objects.
+   * @since 6.1.2
+   */
+  public Flux<BasicAcknowledgeablePubsubMessage> streamingPull(String subscriptionName) {
+    return streamingPull(
+        consumer -> this.subscriberOperations.subscribe(subscriptionName, consumer));
+  }
+
+  /**
+   * Create an infinite stream {@link Flux} of {@link ConvertedBasicAcknowledgeablePubsubMessage}
+   * objects backed by a StreamingPull {@link Subscriber}, converting each payload to the desired
+   * type with the subscriber template's message converter.
+   *
+   * @param subscriptionName subscription from which to retrieve messages.
+   * @param payloadType the type to which the payload of the Pub/Sub messages should be converted.
+   * @param <T> the type of the payload
+   * @return infinite stream of {@link ConvertedBasicAcknowledgeablePubsubMessage} objects.
+   * @see #streamingPull(String)
+   * @since 6.1.2
+   */
+  public <T> Flux<ConvertedBasicAcknowledgeablePubsubMessage<T>> streamingPullAndConvert(
+      String subscriptionName, Class<T> payloadType) {
+    return streamingPull(
+        consumer ->
+            this.subscriberOperations.subscribeAndConvert(
+                subscriptionName, consumer, payloadType));
+  }
+
+  private <M extends BasicAcknowledgeablePubsubMessage> Flux<M> streamingPull(
+      Function<Consumer<M>, Subscriber> subscribeFunction) {
+    return Flux.create(
+        sink -> {
+          DemandGate demandGate = new DemandGate();
+          sink.onRequest(demandGate::request);
+
+          Subscriber subscriber =
+              subscribeFunction.apply(
+                  message -> {
+                    if (demandGate.awaitDemand()) {
+                      sink.next(message);
+                    } else {
+                      // The stream was cancelled while this message waited for demand.
+                      message.nack();
+                    }
+                  });
+
+          subscriber.addListener(
+              new ApiService.Listener() {
+                @Override
+                public void failed(ApiService.State from, Throwable failure) {
+                  sink.error(failure);
+                }
+              },
+              Runnable::run);
+          if (subscriber.state() == ApiService.State.FAILED) {
+            sink.error(subscriber.failureCause());
+          }
+
+          sink.onDispose(
+              () -> {
+                demandGate.close();
+                subscriber.stopAsync();
+              });
+        });
+  }
+
   private void pollingPull(
       String subscriptionName, long pollingPeriodMs, FluxSink<AcknowledgeablePubsubMessage> sink) {
     Disposable disposable =
@@ -178,4 +273,48 @@ public final class PubSubReactiveFactory {
       sink.error(exception);
     }
   }
+
+  /**
+   * Tracks outstanding downstream demand and holds message receiver threads until demand is
+   * available.
+   */
+  private static final class DemandGate {
+
+    private long demand;
+
+    private boolean closed;
+
+    synchronized void request(long numRequested) {
+      this.demand = Operators.addCap(this.demand, numRequested);
+      notifyAll();
+    }
+
+    /**
+     * Waits until there is demand for one more element and consumes it.
+     *
+     * @return {@code true} if demand was consumed, {@code false} if the stream was cancelled
+     */
+    synchronized boolean awaitDemand() {
+      try {
+        while (this.demand == 0 && !this.closed) {
+          wait();
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+      if (this.closed) {
+        return false;
+      }
+      if (this.demand != Long.MAX_VALUE) {
+        this.demand--;
+      }
+      return true;
+    }
+
+    synchronized void close() {
+      this.closed = true;
+      notifyAll();
+    }
+  }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.reactive;
+
+import com.google.cloud.spring.pubsub.core.publisher.PubSubPublisherOperations;
+import com.google.cloud.spring.pubsub.core.publisher.PublishBatchResult;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Publishes reactive streams of payloads to Pub/Sub topics in bulk.
+ *
+ * <p>Payloads are grouped into chunks that are published with {@link
+ * PubSubPublisherOperations#publishAll}, so the template-level per-message overhead is paid once
+ * per chunk while the client's {@code BatchingSettings} still decide how messages are grouped into
+ * publish requests.
+ *
+ * @since 6.1.2
+ */
+public final class PubSubReactivePublisher {
+
+  private final PubSubPublisherOperations publisherOperations;
+
+  /**
+   * Instantiate a {@link PubSubReactivePublisher}.
+   *
+   * @param publisherOperations template for interacting with GCP Pub/Sub publisher operations.
+   */
+  public PubSubReactivePublisher(PubSubPublisherOperations publisherOperations) {
+    Assert.notNull(publisherOperations, "publisherOperations cannot be null.");
+    this.publisherOperations = publisherOperations;
+  }
+
+  /**
+   * Publish a stream of payloads to a topic in chunks of up to {@code chunkSize} messages.
+   *
+   * <p>Up to {@code maxConcurrentChunks} chunks are in flight at the same time; the upstream is not
+   * requested further while that many chunks are awaiting their results. Results are emitted in the
+   * order of the chunks. Individual publish failures are reported in the emitted {@link
+   * PublishBatchResult} and do not terminate the stream.
+   *
+   * @param topic short or fully-qualified topic name
+   * @param payloads the payloads to publish
+   * @param chunkSize maximum number of messages per {@code publishAll} call
+   * @param maxConcurrentChunks maximum number of chunks awaiting their results
+   * @return a stream of per-chunk results
+   */
+  public Flux<PublishBatchResult> publishAll(
+      String topic, Flux<?> payloads, int chunkSize, int maxConcurrentChunks) {
+    Assert.hasText(topic, "The topic can't be null or empty.");
+    Assert.notNull(payloads, "The payloads can't be null.");
+    Assert.isTrue(chunkSize > 0, "chunkSize must be greater than 0.");
+    Assert.isTrue(maxConcurrentChunks > 0, "maxConcurrentChunks must be greater than 0.");
+
+    return payloads
+        .buffer(chunkSize)
+        .flatMapSequential(
+            chunk -> Mono.fromFuture(() -> this.publisherOperations.publishAll(topic, chunk)),
+            maxConcurrentChunks);
+  }
+}
@@ -32,6 +32,9 @@ import com.google.cloud.pubsub.v1.stub.SubscriberStubSettings;
 import com.google.cloud.spring.core.GcpProjectIdProvider;
 import com.google.cloud.spring.pubsub.core.PubSubConfiguration;
 import com.google.cloud.spring.pubsub.core.PubSubException;
+import com.google.cloud.spring.pubsub.core.ResolvedSubscriberSettings;
+import com.google.cloud.spring.pubsub.core.flowcontrol.AdaptiveFlowControlRegistry;
+import com.google.cloud.spring.pubsub.core.flowcontrol.AdaptiveFlowController;
 import com.google.cloud.spring.pubsub.core.health.HealthTrackerRegistry;
 import com.google.pubsub.v1.ProjectSubscriptionName;
 import com.google.pubsub.v1.PullRequest;
@@ -78,6 +81,8 @@ public class DefaultSubscriberFactory implements SubscriberFactory {
 
   private HealthTrackerRegistry healthTrackerRegistry;
 
+  private AdaptiveFlowControlRegistry adaptiveFlowControlRegistry;
+
   private PubSubConfiguration pubSubConfiguration;
 
   private Map<ProjectSubscriptionName, FlowControlSettings> flowControlSettingsMap =
@@ -238,6 +243,19 @@ public class DefaultSubscriberFactory implements SubscriberFactory {
     this.healthTrackerRegistry = healthTrackerRegistry;
   }
 
+  /**
+   * Set the registry of adaptive flow controllers for the generated subscribers. When set, the
+   * number of messages outstanding in each subscriber's receiver is adjusted at runtime, with the
+   * subscriber's flow control settings as the upper bound.
+   *
+   * @param adaptiveFlowControlRegistry registry creating an adaptive flow controller per subscriber
+   * @since 6.1.2
+   */
+  public void setAdaptiveFlowControlRegistry(
+      AdaptiveFlowControlRegistry adaptiveFlowControlRegistry) {
+    this.adaptiveFlowControlRegistry = adaptiveFlowControlRegistry;
+  }
+
   @Override
   public Subscriber createSubscriber(String subscriptionName, MessageReceiver receiver) {
     ProjectSubscriptionName projectSubscriptionName =
@@ -248,6 +266,16 @@ public class DefaultSubscriberFactory implements SubscriberFactory {
       receiver = healthTrackerRegistry.wrap(projectSubscriptionName, receiver);
     }
 
+    FlowControlSettings flowControl = getFlowControlSettings(subscriptionName);
+
+    AdaptiveFlowController adaptiveFlowController = null;
+    if (this.adaptiveFlowControlRegistry != null) {
+      adaptiveFlowController =
+          this.adaptiveFlowControlRegistry.registerFlowController(
+              projectSubscriptionName, flowControl);
+      receiver = adaptiveFlowController.wrap(receiver);
+    }
+
     Subscriber.Builder subscriberBuilder = Subscriber.newBuilder(projectSubscriptionName, receiver);
 
     if (this.channelProvider != null) {
@@ -276,7 +304,6 @@ public class DefaultSubscriberFactory implements SubscriberFactory {
       subscriberBuilder.setEndpoint(endpoint);
     }
 
-    FlowControlSettings flowControl = getFlowControlSettings(subscriptionName);
     if (flowControl != null) {
       subscriberBuilder.setFlowControlSettings(flowControl);
     }
@@ -314,6 +341,10 @@ public class DefaultSubscriberFactory implements SubscriberFactory {
       healthTrackerRegistry.addListener(subscriber);
     }
 
+    if (adaptiveFlowController != null) {
+      this.adaptiveFlowControlRegistry.addListener(subscriber, adaptiveFlowController);
+    }
+
     return subscriber;
   }
 
@@ -499,7 +530,7 @@ public class DefaultSubscriberFactory implements SubscriberFactory {
     if (this.maxAckExtensionPeriod != null) {
       return this.maxAckExtensionPeriod;
     }
-    Long maxAckExtensionPeriod = this.pubSubConfiguration.computeMaxAckExtensionPeriod(subscriptionName, projectId);
+    Long maxAckExtensionPeriod = getResolvedSettings(subscriptionName).getMaxAckExtensionPeriod();
     if (maxAckExtensionPeriod != null) {
       return Duration.ofSeconds(maxAckExtensionPeriod);
     }
@@ -512,8 +543,7 @@ public class DefaultSubscriberFactory implements SubscriberFactory {
       return this.minDurationPerAckExtension;
     }
 
-    Long extension =
-        this.pubSubConfiguration.computeMinDurationPerAckExtension(subscriptionName, projectId);
+    Long extension = getResolvedSettings(subscriptionName).getMinDurationPerAckExtension();
 
     return extension == null ? null : Duration.ofSeconds(extension);
   }
@@ -532,8 +562,7 @@ public class DefaultSubscriberFactory implements SubscriberFactory {
     if (this.maxDurationPerAckExtension != null) {
       return this.maxDurationPerAckExtension;
     }
-    Long extension =
-        this.pubSubConfiguration.computeMaxDurationPerAckExtension(subscriptionName, projectId);
+    Long extension = getResolvedSettings(subscriptionName).getMaxDurationPerAckExtension();
 
     return extension == null ? null : Duration.ofSeconds(extension);
   }
@@ -551,28 +580,28 @@ public class DefaultSubscriberFactory implements SubscriberFactory {
     if (this.parallelPullCount != null) {
       return this.parallelPullCount;
     }
-    return this.pubSubConfiguration.computeParallelPullCount(subscriptionName, projectId);
+    return getResolvedSettings(subscriptionName).getParallelPullCount();
   }
 
   String getPullEndpoint(String subscriptionName) {
     if (this.pullEndpoint != null) {
       return this.pullEndpoint;
     }
-    return this.pubSubConfiguration.computePullEndpoint(subscriptionName, projectId);
+    return getResolvedSettings(subscriptionName).getPullEndpoint();
   }
 
   public Code[] getRetryableCodes(String subscriptionName) {
     if (this.retryableCodes != null) {
       return this.retryableCodes;
     }
-    return this.pubSubConfiguration.computeRetryableCodes(subscriptionName, projectId);
+    return getResolvedSettings(subscriptionName).getRetryableCodes();
   }
 
   String getUniverseDomain(String subscriptionName) {
     if (this.universeDomain != null) {
       return this.universeDomain;
     }
-    return this.pubSubConfiguration.computeSubscriberUniverseDomain(subscriptionName, projectId);
+    return getResolvedSettings(subscriptionName).getUniverseDomain();
   }
 
   public void setExecutorProviderMap(Map<ProjectSubscriptionName, ExecutorProvider> executorProviderMap) {
@@ -608,6 +637,10 @@ public class DefaultSubscriberFactory implements SubscriberFactory {
     this.globalRetrySettings = retrySettings;
   }
 
+  private ResolvedSubscriberSettings getResolvedSettings(String subscriptionName) {
+    return this.pubSubConfiguration.getResolvedSubscriberSettings(subscriptionName, this.projectId);
+  }
+
   private boolean shouldAddToHealthCheck(String subscriptionName) {
     if (healthTrackerRegistry == null) {
       return false;
@@ -38,6 +38,13 @@ public abstract class GcpPubSubHeaders {
   /** The Pub/Sub message ordering key. */
   public static final String ORDERING_KEY = PREFIX + "ordering_key";
 
+  /**
+   * The list of per-message headers of a batch of messages, in the order of the payload list.
+   *
+   * @since 6.1.2
+   */
+  public static final String BATCH_CONVERTED_HEADERS = PREFIX + "batch_converted_headers";
+
   /**
    * A simple utility method for pulling the {@link #ORIGINAL_MESSAGE} header out of a {@link
    * Message}.
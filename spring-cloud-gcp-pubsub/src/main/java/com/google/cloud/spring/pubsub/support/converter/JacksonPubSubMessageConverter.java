@@ -16,15 +16,22 @@
 
 package com.google.cloud.spring.pubsub.support.converter;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.protobuf.ByteString;
 import com.google.pubsub.v1.PubsubMessage;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 import org.springframework.util.Assert;
 
-/** A converter using Jackson JSON. */
+/**
+ * A converter using Jackson JSON.
+ *
+ * <p>Payloads are serialized directly into a {@link ByteString.Output} and deserialized from
+ * {@link ByteString#newInput()}, so the message data is not copied into intermediate byte arrays.
+ * Each conversion goes through the {@link ObjectMapper}, so configuration changes made to it after
+ * the converter was created still apply; the mapper caches its serializers and deserializers.
+ */
 public class JacksonPubSubMessageConverter implements PubSubMessageConverter {
 
   private final ObjectMapper objectMapper;
@@ -41,21 +48,23 @@ public class JacksonPubSubMessageConverter implements PubSubMessageConverter {
 
   @Override
   public PubsubMessage toPubSubMessage(Object payload, Map<String, String> headers) {
+    ByteString.Output output = ByteString.newOutput();
     try {
-      return byteStringToPubSubMessage(
-          ByteString.copyFrom(this.objectMapper.writeValueAsBytes(payload)), headers);
-    } catch (JsonProcessingException ex) {
+      this.objectMapper.writeValue(output, payload);
+    } catch (IOException ex) {
       throw new PubSubMessageConversionException(
-          "JSON serialization of an object of type " + payload.getClass().getName() + " failed.",
+          "JSON serialization of an object of type "
+              + (payload != null ? payload.getClass().getName() : "null")
+              + " failed.",
           ex);
     }
+    return byteStringToPubSubMessage(output.toByteString(), headers);
   }
 
   @Override
   public <T> T fromPubSubMessage(PubsubMessage message, Class<T> payloadType) {
-    try {
-      return (T)
-          this.objectMapper.readerFor(payloadType).readValue(message.getData().toByteArray());
+    try (InputStream input = message.getData().newInput()) {
+      return this.objectMapper.readValue(input, payloadType);
     } catch (IOException ex) {
       throw new PubSubMessageConversionException(
           "JSON deserialization of an object of type " + payloadType.getName() + " failed.", ex);
@@ -187,6 +187,62 @@ class PubSubConfigurationTests {
     assertThat(result.getMaxOutstandingRequestBytes()).isEqualTo(2L);
   }
 
+  @Test
+  void testComputeFlowControlSettings_doesNotModifySubscriptionProperties() {
+    globalSubscriber.getFlowControl().setMaxOutstandingElementCount(1L);
+    subscriber.getFlowControl().setMaxOutstandingRequestBytes(2L);
+    pubSubConfiguration.setSubscription(
+        Collections.singletonMap(QUALIFIED_SUBSCRIPTION_NAME, subscriber));
+    pubSubConfiguration.initialize("projectId");
+
+    PubSubConfiguration.FlowControl result =
+        pubSubConfiguration.computeSubscriberFlowControlSettings(
+            ProjectSubscriptionName.parse(QUALIFIED_SUBSCRIPTION_NAME));
+
+    assertThat(result.getMaxOutstandingElementCount()).isEqualTo(1L);
+    assertThat(result.getMaxOutstandingRequestBytes()).isEqualTo(2L);
+    assertThat(subscriber.getFlowControl().getMaxOutstandingElementCount()).isNull();
+  }
+
+  @Test
+  void testGetResolvedSubscriberSettings_mergesAndCaches() {
+    globalSubscriber.setParallelPullCount(3);
+    globalSubscriber.setPullEndpoint("global-endpoint");
+    globalSubscriber.getFlowControl().setMaxOutstandingElementCount(10L);
+    subscriber.setPullEndpoint("custom-endpoint");
+    subscriber.setMaxAckExtensionPeriod(5L);
+    subscriber.getFlowControl()
+        .setLimitExceededBehavior(FlowController.LimitExceededBehavior.ThrowException);
+    globalSubscriber.getRetry().setMaxAttempts(4);
+    subscriber.getRetry().setTotalTimeoutSeconds(30L);
+    pubSubConfiguration.setSubscription(
+        Collections.singletonMap(QUALIFIED_SUBSCRIPTION_NAME, subscriber));
+    pubSubConfiguration.initialize("projectId");
+
+    ResolvedSubscriberSettings custom =
+        pubSubConfiguration.getResolvedSubscriberSettings("subscription-name", "projectId");
+    ResolvedSubscriberSettings other =
+        pubSubConfiguration.getResolvedSubscriberSettings("other", "projectId");
+
+    assertThat(custom.getProjectSubscriptionName())
+        .isEqualTo(ProjectSubscriptionName.parse(QUALIFIED_SUBSCRIPTION_NAME));
+    assertThat(custom.getParallelPullCount()).isEqualTo(3);
+    assertThat(custom.getPullEndpoint()).isEqualTo("custom-endpoint");
+    assertThat(custom.getMaxAckExtensionPeriod()).isEqualTo(5L);
+    assertThat(custom.getMaxOutstandingElementCount()).isEqualTo(10L);
+    assertThat(custom.getLimitExceededBehavior())
+        .isEqualTo(FlowController.LimitExceededBehavior.ThrowException);
+    assertThat(other.getPullEndpoint()).isEqualTo("global-endpoint");
+    assertThat(other.getMaxAckExtensionPeriod()).isNull();
+    assertThat(custom.toRetry().getTotalTimeoutSeconds()).isEqualTo(30L);
+    assertThat(custom.toRetry().getMaxAttempts()).isEqualTo(4);
+    assertThat(other.toRetry().getTotalTimeoutSeconds()).isNull();
+    assertThat(pubSubConfiguration.getResolvedSubscriberSettings(QUALIFIED_SUBSCRIPTION_NAME, "p"))
+        .isSameAs(custom);
+    assertThat(pubSubConfiguration.getResolvedSubscriberSettings("other", "projectId"))
+        .isSameAs(other);
+  }
+
   @Test
   void testComputeParallelPullCount_returnCustom() {
     subscriber.setParallelPullCount(2);
@@ -19,6 +19,7 @@ package com.google.cloud.spring.pubsub.core;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
@@ -36,7 +37,9 @@ import com.google.api.core.SettableApiFuture;
 import com.google.cloud.pubsub.v1.MessageReceiver;
 import com.google.cloud.pubsub.v1.Publisher;
 import com.google.cloud.pubsub.v1.Subscriber;
+import com.google.cloud.spring.pubsub.core.metrics.PubSubMetricsRecorder;
 import com.google.cloud.spring.pubsub.core.publisher.PubSubPublisherTemplate;
+import com.google.cloud.spring.pubsub.core.publisher.PublishBatchResult;
 import com.google.cloud.spring.pubsub.core.test.allowed.AllowedPayload;
 import com.google.cloud.spring.pubsub.support.PublisherFactory;
 import com.google.cloud.spring.pubsub.support.SubscriberFactory;
@@ -44,6 +47,8 @@ import com.google.cloud.spring.pubsub.support.converter.JacksonPubSubMessageConv
 import com.google.protobuf.ByteString;
 import com.google.pubsub.v1.PubsubMessage;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -105,6 +110,78 @@ class PubSubTemplateTests {
     assertThat(future.get()).isEqualTo("result");
   }
 
+  @Test
+  void testPublishAll() throws ExecutionException, InterruptedException {
+    SettableApiFuture<String> failingFuture = SettableApiFuture.create();
+    SettableApiFuture<String> succeedingFuture = SettableApiFuture.create();
+    when(this.mockPublisherFactory.createPublisher("testTopic")).thenReturn(this.mockPublisher);
+    when(this.mockPublisher.publish(isA(PubsubMessage.class)))
+        .thenReturn(this.settableApiFuture, failingFuture, succeedingFuture);
+
+    CompletableFuture<PublishBatchResult> future =
+        this.pubSubTemplate.publishAll(
+            "testTopic", Arrays.asList("payload1", this.pubsubMessage, "payload3"));
+
+    assertThat(future).isNotDone();
+    this.settableApiFuture.set("id1");
+    failingFuture.setException(new RuntimeException("boom"));
+    succeedingFuture.set("id3");
+
+    PublishBatchResult result = future.get();
+    assertThat(result.getMessageIds()).containsExactly("id1", null, "id3");
+    assertThat(result.hasFailures()).isTrue();
+    assertThat(result.getFailures()).containsOnlyKeys(1);
+    assertThat(result.getFailures().get(1).getFailedMessage()).isSameAs(this.pubsubMessage);
+    assertThat(result.getFailures().get(1)).hasCauseInstanceOf(RuntimeException.class);
+    verify(this.mockPublisherFactory, times(1)).createPublisher("testTopic");
+  }
+
+  @Test
+  void testPublishAll_synchronousFailure() throws ExecutionException, InterruptedException {
+    when(this.mockPublisherFactory.createPublisher("testTopic")).thenReturn(this.mockPublisher);
+    when(this.mockPublisher.publish(isA(PubsubMessage.class)))
+        .thenThrow(new IllegalStateException("shut down"))
+        .thenReturn(this.settableApiFuture);
+
+    CompletableFuture<PublishBatchResult> future =
+        this.pubSubTemplate.publishAll("testTopic", Arrays.asList(this.pubsubMessage, "payload2"));
+    this.settableApiFuture.set("id2");
+
+    PublishBatchResult result = future.get();
+    assertThat(result.getMessageIds()).containsExactly(null, "id2");
+    assertThat(result.getFailures()).containsOnlyKeys(0);
+    assertThat(result.getFailures().get(0)).hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void testPublish_recordsMetrics() {
+    PubSubMetricsRecorder metricsRecorder = mock(PubSubMetricsRecorder.class);
+    PubSubPublisherTemplate publisherTemplate = createPublisherTemplate();
+    publisherTemplate.setMetricsRecorder(metricsRecorder);
+    SettableApiFuture<String> failingFuture = SettableApiFuture.create();
+    when(this.mockPublisherFactory.createPublisher("testTopic")).thenReturn(this.mockPublisher);
+    when(this.mockPublisher.publish(isA(PubsubMessage.class)))
+        .thenReturn(this.settableApiFuture, failingFuture);
+
+    publisherTemplate.publish("testTopic", this.pubsubMessage);
+    publisherTemplate.publishAll("testTopic", Collections.singletonList(this.pubsubMessage));
+    this.settableApiFuture.set("id1");
+    failingFuture.setException(new RuntimeException("boom"));
+
+    verify(metricsRecorder).recordPublish(eq("testTopic"), anyLong(), eq(true));
+    verify(metricsRecorder).recordPublish(eq("testTopic"), anyLong(), eq(false));
+    verify(metricsRecorder).recordPublishBatch("testTopic", 1);
+  }
+
+  @Test
+  void testPublishAll_Empty() throws ExecutionException, InterruptedException {
+    PublishBatchResult result =
+        this.pubSubTemplate.publishAll("testTopic", Collections.emptyList()).get();
+
+    assertThat(result.size()).isZero();
+    assertThat(result.hasFailures()).isFalse();
+  }
+
   @Test
   void testPublish_String() {
     when(this.mockPublisherFactory.createPublisher("testTopic")).thenReturn(this.mockPublisher);
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.flowcontrol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.google.api.core.ApiService;
+import com.google.api.core.ApiService.State;
+import com.google.api.gax.batching.FlowControlSettings;
+import com.google.cloud.pubsub.v1.Subscriber;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/** Tests for {@link AdaptiveFlowControlMeterBinder}. */
+class AdaptiveFlowControlMeterBinderTests {
+
+  private static final ProjectSubscriptionName SUBSCRIPTION =
+      ProjectSubscriptionName.of("project", "subscription");
+
+  private final AdaptiveFlowControlRegistry flowControlRegistry =
+      new AdaptiveFlowControlRegistry(
+          (subscription, current, max, statistics) -> current, Duration.ofMinutes(1));
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @AfterEach
+  void tearDown() {
+    this.flowControlRegistry.close();
+  }
+
+  @Test
+  void removesGaugesWhenLastSubscriberOfSubscriptionTerminates() {
+    AdaptiveFlowControlMeterBinder meterBinder =
+        new AdaptiveFlowControlMeterBinder(this.flowControlRegistry);
+    meterBinder.bindTo(this.meterRegistry);
+
+    ApiService.Listener first = registerSubscriber();
+    ApiService.Listener second = registerSubscriber();
+    assertThat(
+            this.meterRegistry
+                .get("pubsub.subscriber.flow.control.max.outstanding.elements")
+                .tag("subscription", SUBSCRIPTION.toString())
+                .gauge()
+                .value())
+        .isEqualTo(20.0);
+
+    first.terminated(State.RUNNING);
+    assertThat(this.meterRegistry.getMeters()).hasSize(4);
+
+    second.failed(State.RUNNING, new IllegalStateException("failed"));
+    assertThat(this.meterRegistry.getMeters()).isEmpty();
+  }
+
+  @Test
+  void closeRemovesAllGauges() {
+    AdaptiveFlowControlMeterBinder meterBinder =
+        new AdaptiveFlowControlMeterBinder(this.flowControlRegistry);
+    registerSubscriber();
+    meterBinder.bindTo(this.meterRegistry);
+    assertThat(this.meterRegistry.getMeters()).hasSize(4);
+
+    meterBinder.close();
+
+    assertThat(this.meterRegistry.getMeters()).isEmpty();
+  }
+
+  private ApiService.Listener registerSubscriber() {
+    AdaptiveFlowController flowController =
+        this.flowControlRegistry.registerFlowController(
+            SUBSCRIPTION,
+            FlowControlSettings.newBuilder()
+                .setMaxOutstandingElementCount(10L)
+                .setMaxOutstandingRequestBytes(1000L)
+                .build());
+    Subscriber subscriber = mock(Subscriber.class);
+    this.flowControlRegistry.addListener(subscriber, flowController);
+    ArgumentCaptor<ApiService.Listener> listener =
+        ArgumentCaptor.forClass(ApiService.Listener.class);
+    verify(subscriber).addListener(listener.capture(), any(Executor.class));
+    return listener.getValue();
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.flowcontrol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.cloud.pubsub.v1.AckReplyConsumer;
+import com.google.cloud.pubsub.v1.MessageReceiver;
+import com.google.protobuf.ByteString;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import com.google.pubsub.v1.PubsubMessage;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link AdaptiveFlowController}. */
+class AdaptiveFlowControllerTests {
+
+  private static final ProjectSubscriptionName SUBSCRIPTION =
+      ProjectSubscriptionName.of("project", "subscription");
+
+  private static final PubsubMessage MESSAGE =
+      PubsubMessage.newBuilder().setData(ByteString.copyFromUtf8("payload")).build();
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  private final List<AckReplyConsumer> receivedConsumers = new CopyOnWriteArrayList<>();
+
+  private final MessageReceiver collectingReceiver =
+      (message, consumer) -> this.receivedConsumers.add(consumer);
+
+  @AfterEach
+  void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  void blocksUntilOutstandingMessageCompletes() throws Exception {
+    AdaptiveFlowController flowController =
+        new AdaptiveFlowController(
+            SUBSCRIPTION, new FlowControlLimits(1L, 1000L), (s, current, max, stats) -> current);
+    MessageReceiver receiver = flowController.wrap(this.collectingReceiver);
+
+    receiver.receiveMessage(MESSAGE, mock(AckReplyConsumer.class));
+    assertThat(flowController.getOutstandingElementCount()).isEqualTo(1);
+    assertThat(flowController.getOutstandingRequestBytes()).isEqualTo(MESSAGE.getSerializedSize());
+
+    Future<?> blocked =
+        this.executor.submit(() -> receiver.receiveMessage(MESSAGE, mock(AckReplyConsumer.class)));
+    assertThatThrownBy(() -> blocked.get(100, TimeUnit.MILLISECONDS))
+        .isInstanceOf(TimeoutException.class);
+
+    this.receivedConsumers.get(0).ack();
+
+    blocked.get(5, TimeUnit.SECONDS);
+    assertThat(this.receivedConsumers).hasSize(2);
+    assertThat(flowController.getOutstandingElementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void adjustAppliesStrategyLimitsAndWakesWaitingReceivers() throws Exception {
+    AtomicReference<FlowControlStatistics> observed = new AtomicReference<>();
+    AdaptiveFlowController flowController =
+        new AdaptiveFlowController(
+            SUBSCRIPTION,
+            new FlowControlLimits(10L, 1000L),
+            (s, current, max, stats) -> {
+              observed.set(stats);
+              return current.getMaxOutstandingElementCount() == 10L
+                  ? new FlowControlLimits(1L, 100L)
+                  : new FlowControlLimits(2L, 200L);
+            },
+            () -> 0.5);
+    MessageReceiver receiver = flowController.wrap(this.collectingReceiver);
+
+    flowController.adjust();
+    assertThat(flowController.getLimits()).isEqualTo(new FlowControlLimits(1L, 100L));
+    assertThat(observed.get().getHeapUsage()).isEqualTo(0.5);
+    assertThat(observed.get().isLimitReached()).isFalse();
+
+    receiver.receiveMessage(MESSAGE, mock(AckReplyConsumer.class));
+    Future<?> blocked =
+        this.executor.submit(() -> receiver.receiveMessage(MESSAGE, mock(AckReplyConsumer.class)));
+    assertThatThrownBy(() -> blocked.get(100, TimeUnit.MILLISECONDS))
+        .isInstanceOf(TimeoutException.class);
+
+    flowController.adjust();
+
+    blocked.get(5, TimeUnit.SECONDS);
+    assertThat(observed.get().isLimitReached()).isTrue();
+    assertThat(flowController.getLimits()).isEqualTo(new FlowControlLimits(2L, 200L));
+    assertThat(flowController.getOutstandingElementCount()).isEqualTo(2);
+  }
+
+  @Test
+  void adjustNeverExceedsMaximumLimits() {
+    AdaptiveFlowController flowController =
+        new AdaptiveFlowController(
+            SUBSCRIPTION,
+            new FlowControlLimits(10L, 1000L),
+            (s, current, max, stats) -> new FlowControlLimits(50L, 5000L),
+            () -> 0.5);
+
+    flowController.adjust();
+
+    assertThat(flowController.getLimits()).isEqualTo(new FlowControlLimits(10L, 1000L));
+  }
+
+  @Test
+  void adjustReportsCompletedMessages() {
+    AtomicReference<FlowControlStatistics> observed = new AtomicReference<>();
+    AdaptiveFlowController flowController =
+        new AdaptiveFlowController(
+            SUBSCRIPTION,
+            new FlowControlLimits(10L, 1000L),
+            (s, current, max, stats) -> {
+              observed.set(stats);
+              return current;
+            },
+            () -> 0.5);
+    MessageReceiver receiver = flowController.wrap(this.collectingReceiver);
+
+    receiver.receiveMessage(MESSAGE, mock(AckReplyConsumer.class));
+    receiver.receiveMessage(MESSAGE, mock(AckReplyConsumer.class));
+    this.receivedConsumers.get(0).ack();
+    this.receivedConsumers.get(1).nack();
+    flowController.adjust();
+
+    assertThat(observed.get().getCompletedMessages()).isEqualTo(2);
+    assertThat(observed.get().getThroughputPerSecond()).isPositive();
+    assertThat(flowController.getOutstandingElementCount()).isZero();
+  }
+
+  @Test
+  void releasesOnceWhenAckedTwice() {
+    AdaptiveFlowController flowController =
+        new AdaptiveFlowController(
+            SUBSCRIPTION, new FlowControlLimits(10L, 1000L), (s, current, max, stats) -> current);
+    AckReplyConsumer consumer = mock(AckReplyConsumer.class);
+
+    flowController.wrap(this.collectingReceiver).receiveMessage(MESSAGE, consumer);
+    flowController.wrap(this.collectingReceiver).receiveMessage(MESSAGE, consumer);
+    this.receivedConsumers.get(0).ack();
+    this.receivedConsumers.get(0).ack();
+
+    verify(consumer, times(2)).ack();
+    assertThat(flowController.getOutstandingElementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void releasesWhenReceiverThrows() {
+    AdaptiveFlowController flowController =
+        new AdaptiveFlowController(
+            SUBSCRIPTION, new FlowControlLimits(10L, 1000L), (s, current, max, stats) -> current);
+    MessageReceiver receiver =
+        flowController.wrap(
+            (message, consumer) -> {
+              throw new IllegalStateException("boom");
+            });
+
+    assertThatThrownBy(() -> receiver.receiveMessage(MESSAGE, mock(AckReplyConsumer.class)))
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThat(flowController.getOutstandingElementCount()).isZero();
+    assertThat(flowController.getOutstandingRequestBytes()).isZero();
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.flowcontrol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link AimdFlowControlStrategy}. */
+class AimdFlowControlStrategyTests {
+
+  private static final ProjectSubscriptionName SUBSCRIPTION =
+      ProjectSubscriptionName.of("project", "subscription");
+
+  private static final FlowControlLimits MAXIMUM = new FlowControlLimits(100L, 1000L);
+
+  private final AimdFlowControlStrategy strategy =
+      new AimdFlowControlStrategy(5L, 10L, 0.5, 0.85, 200L);
+
+  @Test
+  void increasesAdditivelyWhenLimitReached() {
+    FlowControlLimits adjusted =
+        this.strategy.adjust(
+            SUBSCRIPTION,
+            new FlowControlLimits(40L, 400L),
+            MAXIMUM,
+            new FlowControlStatistics(100L, 50.0, 20.0, 0.3, true));
+
+    assertThat(adjusted).isEqualTo(new FlowControlLimits(50L, 500L));
+  }
+
+  @Test
+  void neverIncreasesAboveMaximum() {
+    FlowControlLimits adjusted =
+        this.strategy.adjust(
+            SUBSCRIPTION,
+            new FlowControlLimits(95L, 950L),
+            MAXIMUM,
+            new FlowControlStatistics(100L, 50.0, 20.0, 0.3, true));
+
+    assertThat(adjusted).isEqualTo(MAXIMUM);
+  }
+
+  @Test
+  void keepsLimitsWhenLimitNotReached() {
+    FlowControlLimits current = new FlowControlLimits(40L, 400L);
+
+    FlowControlLimits adjusted =
+        this.strategy.adjust(
+            SUBSCRIPTION, current, MAXIMUM, new FlowControlStatistics(100L, 50.0, 20.0, 0.3, false));
+
+    assertThat(adjusted).isSameAs(current);
+  }
+
+  @Test
+  void decreasesMultiplicativelyOnHeapPressure() {
+    FlowControlLimits adjusted =
+        this.strategy.adjust(
+            SUBSCRIPTION,
+            new FlowControlLimits(40L, 400L),
+            MAXIMUM,
+            new FlowControlStatistics(100L, 50.0, 20.0, 0.9, true));
+
+    assertThat(adjusted).isEqualTo(new FlowControlLimits(20L, 200L));
+  }
+
+  @Test
+  void decreasesWhenProcessingSlowerThanTarget() {
+    FlowControlLimits adjusted =
+        this.strategy.adjust(
+            SUBSCRIPTION,
+            new FlowControlLimits(40L, 400L),
+            MAXIMUM,
+            new FlowControlStatistics(100L, 500.0, 20.0, 0.3, true));
+
+    assertThat(adjusted).isEqualTo(new FlowControlLimits(20L, 200L));
+  }
+
+  @Test
+  void neverDecreasesBelowMinimum() {
+    FlowControlLimits adjusted =
+        this.strategy.adjust(
+            SUBSCRIPTION,
+            new FlowControlLimits(6L, 60L),
+            MAXIMUM,
+            new FlowControlStatistics(100L, 500.0, 20.0, 0.3, false));
+
+    assertThat(adjusted).isEqualTo(new FlowControlLimits(5L, 50L));
+  }
+
+  @Test
+  void ignoresLatencyWithoutTarget() {
+    AimdFlowControlStrategy heapOnly = new AimdFlowControlStrategy(5L, 10L, 0.5, 0.85, 0L);
+
+    FlowControlLimits adjusted =
+        heapOnly.adjust(
+            SUBSCRIPTION,
+            new FlowControlLimits(40L, 400L),
+            MAXIMUM,
+            new FlowControlStatistics(100L, 5000.0, 20.0, 0.3, true));
+
+    assertThat(adjusted).isEqualTo(new FlowControlLimits(50L, 500L));
+  }
+
+  @Test
+  void rejectsInvalidDecreaseFactor() {
+    assertThatThrownBy(() -> new AimdFlowControlStrategy(5L, 10L, 1.5, 0.85, 0L))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("decreaseFactor must be between 0 and 1.");
+  }
+}
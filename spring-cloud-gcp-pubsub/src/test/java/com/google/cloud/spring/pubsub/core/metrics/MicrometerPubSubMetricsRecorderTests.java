@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.cloud.spring.pubsub.core.metrics.PubSubMetricsRecorder.AcknowledgementOperation;
+import com.google.protobuf.Timestamp;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link MicrometerPubSubMetricsRecorder}. */
+class MicrometerPubSubMetricsRecorderTests {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final MicrometerPubSubMetricsRecorder recorder =
+      new MicrometerPubSubMetricsRecorder(this.meterRegistry);
+
+  @Test
+  void recordsPublishesPerTopicAndOutcome() {
+    this.recorder.recordPublish("topic", TimeUnit.MILLISECONDS.toNanos(5), true);
+    this.recorder.recordPublish("topic", TimeUnit.MILLISECONDS.toNanos(7), true);
+    this.recorder.recordPublish("topic", TimeUnit.MILLISECONDS.toNanos(9), false);
+    this.recorder.recordPublishBatch("topic", 100);
+
+    Timer success =
+        this.meterRegistry.get("pubsub.publish").tag("topic", "topic").tag("outcome", "success")
+            .timer();
+    assertThat(success.count()).isEqualTo(2);
+    assertThat(success.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(12.0);
+    assertThat(
+            this.meterRegistry.get("pubsub.publish").tag("outcome", "failure").timer().count())
+        .isEqualTo(1);
+    DistributionSummary batchSize =
+        this.meterRegistry.get("pubsub.publish.batch.size").tag("topic", "topic").summary();
+    assertThat(batchSize.totalAmount()).isEqualTo(100.0);
+  }
+
+  @Test
+  void recordsPullsAndMessagesPerPull() {
+    this.recorder.recordPull("projects/p/subscriptions/s", 1_000L, 3, true);
+    this.recorder.recordPull("projects/p/subscriptions/s", 1_000L, 0, false);
+
+    assertThat(
+            this.meterRegistry
+                .get("pubsub.pull")
+                .tag("subscription", "projects/p/subscriptions/s")
+                .tag("outcome", "success")
+                .timer()
+                .count())
+        .isEqualTo(1);
+    DistributionSummary messages = this.meterRegistry.get("pubsub.pull.messages").summary();
+    assertThat(messages.count()).isEqualTo(1);
+    assertThat(messages.totalAmount()).isEqualTo(3.0);
+  }
+
+  @Test
+  void countsAckIdsOfFailedAcknowledgements() {
+    this.recorder.recordAcknowledgement(
+        "projects/p/subscriptions/s", AcknowledgementOperation.ACK, 10, 1_000L, true);
+    this.recorder.recordAcknowledgement(
+        "projects/p/subscriptions/s", AcknowledgementOperation.NACK, 4, 1_000L, false);
+
+    assertThat(
+            this.meterRegistry
+                .get("pubsub.acknowledge")
+                .tag("operation", "ack")
+                .tag("outcome", "success")
+                .timer()
+                .count())
+        .isEqualTo(1);
+    assertThat(
+            this.meterRegistry
+                .get("pubsub.acknowledge.failures")
+                .tag("operation", "nack")
+                .counter()
+                .count())
+        .isEqualTo(4.0);
+    assertThat(this.meterRegistry.find("pubsub.acknowledge.failures").tag("operation", "ack")
+            .counter())
+        .isNull();
+  }
+
+  @Test
+  void recordsDeliveryLagFromPublishTime() {
+    long publishMillis = System.currentTimeMillis() - 2_000L;
+    PubsubMessage message =
+        PubsubMessage.newBuilder()
+            .setPublishTime(
+                Timestamp.newBuilder()
+                    .setSeconds(publishMillis / 1000L)
+                    .setNanos((int) (publishMillis % 1000L) * 1_000_000))
+            .build();
+
+    this.recorder.recordDelivery("projects/p/subscriptions/s", message);
+    this.recorder.recordDelivery("projects/p/subscriptions/s", PubsubMessage.getDefaultInstance());
+
+    Timer lag = this.meterRegistry.get("pubsub.delivery.lag").timer();
+    assertThat(lag.count()).isEqualTo(1);
+    assertThat(lag.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(2_000.0);
+  }
+
+  @Test
+  void recordsProcessingTime() {
+    this.recorder.recordProcessing("projects/p/subscriptions/s", 1_000L, false);
+
+    assertThat(
+            this.meterRegistry
+                .get("pubsub.processing")
+                .tag("subscription", "projects/p/subscriptions/s")
+                .tag("outcome", "failure")
+                .timer()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void inFlightGaugeReadsLatestRegisteredSource() {
+    this.recorder.registerInFlightPublishes("topic", () -> 3);
+    Gauge gauge = this.meterRegistry.get("pubsub.publish.in.flight").tag("topic", "topic").gauge();
+    assertThat(gauge.value()).isEqualTo(3.0);
+
+    this.recorder.registerInFlightPublishes("topic", () -> 7);
+
+    assertThat(this.meterRegistry.get("pubsub.publish.in.flight").gauges()).hasSize(1);
+    assertThat(gauge.value()).isEqualTo(7.0);
+  }
+}
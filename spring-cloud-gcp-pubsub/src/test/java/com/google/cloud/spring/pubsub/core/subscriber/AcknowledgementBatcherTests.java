@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.core.subscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.batching.BatchingSettings;
+import com.google.protobuf.Empty;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.threeten.bp.Duration;
+
+/** Tests for {@link AcknowledgementBatcher}. */
+class AcknowledgementBatcherTests {
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+  private final List<SentBatch> sentBatches = Collections.synchronizedList(new ArrayList<>());
+
+  @AfterEach
+  void tearDown() {
+    this.scheduler.shutdownNow();
+  }
+
+  private AcknowledgementBatcher createBatcher(
+      long elementCountThreshold, long requestByteThreshold, long delayMillis) {
+    BatchingSettings settings =
+        BatchingSettings.newBuilder()
+            .setElementCountThreshold(elementCountThreshold)
+            .setRequestByteThreshold(requestByteThreshold)
+            .setDelayThreshold(Duration.ofMillis(delayMillis))
+            .build();
+    return new AcknowledgementBatcher(
+        settings,
+        (subscription, deadline, ackIds) -> {
+          this.sentBatches.add(new SentBatch(subscription, deadline, new ArrayList<>(ackIds)));
+          return ApiFutures.immediateFuture(Empty.getDefaultInstance());
+        },
+        this.scheduler,
+        Runnable::run);
+  }
+
+  @Test
+  void sendsBatchWhenElementCountReached() throws Exception {
+    AcknowledgementBatcher batcher = createBatcher(3, 100_000, 60_000);
+
+    CompletableFuture<Void> first = batcher.add("sub", AcknowledgementBatcher.ACK, "a");
+    batcher.add("sub", AcknowledgementBatcher.ACK, "b");
+    assertThat(first).isNotDone();
+    assertThat(this.sentBatches).isEmpty();
+
+    batcher.add("sub", AcknowledgementBatcher.ACK, "c");
+
+    first.get(1, TimeUnit.SECONDS);
+    assertThat(this.sentBatches).hasSize(1);
+    assertThat(this.sentBatches.get(0).ackIds).containsExactly("a", "b", "c");
+  }
+
+  @Test
+  void groupsBySubscriptionAndDeadline() {
+    AcknowledgementBatcher batcher = createBatcher(100, 100_000, 60_000);
+
+    batcher.add("sub1", AcknowledgementBatcher.ACK, "a");
+    batcher.add("sub1", 0, "b");
+    batcher.add("sub1", 30, "c");
+    batcher.add("sub2", AcknowledgementBatcher.ACK, "d");
+    batcher.add("sub1", 0, "e");
+    batcher.flushAll();
+
+    assertThat(this.sentBatches).hasSize(4);
+    assertThat(this.sentBatches)
+        .anySatisfy(
+            batch -> {
+              assertThat(batch.subscription).isEqualTo("sub1");
+              assertThat(batch.deadline).isZero();
+              assertThat(batch.ackIds).containsExactly("b", "e");
+            });
+  }
+
+  @Test
+  void sendsBatchWhenByteThresholdWouldBeExceeded() {
+    AcknowledgementBatcher batcher = createBatcher(100, 40, 60_000);
+
+    batcher.add("sub", AcknowledgementBatcher.ACK, "0123456789");
+    batcher.add("sub", AcknowledgementBatcher.ACK, "0123456789");
+    batcher.add("sub", AcknowledgementBatcher.ACK, "0123456789");
+
+    assertThat(this.sentBatches).isNotEmpty();
+    assertThat(this.sentBatches).allSatisfy(batch -> assertThat(batch.ackIds).hasSizeLessThan(3));
+  }
+
+  @Test
+  void sendsBatchWhenDelayElapses() throws Exception {
+    AcknowledgementBatcher batcher = createBatcher(100, 100_000, 10);
+
+    batcher.add("sub", AcknowledgementBatcher.ACK, "a").get(5, TimeUnit.SECONDS);
+
+    assertThat(this.sentBatches).hasSize(1);
+  }
+
+  @Test
+  void capsElementCountAtServiceLimit() {
+    AcknowledgementBatcher batcher = createBatcher(10_000, 10_000_000, 60_000);
+
+    for (int i = 0; i < AcknowledgementBatcher.MAX_ACK_IDS_PER_REQUEST + 1; i++) {
+      batcher.add("sub", AcknowledgementBatcher.ACK, "id" + i);
+    }
+
+    assertThat(this.sentBatches).hasSize(1);
+    assertThat(this.sentBatches.get(0).ackIds)
+        .hasSize(AcknowledgementBatcher.MAX_ACK_IDS_PER_REQUEST);
+  }
+
+  @Test
+  void failedRpcFailsAllFuturesInBatch() {
+    AcknowledgementBatcher batcher =
+        new AcknowledgementBatcher(
+            BatchingSettings.newBuilder()
+                .setElementCountThreshold(2L)
+                .setRequestByteThreshold(100_000L)
+                .setDelayThreshold(Duration.ofSeconds(60))
+                .build(),
+            (subscription, deadline, ackIds) ->
+                ApiFutures.immediateFailedFuture(new IllegalStateException("boom")),
+            this.scheduler,
+            Runnable::run);
+
+    CompletableFuture<Void> first = batcher.add("sub", AcknowledgementBatcher.ACK, "a");
+    CompletableFuture<Void> second = batcher.add("sub", AcknowledgementBatcher.ACK, "b");
+
+    assertThatThrownBy(first::get)
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+    assertThat(second).isCompletedExceptionally();
+  }
+
+  @Test
+  void shutdownFlushesAndRejects() {
+    AcknowledgementBatcher batcher = createBatcher(100, 100_000, 60_000);
+
+    CompletableFuture<Void> pending = batcher.add("sub", AcknowledgementBatcher.ACK, "a");
+    batcher.shutdown();
+
+    assertThat(pending).isCompleted();
+    assertThat(batcher.add("sub", AcknowledgementBatcher.ACK, "b")).isCompletedExceptionally();
+  }
+
+  private static final class SentBatch {
+    private final String subscription;
+
+    private final int deadline;
+
+    private final List<String> ackIds;
+
+    SentBatch(String subscription, int deadline, List<String> ackIds) {
+      this.subscription = subscription;
+      this.deadline = deadline;
+      this.ackIds = ackIds;
+    }
+  }
+}
@@ -22,6 +22,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
@@ -30,6 +31,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.api.core.ApiFuture;
+import com.google.api.gax.batching.BatchingSettings;
 import com.google.api.gax.rpc.UnaryCallable;
 import com.google.cloud.pubsub.v1.AckReplyConsumer;
 import com.google.cloud.pubsub.v1.MessageReceiver;
@@ -72,6 +74,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.threeten.bp.Duration;
 
 /** Unit tests for {@link PubSubSubscriberTemplate}. */
 @ExtendWith(MockitoExtension.class)
@@ -355,6 +358,57 @@ class PubSubSubscriberTemplateTests {
     assertThat(completableFutureCallback.getThrowable()).isNull();
   }
 
+  @Test
+  void testPull_AndBatchedIndividualAck()
+      throws InterruptedException, ExecutionException, TimeoutException {
+    this.pubSubSubscriberTemplate.setAckExecutor(Runnable::run);
+    this.pubSubSubscriberTemplate.setAckBatchingSettings(
+        BatchingSettings.newBuilder()
+            .setElementCountThreshold(2L)
+            .setRequestByteThreshold(100_000L)
+            .setDelayThreshold(Duration.ofSeconds(60))
+            .build());
+
+    AcknowledgeablePubsubMessage first = this.pubSubSubscriberTemplate.pull("sub2", 1, true).get(0);
+    AcknowledgeablePubsubMessage second =
+        this.pubSubSubscriberTemplate.pull("sub2", 1, true).get(0);
+
+    CompletableFuture<Void> firstFuture = first.ack();
+    verify(this.ackCallable, never()).futureCall(any(AcknowledgeRequest.class));
+    CompletableFuture<Void> secondFuture = second.ack();
+
+    firstFuture.get(10L, TimeUnit.SECONDS);
+    secondFuture.get(10L, TimeUnit.SECONDS);
+
+    ArgumentCaptor<AcknowledgeRequest> requestCaptor =
+        ArgumentCaptor.forClass(AcknowledgeRequest.class);
+    verify(this.ackCallable, times(1)).futureCall(requestCaptor.capture());
+    assertThat(requestCaptor.getValue().getAckIdsCount()).isEqualTo(2);
+    assertThat(requestCaptor.getValue().getSubscription())
+        .isEqualTo("projects/testProject/subscriptions/sub2");
+
+    this.pubSubSubscriberTemplate.destroy();
+  }
+
+  @Test
+  void testBatchedAck_usesAckExecutorSetAfterBatchingSettings()
+      throws InterruptedException, ExecutionException, TimeoutException {
+    this.pubSubSubscriberTemplate.setAckBatchingSettings(
+        BatchingSettings.newBuilder()
+            .setElementCountThreshold(1L)
+            .setRequestByteThreshold(100_000L)
+            .setDelayThreshold(Duration.ofSeconds(60))
+            .build());
+    Executor ackExecutor = mock(Executor.class);
+    this.pubSubSubscriberTemplate.setAckExecutor(ackExecutor);
+
+    this.pubSubSubscriberTemplate.pull("sub2", 1, true).get(0).ack().get(10L, TimeUnit.SECONDS);
+
+    verify(this.ackApiFuture).addListener(any(Runnable.class), same(ackExecutor));
+
+    this.pubSubSubscriberTemplate.destroy();
+  }
+
   @Test
   void testPull_AndManualNack()
       throws InterruptedException, ExecutionException, TimeoutException {
@@ -21,6 +21,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -31,6 +32,10 @@ import com.google.cloud.spring.pubsub.integration.AckMode;
 import com.google.cloud.spring.pubsub.support.GcpPubSubHeaders;
 import com.google.cloud.spring.pubsub.support.converter.ConvertedBasicAcknowledgeablePubsubMessage;
 import com.google.pubsub.v1.PubsubMessage;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -189,6 +194,113 @@ class PubSubInboundChannelAdapterTests {
     assertThat(capturedOutput).contains("failed; message neither acked nor nacked").contains(EXCEPTION_MESSAGE);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  void testBatchSize_sendsListPayloadAndAcksBatch() {
+    ConvertedBasicAcknowledgeablePubsubMessage<String> first =
+        mockBatchMessage("first", "key", "a");
+    ConvertedBasicAcknowledgeablePubsubMessage<String> second =
+        mockBatchMessage("second", "key", "b");
+    subscribeWith(first, second);
+    when(this.mockMessageChannel.send(any())).thenReturn(true);
+    this.adapter.setBatchSize(2);
+
+    this.adapter.start();
+
+    ArgumentCaptor<Message<List<Object>>> argument = ArgumentCaptor.forClass(Message.class);
+    verify(this.mockMessageChannel).send(argument.capture());
+    assertThat(argument.getValue().getPayload()).containsExactly("first", "second");
+    List<Map<String, Object>> batchHeaders =
+        (List<Map<String, Object>>)
+            argument.getValue().getHeaders().get(GcpPubSubHeaders.BATCH_CONVERTED_HEADERS);
+    assertThat(batchHeaders).hasSize(2);
+    assertThat(batchHeaders.get(0))
+        .containsEntry("key", "a")
+        .containsEntry(GcpPubSubHeaders.ORIGINAL_MESSAGE, first);
+    assertThat(batchHeaders.get(1)).containsEntry("key", "b");
+    verify(first).ack();
+    verify(second).ack();
+  }
+
+  @Test
+  void testBatchTimeout_sendsIncompleteBatch() {
+    ConvertedBasicAcknowledgeablePubsubMessage<String> message =
+        mockBatchMessage("only", "key", "a");
+    subscribeWith(message);
+    AtomicReference<String> sendingThread = new AtomicReference<>();
+    when(this.mockMessageChannel.send(any()))
+        .then(
+            invocation -> {
+              sendingThread.set(Thread.currentThread().getName());
+              return true;
+            });
+    this.adapter.setBatchSize(10);
+    this.adapter.setBatchTimeout(Duration.ofMillis(50));
+
+    this.adapter.start();
+
+    verify(this.mockMessageChannel, timeout(5000)).send(any());
+    verify(message, timeout(5000)).ack();
+    assertThat(sendingThread.get()).startsWith("pubsub-batch-testSubscription-");
+
+    this.adapter.stop();
+  }
+
+  @Test
+  void testBatchSize_nacksBatchWhenDownstreamProcessingFails(CapturedOutput capturedOutput) {
+    ConvertedBasicAcknowledgeablePubsubMessage<String> first =
+        mockBatchMessage("first", "key", "a");
+    ConvertedBasicAcknowledgeablePubsubMessage<String> second =
+        mockBatchMessage("second", "key", "b");
+    subscribeWith(first, second);
+    when(this.mockMessageChannel.send(any())).thenThrow(new RuntimeException(EXCEPTION_MESSAGE));
+    this.adapter.setBatchSize(2);
+
+    this.adapter.start();
+
+    verify(first).nack();
+    verify(second).nack();
+    assertThat(capturedOutput)
+        .contains("Sending batch of 2 Spring messages failed; messages nacked automatically")
+        .contains(EXCEPTION_MESSAGE);
+  }
+
+  @Test
+  void testBatchSettingsValidation() {
+    assertThatThrownBy(() -> this.adapter.setBatchSize(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("The batch size must be greater than 0.");
+    assertThatThrownBy(() -> this.adapter.setBatchTimeout(Duration.ZERO))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("The batch timeout must be positive.");
+  }
+
+  @SuppressWarnings("unchecked")
+  private ConvertedBasicAcknowledgeablePubsubMessage<String> mockBatchMessage(
+      String payload, String attributeKey, String attributeValue) {
+    ConvertedBasicAcknowledgeablePubsubMessage<String> message =
+        mock(ConvertedBasicAcknowledgeablePubsubMessage.class);
+    when(message.getPubsubMessage())
+        .thenReturn(PubsubMessage.newBuilder().putAttributes(attributeKey, attributeValue).build());
+    when(message.getPayload()).thenReturn(payload);
+    return message;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void subscribeWith(ConvertedBasicAcknowledgeablePubsubMessage<?>... messages) {
+    when(this.mockPubSubSubscriberOperations.subscribeAndConvert(
+            anyString(), any(Consumer.class), any(Class.class)))
+        .then(
+            invocationOnMock -> {
+              Consumer<ConvertedBasicAcknowledgeablePubsubMessage<?>> messageConsumer =
+                  invocationOnMock.getArgument(1);
+              for (ConvertedBasicAcknowledgeablePubsubMessage<?> message : messages) {
+                messageConsumer.accept(message);
+              }
+              return null;
+            });
+  }
+
   @Test
   void testSetHealthRegistry_Success() {
 
@@ -23,6 +23,7 @@ import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -43,6 +44,7 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.expression.Expression;
 import org.springframework.expression.common.LiteralExpression;
+import org.springframework.integration.MessageTimeoutException;
 import org.springframework.integration.expression.ValueExpression;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.support.GenericMessage;
@@ -280,4 +282,52 @@ class PubSubMessageHandlerTests {
 
     assertThat(ackIdRef).hasValue(null);
   }
+
+  @Test
+  void testSetMaxInFlightWithNegativeValue() {
+    assertThatThrownBy(() -> this.adapter.setMaxInFlight(-1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("The maximum number of in-flight publishes can't be negative.");
+  }
+
+  @Test
+  void testPublishTimesOutWhenInFlightWindowIsFull() {
+    CompletableFuture<String> pending = new CompletableFuture<>();
+    when(this.pubSubTemplate.publish(eq("testTopic"), eq("testPayload".getBytes()), anyMap()))
+        .thenReturn(pending);
+    this.adapter.setMaxInFlight(1);
+    this.adapter.setPublishTimeout(50);
+
+    this.adapter.handleMessage(this.message);
+    assertThat(this.adapter.getInFlightCount()).isEqualTo(1);
+
+    assertThatThrownBy(() -> this.adapter.handleMessage(this.message))
+        .isInstanceOf(MessageTimeoutException.class)
+        .hasMessageContaining("in-flight");
+    verify(this.pubSubTemplate, times(1))
+        .publish(eq("testTopic"), eq("testPayload".getBytes()), anyMap());
+
+    pending.complete("published");
+
+    assertThat(this.adapter.getInFlightCount()).isZero();
+    this.adapter.handleMessage(this.message);
+    verify(this.pubSubTemplate, times(2))
+        .publish(eq("testTopic"), eq("testPayload".getBytes()), anyMap());
+  }
+
+  @Test
+  void testInFlightWindowReleasedOnPublishFailure() {
+    CompletableFuture<String> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new RuntimeException("boom!"));
+    when(this.pubSubTemplate.publish(eq("testTopic"), eq("testPayload".getBytes()), anyMap()))
+        .thenReturn(failed);
+    this.adapter.setMaxInFlight(1);
+
+    this.adapter.handleMessage(this.message);
+    this.adapter.handleMessage(this.message);
+
+    assertThat(this.adapter.getInFlightCount()).isZero();
+    verify(this.pubSubTemplate, times(2))
+        .publish(eq("testTopic"), eq("testPayload".getBytes()), anyMap());
+  }
 }
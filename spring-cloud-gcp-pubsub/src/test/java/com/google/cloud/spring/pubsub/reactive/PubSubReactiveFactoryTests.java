@@ -21,13 +21,18 @@ import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.api.gax.grpc.GrpcStatusCode;
 import com.google.api.gax.rpc.DeadlineExceededException;
+import com.google.cloud.pubsub.v1.Subscriber;
 import com.google.cloud.spring.pubsub.core.subscriber.PubSubSubscriberOperations;
 import com.google.cloud.spring.pubsub.support.AcknowledgeablePubsubMessage;
+import com.google.cloud.spring.pubsub.support.BasicAcknowledgeablePubsubMessage;
 import com.google.protobuf.ByteString;
 import com.google.pubsub.v1.PubsubMessage;
 import io.grpc.Status;
@@ -37,6 +42,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -203,6 +210,56 @@ class PubSubReactiveFactoryTests {
     methodOrder.verifyNoMoreInteractions();
   }
 
+  @Test
+  void testStreamingPullDeliversRequestedMessages() {
+    AtomicReference<Consumer<BasicAcknowledgeablePubsubMessage>> receiver = new AtomicReference<>();
+    Subscriber subscriber = mockStreamingSubscriber(receiver);
+    BasicAcknowledgeablePubsubMessage msg1 = mock(BasicAcknowledgeablePubsubMessage.class);
+    BasicAcknowledgeablePubsubMessage msg2 = mock(BasicAcknowledgeablePubsubMessage.class);
+
+    StepVerifier.create(factory.streamingPull("sub1"), 2)
+        .expectSubscription()
+        .then(() -> receiver.get().accept(msg1))
+        .then(() -> receiver.get().accept(msg2))
+        .expectNext(msg1, msg2)
+        .thenCancel()
+        .verify();
+
+    verify(subscriber).stopAsync();
+    verify(msg1, never()).nack();
+  }
+
+  @Test
+  void testStreamingPullHoldsMessagesUntilDemandAndNacksOnCancel() throws InterruptedException {
+    AtomicReference<Consumer<BasicAcknowledgeablePubsubMessage>> receiver = new AtomicReference<>();
+    Subscriber subscriber = mockStreamingSubscriber(receiver);
+    BasicAcknowledgeablePubsubMessage msg1 = mock(BasicAcknowledgeablePubsubMessage.class);
+
+    Thread receiverThread = new Thread(() -> receiver.get().accept(msg1));
+    StepVerifier.create(factory.streamingPull("sub1"), 0)
+        .expectSubscription()
+        .then(receiverThread::start)
+        .expectNoEvent(Duration.ofMillis(100))
+        .thenCancel()
+        .verify();
+    receiverThread.join(10_000);
+
+    verify(msg1, timeout(10_000)).nack();
+    verify(subscriber).stopAsync();
+  }
+
+  private Subscriber mockStreamingSubscriber(
+      AtomicReference<Consumer<BasicAcknowledgeablePubsubMessage>> receiver) {
+    Subscriber subscriber = mock(Subscriber.class);
+    when(subscriberOperations.subscribe(eq("sub1"), any()))
+        .then(
+            invocation -> {
+              receiver.set(invocation.getArgument(1));
+              return subscriber;
+            });
+    return subscriber;
+  }
+
   private String messageToString(AcknowledgeablePubsubMessage message) {
     return new String(message.getPubsubMessage().getData().toByteArray(), Charset.defaultCharset());
   }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.reactive;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.spring.pubsub.core.publisher.PubSubPublisherOperations;
+import com.google.cloud.spring.pubsub.core.publisher.PublishBatchResult;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+/** Tests for {@link PubSubReactivePublisher}. */
+class PubSubReactivePublisherTests {
+
+  private final PubSubPublisherOperations publisherOperations =
+      mock(PubSubPublisherOperations.class);
+
+  @Test
+  void publishesInChunksPreservingOrder() {
+    PublishBatchResult first = mock(PublishBatchResult.class);
+    PublishBatchResult second = mock(PublishBatchResult.class);
+    CompletableFuture<PublishBatchResult> firstFuture = new CompletableFuture<>();
+    when(this.publisherOperations.publishAll(eq("topic"), any()))
+        .thenReturn(firstFuture, CompletableFuture.completedFuture(second));
+
+    PubSubReactivePublisher publisher = new PubSubReactivePublisher(this.publisherOperations);
+
+    StepVerifier.create(publisher.publishAll("topic", Flux.just("a", "b", "c"), 2, 2))
+        .then(() -> firstFuture.complete(first))
+        .expectNext(first, second)
+        .verifyComplete();
+
+    verify(this.publisherOperations).publishAll("topic", Arrays.asList("a", "b"));
+    verify(this.publisherOperations).publishAll("topic", Collections.singletonList("c"));
+  }
+}
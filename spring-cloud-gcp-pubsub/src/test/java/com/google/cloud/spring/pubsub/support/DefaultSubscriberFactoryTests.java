@@ -41,6 +41,10 @@ import com.google.cloud.pubsub.v1.stub.SubscriberStubSettings;
 import com.google.cloud.spring.core.GcpProjectIdProvider;
 import com.google.cloud.spring.pubsub.core.PubSubConfiguration;
 import com.google.cloud.spring.pubsub.core.PubSubException;
+import com.google.cloud.spring.pubsub.core.ResolvedSubscriberSettings;
+import com.google.cloud.spring.pubsub.core.flowcontrol.AdaptiveFlowControlRegistry;
+import com.google.cloud.spring.pubsub.core.flowcontrol.AdaptiveFlowController;
+import com.google.cloud.spring.pubsub.core.flowcontrol.FlowControlLimits;
 import com.google.cloud.spring.pubsub.core.health.HealthTrackerRegistry;
 import com.google.pubsub.v1.ProjectSubscriptionName;
 import com.google.pubsub.v1.PullRequest;
@@ -376,24 +380,14 @@ class DefaultSubscriberFactoryTests {
             .setLimitExceededBehavior(FlowController.LimitExceededBehavior.Ignore)
             .build();
     factory.setGlobalFlowControlSettings(flowControlSettings);
-    when(mockPubSubConfiguration.computeMaxAckExtensionPeriod(
-            "defaultSubscription", projectIdProvider.getProjectId()))
-        .thenReturn(2L);
-    when(mockPubSubConfiguration.computeMinDurationPerAckExtension(
-        "defaultSubscription", projectIdProvider.getProjectId()))
-        .thenReturn(3L);
-    when(mockPubSubConfiguration.computeMaxDurationPerAckExtension(
-        "defaultSubscription", projectIdProvider.getProjectId()))
-        .thenReturn(4L);
-    when(mockPubSubConfiguration.computeParallelPullCount(
-            "defaultSubscription", projectIdProvider.getProjectId()))
-        .thenReturn(2);
-    when(mockPubSubConfiguration.computePullEndpoint(
-        "defaultSubscription", projectIdProvider.getProjectId()))
-        .thenReturn("test.endpoint");
-    when(mockPubSubConfiguration.computeSubscriberUniverseDomain(
-            "defaultSubscription", projectIdProvider.getProjectId()))
-        .thenReturn("example.com");
+    PubSubConfiguration.Subscriber properties = new PubSubConfiguration.Subscriber();
+    properties.setMaxAckExtensionPeriod(2L);
+    properties.setMinDurationPerAckExtension(3L);
+    properties.setMaxDurationPerAckExtension(4L);
+    properties.setParallelPullCount(2);
+    properties.setPullEndpoint("test.endpoint");
+    properties.setUniverseDomain("example.com");
+    stubResolvedSettings("defaultSubscription", properties);
 
     Subscriber expectedSubscriber =
         factory.createSubscriber("defaultSubscription", (message, consumer) -> {});
@@ -415,9 +409,9 @@ class DefaultSubscriberFactoryTests {
     DefaultSubscriberFactory factory =
         new DefaultSubscriberFactory(projectIdProvider, mockPubSubConfiguration);
     factory.setCredentialsProvider(this.credentialsProvider);
-    when(mockPubSubConfiguration.computeMinDurationPerAckExtension(
-        "defaultSubscription", projectIdProvider.getProjectId()))
-        .thenReturn(-4L);
+    PubSubConfiguration.Subscriber properties = new PubSubConfiguration.Subscriber();
+    properties.setMinDurationPerAckExtension(-4L);
+    stubResolvedSettings("defaultSubscription", properties);
 
     assertThatThrownBy(
         () -> factory.createSubscriber(
@@ -433,9 +427,9 @@ class DefaultSubscriberFactoryTests {
     DefaultSubscriberFactory factory =
         new DefaultSubscriberFactory(projectIdProvider, mockPubSubConfiguration);
     factory.setCredentialsProvider(this.credentialsProvider);
-    when(mockPubSubConfiguration.computeMaxDurationPerAckExtension(
-        "defaultSubscription", projectIdProvider.getProjectId()))
-        .thenReturn(-2L);
+    PubSubConfiguration.Subscriber properties = new PubSubConfiguration.Subscriber();
+    properties.setMaxDurationPerAckExtension(-2L);
+    stubResolvedSettings("defaultSubscription", properties);
 
     assertThatThrownBy(
         () -> factory.createSubscriber(
@@ -451,12 +445,10 @@ class DefaultSubscriberFactoryTests {
     DefaultSubscriberFactory factory =
         new DefaultSubscriberFactory(projectIdProvider, mockPubSubConfiguration);
     factory.setCredentialsProvider(this.credentialsProvider);
-    when(mockPubSubConfiguration.computeMinDurationPerAckExtension(
-        "defaultSubscription", projectIdProvider.getProjectId()))
-        .thenReturn(4L);
-    when(mockPubSubConfiguration.computeMaxDurationPerAckExtension(
-        "defaultSubscription", projectIdProvider.getProjectId()))
-        .thenReturn(3L);
+    PubSubConfiguration.Subscriber properties = new PubSubConfiguration.Subscriber();
+    properties.setMinDurationPerAckExtension(4L);
+    properties.setMaxDurationPerAckExtension(3L);
+    stubResolvedSettings("defaultSubscription", properties);
 
     assertThatThrownBy(
         () -> factory.createSubscriber(
@@ -536,9 +528,9 @@ class DefaultSubscriberFactoryTests {
     GcpProjectIdProvider projectIdProvider = () -> "project";
     DefaultSubscriberFactory factory =
         new DefaultSubscriberFactory(projectIdProvider, mockPubSubConfiguration);
-    when(mockPubSubConfiguration.computeMaxAckExtensionPeriod(
-            "subscription-name", projectIdProvider.getProjectId()))
-        .thenReturn(1L);
+    PubSubConfiguration.Subscriber properties = new PubSubConfiguration.Subscriber();
+    properties.setMaxAckExtensionPeriod(1L);
+    stubResolvedSettings("subscription-name", properties);
 
     assertThat(factory.getMaxAckExtensionPeriod("subscription-name"))
         .isEqualTo(Duration.ofSeconds(1));
@@ -559,9 +551,9 @@ class DefaultSubscriberFactoryTests {
     GcpProjectIdProvider projectIdProvider = () -> "project";
     DefaultSubscriberFactory factory =
         new DefaultSubscriberFactory(projectIdProvider, mockPubSubConfiguration);
-    when(mockPubSubConfiguration.computeMinDurationPerAckExtension(
-        "subscription-name", projectIdProvider.getProjectId()))
-        .thenReturn(1L);
+    PubSubConfiguration.Subscriber properties = new PubSubConfiguration.Subscriber();
+    properties.setMinDurationPerAckExtension(1L);
+    stubResolvedSettings("subscription-name", properties);
 
     assertThat(factory.getMinDurationPerAckExtension("subscription-name"))
         .isEqualTo(Duration.ofSeconds(1));
@@ -573,8 +565,9 @@ class DefaultSubscriberFactoryTests {
     DefaultSubscriberFactory factory =
         new DefaultSubscriberFactory(projectIdProvider, mockPubSubConfiguration);
 
-    when(mockPubSubConfiguration.computeMinDurationPerAckExtension("subscription-name",
-        projectIdProvider.getProjectId())).thenReturn(3L);
+    PubSubConfiguration.Subscriber properties = new PubSubConfiguration.Subscriber();
+    properties.setMinDurationPerAckExtension(3L);
+    stubResolvedSettings("subscription-name", properties);
 
     // subscription level setting is used when factory-level one is not provided
     assertThat(factory.getMinDurationPerAckExtension("subscription-name"))
@@ -594,8 +587,9 @@ class DefaultSubscriberFactoryTests {
     DefaultSubscriberFactory factory =
         new DefaultSubscriberFactory(projectIdProvider, mockPubSubConfiguration);
 
-    when(mockPubSubConfiguration.computeMaxDurationPerAckExtension("subscription-name",
-        projectIdProvider.getProjectId())).thenReturn(3L);
+    PubSubConfiguration.Subscriber properties = new PubSubConfiguration.Subscriber();
+    properties.setMaxDurationPerAckExtension(3L);
+    stubResolvedSettings("subscription-name", properties);
 
     // subscription level setting is used when factory-level one is not provided
     assertThat(factory.getMaxDurationPerAckExtension("subscription-name"))
@@ -624,9 +618,9 @@ class DefaultSubscriberFactoryTests {
     GcpProjectIdProvider projectIdProvider = () -> "project";
     DefaultSubscriberFactory factory =
         new DefaultSubscriberFactory(projectIdProvider, mockPubSubConfiguration);
-    when(mockPubSubConfiguration.computeMaxDurationPerAckExtension(
-        "subscription-name", projectIdProvider.getProjectId()))
-        .thenReturn(2L);
+    PubSubConfiguration.Subscriber properties = new PubSubConfiguration.Subscriber();
+    properties.setMaxDurationPerAckExtension(2L);
+    stubResolvedSettings("subscription-name", properties);
 
     assertThat(factory.getMaxDurationPerAckExtension("subscription-name"))
         .isEqualTo(Duration.ofSeconds(2));
@@ -657,9 +651,9 @@ class DefaultSubscriberFactoryTests {
     GcpProjectIdProvider projectIdProvider = () -> "project";
     DefaultSubscriberFactory factory =
         new DefaultSubscriberFactory(projectIdProvider, mockPubSubConfiguration);
-    when(mockPubSubConfiguration.computeParallelPullCount(
-            "subscription-name", projectIdProvider.getProjectId()))
-        .thenReturn(1);
+    PubSubConfiguration.Subscriber properties = new PubSubConfiguration.Subscriber();
+    properties.setParallelPullCount(1);
+    stubResolvedSettings("subscription-name", properties);
 
     assertThat(factory.getPullCount("subscription-name")).isEqualTo(1);
   }
@@ -685,12 +679,11 @@ class DefaultSubscriberFactoryTests {
 
   @Test
   void testGetPullEndpoint_configurationIsPresent() {
-    GcpProjectIdProvider projectIdProvider = () -> "project";
     DefaultSubscriberFactory factory =
         new DefaultSubscriberFactory(() -> "project", mockPubSubConfiguration);
-    when(mockPubSubConfiguration.computePullEndpoint(
-            "subscription-name", projectIdProvider.getProjectId()))
-        .thenReturn("my-endpoint");
+    PubSubConfiguration.Subscriber properties = new PubSubConfiguration.Subscriber();
+    properties.setPullEndpoint("my-endpoint");
+    stubResolvedSettings("subscription-name", properties);
 
     assertThat(factory.getPullEndpoint("subscription-name")).isEqualTo("my-endpoint");
   }
@@ -746,9 +739,9 @@ class DefaultSubscriberFactoryTests {
     GcpProjectIdProvider projectIdProvider = () -> "project";
     DefaultSubscriberFactory factory =
         new DefaultSubscriberFactory(projectIdProvider, mockPubSubConfiguration);
-    when(mockPubSubConfiguration.computeRetryableCodes(
-            "someSubscription", projectIdProvider.getProjectId()))
-        .thenReturn(new Code[] {Code.INTERNAL});
+    PubSubConfiguration.Subscriber properties = new PubSubConfiguration.Subscriber();
+    properties.setRetryableCodes(new Code[] {Code.INTERNAL});
+    stubResolvedSettings("someSubscription", properties);
 
     assertThat(FieldUtils.readField(factory, "retryableCodes", true)).isNull();
 
@@ -857,4 +850,42 @@ class DefaultSubscriberFactoryTests {
     verify(healthTrackerRegistry).wrap(any(), any());
     verify(healthTrackerRegistry).addListener(any());
   }
+
+  @Test
+  void testNewSubscriber_registersAdaptiveFlowController() {
+    AdaptiveFlowControlRegistry registry =
+        new AdaptiveFlowControlRegistry(
+            (subscription, current, maximum, statistics) -> current,
+            java.time.Duration.ofMinutes(1));
+    DefaultSubscriberFactory factory = new DefaultSubscriberFactory(() -> "angeldust", pubSubConfig);
+    factory.setCredentialsProvider(this.credentialsProvider);
+    factory.setFlowControlSettings(
+        FlowControlSettings.newBuilder()
+            .setMaxOutstandingElementCount(50L)
+            .setMaxOutstandingRequestBytes(4096L)
+            .build());
+    factory.setAdaptiveFlowControlRegistry(registry);
+
+    try {
+      factory.createSubscriber("midnight cowboy", (message, consumer) -> {});
+
+      assertThat(registry.flowControllers()).hasSize(1);
+      AdaptiveFlowController flowController = registry.flowControllers().iterator().next();
+      assertThat(flowController.getSubscription())
+          .isEqualTo(ProjectSubscriptionName.of("angeldust", "midnight cowboy"));
+      assertThat(flowController.getMaximumLimits()).isEqualTo(new FlowControlLimits(50L, 4096L));
+    } finally {
+      registry.close();
+    }
+  }
+
+  private void stubResolvedSettings(
+      String subscriptionName, PubSubConfiguration.Subscriber subscriptionProperties) {
+    when(mockPubSubConfiguration.getResolvedSubscriberSettings(subscriptionName, "project"))
+        .thenReturn(
+            new ResolvedSubscriberSettings(
+                ProjectSubscriptionName.of("project", subscriptionName),
+                subscriptionProperties,
+                new PubSubConfiguration.Subscriber()));
+  }
 }
@@ -17,9 +17,12 @@
 package com.google.cloud.spring.pubsub.support.converter;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.cloud.spring.pubsub.support.GcpPubSubHeaders;
+import com.google.protobuf.ByteString;
 import com.google.pubsub.v1.PubsubMessage;
 import java.util.Collections;
 import org.json.JSONException;
@@ -94,6 +97,44 @@ class JacksonPubSubMessageConverterTests {
     assertThat(pubsubMessage.getAttributesMap()).containsEntry("custom-header", "val1");
   }
 
+  @Test
+  void testLargePayloadRoundTrip() {
+    StringBuilder name = new StringBuilder();
+    for (int i = 0; i < 100_000; i++) {
+      name.append((char) ('a' + i % 26));
+    }
+    Contact contact = new Contact(name.toString(), "Edison", 8817);
+
+    PubsubMessage pubsubMessage = this.converter.toPubSubMessage(contact, null);
+
+    assertThat(pubsubMessage.getData().size()).isGreaterThan(100_000);
+    assertThat(this.converter.fromPubSubMessage(pubsubMessage, Contact.class)).isEqualTo(contact);
+    assertThat(this.converter.fromPubSubMessage(pubsubMessage, Contact.class)).isEqualTo(contact);
+  }
+
+  @Test
+  void testObjectMapperConfiguredAfterConstructionIsUsed() {
+    ObjectMapper objectMapper = new ObjectMapper();
+    JacksonPubSubMessageConverter lateConfiguredConverter =
+        new JacksonPubSubMessageConverter(objectMapper);
+    objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+
+    PubsubMessage pubsubMessage =
+        lateConfiguredConverter.toPubSubMessage(new Contact("Thomas", "Edison", 8817), null);
+
+    assertThat(pubsubMessage.getData().toStringUtf8()).contains("\n");
+  }
+
+  @Test
+  void testInvalidJsonThrowsConversionException() {
+    PubsubMessage pubsubMessage =
+        PubsubMessage.newBuilder().setData(ByteString.copyFromUtf8("{not json")).build();
+
+    assertThatThrownBy(() -> this.converter.fromPubSubMessage(pubsubMessage, Contact.class))
+        .isInstanceOf(PubSubMessageConversionException.class)
+        .hasMessageContaining(Contact.class.getName());
+  }
+
   /** A test class containing data to test conversions. */
   static class Contact {
     String firstName;
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.secretmanager;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.util.Assert;
+
+/**
+ * Registers Micrometer counters for the lookups and background refreshes of a {@link
+ * SecretManagerSecretCache}.
+ *
+ * <ul>
+ *   <li>{@code secretmanager.cache.requests}: number of lookups, tagged with {@code result} as
+ *       {@code hit} or {@code miss}
+ *   <li>{@code secretmanager.cache.refreshes}: number of background refreshes of version aliases
+ * </ul>
+ *
+ * @since 6.1.2
+ */
+public class SecretManagerCacheMeterBinder implements MeterBinder {
+
+  private static final String REQUESTS_DESCRIPTION =
+      "Number of secret lookups, by whether they were served from the cache.";
+
+  private final SecretManagerSecretCache secretCache;
+
+  public SecretManagerCacheMeterBinder(SecretManagerSecretCache secretCache) {
+    Assert.notNull(secretCache, "secretCache can't be null.");
+    this.secretCache = secretCache;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry meterRegistry) {
+    FunctionCounter.builder(
+            "secretmanager.cache.requests",
+            this.secretCache,
+            SecretManagerSecretCache::getHitCount)
+        .description(REQUESTS_DESCRIPTION)
+        .tag("result", "hit")
+        .register(meterRegistry);
+    FunctionCounter.builder(
+            "secretmanager.cache.requests",
+            this.secretCache,
+            SecretManagerSecretCache::getMissCount)
+        .description(REQUESTS_DESCRIPTION)
+        .tag("result", "miss")
+        .register(meterRegistry);
+    FunctionCounter.builder(
+            "secretmanager.cache.refreshes",
+            this.secretCache,
+            SecretManagerSecretCache::getRefreshCount)
+        .description("Number of background refreshes of cached version aliases.")
+        .register(meterRegistry);
+  }
+}
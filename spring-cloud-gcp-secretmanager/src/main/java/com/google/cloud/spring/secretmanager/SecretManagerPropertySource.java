@@ -18,24 +18,52 @@ package com.google.cloud.spring.secretmanager;
 
 import com.google.cloud.secretmanager.v1.SecretVersionName;
 import com.google.cloud.spring.core.GcpProjectIdProvider;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import javax.annotation.Nullable;
 import org.springframework.core.env.EnumerablePropertySource;
 
 /**
  * A property source for Secret Manager which accesses the Secret Manager APIs when {@link
  * #getProperty} is called.
  *
+ * <p>When created with a {@link SecretManagerSecretCache}, secret payloads are looked up in the
+ * cache instead, so that repeated lookups of the same secret don't access Secret Manager again.
+ *
  * @since 1.2.2
  */
 public class SecretManagerPropertySource extends EnumerablePropertySource<SecretManagerTemplate> {
 
   private final GcpProjectIdProvider projectIdProvider;
 
+  @Nullable private final SecretManagerSecretCache secretCache;
+
   public SecretManagerPropertySource(
       String propertySourceName,
       SecretManagerTemplate secretManagerTemplate,
       GcpProjectIdProvider projectIdProvider) {
+    this(propertySourceName, secretManagerTemplate, projectIdProvider, null);
+  }
+
+  /**
+   * Create a property source looking up secret payloads in a cache.
+   *
+   * @param propertySourceName the name of the property source
+   * @param secretManagerTemplate the template accessing Secret Manager
+   * @param projectIdProvider the provider of the default project ID of secrets
+   * @param secretCache the cache of secret payloads, or null to access Secret Manager on every
+   *     lookup
+   * @since 6.1.2
+   */
+  public SecretManagerPropertySource(
+      String propertySourceName,
+      SecretManagerTemplate secretManagerTemplate,
+      GcpProjectIdProvider projectIdProvider,
+      @Nullable SecretManagerSecretCache secretCache) {
     super(propertySourceName, secretManagerTemplate);
     this.projectIdProvider = projectIdProvider;
+    this.secretCache = secretCache;
   }
 
   @Override
@@ -43,13 +71,46 @@ public class SecretManagerPropertySource extends EnumerablePropertySource<Secret
     SecretVersionName secretIdentifier =
         SecretManagerPropertyUtils.getSecretVersionName(name, this.projectIdProvider);
 
-    if (secretIdentifier != null) {
-      return getSource().getSecretByteString(secretIdentifier);
-    } else {
+    if (secretIdentifier == null) {
       return null;
+    } else if (this.secretCache != null) {
+      return this.secretCache.get(secretIdentifier);
+    } else {
+      return getSource().getSecretByteString(secretIdentifier);
     }
   }
 
+  /**
+   * Caches the payloads of the secrets referenced by the given property names, accessing them
+   * concurrently. Does nothing if this property source has no cache.
+   *
+   * @param propertyNames property names in the {@code sm@} syntax; other names are ignored
+   * @since 6.1.2
+   */
+  public void prefetch(Collection<String> propertyNames) {
+    if (this.secretCache == null) {
+      return;
+    }
+    List<SecretVersionName> secretVersionNames = new ArrayList<>();
+    for (String propertyName : propertyNames) {
+      try {
+        SecretVersionName secretVersionName =
+            SecretManagerPropertyUtils.getSecretVersionName(propertyName, this.projectIdProvider);
+        if (secretVersionName != null) {
+          secretVersionNames.add(secretVersionName);
+        }
+      } catch (IllegalArgumentException ex) {
+        // Reported when the property is looked up.
+      }
+    }
+    this.secretCache.prefetch(secretVersionNames);
+  }
+
+  @Nullable
+  public SecretManagerSecretCache getSecretCache() {
+    return this.secretCache;
+  }
+
   /**
    * The {@link SecretManagerPropertySource} is not enumerable, so this always returns an empty
    * array.
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.secretmanager;
+
+import com.google.cloud.secretmanager.v1.SecretVersionName;
+import com.google.protobuf.ByteString;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.util.Assert;
+
+/**
+ * An in-memory cache of secret payloads accessed through a {@link SecretManagerTemplate}, keyed by
+ * {@link SecretVersionName}.
+ *
+ * <p>Payloads of numbered secret versions never change, so they are cached until {@link
+ * #invalidateAll()} is called. Payloads of version aliases, such as {@code latest}, are refreshed
+ * in the background once they are older than the refresh interval; the cached payload is returned
+ * until the refreshed one is available. Secrets that were not found are cached like aliases, when
+ * the template allows default secret values.
+ *
+ * @since 6.1.2
+ */
+public class SecretManagerSecretCache {
+
+  /** Default time after which the payloads of version aliases are refreshed. */
+  public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofMinutes(5);
+
+  private static final Log LOGGER = LogFactory.getLog(SecretManagerSecretCache.class);
+
+  private final SecretManagerTemplate secretManagerTemplate;
+
+  private final Map<SecretVersionName, Entry> entries = new ConcurrentHashMap<>();
+
+  private final LongAdder hitCount = new LongAdder();
+
+  private final LongAdder missCount = new LongAdder();
+
+  private final LongAdder refreshCount = new LongAdder();
+
+  private Duration refreshInterval = DEFAULT_REFRESH_INTERVAL;
+
+  private Executor executor = createDefaultExecutor();
+
+  public SecretManagerSecretCache(SecretManagerTemplate secretManagerTemplate) {
+    Assert.notNull(secretManagerTemplate, "secretManagerTemplate can't be null.");
+    this.secretManagerTemplate = secretManagerTemplate;
+  }
+
+  /**
+   * Set the time after which the payloads of version aliases are refreshed.
+   *
+   * @param refreshInterval the refresh interval; defaults to {@link #DEFAULT_REFRESH_INTERVAL}
+   */
+  public void setRefreshInterval(Duration refreshInterval) {
+    Assert.isTrue(
+        refreshInterval != null && !refreshInterval.isNegative(),
+        "refreshInterval can't be null or negative.");
+    this.refreshInterval = refreshInterval;
+  }
+
+  public Duration getRefreshInterval() {
+    return this.refreshInterval;
+  }
+
+  /**
+   * Set the executor that prefetches and refreshes payloads. Defaults to a {@link
+   * SimpleAsyncTaskExecutor} running at most 8 accesses at the same time.
+   *
+   * @param executor the executor
+   */
+  public void setExecutor(Executor executor) {
+    Assert.notNull(executor, "executor can't be null.");
+    this.executor = executor;
+  }
+
+  /**
+   * Returns the payload of a secret version, accessing it if it is not cached.
+   *
+   * @param secretVersionName the secret version
+   * @return the payload, or null if the secret doesn't exist and default secret values are allowed
+   */
+  @Nullable
+  public ByteString get(SecretVersionName secretVersionName) {
+    Entry entry = this.entries.get(secretVersionName);
+    if (entry == null) {
+      this.missCount.increment();
+      return load(secretVersionName).value;
+    }
+    this.hitCount.increment();
+    if (isRefreshable(secretVersionName, entry) && entry.refreshing.compareAndSet(false, true)) {
+      this.executor.execute(() -> refresh(secretVersionName, entry));
+    }
+    return entry.value;
+  }
+
+  /**
+   * Accesses secret versions that are not cached yet, concurrently, and waits until they are
+   * cached. Secret versions that can't be accessed are skipped, so that the failure is reported
+   * when they are looked up.
+   *
+   * @param secretVersionNames the secret versions
+   */
+  public void prefetch(Collection<SecretVersionName> secretVersionNames) {
+    List<CompletableFuture<Void>> accesses = new ArrayList<>();
+    for (SecretVersionName secretVersionName : new LinkedHashSet<>(secretVersionNames)) {
+      if (!this.entries.containsKey(secretVersionName)) {
+        accesses.add(CompletableFuture.runAsync(() -> load(secretVersionName), this.executor));
+      }
+    }
+    for (CompletableFuture<Void> access : accesses) {
+      try {
+        access.join();
+      } catch (CompletionException ex) {
+        LOGGER.debug("Failed to prefetch a secret.", ex.getCause());
+      }
+    }
+  }
+
+  /** Removes all cached payloads. */
+  public void invalidateAll() {
+    this.entries.clear();
+  }
+
+  /** Returns the number of lookups of cached payloads. */
+  public long getHitCount() {
+    return this.hitCount.sum();
+  }
+
+  /** Returns the number of lookups that accessed Secret Manager. */
+  public long getMissCount() {
+    return this.missCount.sum();
+  }
+
+  /** Returns the number of payloads refreshed in the background. */
+  public long getRefreshCount() {
+    return this.refreshCount.sum();
+  }
+
+  private Entry load(SecretVersionName secretVersionName) {
+    Entry entry = new Entry(this.secretManagerTemplate.getSecretByteString(secretVersionName));
+    this.entries.put(secretVersionName, entry);
+    return entry;
+  }
+
+  private void refresh(SecretVersionName secretVersionName, Entry entry) {
+    try {
+      Entry refreshed =
+          new Entry(this.secretManagerTemplate.getSecretByteString(secretVersionName));
+      // Don't resurrect entries that were invalidated while refreshing.
+      if (this.entries.replace(secretVersionName, entry, refreshed)) {
+        this.refreshCount.increment();
+      }
+    } catch (RuntimeException ex) {
+      LOGGER.warn("Failed to refresh " + secretVersionName + ", keeping the cached value.", ex);
+      entry.refreshing.set(false);
+    }
+  }
+
+  private boolean isRefreshable(SecretVersionName secretVersionName, Entry entry) {
+    boolean mutable =
+        entry.value == null
+            || !secretVersionName.getSecretVersion().chars().allMatch(Character::isDigit);
+    return mutable && System.nanoTime() - entry.loadedAtNanos >= this.refreshInterval.toNanos();
+  }
+
+  private static Executor createDefaultExecutor() {
+    SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("secret-manager-");
+    executor.setConcurrencyLimit(8);
+    return executor;
+  }
+
+  private static final class Entry {
+
+    @Nullable private final ByteString value;
+
+    private final long loadedAtNanos = System.nanoTime();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private Entry(@Nullable ByteString value) {
+      this.value = value;
+    }
+  }
+}
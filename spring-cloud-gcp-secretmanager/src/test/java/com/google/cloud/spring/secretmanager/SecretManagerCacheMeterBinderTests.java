@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.secretmanager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link SecretManagerCacheMeterBinder}. */
+class SecretManagerCacheMeterBinderTests {
+
+  @Test
+  void registersCacheCounters() {
+    SecretManagerSecretCache secretCache = mock(SecretManagerSecretCache.class);
+    when(secretCache.getHitCount()).thenReturn(5L);
+    when(secretCache.getMissCount()).thenReturn(2L);
+    when(secretCache.getRefreshCount()).thenReturn(1L);
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    new SecretManagerCacheMeterBinder(secretCache).bindTo(meterRegistry);
+
+    assertThat(
+            meterRegistry
+                .get("secretmanager.cache.requests")
+                .tag("result", "hit")
+                .functionCounter()
+                .count())
+        .isEqualTo(5.0);
+    assertThat(
+            meterRegistry
+                .get("secretmanager.cache.requests")
+                .tag("result", "miss")
+                .functionCounter()
+                .count())
+        .isEqualTo(2.0);
+    assertThat(meterRegistry.get("secretmanager.cache.refreshes").functionCounter().count())
+        .isEqualTo(1.0);
+  }
+}
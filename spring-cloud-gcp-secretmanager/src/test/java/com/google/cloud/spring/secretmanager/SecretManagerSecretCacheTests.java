@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.secretmanager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.secretmanager.v1.SecretVersionName;
+import com.google.protobuf.ByteString;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link SecretManagerSecretCache}. */
+class SecretManagerSecretCacheTests {
+
+  private static final SecretVersionName LATEST =
+      SecretVersionName.of("my-project", "my-secret", "latest");
+
+  private static final SecretVersionName VERSION_1 =
+      SecretVersionName.of("my-project", "my-secret", "1");
+
+  private final SecretManagerTemplate template = mock(SecretManagerTemplate.class);
+
+  private final SecretManagerSecretCache secretCache = new SecretManagerSecretCache(this.template);
+
+  @BeforeEach
+  void setUp() {
+    this.secretCache.setExecutor(Runnable::run);
+  }
+
+  @Test
+  void cachesPayloads() {
+    when(this.template.getSecretByteString(LATEST)).thenReturn(ByteString.copyFromUtf8("s3cr3t"));
+
+    assertThat(this.secretCache.get(LATEST).toStringUtf8()).isEqualTo("s3cr3t");
+    assertThat(this.secretCache.get(LATEST).toStringUtf8()).isEqualTo("s3cr3t");
+
+    verify(this.template).getSecretByteString(LATEST);
+    assertThat(this.secretCache.getMissCount()).isEqualTo(1);
+    assertThat(this.secretCache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void refreshesAliasesAfterInterval() {
+    this.secretCache.setRefreshInterval(Duration.ZERO);
+    when(this.template.getSecretByteString(LATEST))
+        .thenReturn(ByteString.copyFromUtf8("old"), ByteString.copyFromUtf8("new"));
+
+    assertThat(this.secretCache.get(LATEST).toStringUtf8()).isEqualTo("old");
+    // The stale payload is returned while it is refreshed.
+    assertThat(this.secretCache.get(LATEST).toStringUtf8()).isEqualTo("old");
+    assertThat(this.secretCache.get(LATEST).toStringUtf8()).isEqualTo("new");
+
+    assertThat(this.secretCache.getRefreshCount()).isEqualTo(2);
+  }
+
+  @Test
+  void neverRefreshesNumberedVersions() {
+    this.secretCache.setRefreshInterval(Duration.ZERO);
+    when(this.template.getSecretByteString(VERSION_1)).thenReturn(ByteString.copyFromUtf8("v1"));
+
+    this.secretCache.get(VERSION_1);
+    this.secretCache.get(VERSION_1);
+    this.secretCache.get(VERSION_1);
+
+    verify(this.template).getSecretByteString(VERSION_1);
+    assertThat(this.secretCache.getRefreshCount()).isZero();
+  }
+
+  @Test
+  void keepsCachedPayloadWhenRefreshFails() {
+    this.secretCache.setRefreshInterval(Duration.ZERO);
+    when(this.template.getSecretByteString(LATEST))
+        .thenReturn(ByteString.copyFromUtf8("old"))
+        .thenThrow(new IllegalStateException("unavailable"));
+
+    this.secretCache.get(LATEST);
+
+    assertThat(this.secretCache.get(LATEST).toStringUtf8()).isEqualTo("old");
+    assertThat(this.secretCache.get(LATEST).toStringUtf8()).isEqualTo("old");
+    assertThat(this.secretCache.getRefreshCount()).isZero();
+  }
+
+  @Test
+  void prefetchSkipsFailedAccesses() {
+    when(this.template.getSecretByteString(LATEST)).thenReturn(ByteString.copyFromUtf8("s3cr3t"));
+    IllegalStateException unavailable = new IllegalStateException("unavailable");
+    when(this.template.getSecretByteString(VERSION_1)).thenThrow(unavailable);
+
+    this.secretCache.prefetch(List.of(LATEST, VERSION_1, LATEST));
+
+    assertThat(this.secretCache.get(LATEST).toStringUtf8()).isEqualTo("s3cr3t");
+    assertThat(this.secretCache.getHitCount()).isEqualTo(1);
+    verify(this.template).getSecretByteString(LATEST);
+    assertThatThrownBy(() -> this.secretCache.get(VERSION_1)).isSameAs(unavailable);
+    verify(this.template, times(2)).getSecretByteString(VERSION_1);
+  }
+
+  @Test
+  void invalidateAllAccessesAgain() {
+    when(this.template.getSecretByteString(LATEST)).thenReturn(ByteString.copyFromUtf8("s3cr3t"));
+
+    this.secretCache.get(LATEST);
+    this.secretCache.invalidateAll();
+    this.secretCache.get(LATEST);
+
+    verify(this.template, times(2)).getSecretByteString(LATEST);
+  }
+}
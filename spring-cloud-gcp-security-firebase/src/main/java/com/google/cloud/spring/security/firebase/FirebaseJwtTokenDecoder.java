@@ -16,20 +16,25 @@
 
 package com.google.cloud.spring.security.firebase;
 
+import com.google.cloud.spring.core.util.TokenCache;
 import com.nimbusds.jose.util.X509CertUtils;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.JWTParser;
 import com.nimbusds.jwt.SignedJWT;
 import java.security.cert.X509Certificate;
 import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
@@ -46,8 +51,12 @@ import org.springframework.web.client.RestOperations;
  * Decodes a Firebase token into a {@link Jwt} token. This decoder downloads public keys from
  * https://www.googleapis.com/robot/v1/metadata/x509/securetoken@system.gserviceaccount.com. Keys
  * are rotated often, and expiration date is returned as part of a Cache-Control max-age header. The
- * keys are cached locally and only refreshed when the expiration time is past. Besides using the
- * RSA keys to validate the token signature, this decoder also uses a pre=configured {@link
+ * keys are cached locally. Once a token is decoded less than the refresh-ahead time before they
+ * expire, they are refreshed in the background while the cached keys keep being used; requests
+ * only wait for the keys when none were fetched yet or they have expired. Optionally, recently
+ * verified tokens are cached until they expire, so that decoding the same token again skips the
+ * signature verification and claim validation. Besides using the RSA keys to validate the token
+ * signature, this decoder also uses a pre=configured {@link
  * org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator} to validate all the
  * claims. The following validators are used by this class:
  * <ul>
@@ -64,13 +73,22 @@ import org.springframework.web.client.RestOperations;
 public class FirebaseJwtTokenDecoder implements JwtDecoder {
   private static final String DECODING_ERROR_MESSAGE_TEMPLATE =
       "An error occurred while attempting to decode the Jwt: %s";
+
+  /** Default time before the public keys expire from which they are refreshed. */
+  public static final Duration DEFAULT_REFRESH_AHEAD = Duration.ofMinutes(5);
+
   private final RestOperations restClient;
   private final String googlePublicKeysEndpoint;
   private final OAuth2TokenValidator<Jwt> tokenValidator;
   private final Logger logger = LoggerFactory.getLogger(FirebaseJwtTokenDecoder.class);
   private Pattern maxAgePattern = Pattern.compile("max-age=(\\d*)");
   private volatile Long expires = 0L;
-  private Map<String, JwtDecoder> delegates = new ConcurrentHashMap<>();
+  private volatile long refreshAt;
+  private volatile Map<String, JwtDecoder> delegates = Map.of();
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  private Duration refreshAhead = DEFAULT_REFRESH_AHEAD;
+  private Executor executor = new SimpleAsyncTaskExecutor("firebase-public-keys-");
+  private TokenCache<Jwt> verifiedTokens;
 
   public FirebaseJwtTokenDecoder(
       RestOperations restClient,
@@ -81,23 +99,96 @@ public class FirebaseJwtTokenDecoder implements JwtDecoder {
     this.tokenValidator = tokenValidator;
   }
 
+  /**
+   * Set the time before the public keys expire from which decoding a token refreshes them in the
+   * background.
+   *
+   * @param refreshAhead the refresh-ahead time; defaults to {@link #DEFAULT_REFRESH_AHEAD}
+   * @since 6.1.2
+   */
+  public void setRefreshAhead(Duration refreshAhead) {
+    Assert.isTrue(
+        refreshAhead != null && !refreshAhead.isNegative(), "refreshAhead can't be negative.");
+    this.refreshAhead = refreshAhead;
+  }
+
+  /**
+   * Set the executor refreshing the public keys in the background. Defaults to a {@link
+   * SimpleAsyncTaskExecutor}.
+   *
+   * @param executor the executor
+   * @since 6.1.2
+   */
+  public void setExecutor(Executor executor) {
+    Assert.notNull(executor, "executor can't be null.");
+    this.executor = executor;
+  }
+
+  /**
+   * Set the maximum number of verified tokens cached until they expire. Defaults to 0, which
+   * disables the cache. Once the cache is full, the least recently used tokens are evicted.
+   *
+   * @param verifiedTokenCacheSize the maximum number of cached tokens
+   * @since 6.1.2
+   */
+  public void setVerifiedTokenCacheSize(int verifiedTokenCacheSize) {
+    Assert.isTrue(verifiedTokenCacheSize >= 0, "verifiedTokenCacheSize can't be negative.");
+    this.verifiedTokens =
+        verifiedTokenCacheSize > 0
+            ? new TokenCache<>(verifiedTokenCacheSize, Jwt::getExpiresAt)
+            : null;
+  }
+
   @Override
   public Jwt decode(String token) throws JwtException {
+    TokenCache<Jwt> tokenCache = this.verifiedTokens;
+    if (tokenCache != null) {
+      Jwt verified = tokenCache.get(token);
+      if (verified != null) {
+        return verified;
+      }
+    }
     SignedJWT jwt = parse(token);
+
     if (isExpired()) {
       refresh();
+    } else if (isRefreshDue() && this.refreshing.compareAndSet(false, true)) {
+      this.executor.execute(this::refreshAhead);
     }
     JwtDecoder decoder = delegates.get(jwt.getHeader().getKeyID());
     if (decoder == null) {
       throw new JwtException("No certificate found for key: " + jwt.getHeader().getKeyID());
     }
-    return decoder.decode(token);
+    Jwt verified = decoder.decode(token);
+    if (tokenCache != null) {
+      tokenCache.put(token, verified);
+    }
+    return verified;
+  }
+
+  private void refreshAhead() {
+    try {
+      synchronized (this) {
+        if (isRefreshDue()) {
+          fetchPublicKeys();
+        }
+      }
+    } catch (Exception e) {
+      logger.warn("Could not refresh the public keys ahead of their expiration", e);
+    } finally {
+      this.refreshing.set(false);
+    }
   }
 
   private synchronized void refresh() {
     if (!isExpired()) {
       return;
     }
+    fetchPublicKeys();
+  }
+
+  /** Fetches the public keys, and replaces the cached keys all at once. */
+  private void fetchPublicKeys() {
     try {
       ResponseEntity<Map<String, String>> response =
           restClient.exchange(
@@ -106,11 +197,9 @@ public class FirebaseJwtTokenDecoder implements JwtDecoder {
               null /* requestEntity */,
               new ParameterizedTypeReference<Map<String, String>>() {});
       Long expiresAt = parseCacheControlHeaders(response.getHeaders());
-      this.expires = expiresAt > -1L ? (System.currentTimeMillis() + expiresAt * 1000) : 0L;
       if (!response.getStatusCode().is2xxSuccessful()) {
         throw new JwtException("Error retrieving public certificates from remote endpoint");
       }
-      delegates.clear();
       Map<String, String> body = response.getBody();
       if (body == null) {
         throw new JwtException("Invalid response body (null) received from remote endpoint.");
@@ -118,6 +207,7 @@ public class FirebaseJwtTokenDecoder implements JwtDecoder {
       if (body.isEmpty()) {
         throw new JwtException("Invalid response body (empty) received from remote endpoint.");
       }
+      Map<String, JwtDecoder> newDelegates = new HashMap<>();
       for (Map.Entry<String, String> e : body.entrySet()) {
         try {
           NimbusJwtDecoder nimbusJwtDecoder =
@@ -126,11 +216,20 @@ public class FirebaseJwtTokenDecoder implements JwtDecoder {
                   .signatureAlgorithm(SignatureAlgorithm.from("RS256"))
                   .build();
           nimbusJwtDecoder.setJwtValidator(tokenValidator);
-          delegates.put(e.getKey(), nimbusJwtDecoder);
+          newDelegates.put(e.getKey(), nimbusJwtDecoder);
         } catch (Exception ce) {
           logger.error("Could not read certificate for key {}", e.getKey());
         }
       }
+      long now = System.currentTimeMillis();
+      long maxAgeMillis = expiresAt * 1000;
+      this.delegates = Map.copyOf(newDelegates);
+      this.expires = expiresAt > -1L ? (now + maxAgeMillis) : 0L;
+      // Refreshes at most twice per max-age, however short it is.
+      this.refreshAt =
+          expiresAt > -1L
+              ? now + maxAgeMillis - Math.min(this.refreshAhead.toMillis(), maxAgeMillis / 2)
+              : 0L;
     } catch (Exception e) {
       throw new JwtException("Error fetching public keys", e);
     }
@@ -152,6 +251,10 @@ public class FirebaseJwtTokenDecoder implements JwtDecoder {
     return System.currentTimeMillis() >= this.expires;
   }
 
+  private boolean isRefreshDue() {
+    return System.currentTimeMillis() >= this.refreshAt;
+  }
+
   private X509Certificate convertToX509Cert(String certificateString) {
     X509Certificate certificate = X509CertUtils.parse(certificateString);
     Assert.notNull(certificate, "Could not parse certificate String");
@@ -117,6 +117,71 @@ class FirebaseJwtTokenDecoderTests {
             eq(new ParameterizedTypeReference<Map<String, String>>() {}));
   }
 
+  @Test
+  void refreshAheadKeepsKeysWhenRefreshFails() throws Exception {
+    String signedJwt = signedJwt();
+    OAuth2TokenValidator validator = mock(OAuth2TokenValidator.class);
+    when(validator.validate(any())).thenReturn(OAuth2TokenValidatorResult.success());
+    Map<String, String> payload = new HashMap<>();
+    payload.put("one", keyGeneratorUtils.getPublicKeyCertificate());
+    HttpHeaders headers = new HttpHeaders();
+    headers.add(
+        HttpHeaders.CACHE_CONTROL, CacheControl.maxAge(2L, TimeUnit.SECONDS).getHeaderValue());
+    RestOperations operations = mock(RestOperations.class);
+    when(operations.exchange(
+            eq("https://spring.local"),
+            eq(HttpMethod.GET),
+            isNull(),
+            eq(new ParameterizedTypeReference<Map<String, String>>() {})))
+        .thenReturn(new ResponseEntity<>(payload, headers, HttpStatus.OK))
+        .thenThrow(new RestClientException("Could not connect to remote peer"));
+    FirebaseJwtTokenDecoder decoder =
+        new FirebaseJwtTokenDecoder(operations, "https://spring.local", validator);
+    decoder.setExecutor(Runnable::run);
+
+    decoder.decode(signedJwt);
+    // Past half of the max-age, the keys are refreshed ahead of their expiration.
+    Thread.sleep(1100);
+    assertThat(decoder.decode(signedJwt)).isNotNull();
+
+    verify(operations, times(2))
+        .exchange(
+            eq("https://spring.local"),
+            eq(HttpMethod.GET),
+            isNull(),
+            eq(new ParameterizedTypeReference<Map<String, String>>() {}));
+  }
+
+  @Test
+  void verifiedTokenCacheSkipsVerification() throws Exception {
+    String signedJwt = signedJwt();
+    OAuth2TokenValidator validator = mock(OAuth2TokenValidator.class);
+    when(validator.validate(any())).thenReturn(OAuth2TokenValidatorResult.success());
+    FirebaseJwtTokenDecoder decoder =
+        new FirebaseJwtTokenDecoder(mockRestOperations(), "https://spring.local", validator);
+    decoder.setVerifiedTokenCacheSize(10);
+
+    Jwt first = decoder.decode(signedJwt);
+    Jwt second = decoder.decode(signedJwt);
+
+    assertThat(second).isSameAs(first);
+    verify(validator, times(1)).validate(any());
+  }
+
+  @Test
+  void tokensAreVerifiedEveryTimeWithoutCache() throws Exception {
+    String signedJwt = signedJwt();
+    OAuth2TokenValidator validator = mock(OAuth2TokenValidator.class);
+    when(validator.validate(any())).thenReturn(OAuth2TokenValidatorResult.success());
+    FirebaseJwtTokenDecoder decoder =
+        new FirebaseJwtTokenDecoder(mockRestOperations(), "https://spring.local", validator);
+
+    decoder.decode(signedJwt);
+    decoder.decode(signedJwt);
+
+    verify(validator, times(2)).validate(any());
+  }
+
   @Test
   void keyNotFoundTests() throws Exception {
     JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("two").build();
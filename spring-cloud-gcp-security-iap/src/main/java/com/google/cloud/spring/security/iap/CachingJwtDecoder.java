@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.security.iap;
+
+import com.google.cloud.spring.core.util.TokenCache;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link JwtDecoder} that remembers the assertions verified by a delegate decoder until they
+ * expire, and records verification metrics.
+ *
+ * <p>IAP adds the same signed assertion to every request of a user's session, so behind a load
+ * balancer most assertions have already been verified. Assertions found in the cache are returned
+ * without verifying their signature again, until the time of their {@code exp} claim. Assertions
+ * without an expiration time are never cached. The cache is a {@link TokenCache} holding at most
+ * {@code maxSize} assertions, evicting the least recently used ones once full.
+ *
+ * @since 6.1.2
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+  private final JwtDecoder delegate;
+
+  private final int maxSize;
+
+  private final TokenCache<Jwt> verifiedTokens;
+
+  private IapMetricsRecorder metricsRecorder = IapMetricsRecorder.NOOP;
+
+  /**
+   * Create a caching decoder.
+   *
+   * @param delegate the decoder verifying assertions that are not in the cache
+   * @param maxSize the maximum number of cached assertions; 0 disables the cache
+   */
+  public CachingJwtDecoder(JwtDecoder delegate, int maxSize) {
+    Assert.notNull(delegate, "delegate can't be null.");
+    Assert.isTrue(maxSize >= 0, "maxSize can't be negative.");
+    this.delegate = delegate;
+    this.maxSize = maxSize;
+    this.verifiedTokens = maxSize > 0 ? new TokenCache<>(maxSize, Jwt::getExpiresAt) : null;
+  }
+
+  /**
+   * Set the recorder of verification and cache metrics. Defaults to {@link
+   * IapMetricsRecorder#NOOP}.
+   *
+   * @param metricsRecorder the metrics recorder
+   */
+  public void setMetricsRecorder(IapMetricsRecorder metricsRecorder) {
+    Assert.notNull(metricsRecorder, "metricsRecorder can't be null.");
+    this.metricsRecorder = metricsRecorder;
+  }
+
+  public JwtDecoder getDelegate() {
+    return this.delegate;
+  }
+
+  public int getMaxSize() {
+    return this.maxSize;
+  }
+
+  @Override
+  public Jwt decode(String token) throws JwtException {
+    if (this.verifiedTokens != null) {
+      Jwt verified = this.verifiedTokens.get(token);
+      this.metricsRecorder.recordCacheLookup(verified != null);
+      if (verified != null) {
+        return verified;
+      }
+    }
+
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      Jwt verified = this.delegate.decode(token);
+      success = true;
+      if (this.verifiedTokens != null) {
+        this.verifiedTokens.put(token, verified);
+      }
+      return verified;
+    } finally {
+      this.metricsRecorder.recordVerification(System.nanoTime() - start, success);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.security.iap;
+
+/**
+ * Receives measurements of the verification of IAP assertions by {@link CachingJwtDecoder}.
+ *
+ * <p>All methods are no-ops by default, so that implementations only need to override the
+ * measurements they are interested in.
+ *
+ * @since 6.1.2
+ */
+public interface IapMetricsRecorder {
+
+  /** A recorder that discards all measurements. */
+  IapMetricsRecorder NOOP = new IapMetricsRecorder() {};
+
+  /**
+   * Record the verification of an assertion that was not found in the cache.
+   *
+   * @param durationNanos the time spent decoding and verifying the assertion
+   * @param success whether the assertion was valid
+   */
+  default void recordVerification(long durationNanos, boolean success) {}
+
+  /**
+   * Record a lookup of an assertion in the cache of verified assertions.
+   *
+   * @param hit whether a verified, unexpired assertion was found
+   */
+  default void recordCacheLookup(boolean hit) {}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.security.iap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link IapMetricsRecorder} that records measurements as Micrometer meters.
+ *
+ * <p>The following meters are registered:
+ *
+ * <ul>
+ *   <li>{@code iap.jwt.verification}: timer of assertion verifications, tagged with {@code
+ *       outcome}
+ *   <li>{@code iap.jwt.cache.requests}: number of lookups in the cache of verified assertions,
+ *       tagged with {@code result} ({@code hit} or {@code miss})
+ * </ul>
+ *
+ * @since 6.1.2
+ */
+public class MicrometerIapMetricsRecorder implements IapMetricsRecorder {
+
+  private final Timer successfulVerifications;
+
+  private final Timer failedVerifications;
+
+  private final Counter cacheHits;
+
+  private final Counter cacheMisses;
+
+  public MicrometerIapMetricsRecorder(MeterRegistry meterRegistry) {
+    Assert.notNull(meterRegistry, "meterRegistry can't be null.");
+    this.successfulVerifications = verificationTimer(meterRegistry, "success");
+    this.failedVerifications = verificationTimer(meterRegistry, "failure");
+    this.cacheHits = cacheCounter(meterRegistry, "hit");
+    this.cacheMisses = cacheCounter(meterRegistry, "miss");
+  }
+
+  @Override
+  public void recordVerification(long durationNanos, boolean success) {
+    (success ? this.successfulVerifications : this.failedVerifications)
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void recordCacheLookup(boolean hit) {
+    (hit ? this.cacheHits : this.cacheMisses).increment();
+  }
+
+  private static Timer verificationTimer(MeterRegistry meterRegistry, String outcome) {
+    return Timer.builder("iap.jwt.verification")
+        .description("Time to decode and verify an IAP assertion.")
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  private static Counter cacheCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("iap.jwt.cache.requests")
+        .description("Number of lookups in the cache of verified IAP assertions.")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
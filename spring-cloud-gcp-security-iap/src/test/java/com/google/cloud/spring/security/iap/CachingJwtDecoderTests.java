@@ -0,0 +1,134 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.security.iap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/** Tests for {@link CachingJwtDecoder}. */
+class CachingJwtDecoderTests {
+
+  private final JwtDecoder delegate = mock(JwtDecoder.class);
+
+  private final IapMetricsRecorder metricsRecorder = mock(IapMetricsRecorder.class);
+
+  @Test
+  void verifiedAssertionIsCachedUntilExpiry() {
+    Jwt jwt = jwt("first", Instant.now().plusSeconds(600));
+    when(this.delegate.decode("first")).thenReturn(jwt);
+    CachingJwtDecoder decoder = decoder(10);
+
+    assertThat(decoder.decode("first")).isSameAs(jwt);
+    assertThat(decoder.decode("first")).isSameAs(jwt);
+
+    verify(this.delegate).decode("first");
+    verify(this.metricsRecorder).recordCacheLookup(false);
+    verify(this.metricsRecorder).recordCacheLookup(true);
+    verify(this.metricsRecorder).recordVerification(anyLong(), eq(true));
+  }
+
+  @Test
+  void expiredAssertionIsVerifiedAgain() {
+    Jwt jwt = jwt("expired", Instant.now().minusSeconds(1));
+    when(this.delegate.decode("expired")).thenReturn(jwt);
+    CachingJwtDecoder decoder = decoder(10);
+
+    decoder.decode("expired");
+    decoder.decode("expired");
+
+    verify(this.delegate, times(2)).decode("expired");
+  }
+
+  @Test
+  void cacheIsBounded() {
+    Instant expiresAt = Instant.now().plusSeconds(600);
+    when(this.delegate.decode("first")).thenReturn(jwt("first", expiresAt));
+    when(this.delegate.decode("second")).thenReturn(jwt("second", expiresAt));
+    CachingJwtDecoder decoder = decoder(1);
+
+    decoder.decode("first");
+    decoder.decode("second");
+    decoder.decode("second");
+    decoder.decode("first");
+
+    verify(this.delegate, times(2)).decode("first");
+    verify(this.delegate).decode("second");
+  }
+
+  @Test
+  void disabledCacheAlwaysVerifies() {
+    when(this.delegate.decode("first")).thenReturn(jwt("first", Instant.now().plusSeconds(600)));
+    CachingJwtDecoder decoder = decoder(0);
+
+    decoder.decode("first");
+    decoder.decode("first");
+
+    verify(this.delegate, times(2)).decode("first");
+    verify(this.metricsRecorder, never()).recordCacheLookup(anyBoolean());
+  }
+
+  @Test
+  void failedVerificationIsRecordedAndNotCached() {
+    when(this.delegate.decode("invalid")).thenThrow(new BadJwtException("invalid signature"));
+    CachingJwtDecoder decoder = decoder(10);
+
+    assertThatThrownBy(() -> decoder.decode("invalid"))
+        .isInstanceOf(BadJwtException.class)
+        .hasMessage("invalid signature");
+    assertThatThrownBy(() -> decoder.decode("invalid")).isInstanceOf(BadJwtException.class);
+
+    verify(this.delegate, times(2)).decode("invalid");
+    verify(this.metricsRecorder, times(2))
+        .recordVerification(anyLong(), eq(false));
+  }
+
+  @Test
+  void negativeSizeIsRejected() {
+    assertThatThrownBy(() -> new CachingJwtDecoder(this.delegate, -1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxSize can't be negative.");
+  }
+
+  private CachingJwtDecoder decoder(int maxSize) {
+    CachingJwtDecoder decoder = new CachingJwtDecoder(this.delegate, maxSize);
+    decoder.setMetricsRecorder(this.metricsRecorder);
+    return decoder;
+  }
+
+  private static Jwt jwt(String token, Instant expiresAt) {
+    return Jwt.withTokenValue(token)
+        .header("alg", "ES256")
+        .subject("user")
+        .issuedAt(expiresAt.minusSeconds(600))
+        .expiresAt(expiresAt)
+        .build();
+  }
+}
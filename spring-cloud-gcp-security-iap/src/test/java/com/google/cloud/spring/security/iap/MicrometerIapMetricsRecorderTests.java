@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.security.iap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link MicrometerIapMetricsRecorder}. */
+class MicrometerIapMetricsRecorderTests {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final MicrometerIapMetricsRecorder recorder =
+      new MicrometerIapMetricsRecorder(this.meterRegistry);
+
+  @Test
+  void recordsVerifications() {
+    this.recorder.recordVerification(TimeUnit.MILLISECONDS.toNanos(3), true);
+    this.recorder.recordVerification(TimeUnit.MILLISECONDS.toNanos(2), true);
+    this.recorder.recordVerification(TimeUnit.MILLISECONDS.toNanos(1), false);
+
+    Timer successes =
+        this.meterRegistry.get("iap.jwt.verification").tags("outcome", "success").timer();
+    assertThat(successes.count()).isEqualTo(2);
+    assertThat(successes.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(5);
+    Timer failures =
+        this.meterRegistry.get("iap.jwt.verification").tags("outcome", "failure").timer();
+    assertThat(failures.count()).isEqualTo(1);
+  }
+
+  @Test
+  void recordsCacheLookups() {
+    this.recorder.recordCacheLookup(true);
+    this.recorder.recordCacheLookup(true);
+    this.recorder.recordCacheLookup(false);
+
+    assertThat(cacheRequests("hit")).isEqualTo(2);
+    assertThat(cacheRequests("miss")).isEqualTo(1);
+  }
+
+  private double cacheRequests(String result) {
+    return this.meterRegistry
+        .get("iap.jwt.cache.requests")
+        .tags("result", result)
+        .counter()
+        .count();
+  }
+}
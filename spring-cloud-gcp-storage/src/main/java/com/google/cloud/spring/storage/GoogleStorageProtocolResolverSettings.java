@@ -16,6 +16,11 @@
 
 package com.google.cloud.spring.storage;
 
+import com.google.cloud.storage.Storage;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import org.springframework.util.unit.DataSize;
+
 /** Holds settings for use with the {@link GoogleStorageResource}. These settings are optional. */
 public class GoogleStorageProtocolResolverSettings {
 
@@ -27,6 +32,47 @@ public class GoogleStorageProtocolResolverSettings {
   /** Determines if blobs should be auto-created when the library attempts to write to them. */
   private boolean autoCreateFiles = true;
 
+  /**
+   * How long a resource serves object metadata, such as existence, size and last modification
+   * time, from a single fetch before fetching it again. Reads then return the fetched generation of
+   * the object. 0 disables caching.
+   */
+  private Duration metadataCacheTtl = Duration.ZERO;
+
+  /**
+   * Minimum size of an object for input streams to download it as concurrently fetched byte
+   * ranges. Unset disables parallel downloads.
+   */
+  private DataSize parallelDownloadThreshold;
+
+  /** Size of the byte ranges of parallel downloads. */
+  private DataSize parallelDownloadSliceSize =
+      DataSize.ofBytes(ParallelBlobDownloader.DEFAULT_SLICE_SIZE);
+
+  /** Maximum number of byte ranges fetched concurrently for one parallel download. */
+  private int parallelDownloadParallelism = ParallelBlobDownloader.DEFAULT_PARALLELISM;
+
+  /**
+   * Minimum size of the contents written to an output stream for them to be uploaded as
+   * concurrently uploaded parts composed into the object. Unset disables parallel uploads.
+   */
+  private DataSize parallelUploadThreshold;
+
+  /** Number of parts of a parallel upload, at most 32. */
+  private int parallelUploadPartCount = ParallelCompositeUploader.DEFAULT_PART_COUNT;
+
+  /**
+   * Maximum number of threads shared by all parallel downloads and uploads, in addition to the
+   * threads that start them.
+   */
+  private int parallelTransferThreads = ParallelTransferExecutors.DEFAULT_THREADS;
+
+  private Storage parallelTransferStorage;
+
+  private ParallelBlobDownloader parallelDownloader;
+
+  private ParallelCompositeUploader parallelUploader;
+
   public boolean isAutoCreateFiles() {
     return this.autoCreateFiles;
   }
@@ -34,4 +80,122 @@ public class GoogleStorageProtocolResolverSettings {
   public void setAutoCreateFiles(boolean autoCreateFiles) {
     this.autoCreateFiles = autoCreateFiles;
   }
+
+  public Duration getMetadataCacheTtl() {
+    return this.metadataCacheTtl;
+  }
+
+  public void setMetadataCacheTtl(Duration metadataCacheTtl) {
+    this.metadataCacheTtl = metadataCacheTtl;
+  }
+
+  public DataSize getParallelDownloadThreshold() {
+    return this.parallelDownloadThreshold;
+  }
+
+  public void setParallelDownloadThreshold(DataSize parallelDownloadThreshold) {
+    this.parallelDownloadThreshold = parallelDownloadThreshold;
+  }
+
+  public DataSize getParallelDownloadSliceSize() {
+    return this.parallelDownloadSliceSize;
+  }
+
+  public void setParallelDownloadSliceSize(DataSize parallelDownloadSliceSize) {
+    this.parallelDownloadSliceSize = parallelDownloadSliceSize;
+  }
+
+  public int getParallelDownloadParallelism() {
+    return this.parallelDownloadParallelism;
+  }
+
+  public void setParallelDownloadParallelism(int parallelDownloadParallelism) {
+    this.parallelDownloadParallelism = parallelDownloadParallelism;
+  }
+
+  public DataSize getParallelUploadThreshold() {
+    return this.parallelUploadThreshold;
+  }
+
+  public void setParallelUploadThreshold(DataSize parallelUploadThreshold) {
+    this.parallelUploadThreshold = parallelUploadThreshold;
+  }
+
+  public int getParallelUploadPartCount() {
+    return this.parallelUploadPartCount;
+  }
+
+  public void setParallelUploadPartCount(int parallelUploadPartCount) {
+    this.parallelUploadPartCount = parallelUploadPartCount;
+  }
+
+  public int getParallelTransferThreads() {
+    return this.parallelTransferThreads;
+  }
+
+  public void setParallelTransferThreads(int parallelTransferThreads) {
+    this.parallelTransferThreads = parallelTransferThreads;
+  }
+
+  /**
+   * Returns the downloader for parallel downloads configured by these settings. The downloader and
+   * the uploader are created on first use and shared by all resources, along with one executor of
+   * at most {@link #getParallelTransferThreads()} threads, so the settings must not be changed
+   * afterwards.
+   *
+   * @param storage the storage client
+   * @return the downloader, or {@code null} if parallel downloads are disabled
+   * @since 6.1.2
+   */
+  public ParallelBlobDownloader getParallelBlobDownloader(Storage storage) {
+    if (this.parallelDownloadThreshold == null) {
+      return null;
+    }
+    initParallelTransfers(storage);
+    return this.parallelDownloader;
+  }
+
+  /**
+   * Returns the uploader for parallel composite uploads configured by these settings.
+   *
+   * @param storage the storage client
+   * @return the uploader, or {@code null} if parallel uploads are disabled
+   * @see #getParallelBlobDownloader(Storage)
+   * @since 6.1.2
+   */
+  public ParallelCompositeUploader getParallelCompositeUploader(Storage storage) {
+    if (this.parallelUploadThreshold == null) {
+      return null;
+    }
+    initParallelTransfers(storage);
+    return this.parallelUploader;
+  }
+
+  private synchronized void initParallelTransfers(Storage storage) {
+    if (this.parallelTransferStorage == storage) {
+      return;
+    }
+    Executor executor =
+        this.parallelTransferThreads == ParallelTransferExecutors.DEFAULT_THREADS
+            ? ParallelTransferExecutors.sharedExecutor()
+            : ParallelTransferExecutors.newBoundedExecutor(this.parallelTransferThreads);
+    if (this.parallelDownloadThreshold != null) {
+      ParallelBlobDownloader downloader =
+          new ParallelBlobDownloader(
+              storage,
+              this.parallelDownloadThreshold.toBytes(),
+              this.parallelDownloadSliceSize.toBytes(),
+              this.parallelDownloadParallelism);
+      downloader.setExecutor(executor);
+      this.parallelDownloader = downloader;
+    }
+    if (this.parallelUploadThreshold != null) {
+      ParallelCompositeUploader uploader =
+          new ParallelCompositeUploader(
+              storage, this.parallelUploadThreshold.toBytes(), this.parallelUploadPartCount);
+      uploader.setExecutor(executor);
+      this.parallelUploader = uploader;
+    }
+    this.parallelTransferStorage = storage;
+  }
 }
@@ -31,6 +31,7 @@ import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
 import java.nio.channels.Channels;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -41,6 +42,18 @@ import org.springframework.util.Assert;
 /**
  * Implements {@link WritableResource} for reading and writing objects in Google Cloud Storage
  * (GCS). An instance of this class represents a handle to a bucket or a blob.
+ *
+ * <p>By default, every metadata access such as {@link #exists()} or {@link #contentLength()}
+ * fetches the blob from GCS. When created with a positive metadata cache TTL, a resource fetches
+ * the blob once and serves its metadata from that snapshot until the TTL elapses. Input streams
+ * then read the generation of the object described by the snapshot, and fail if it has been
+ * replaced.
+ *
+ * <p>When created with a {@link ParallelBlobDownloader}, input streams of objects at least as large
+ * as the downloader's threshold are served from a temporary file that the object's byte ranges are
+ * downloaded to concurrently. Likewise, when created with a {@link ParallelCompositeUploader},
+ * output streams buffer their contents in a temporary file that is uploaded on close, as a
+ * composite of concurrently uploaded parts if it is large enough.
  */
 public class GoogleStorageResource implements WritableResource {
 
@@ -52,6 +65,14 @@ public class GoogleStorageResource implements WritableResource {
 
   private final boolean autoCreateFiles;
 
+  private final Duration metadataCacheTtl;
+
+  private final ParallelBlobDownloader parallelDownloader;
+
+  private final ParallelCompositeUploader parallelUploader;
+
+  private volatile BlobSnapshot blobSnapshot;
+
   /**
    * Constructs the resource representation of a bucket or a blob (file) in Google Cloud Storage.
    *
@@ -91,16 +112,116 @@ public class GoogleStorageResource implements WritableResource {
    */
   public GoogleStorageResource(
       Storage storage, GoogleStorageLocation googleStorageLocation, boolean autoCreateFiles) {
+    this(storage, googleStorageLocation, autoCreateFiles, Duration.ZERO);
+  }
+
+  /**
+   * Constructs the resource representation of a bucket or a blob (file) in Google Cloud Storage
+   * that caches the blob metadata.
+   *
+   * @param storage the Google Cloud Storage client
+   * @param googleStorageLocation the {@link GoogleStorageLocation} of the resource.
+   * @param autoCreateFiles determines the auto-creation of the file in Google Cloud Storage if an
+   *     operation that depends on its existence is triggered (e.g., getting the output stream of a
+   *     file)
+   * @param metadataCacheTtl how long the fetched blob metadata is used; {@code null} or zero
+   *     disables caching
+   * @throws IllegalArgumentException if the location is an invalid Google Storage location
+   * @since 6.1.2
+   */
+  public GoogleStorageResource(
+      Storage storage,
+      GoogleStorageLocation googleStorageLocation,
+      boolean autoCreateFiles,
+      Duration metadataCacheTtl) {
+    this(storage, googleStorageLocation, autoCreateFiles, metadataCacheTtl, null);
+  }
+
+  /**
+   * Constructs the resource representation of a bucket or a blob (file) in Google Cloud Storage
+   * that caches the blob metadata and downloads large blobs in parallel.
+   *
+   * @param storage the Google Cloud Storage client
+   * @param googleStorageLocation the {@link GoogleStorageLocation} of the resource.
+   * @param autoCreateFiles determines the auto-creation of the file in Google Cloud Storage if an
+   *     operation that depends on its existence is triggered (e.g., getting the output stream of a
+   *     file)
+   * @param metadataCacheTtl how long the fetched blob metadata is used; {@code null} or zero
+   *     disables caching
+   * @param parallelDownloader the downloader for input streams of large blobs; {@code null}
+   *     disables parallel downloads
+   * @throws IllegalArgumentException if the location is an invalid Google Storage location
+   * @since 6.1.2
+   */
+  public GoogleStorageResource(
+      Storage storage,
+      GoogleStorageLocation googleStorageLocation,
+      boolean autoCreateFiles,
+      Duration metadataCacheTtl,
+      ParallelBlobDownloader parallelDownloader) {
+    this(
+        storage,
+        googleStorageLocation,
+        autoCreateFiles,
+        metadataCacheTtl,
+        parallelDownloader,
+        null);
+  }
+
+  /**
+   * Constructs the resource representation of a bucket or a blob (file) in Google Cloud Storage
+   * configured by the given settings.
+   *
+   * @param storage the Google Cloud Storage client
+   * @param googleStorageLocation the {@link GoogleStorageLocation} of the resource.
+   * @param settings the settings of the resource
+   * @throws IllegalArgumentException if the location is an invalid Google Storage location
+   * @since 6.1.2
+   */
+  public GoogleStorageResource(
+      Storage storage,
+      GoogleStorageLocation googleStorageLocation,
+      GoogleStorageProtocolResolverSettings settings) {
+    this(
+        storage,
+        googleStorageLocation,
+        settings.isAutoCreateFiles(),
+        settings.getMetadataCacheTtl(),
+        settings.getParallelBlobDownloader(storage),
+        settings.getParallelCompositeUploader(storage));
+  }
+
+  private GoogleStorageResource(
+      Storage storage,
+      GoogleStorageLocation googleStorageLocation,
+      boolean autoCreateFiles,
+      Duration metadataCacheTtl,
+      ParallelBlobDownloader parallelDownloader,
+      ParallelCompositeUploader parallelUploader) {
     Assert.notNull(storage, "Storage object can not be null");
+    Assert.isTrue(
+        metadataCacheTtl == null || !metadataCacheTtl.isNegative(),
+        "The metadata cache TTL can't be negative.");
     this.storage = storage;
     this.location = googleStorageLocation;
     this.autoCreateFiles = autoCreateFiles;
+    this.metadataCacheTtl = metadataCacheTtl != null ? metadataCacheTtl : Duration.ZERO;
+    this.parallelDownloader = parallelDownloader;
+    this.parallelUploader = parallelUploader;
   }
 
   public boolean isAutoCreateFiles() {
     return this.autoCreateFiles;
   }
 
+  /**
+   * @return how long the fetched blob metadata is used; zero if it is not cached
+   * @since 6.1.2
+   */
+  public Duration getMetadataCacheTtl() {
+    return this.metadataCacheTtl;
+  }
+
   /**
    * @return Returns true if the bucket or object exists.
    * @throws StorageException if an issue occurs getting the Bucket or Blob.
@@ -135,7 +256,7 @@ public class GoogleStorageResource implements WritableResource {
     } else {
       Blob b = getBlob();
       Assert.notNull(b, "The object at " + this.getURI() + " does not exist.");
-      url = getBlob().getSelfLink();
+      url = b.getSelfLink();
     }
     return new URL(url);
   }
@@ -147,14 +268,24 @@ public class GoogleStorageResource implements WritableResource {
   }
 
   /**
-   * Gets the underlying storage object in Google Cloud Storage.
+   * Gets the underlying storage object in Google Cloud Storage. If the metadata is cached, the
+   * object fetched earlier is returned until the metadata cache TTL elapses.
    *
    * @return the storage object, will be null if it does not exist in Google Cloud Storage.
    * @throws StorageException if an issue occurs getting the Blob
    * @throws IllegalStateException if the resource reference is to a bucket, and not a blob.
    */
   public Blob getBlob() {
-    return this.storage.get(getBlobId());
+    if (!isMetadataCached()) {
+      return this.storage.get(getBlobId());
+    }
+    long now = System.nanoTime();
+    BlobSnapshot snapshot = this.blobSnapshot;
+    if (snapshot == null || snapshot.isExpired(now)) {
+      snapshot = new BlobSnapshot(this.storage.get(getBlobId()), now, this.metadataCacheTtl);
+      this.blobSnapshot = snapshot;
+    }
+    return snapshot.blob;
   }
 
   /**
@@ -187,6 +318,7 @@ public class GoogleStorageResource implements WritableResource {
    * @throws IllegalStateException if the resource reference is to a bucket, and not a blob.
    */
   public Blob createBlob() {
+    this.blobSnapshot = null;
     return this.storage.create(BlobInfo.newBuilder(getBlobId()).build());
   }
 
@@ -202,6 +334,7 @@ public class GoogleStorageResource implements WritableResource {
    * @since 1.2.2
    */
   public Blob createBlob(byte[] contents) {
+    this.blobSnapshot = null;
     return this.storage.create(BlobInfo.newBuilder(getBlobId()).build(), contents);
   }
 
@@ -263,7 +396,8 @@ public class GoogleStorageResource implements WritableResource {
 
   /**
    * Creates a {@link GoogleStorageResource} handle that is relative to this one. It inherits {@code
-   * autoCreateFiles} from this object. Note that it does not actually create the blob.
+   * autoCreateFiles}, the metadata cache TTL and the parallel downloader and uploader from this
+   * object. Note that it does not actually create the blob.
    *
    * <p>Note that this method does not actually create the blob.
    *
@@ -275,7 +409,12 @@ public class GoogleStorageResource implements WritableResource {
   @NonNull
   public GoogleStorageResource createRelative(@NonNull String relativePath) {
     return new GoogleStorageResource(
-        this.storage, getURI().resolve(relativePath).toString(), this.autoCreateFiles);
+        this.storage,
+        new GoogleStorageLocation(getURI().resolve(relativePath).toString()),
+        this.autoCreateFiles,
+        this.metadataCacheTtl,
+        this.parallelDownloader,
+        this.parallelUploader);
   }
 
   @Override
@@ -296,7 +435,16 @@ public class GoogleStorageResource implements WritableResource {
       throw new IllegalStateException(
           "Cannot open an input stream to a bucket: '" + getURI() + "'");
     } else {
-      return Channels.newInputStream(throwExceptionForNullBlob(getBlob()).reader());
+      Blob blob = throwExceptionForNullBlob(getBlob());
+      if (this.parallelDownloader != null && this.parallelDownloader.isParallelDownload(blob)) {
+        // Ranges are always read from the blob's generation.
+        return this.parallelDownloader.openInputStream(blob);
+      }
+      // Pin the read to the snapshot's generation, so that the content matches the cached metadata.
+      return Channels.newInputStream(
+          isMetadataCached()
+              ? blob.reader(Blob.BlobSourceOption.generationMatch())
+              : blob.reader());
     }
   }
 
@@ -326,6 +474,10 @@ public class GoogleStorageResource implements WritableResource {
       throw new FileNotFoundException("The blob was not found: " + getURI());
     }
 
+    this.blobSnapshot = null;
+    if (this.parallelUploader != null) {
+      return this.parallelUploader.openOutputStream(BlobInfo.newBuilder(getBlobId()).build());
+    }
     return Channels.newOutputStream(this.storage.writer(BlobInfo.newBuilder(getBlobId()).build()));
   }
 
@@ -358,6 +510,10 @@ public class GoogleStorageResource implements WritableResource {
     return this.location;
   }
 
+  private boolean isMetadataCached() {
+    return !this.metadataCacheTtl.isZero();
+  }
+
   private BlobId getBlobId() {
     if (isBucket()) {
       throw new IllegalStateException(
@@ -367,4 +523,21 @@ public class GoogleStorageResource implements WritableResource {
     }
     return BlobId.of(getBucketName(), getBlobName());
   }
+
+  /** A blob fetched from GCS, or {@code null} if it didn't exist, with its expiry time. */
+  private static final class BlobSnapshot {
+
+    private final Blob blob;
+
+    private final long expiresAtNanos;
+
+    BlobSnapshot(Blob blob, long fetchedAtNanos, Duration ttl) {
+      this.blob = blob;
+      this.expiresAtNanos = fetchedAtNanos + ttl.toNanos();
+    }
+
+    boolean isExpired(long nowNanos) {
+      return nowNanos - this.expiresAtNanos >= 0;
+    }
+  }
 }
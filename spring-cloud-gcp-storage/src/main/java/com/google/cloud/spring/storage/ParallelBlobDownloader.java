@@ -0,0 +1,418 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.storage;
+
+import com.google.cloud.ReadChannel;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Downloads large objects from Google Cloud Storage by fetching byte ranges of the object
+ * concurrently and writing them to their positions in a local file.
+ *
+ * <p>All ranges are read from the generation of the object described by the given {@link
+ * BlobInfo}, so the downloaded file never mixes the contents of different versions of the object.
+ * At most {@code parallelism} ranges are fetched at the same time for one download. {@link
+ * #download(BlobInfo, Path)} fetches ranges on the calling thread as well, while the stream
+ * returned by {@link #openInputStream(BlobInfo)} is fed by the executor and can be read as soon as
+ * its leading ranges are downloaded.
+ *
+ * @since 6.1.2
+ */
+public class ParallelBlobDownloader {
+
+  /** Default size, in bytes, of the ranges an object is split into. */
+  public static final long DEFAULT_SLICE_SIZE = 32L * 1024 * 1024;
+
+  /** Default number of ranges fetched concurrently. */
+  public static final int DEFAULT_PARALLELISM = 4;
+
+  private static final Log LOGGER = LogFactory.getLog(ParallelBlobDownloader.class);
+
+  private static final int BUFFER_SIZE = 256 * 1024;
+
+  private final Storage storage;
+
+  private final long threshold;
+
+  private final long sliceSize;
+
+  private final int parallelism;
+
+  private Executor executor = ParallelTransferExecutors.sharedExecutor();
+
+  /**
+   * Create a downloader.
+   *
+   * @param storage the storage client
+   * @param threshold the minimum object size, in bytes, to download in parallel
+   * @param sliceSize the size, in bytes, of the ranges an object is split into
+   * @param parallelism the maximum number of ranges fetched concurrently for one object
+   */
+  public ParallelBlobDownloader(Storage storage, long threshold, long sliceSize, int parallelism) {
+    Assert.notNull(storage, "storage can't be null.");
+    Assert.isTrue(threshold >= 0, "The parallel download threshold can't be negative.");
+    Assert.isTrue(sliceSize > 0, "The slice size must be positive.");
+    Assert.isTrue(parallelism > 0, "The parallelism must be positive.");
+    this.storage = storage;
+    this.threshold = threshold;
+    this.sliceSize = sliceSize;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Set the executor running the range fetches besides the calling thread. Defaults to the bounded
+   * {@link ParallelTransferExecutors#sharedExecutor() shared executor}; at most {@code
+   * parallelism} tasks are submitted per download.
+   *
+   * @param executor the executor
+   */
+  public void setExecutor(Executor executor) {
+    Assert.notNull(executor, "executor can't be null.");
+    this.executor = executor;
+  }
+
+  public long getThreshold() {
+    return this.threshold;
+  }
+
+  public long getSliceSize() {
+    return this.sliceSize;
+  }
+
+  public int getParallelism() {
+    return this.parallelism;
+  }
+
+  /**
+   * Returns whether an object is large enough to be downloaded in parallel.
+   *
+   * @param blobInfo the object, including its size and generation
+   * @return true if the object's size is known and reaches the threshold and the slice size
+   */
+  public boolean isParallelDownload(BlobInfo blobInfo) {
+    Long size = blobInfo.getSize();
+    return size != null && size >= this.threshold && size > this.sliceSize;
+  }
+
+  /**
+   * Start downloading an object to a temporary file and open it for reading. Reads return the
+   * bytes of the ranges downloaded so far and wait for the next range only when they reach it. The
+   * file is deleted once the stream is closed and the remaining range fetches, which are stopped on
+   * close, have returned.
+   *
+   * @param blobInfo the object, including its size and generation
+   * @return a stream of the object's contents
+   * @throws IOException if the temporary file can't be created
+   */
+  public InputStream openInputStream(BlobInfo blobInfo) throws IOException {
+    Assert.notNull(blobInfo.getSize(), "The size of the object must be known.");
+    Path file = Files.createTempFile("gcs-download-", ".tmp");
+    FileChannel channel;
+    try {
+      channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    } catch (IOException | RuntimeException ex) {
+      Files.deleteIfExists(file);
+      throw ex;
+    }
+    StreamingDownload download = new StreamingDownload(blobInfo, file, channel);
+    try {
+      this.executor.execute(download::run);
+    } catch (RejectedExecutionException ex) {
+      // Without a free executor, the whole object is downloaded before the stream is returned.
+      download.run();
+    }
+    return download;
+  }
+
+  /**
+   * Download an object to a file, replacing its contents.
+   *
+   * @param blobInfo the object, including its size and generation
+   * @param target the file to write to
+   * @throws IOException if the object can't be downloaded or the file can't be written
+   */
+  public void download(BlobInfo blobInfo, Path target) throws IOException {
+    Assert.notNull(blobInfo.getSize(), "The size of the object must be known.");
+    try (FileChannel file =
+        FileChannel.open(
+            target,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      Throwable failure = downloadTo(blobInfo, file, new AtomicBoolean(), slice -> {});
+      if (failure != null) {
+        throw ParallelWorkers.toIoException(failure, "Failed to download the object.");
+      }
+    }
+  }
+
+  /**
+   * Fetch all ranges of an object into a file on the calling thread and up to {@code parallelism -
+   * 1} executor threads.
+   *
+   * @return the first failure of a range fetch, or {@code null}
+   */
+  private Throwable downloadTo(
+      BlobInfo blobInfo, FileChannel file, AtomicBoolean stop, IntConsumer sliceCompleted)
+      throws InterruptedIOException {
+    long size = blobInfo.getSize();
+    BlobId blobId =
+        BlobId.of(blobInfo.getBucket(), blobInfo.getName(), blobInfo.getGeneration());
+    int sliceCount = sliceCount(size);
+    AtomicInteger nextSlice = new AtomicInteger();
+    Runnable worker =
+        () -> fetchSlices(blobId, size, sliceCount, nextSlice, stop, file, sliceCompleted);
+    return ParallelWorkers.run(
+        worker,
+        Math.min(this.parallelism, sliceCount) - 1,
+        this.executor,
+        stop,
+        "downloading " + blobId);
+  }
+
+  private int sliceCount(long size) {
+    return (int) ((size + this.sliceSize - 1) / this.sliceSize);
+  }
+
+  private void fetchSlices(
+      BlobId blobId,
+      long size,
+      int sliceCount,
+      AtomicInteger nextSlice,
+      AtomicBoolean failed,
+      FileChannel file,
+      IntConsumer sliceCompleted) {
+    ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, this.sliceSize));
+    int slice;
+    while (!failed.get() && (slice = nextSlice.getAndIncrement()) < sliceCount) {
+      long start = slice * this.sliceSize;
+      long end = Math.min(start + this.sliceSize, size);
+      try {
+        if (fetchSlice(blobId, start, end, buffer, file, failed)) {
+          sliceCompleted.accept(slice);
+        }
+      } catch (IOException ex) {
+        failed.set(true);
+        throw new UncheckedIOException(ex);
+      } catch (RuntimeException ex) {
+        failed.set(true);
+        throw ex;
+      }
+    }
+  }
+
+  /** Returns whether the whole range was written, rather than stopped early. */
+  private boolean fetchSlice(
+      BlobId blobId,
+      long start,
+      long end,
+      ByteBuffer buffer,
+      FileChannel file,
+      AtomicBoolean failed)
+      throws IOException {
+    try (ReadChannel reader = this.storage.reader(blobId)) {
+      reader.seek(start);
+      reader.limit(end);
+      long position = start;
+      while (position < end && !failed.get()) {
+        buffer.clear();
+        buffer.limit((int) Math.min(buffer.capacity(), end - position));
+        if (reader.read(buffer) < 0) {
+          throw new EOFException(
+              "Unexpected end of " + blobId + " at " + position + " of " + end + " bytes");
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+          position += file.write(buffer, position);
+        }
+      }
+      return position == end;
+    }
+  }
+
+  /**
+   * A stream over a temporary file that is filled by a download running in the background. Ranges
+   * are claimed in order, so the leading part of the file completes first.
+   */
+  private final class StreamingDownload extends InputStream {
+
+    private final BlobInfo blobInfo;
+
+    private final Path file;
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    private final AtomicBoolean stop = new AtomicBoolean();
+
+    private final Object monitor = new Object();
+
+    private final BitSet completedSlices = new BitSet();
+
+    /** The number of bytes at the start of the file that are downloaded. */
+    private long downloaded;
+
+    private boolean finished;
+
+    private boolean closed;
+
+    private Throwable failure;
+
+    /** The position of the next read, only used by the reading thread. */
+    private long position;
+
+    StreamingDownload(BlobInfo blobInfo, Path file, FileChannel channel) {
+      this.blobInfo = blobInfo;
+      this.file = file;
+      this.channel = channel;
+      this.size = blobInfo.getSize();
+    }
+
+    void run() {
+      Throwable result = null;
+      try {
+        result = downloadTo(this.blobInfo, this.channel, this.stop, this::sliceCompleted);
+      } catch (InterruptedIOException | RuntimeException ex) {
+        result = ex;
+      } finally {
+        finish(result);
+      }
+    }
+
+    private void finish(Throwable result) {
+      boolean release;
+      synchronized (this.monitor) {
+        this.finished = true;
+        this.failure = result;
+        release = this.closed;
+        this.monitor.notifyAll();
+      }
+      if (release) {
+        release();
+      }
+    }
+
+    private void sliceCompleted(int slice) {
+      synchronized (this.monitor) {
+        this.completedSlices.set(slice);
+        int leadingSlices = this.completedSlices.nextClearBit(0);
+        this.downloaded = Math.min(leadingSlices * ParallelBlobDownloader.this.sliceSize, this.size);
+        this.monitor.notifyAll();
+      }
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] single = new byte[1];
+      return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+      if (length == 0) {
+        return 0;
+      }
+      if (this.position >= this.size) {
+        return -1;
+      }
+      long readable = awaitDownloaded() - this.position;
+      ByteBuffer target = ByteBuffer.wrap(bytes, offset, (int) Math.min(length, readable));
+      int read = this.channel.read(target, this.position);
+      this.position += read;
+      return read;
+    }
+
+    @Override
+    public int available() {
+      synchronized (this.monitor) {
+        return (int) Math.min(Integer.MAX_VALUE, this.downloaded - this.position);
+      }
+    }
+
+    /** Waits until the byte at the current position is downloaded, or the download failed. */
+    private long awaitDownloaded() throws IOException {
+      synchronized (this.monitor) {
+        while (this.downloaded <= this.position) {
+          if (this.closed) {
+            throw new IOException("Stream closed");
+          }
+          if (this.failure != null) {
+            throw ParallelWorkers.toIoException(this.failure, "Failed to download the object.");
+          }
+          if (this.finished) {
+            throw new EOFException("Download of " + this.blobInfo.getBlobId() + " stopped early");
+          }
+          try {
+            this.monitor.wait();
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the download");
+          }
+        }
+        return this.downloaded;
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      boolean release;
+      synchronized (this.monitor) {
+        if (this.closed) {
+          return;
+        }
+        this.closed = true;
+        release = this.finished;
+      }
+      // Stops the range fetches that are still running; the last one releases the file.
+      this.stop.set(true);
+      if (release) {
+        release();
+      }
+    }
+
+    private void release() {
+      try {
+        this.channel.close();
+        Files.deleteIfExists(this.file);
+      } catch (IOException ex) {
+        LOGGER.warn("Failed to delete the temporary download file " + this.file, ex);
+      }
+    }
+  }
+}
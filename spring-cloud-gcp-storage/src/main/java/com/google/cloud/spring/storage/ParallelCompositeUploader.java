@@ -0,0 +1,277 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.storage;
+
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Uploads large files to Google Cloud Storage by uploading parts of the file concurrently as
+ * temporary objects and composing them into the target object.
+ *
+ * <p>Files smaller than the threshold are uploaded as a single object. The temporary part objects
+ * are created next to the target object, with names starting with the target's name followed by
+ * {@value #PART_INFIX}, and are deleted after composition, whether or not it succeeded. Streamed
+ * content is first written to a local temporary file, so that its size is known before uploading.
+ *
+ * <p>Composite objects have no MD5 hash, only a CRC32C checksum.
+ *
+ * @since 6.1.2
+ */
+public class ParallelCompositeUploader {
+
+  /** Infix of the names of temporary part objects. */
+  public static final String PART_INFIX = ".composite-";
+
+  /** Maximum number of parts, which is the maximum number of sources of a compose request. */
+  public static final int MAX_PART_COUNT = 32;
+
+  /** Default number of parts a large file is split into. */
+  public static final int DEFAULT_PART_COUNT = 8;
+
+  private static final Log LOGGER = LogFactory.getLog(ParallelCompositeUploader.class);
+
+  private static final int BUFFER_SIZE = 256 * 1024;
+
+  private final Storage storage;
+
+  private final long threshold;
+
+  private final int partCount;
+
+  private Executor executor = ParallelTransferExecutors.sharedExecutor();
+
+  /**
+   * Create an uploader.
+   *
+   * @param storage the storage client
+   * @param threshold the minimum file size, in bytes, to upload as a composite object
+   * @param partCount the number of parts a file is split into, which is also the number of parts
+   *     uploaded concurrently; at most {@link #MAX_PART_COUNT}
+   */
+  public ParallelCompositeUploader(Storage storage, long threshold, int partCount) {
+    Assert.notNull(storage, "storage can't be null.");
+    Assert.isTrue(threshold >= 0, "The parallel upload threshold can't be negative.");
+    Assert.isTrue(
+        partCount > 1 && partCount <= MAX_PART_COUNT,
+        "The part count must be between 2 and " + MAX_PART_COUNT + ".");
+    this.storage = storage;
+    this.threshold = threshold;
+    this.partCount = partCount;
+  }
+
+  /**
+   * Set the executor uploading parts besides the calling thread. Defaults to the bounded {@link
+   * ParallelTransferExecutors#sharedExecutor() shared executor}; at most {@code partCount - 1}
+   * tasks are submitted per upload.
+   *
+   * @param executor the executor
+   */
+  public void setExecutor(Executor executor) {
+    Assert.notNull(executor, "executor can't be null.");
+    this.executor = executor;
+  }
+
+  public long getThreshold() {
+    return this.threshold;
+  }
+
+  public int getPartCount() {
+    return this.partCount;
+  }
+
+  /**
+   * Upload the contents of a stream. The stream is copied to a temporary file first.
+   *
+   * @param target the object to create or replace
+   * @param inputStream the contents; not closed by this method
+   * @return the uploaded object
+   * @throws IOException if the contents can't be read or uploaded
+   */
+  public Blob upload(BlobInfo target, InputStream inputStream) throws IOException {
+    Path file = Files.createTempFile("gcs-upload-", ".tmp");
+    try {
+      Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+      return upload(target, file);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Open a stream whose contents are uploaded when it is closed. The contents are buffered in a
+   * temporary file.
+   *
+   * @param target the object to create or replace
+   * @return the stream to write the contents to
+   * @throws IOException if the temporary file can't be created
+   */
+  public OutputStream openOutputStream(BlobInfo target) throws IOException {
+    Path file = Files.createTempFile("gcs-upload-", ".tmp");
+    return new FilterOutputStream(Files.newOutputStream(file)) {
+
+      private boolean closed;
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        this.out.write(b, off, len);
+      }
+
+      @Override
+      public void close() throws IOException {
+        if (this.closed) {
+          return;
+        }
+        this.closed = true;
+        try {
+          super.close();
+          upload(target, file);
+        } finally {
+          Files.deleteIfExists(file);
+        }
+      }
+    };
+  }
+
+  /**
+   * Upload a file, as a composite object if it reaches the threshold.
+   *
+   * @param target the object to create or replace
+   * @param file the contents
+   * @return the uploaded object
+   * @throws IOException if the file can't be read or uploaded
+   */
+  public Blob upload(BlobInfo target, Path file) throws IOException {
+    long size = Files.size(file);
+    if (size < this.threshold || size < this.partCount) {
+      return this.storage.createFrom(target, file);
+    }
+
+    long partSize = (size + this.partCount - 1) / this.partCount;
+    String prefix = target.getName() + PART_INFIX + UUID.randomUUID() + "/";
+    List<BlobInfo> parts = new ArrayList<>();
+    for (int i = 0; i < this.partCount && i * partSize < size; i++) {
+      parts.add(BlobInfo.newBuilder(BlobId.of(target.getBucket(), prefix + i)).build());
+    }
+
+    try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+      uploadParts(parts, partSize, size, fileChannel);
+      List<String> sourceNames = new ArrayList<>(parts.size());
+      for (BlobInfo part : parts) {
+        sourceNames.add(part.getName());
+      }
+      return this.storage.compose(
+          Storage.ComposeRequest.newBuilder().addSource(sourceNames).setTarget(target).build());
+    } finally {
+      deleteParts(parts);
+    }
+  }
+
+  private void uploadParts(List<BlobInfo> parts, long partSize, long size, FileChannel file)
+      throws IOException {
+    AtomicInteger nextPart = new AtomicInteger();
+    AtomicBoolean failed = new AtomicBoolean();
+    Runnable worker =
+        () -> {
+          ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+          int part;
+          while (!failed.get() && (part = nextPart.getAndIncrement()) < parts.size()) {
+            long start = part * partSize;
+            try {
+              uploadPart(
+                  parts.get(part), start, Math.min(start + partSize, size), buffer, file, failed);
+            } catch (IOException ex) {
+              failed.set(true);
+              throw new UncheckedIOException(ex);
+            } catch (RuntimeException ex) {
+              failed.set(true);
+              throw ex;
+            }
+          }
+        };
+
+    // The parts are deleted afterwards, so this returns only once all workers have stopped.
+    Throwable failure =
+        ParallelWorkers.run(worker, parts.size() - 1, this.executor, failed, "uploading parts");
+    if (failure != null) {
+      throw ParallelWorkers.toIoException(failure, "Failed to upload the parts.");
+    }
+  }
+
+  private void uploadPart(
+      BlobInfo part,
+      long start,
+      long end,
+      ByteBuffer buffer,
+      FileChannel file,
+      AtomicBoolean failed)
+      throws IOException {
+    try (WriteChannel writer = this.storage.writer(part)) {
+      long position = start;
+      // The upload stops early when it is abandoned; the part is deleted afterwards.
+      while (position < end && !failed.get()) {
+        buffer.clear();
+        buffer.limit((int) Math.min(buffer.capacity(), end - position));
+        int read = file.read(buffer, position);
+        if (read < 0) {
+          throw new IOException("The file was truncated while uploading " + part.getBlobId());
+        }
+        position += read;
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+          writer.write(buffer);
+        }
+      }
+    }
+  }
+
+  private void deleteParts(List<BlobInfo> parts) {
+    List<BlobId> partIds = new ArrayList<>(parts.size());
+    for (BlobInfo part : parts) {
+      partIds.add(part.getBlobId());
+    }
+    try {
+      this.storage.delete(partIds);
+    } catch (StorageException ex) {
+      LOGGER.warn("Failed to delete the temporary parts " + partIds, ex);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.storage;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Creates the bounded executors that run the concurrent parts of parallel downloads and uploads.
+ *
+ * @since 6.1.2
+ */
+public final class ParallelTransferExecutors {
+
+  /** Default maximum number of threads shared by all parallel transfers. */
+  public static final int DEFAULT_THREADS = 8;
+
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  private ParallelTransferExecutors() {}
+
+  /**
+   * Returns the executor shared by the downloaders and uploaders that were not given one. It runs
+   * at most {@value #DEFAULT_THREADS} tasks at a time and queues the others.
+   *
+   * @return the shared executor
+   */
+  public static ExecutorService sharedExecutor() {
+    return SharedExecutorHolder.EXECUTOR;
+  }
+
+  /**
+   * Create an executor that runs at most the given number of tasks at a time and queues the
+   * others. Its threads are daemon threads that terminate when idle, so it does not need to be
+   * shut down.
+   *
+   * @param threads the maximum number of threads
+   * @return the executor
+   */
+  public static ExecutorService newBoundedExecutor(int threads) {
+    Assert.isTrue(threads > 0, "The number of parallel transfer threads must be positive.");
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("gcs-transfer-");
+    threadFactory.setDaemon(true);
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            threadFactory);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private static final class SharedExecutorHolder {
+
+    private static final ExecutorService EXECUTOR = newBoundedExecutor(DEFAULT_THREADS);
+  }
+}
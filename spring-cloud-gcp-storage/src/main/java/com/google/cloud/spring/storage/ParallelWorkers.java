@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.storage;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs copies of a worker on the calling thread and on executor threads, and waits until all
+ * copies that started have returned. Copies still queued in the executor when the calling thread's
+ * copy returns do not run, so a busy executor never delays the caller once the work is done.
+ */
+final class ParallelWorkers {
+
+  private final Object monitor = new Object();
+
+  private int active;
+
+  private boolean closed;
+
+  private Throwable failure;
+
+  private ParallelWorkers() {}
+
+  /**
+   * Run a worker on the calling thread and on up to {@code extraWorkers} executor threads.
+   *
+   * @param worker the worker; all copies share its work and stop once {@code stop} is set
+   * @param extraWorkers the number of copies to submit to the executor
+   * @param executor the executor
+   * @param stop the flag the copies check to stop early; set when the caller is interrupted
+   * @param operation the description of the work, for the interruption message
+   * @return the first failure of a copy, or {@code null} if all of them completed normally
+   * @throws InterruptedIOException if the calling thread was interrupted; all copies have
+   *     returned by then
+   */
+  static Throwable run(
+      Runnable worker, int extraWorkers, Executor executor, AtomicBoolean stop, String operation)
+      throws InterruptedIOException {
+    ParallelWorkers workers = new ParallelWorkers();
+    for (int i = 0; i < extraWorkers; i++) {
+      try {
+        executor.execute(() -> workers.runCopy(worker));
+      } catch (RejectedExecutionException ex) {
+        // The calling thread and the accepted copies do the work.
+        break;
+      }
+    }
+    try {
+      worker.run();
+    } catch (RuntimeException ex) {
+      workers.fail(ex);
+    }
+    return workers.close(stop, operation);
+  }
+
+  /**
+   * Unwrap the failure of a worker, rethrowing unchecked exceptions other than I/O errors.
+   *
+   * @param failure the failure returned by {@link #run}
+   * @param message the message of the exception wrapping other checked exceptions
+   * @return the I/O exception to throw
+   */
+  static IOException toIoException(Throwable failure, String message) {
+    if (failure instanceof UncheckedIOException uncheckedIoException) {
+      return uncheckedIoException.getCause();
+    }
+    if (failure instanceof IOException ioException) {
+      return ioException;
+    }
+    if (failure instanceof RuntimeException runtimeException) {
+      throw runtimeException;
+    }
+    if (failure instanceof Error error) {
+      throw error;
+    }
+    return new IOException(message, failure);
+  }
+
+  private void runCopy(Runnable worker) {
+    synchronized (this.monitor) {
+      if (this.closed) {
+        return;
+      }
+      this.active++;
+    }
+    try {
+      worker.run();
+    } catch (RuntimeException | Error ex) {
+      fail(ex);
+    } finally {
+      synchronized (this.monitor) {
+        this.active--;
+        this.monitor.notifyAll();
+      }
+    }
+  }
+
+  private void fail(Throwable ex) {
+    synchronized (this.monitor) {
+      if (this.failure == null) {
+        this.failure = ex;
+      }
+    }
+  }
+
+  private Throwable close(AtomicBoolean stop, String operation) throws InterruptedIOException {
+    boolean interrupted = false;
+    synchronized (this.monitor) {
+      this.closed = true;
+      while (this.active > 0) {
+        try {
+          this.monitor.wait();
+        } catch (InterruptedException ex) {
+          // Keep waiting: the copies still use resources the caller releases afterwards.
+          interrupted = true;
+          stop.set(true);
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while " + operation);
+    }
+    return this.failure;
+  }
+}
@@ -16,7 +16,10 @@
 
 package com.google.cloud.spring.storage.integration;
 
+import com.google.cloud.ReadChannel;
 import com.google.cloud.WriteChannel;
+import com.google.cloud.spring.storage.ParallelBlobDownloader;
+import com.google.cloud.spring.storage.ParallelCompositeUploader;
 import com.google.cloud.storage.Blob;
 import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
@@ -28,29 +31,128 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.integration.file.remote.session.Session;
 import org.springframework.util.Assert;
-import org.springframework.util.StreamUtils;
 
-/** A session implementation for Google Cloud Storage. */
+/**
+ * A session implementation for Google Cloud Storage.
+ *
+ * <p>Objects are read and written in chunks through the storage client's channels, so the memory
+ * used by a transfer does not depend on the size of the object. If a {@link ParallelBlobDownloader}
+ * is configured, large objects are instead downloaded to a temporary file by fetching byte ranges
+ * concurrently. Only objects previously returned by a listing of the session, or of another session
+ * of the same {@link GcsSessionFactory}, are downloaded in parallel, since their size is known
+ * without fetching their metadata again. If a {@link ParallelCompositeUploader} is configured,
+ * written contents are spooled to a temporary file and large files are uploaded as concurrently
+ * uploaded parts composed into the object.
+ */
 public class GcsSession implements Session<BlobInfo> {
 
+  /** Default size, in bytes, of the chunks objects are transferred in. */
+  public static final int DEFAULT_CHUNK_SIZE = 2 * 1024 * 1024;
+
   private Storage gcs;
 
+  private final int chunkSize;
+
+  private final ParallelBlobDownloader parallelDownloader;
+
+  private final ParallelCompositeUploader parallelUploader;
+
+  /** The listed objects large enough to be downloaded in parallel, until they are read. */
+  private final Map<BlobId, BlobInfo> listedLargeObjects;
+
+  private Storage.BlobListOption[] listOptions = new Storage.BlobListOption[0];
+
+  /**
+   * Heap transfer buffer, reused by consecutive transfers and taken out while one is in progress.
+   * The storage client's channels copy through heap arrays, so a direct buffer would only add
+   * off-heap memory per session.
+   */
+  private final AtomicReference<ByteBuffer> transferBuffer = new AtomicReference<>();
+
   private static final Log LOGGER = LogFactory.getLog(GcsSession.class);
 
   private static final String SEPARATOR = "/";
 
   public GcsSession(Storage gcs) {
+    this(gcs, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Create a session that transfers objects in chunks of the given size.
+   *
+   * @param gcs the storage client
+   * @param chunkSize the chunk size in bytes, used both as the size of the transfer buffer and as
+   *     the chunk size of the storage client's read and write channels
+   * @since 6.1.2
+   */
+  public GcsSession(Storage gcs, int chunkSize) {
+    this(gcs, chunkSize, null);
+  }
+
+  /**
+   * Create a session that transfers objects in chunks of the given size and downloads large
+   * objects in parallel.
+   *
+   * @param gcs the storage client
+   * @param chunkSize the chunk size in bytes
+   * @param parallelDownloader the downloader for large objects; {@code null} disables parallel
+   *     downloads
+   * @since 6.1.2
+   */
+  public GcsSession(Storage gcs, int chunkSize, ParallelBlobDownloader parallelDownloader) {
+    this(gcs, chunkSize, parallelDownloader, null);
+  }
+
+  /**
+   * Create a session that transfers objects in chunks of the given size and downloads and uploads
+   * large objects in parallel.
+   *
+   * @param gcs the storage client
+   * @param chunkSize the chunk size in bytes
+   * @param parallelDownloader the downloader for large objects; {@code null} disables parallel
+   *     downloads
+   * @param parallelUploader the uploader for large objects; {@code null} disables parallel uploads
+   * @since 6.1.2
+   */
+  public GcsSession(
+      Storage gcs,
+      int chunkSize,
+      ParallelBlobDownloader parallelDownloader,
+      ParallelCompositeUploader parallelUploader) {
+    this(gcs, chunkSize, parallelDownloader, parallelUploader, new ConcurrentHashMap<>());
+  }
+
+  GcsSession(
+      Storage gcs,
+      int chunkSize,
+      ParallelBlobDownloader parallelDownloader,
+      ParallelCompositeUploader parallelUploader,
+      Map<BlobId, BlobInfo> listedLargeObjects) {
     Assert.notNull(gcs, "The GCS client can't be null.");
+    Assert.isTrue(chunkSize > 0, "The chunk size must be positive.");
     this.gcs = gcs;
+    this.chunkSize = chunkSize;
+    this.parallelDownloader = parallelDownloader;
+    this.parallelUploader = parallelUploader;
+    this.listedLargeObjects = listedLargeObjects;
+  }
+
+  public int getChunkSize() {
+    return this.chunkSize;
   }
 
   @Override
@@ -66,21 +168,61 @@ public class GcsSession implements Session<BlobInfo> {
   }
 
   /**
-   * Only supports listing buckets, not folders.
+   * Set additional options of the list requests, such as {@link
+   * Storage.BlobListOption#startOffset(String)}, {@link Storage.BlobListOption#matchGlob(String)}
+   * or {@link Storage.BlobListOption#pageSize(long)}.
    *
-   * @param bucket The name of the bucket.
-   * @return The BlobInfo of all objects in the bucket.
+   * @param listOptions the list options
+   * @since 6.1.2
+   */
+  public void setListOptions(Storage.BlobListOption... listOptions) {
+    Assert.noNullElements(listOptions, "The list options can't be null.");
+    this.listOptions = listOptions.clone();
+  }
+
+  /**
+   * Lists the objects in a bucket, or in a folder of a bucket. See {@link #stream(String)}.
+   *
+   * @param path the name of the bucket, optionally followed by a slash and a folder
+   * @return The BlobInfo of the listed objects.
    * @throws IOException Thrown if there an issue communicating with GCS.
    */
   @Override
-  public BlobInfo[] list(String bucket) throws IOException {
-    Collection<BlobInfo> blobs = new ArrayList<>();
+  public BlobInfo[] list(String path) throws IOException {
+    return stream(path).toArray(BlobInfo[]::new);
+  }
 
-    for (Blob blob : this.gcs.list(bucket).iterateAll()) {
-      blobs.add(blob);
+  /**
+   * Lists the objects in a bucket, or in a folder of a bucket, fetching further pages of results
+   * only as the stream is consumed.
+   *
+   * <p>For a bucket name, all objects of the bucket are listed. For a path of the form {@code
+   * bucket/folder}, only the objects directly in the folder are listed, along with directory
+   * entries for its sub-folders. Listed objects keep their full names. The options set with {@link
+   * #setListOptions(Storage.BlobListOption...)} apply to both forms.
+   *
+   * @param path the name of the bucket, optionally followed by a slash and a folder
+   * @return the listed objects
+   * @since 6.1.2
+   */
+  public Stream<BlobInfo> stream(String path) {
+    String[] tokens = getBucketAndObjectFromPath(path);
+    List<Storage.BlobListOption> options = new ArrayList<>(Arrays.asList(this.listOptions));
+    if (tokens.length == 2 && !tokens[1].isEmpty()) {
+      String folder = tokens[1].endsWith(SEPARATOR) ? tokens[1] : tokens[1] + SEPARATOR;
+      options.add(Storage.BlobListOption.prefix(folder));
+      options.add(Storage.BlobListOption.currentDirectory());
     }
-
-    return blobs.toArray(new BlobInfo[blobs.size()]);
+    Iterable<Blob> blobs =
+        this.gcs.list(tokens[0], options.toArray(new Storage.BlobListOption[0])).iterateAll();
+    Stream<BlobInfo> listed =
+        StreamSupport.stream(blobs.spliterator(), false).map(BlobInfo.class::cast);
+    if (this.parallelDownloader == null) {
+      return listed;
+    }
+    // Objects of the bucket not read since its previous listing are forgotten.
+    this.listedLargeObjects.keySet().removeIf(blobId -> blobId.getBucket().equals(tokens[0]));
+    return listed.peek(this::rememberIfLarge);
   }
 
   @Override
@@ -88,8 +230,19 @@ public class GcsSession implements Session<BlobInfo> {
     String[] tokens = getBucketAndObjectFromPath(source);
     Assert.state(tokens.length == 2, "Can only read files, not buckets.");
 
-    try (OutputStream os = outputStream) {
-      os.write(this.gcs.readAllBytes(tokens[0], tokens[1]));
+    BlobInfo blobInfo = takeParallelDownload(tokens[0], tokens[1]);
+    if (blobInfo != null) {
+      try (OutputStream os = outputStream;
+          InputStream is = this.parallelDownloader.openInputStream(blobInfo)) {
+        transfer(Channels.newChannel(is), Channels.newChannel(os));
+      }
+      return;
+    }
+
+    try (OutputStream os = outputStream;
+        ReadChannel reader = this.gcs.reader(tokens[0], tokens[1])) {
+      reader.setChunkSize(this.chunkSize);
+      transfer(reader, Channels.newChannel(os));
     }
   }
 
@@ -100,9 +253,17 @@ public class GcsSession implements Session<BlobInfo> {
 
     BlobInfo gcsBlobInfo = BlobInfo.newBuilder(BlobId.of(tokens[0], tokens[1])).build();
 
+    if (this.parallelUploader != null) {
+      try (InputStream is = inputStream) {
+        this.parallelUploader.upload(gcsBlobInfo, is);
+      }
+      return;
+    }
+
     try (InputStream is = inputStream) {
       try (WriteChannel channel = this.gcs.writer(gcsBlobInfo)) {
-        channel.write(ByteBuffer.wrap(StreamUtils.copyToByteArray(is)));
+        channel.setChunkSize(this.chunkSize);
+        transfer(Channels.newChannel(is), channel);
       }
     }
   }
@@ -163,15 +324,17 @@ public class GcsSession implements Session<BlobInfo> {
 
   @Override
   public String[] listNames(String path) throws IOException {
-    List<String> names = Stream.of(list(path)).map(BlobInfo::getName).collect(Collectors.toList());
-
-    return names.toArray(new String[names.size()]);
+    return stream(path).map(BlobInfo::getName).toArray(String[]::new);
   }
 
   @Override
   public InputStream readRaw(String source) throws IOException {
     String[] tokens = getBucketAndObjectFromPath(source);
     Assert.state(tokens.length == 2, "Can only write to files, not buckets.");
+    BlobInfo blobInfo = takeParallelDownload(tokens[0], tokens[1]);
+    if (blobInfo != null) {
+      return this.parallelDownloader.openInputStream(blobInfo);
+    }
     return Channels.newInputStream(this.gcs.reader(tokens[0], tokens[1]));
   }
 
@@ -190,6 +353,43 @@ public class GcsSession implements Session<BlobInfo> {
     return "storage.googleapis.com:443";
   }
 
+  private void rememberIfLarge(BlobInfo blobInfo) {
+    if (!blobInfo.isDirectory() && this.parallelDownloader.isParallelDownload(blobInfo)) {
+      this.listedLargeObjects.put(BlobId.of(blobInfo.getBucket(), blobInfo.getName()), blobInfo);
+    }
+  }
+
+  /**
+   * Returns the listed object if it is to be downloaded in parallel, or {@code null} to read it
+   * sequentially.
+   */
+  private BlobInfo takeParallelDownload(String bucket, String name) {
+    if (this.parallelDownloader == null) {
+      return null;
+    }
+    return this.listedLargeObjects.remove(BlobId.of(bucket, name));
+  }
+
+  private void transfer(ReadableByteChannel source, WritableByteChannel target)
+      throws IOException {
+    ByteBuffer buffer = this.transferBuffer.getAndSet(null);
+    if (buffer == null) {
+      buffer = ByteBuffer.allocate(this.chunkSize);
+    }
+    try {
+      buffer.clear();
+      while (source.read(buffer) >= 0) {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+          target.write(buffer);
+        }
+        buffer.clear();
+      }
+    } finally {
+      this.transferBuffer.set(buffer);
+    }
+  }
+
   private String[] getBucketAndObjectFromPath(String path) {
     // Assumes paths of the form bucket/folder/blob
     Assert.hasText(path, "Path can't be empty.");
@@ -16,8 +16,18 @@
 
 package com.google.cloud.spring.storage.integration;
 
+import com.google.cloud.spring.storage.ParallelBlobDownloader;
+import com.google.cloud.spring.storage.ParallelCompositeUploader;
+import com.google.cloud.spring.storage.integration.filters.GcsListOptionsProvider;
+import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import org.springframework.integration.file.remote.session.Session;
 import org.springframework.integration.file.remote.session.SessionFactory;
 import org.springframework.integration.file.remote.session.SharedSessionCapable;
@@ -28,14 +38,153 @@ public class GcsSessionFactory implements SessionFactory<BlobInfo>, SharedSessio
 
   private Storage gcs;
 
+  private int chunkSize = GcsSession.DEFAULT_CHUNK_SIZE;
+
+  private ParallelBlobDownloader parallelDownloader;
+
+  private ParallelCompositeUploader parallelUploader;
+
+  private Storage.BlobListOption[] listOptions = new Storage.BlobListOption[0];
+
+  private GcsListOptionsProvider listOptionsProvider;
+
+  /** The list options provider of the action run by the current thread, if any. */
+  private final ThreadLocal<GcsListOptionsProvider> scopedListOptionsProvider =
+      new ThreadLocal<>();
+
+  /** Shared by the sessions, since objects are often listed and read in different sessions. */
+  private final Map<BlobId, BlobInfo> listedLargeObjects = new ConcurrentHashMap<>();
+
   public GcsSessionFactory(Storage gcs) {
     Assert.notNull(gcs, "The GCS client can't be null.");
     this.gcs = gcs;
   }
 
+  public int getChunkSize() {
+    return this.chunkSize;
+  }
+
+  /**
+   * Set the size of the chunks sessions read and write objects in. Defaults to {@link
+   * GcsSession#DEFAULT_CHUNK_SIZE}.
+   *
+   * @param chunkSize the chunk size in bytes
+   * @since 6.1.2
+   */
+  public void setChunkSize(int chunkSize) {
+    Assert.isTrue(chunkSize > 0, "The chunk size must be positive.");
+    this.chunkSize = chunkSize;
+  }
+
+  public ParallelBlobDownloader getParallelDownloader() {
+    return this.parallelDownloader;
+  }
+
+  /**
+   * Set the downloader sessions use to download objects at least as large as its threshold by
+   * fetching byte ranges concurrently. Unset by default, so objects are read sequentially.
+   *
+   * @param parallelDownloader the downloader, or {@code null} to disable parallel downloads
+   * @since 6.1.2
+   */
+  public void setParallelDownloader(ParallelBlobDownloader parallelDownloader) {
+    this.parallelDownloader = parallelDownloader;
+  }
+
+  public ParallelCompositeUploader getParallelUploader() {
+    return this.parallelUploader;
+  }
+
+  /**
+   * Set the uploader sessions use to upload files at least as large as its threshold as
+   * concurrently uploaded parts. Unset by default, so files are uploaded through a single stream.
+   *
+   * @param parallelUploader the uploader, or {@code null} to disable parallel uploads
+   * @since 6.1.2
+   */
+  public void setParallelUploader(ParallelCompositeUploader parallelUploader) {
+    this.parallelUploader = parallelUploader;
+  }
+
+  public List<Storage.BlobListOption> getListOptions() {
+    return Arrays.asList(this.listOptions.clone());
+  }
+
+  /**
+   * Set additional options of the list requests of sessions, for example to list objects only
+   * from a start offset or matching a glob pattern on the server.
+   *
+   * @param listOptions the list options
+   * @see GcsSession#setListOptions(Storage.BlobListOption...)
+   * @since 6.1.2
+   */
+  public void setListOptions(Storage.BlobListOption... listOptions) {
+    Assert.noNullElements(listOptions, "The list options can't be null.");
+    this.listOptions = listOptions.clone();
+  }
+
+  public GcsListOptionsProvider getListOptionsProvider() {
+    return this.listOptionsProvider;
+  }
+
+  /**
+   * Set a provider of list options that may change between listings, such as those of a file
+   * list filter. Its options are obtained for every new session and added to the options set with
+   * {@link #setListOptions(Storage.BlobListOption...)}.
+   *
+   * @param listOptionsProvider the provider, or {@code null} to only use the fixed list options
+   * @since 6.1.2
+   */
+  public void setListOptionsProvider(GcsListOptionsProvider listOptionsProvider) {
+    this.listOptionsProvider = listOptionsProvider;
+  }
+
+  /**
+   * Run an action, adding the options of a provider to the list requests of the sessions the
+   * current thread obtains from this factory until the action completes. Unlike {@link
+   * #setListOptionsProvider(GcsListOptionsProvider)}, this doesn't affect other users of the
+   * factory, such as other channel adapters sharing it.
+   *
+   * @param listOptionsProvider the provider of the additional list options
+   * @param action the action
+   * @param <T> the type of the result of the action
+   * @return the result of the action
+   * @since 6.1.2
+   */
+  public <T> T doWithListOptions(GcsListOptionsProvider listOptionsProvider, Supplier<T> action) {
+    Assert.notNull(listOptionsProvider, "The list options provider can't be null.");
+    GcsListOptionsProvider previous = this.scopedListOptionsProvider.get();
+    this.scopedListOptionsProvider.set(listOptionsProvider);
+    try {
+      return action.get();
+    } finally {
+      if (previous != null) {
+        this.scopedListOptionsProvider.set(previous);
+      } else {
+        this.scopedListOptionsProvider.remove();
+      }
+    }
+  }
+
   @Override
   public Session<BlobInfo> getSession() {
-    return new GcsSession(this.gcs);
+    GcsSession session =
+        new GcsSession(
+            this.gcs,
+            this.chunkSize,
+            this.parallelDownloader,
+            this.parallelUploader,
+            this.listedLargeObjects);
+    List<Storage.BlobListOption> options = new ArrayList<>(Arrays.asList(this.listOptions));
+    if (this.listOptionsProvider != null) {
+      options.addAll(Arrays.asList(this.listOptionsProvider.getListOptions()));
+    }
+    GcsListOptionsProvider scopedProvider = this.scopedListOptionsProvider.get();
+    if (scopedProvider != null) {
+      options.addAll(Arrays.asList(scopedProvider.getListOptions()));
+    }
+    session.setListOptions(options.toArray(new Storage.BlobListOption[0]));
+    return session;
   }
 
   @Override
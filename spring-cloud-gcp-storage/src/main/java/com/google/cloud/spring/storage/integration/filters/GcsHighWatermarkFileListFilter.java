@@ -0,0 +1,294 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.storage.integration.filters;
+
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.springframework.integration.file.filters.ReversibleFileListFilter;
+import org.springframework.integration.metadata.ConcurrentMetadataStore;
+import org.springframework.util.Assert;
+
+/**
+ * A filter that accepts the objects beyond a high-watermark, which is advanced to the last
+ * accepted object, so that each object is accepted once while keeping a bounded state.
+ *
+ * <p>With {@link Watermark#NAME}, objects are accepted if their name is lexicographically greater
+ * than the greatest name accepted so far. This suits objects that are never replaced and whose
+ * names grow over time, such as time-partitioned names like {@code logs/2024/05/17/10-15.json}.
+ * The watermark is also provided as a {@code startOffset} list option, so that objects below it
+ * are not listed at all.
+ *
+ * <p>With {@link Watermark#UPDATE_TIME}, objects are accepted if they were updated after the latest
+ * update time accepted so far, which also accepts replaced objects. The objects accepted within
+ * the {@link #setLookback(Duration) lookback} before the watermark are remembered with their
+ * generation, so that objects with the same update time, or updated late, are accepted exactly
+ * once; older entries are compacted away after each poll. Update times can't be evaluated while
+ * listing, so all objects are still listed.
+ *
+ * <p>The state is stored in the metadata store under a single key, so a persistent metadata store
+ * lets polling resume from the watermark after a restart.
+ *
+ * @since 6.1.2
+ */
+public class GcsHighWatermarkFileListFilter
+    implements ReversibleFileListFilter<BlobInfo>, GcsListOptionsProvider {
+
+  /** The property of objects the watermark is based on. */
+  public enum Watermark {
+    /** The name of objects, in lexicographic order. */
+    NAME,
+
+    /** The update time of objects, along with their generation. */
+    UPDATE_TIME
+  }
+
+  private final ConcurrentMetadataStore store;
+
+  private final String key;
+
+  private final Watermark watermark;
+
+  private long lookbackMillis;
+
+  private boolean loaded;
+
+  private String nameWatermark;
+
+  private long updateTimeWatermark = Long.MIN_VALUE;
+
+  /** Generations of the objects accepted within the lookback, by name. */
+  private final Map<String, ObjectVersion> recentlyAccepted = new HashMap<>();
+
+  private State batchStartState;
+
+  /** Update time before which objects are rejected, fixed for a poll as files aren't sorted. */
+  private long acceptFrom;
+
+  /**
+   * Create a filter.
+   *
+   * @param store the metadata store holding the state of the filter
+   * @param key the key of the state in the metadata store
+   * @param watermark the property of objects the watermark is based on
+   */
+  public GcsHighWatermarkFileListFilter(
+      ConcurrentMetadataStore store, String key, Watermark watermark) {
+    Assert.notNull(store, "store can't be null.");
+    Assert.hasText(key, "key can't be empty.");
+    Assert.notNull(watermark, "watermark can't be null.");
+    this.store = store;
+    this.key = key;
+    this.watermark = watermark;
+  }
+
+  /**
+   * Set how long before the update time watermark objects are still checked against the
+   * remembered objects instead of being rejected. Only applies to {@link Watermark#UPDATE_TIME}.
+   * Defaults to zero, so only objects with the same update time as the watermark are remembered.
+   *
+   * @param lookback the lookback
+   */
+  public void setLookback(Duration lookback) {
+    Assert.isTrue(
+        lookback != null && !lookback.isNegative(), "The lookback can't be null or negative.");
+    this.lookbackMillis = lookback.toMillis();
+  }
+
+  @Override
+  public synchronized Storage.BlobListOption[] getListOptions() {
+    load();
+    return (this.watermark == Watermark.NAME && this.nameWatermark != null)
+        ? new Storage.BlobListOption[] {Storage.BlobListOption.startOffset(this.nameWatermark)}
+        : new Storage.BlobListOption[0];
+  }
+
+  @Override
+  public synchronized List<BlobInfo> filterFiles(BlobInfo[] files) {
+    load();
+    this.batchStartState = new State(this);
+    this.acceptFrom = lookbackStart();
+    List<BlobInfo> accepted = new ArrayList<>();
+    for (BlobInfo file : files) {
+      if (file != null && !file.isDirectory() && advanceWatermark(file)) {
+        accepted.add(file);
+      }
+    }
+    compact();
+    save();
+    return accepted;
+  }
+
+  /**
+   * Roll back the given file and the ones following it in the list of files accepted by the last
+   * {@link #filterFiles(BlobInfo[])} call, so that they are accepted again by the next poll.
+   *
+   * @param file the first file to roll back
+   * @param files the files accepted by the last poll
+   */
+  @Override
+  public synchronized void rollback(BlobInfo file, List<BlobInfo> files) {
+    if (this.batchStartState == null) {
+      return;
+    }
+    this.batchStartState.restore(this);
+    this.acceptFrom = lookbackStart();
+    for (BlobInfo acceptedFile : files) {
+      if (acceptedFile.equals(file)) {
+        break;
+      }
+      advanceWatermark(acceptedFile);
+    }
+    compact();
+    save();
+  }
+
+  private boolean advanceWatermark(BlobInfo file) {
+    if (this.watermark == Watermark.NAME) {
+      if (this.nameWatermark != null && file.getName().compareTo(this.nameWatermark) <= 0) {
+        return false;
+      }
+      this.nameWatermark = file.getName();
+      return true;
+    }
+
+    if (file.getUpdateTimeOffsetDateTime() == null) {
+      return false;
+    }
+    ObjectVersion version =
+        new ObjectVersion(
+            file.getUpdateTimeOffsetDateTime().toInstant().toEpochMilli(),
+            (file.getGeneration() != null) ? file.getGeneration() : -1L);
+    if (version.updateTime < this.acceptFrom
+        || version.equals(this.recentlyAccepted.get(file.getName()))) {
+      return false;
+    }
+    this.recentlyAccepted.put(file.getName(), version);
+    this.updateTimeWatermark = Math.max(this.updateTimeWatermark, version.updateTime);
+    return true;
+  }
+
+  private long lookbackStart() {
+    return (this.updateTimeWatermark == Long.MIN_VALUE)
+        ? Long.MIN_VALUE
+        : this.updateTimeWatermark - this.lookbackMillis;
+  }
+
+  /** Forgets the accepted objects updated before the lookback, which are rejected anyway. */
+  private void compact() {
+    long lookbackStart = lookbackStart();
+    this.recentlyAccepted.values().removeIf(version -> version.updateTime < lookbackStart);
+  }
+
+  private void load() {
+    if (this.loaded) {
+      return;
+    }
+    this.loaded = true;
+    String value = this.store.get(this.key);
+    if (value == null || value.isEmpty()) {
+      return;
+    }
+    if (this.watermark == Watermark.NAME) {
+      this.nameWatermark = value;
+      return;
+    }
+    // GCS object names can't contain line breaks, so the state is stored one object per line.
+    Iterator<String> lines = value.lines().iterator();
+    this.updateTimeWatermark = Long.parseLong(lines.next());
+    while (lines.hasNext()) {
+      String[] fields = lines.next().split(" ", 3);
+      this.recentlyAccepted.put(
+          fields[2], new ObjectVersion(Long.parseLong(fields[0]), Long.parseLong(fields[1])));
+    }
+  }
+
+  private void save() {
+    if (this.watermark == Watermark.NAME) {
+      if (this.nameWatermark != null) {
+        this.store.put(this.key, this.nameWatermark);
+      }
+      return;
+    }
+    if (this.updateTimeWatermark == Long.MIN_VALUE) {
+      return;
+    }
+    StringBuilder value = new StringBuilder().append(this.updateTimeWatermark);
+    this.recentlyAccepted.forEach(
+        (name, version) ->
+            value
+                .append('\n')
+                .append(version.updateTime)
+                .append(' ')
+                .append(version.generation)
+                .append(' ')
+                .append(name));
+    this.store.put(this.key, value.toString());
+  }
+
+  private static final class ObjectVersion {
+
+    private final long updateTime;
+
+    private final long generation;
+
+    private ObjectVersion(long updateTime, long generation) {
+      this.updateTime = updateTime;
+      this.generation = generation;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof ObjectVersion version
+          && version.updateTime == this.updateTime
+          && version.generation == this.generation;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(this.updateTime) * 31 + Long.hashCode(this.generation);
+    }
+  }
+
+  /** A copy of the state, to restore when rolling back. */
+  private static final class State {
+
+    private final String nameWatermark;
+
+    private final long updateTimeWatermark;
+
+    private final Map<String, ObjectVersion> recentlyAccepted;
+
+    private State(GcsHighWatermarkFileListFilter filter) {
+      this.nameWatermark = filter.nameWatermark;
+      this.updateTimeWatermark = filter.updateTimeWatermark;
+      this.recentlyAccepted = new HashMap<>(filter.recentlyAccepted);
+    }
+
+    private void restore(GcsHighWatermarkFileListFilter filter) {
+      filter.nameWatermark = this.nameWatermark;
+      filter.updateTimeWatermark = this.updateTimeWatermark;
+      filter.recentlyAccepted.clear();
+      filter.recentlyAccepted.putAll(this.recentlyAccepted);
+    }
+  }
+}
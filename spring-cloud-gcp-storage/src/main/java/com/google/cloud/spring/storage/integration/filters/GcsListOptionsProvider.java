@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.storage.integration.filters;
+
+import com.google.cloud.storage.Storage;
+
+/**
+ * Implemented by file list filters whose criteria can be evaluated by Google Cloud Storage while
+ * listing, so that fewer objects are returned by list requests. The filter still applies to the
+ * listed objects.
+ *
+ * @since 6.1.2
+ */
+public interface GcsListOptionsProvider {
+
+  /**
+   * Returns list options that only exclude objects this filter would reject.
+   *
+   * @return the list options; empty if the criteria can't be evaluated while listing
+   */
+  Storage.BlobListOption[] getListOptions();
+}
@@ -17,13 +17,32 @@
 package com.google.cloud.spring.storage.integration.filters;
 
 import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
 import org.springframework.integration.file.filters.AbstractSimplePatternFileListFilter;
 
-/** A simple pattern file lister for Google Cloud Storage. */
-public class GcsSimplePatternFileListFilter extends AbstractSimplePatternFileListFilter<BlobInfo> {
+/**
+ * A simple pattern file lister for Google Cloud Storage.
+ *
+ * <p>The pattern is also provided as a {@code matchGlob} list option, unless it contains characters
+ * with a special meaning in glob patterns other than {@code *}.
+ */
+public class GcsSimplePatternFileListFilter extends AbstractSimplePatternFileListFilter<BlobInfo>
+    implements GcsListOptionsProvider {
+
+  private static final String GLOB_SPECIAL_CHARACTERS = "?[]{}\\";
+
+  private final String matchGlob;
 
   public GcsSimplePatternFileListFilter(String path) {
     super(path);
+    this.matchGlob = toMatchGlob(path);
+  }
+
+  @Override
+  public Storage.BlobListOption[] getListOptions() {
+    return (this.matchGlob != null)
+        ? new Storage.BlobListOption[] {Storage.BlobListOption.matchGlob(this.matchGlob)}
+        : new Storage.BlobListOption[0];
   }
 
   @Override
@@ -35,4 +54,27 @@ public class GcsSimplePatternFileListFilter extends AbstractSimplePatternFileLis
   protected boolean isDirectory(BlobInfo blobInfo) {
     return blobInfo.isDirectory();
   }
+
+  /**
+   * Converts a simple pattern, in which {@code *} matches any characters, to a glob pattern, in
+   * which {@code **} does.
+   */
+  private static String toMatchGlob(String pattern) {
+    if (pattern == null || pattern.isEmpty()) {
+      return null;
+    }
+    StringBuilder glob = new StringBuilder();
+    for (int i = 0; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+      if (GLOB_SPECIAL_CHARACTERS.indexOf(c) >= 0) {
+        return null;
+      }
+      if (c != '*') {
+        glob.append(c);
+      } else if (i == 0 || pattern.charAt(i - 1) != '*') {
+        glob.append("**");
+      }
+    }
+    return glob.toString();
+  }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.storage.integration.inbound;
+
+import com.google.cloud.spring.storage.integration.filters.GcsListOptionsProvider;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.integration.file.filters.CompositeFileListFilter;
+import org.springframework.integration.file.filters.FileListFilter;
+
+/**
+ * Provides the list options of the {@link GcsListOptionsProvider} filters of a channel adapter,
+ * including those nested in composite and chain filters. A file is only accepted by a composite
+ * filter if it is accepted by all of its filters, so the options of each of them apply.
+ */
+final class FilterListOptionsProvider implements GcsListOptionsProvider {
+
+  private volatile FileListFilter<BlobInfo> filter;
+
+  void setFilter(FileListFilter<BlobInfo> filter) {
+    this.filter = filter;
+  }
+
+  @Override
+  public Storage.BlobListOption[] getListOptions() {
+    List<Storage.BlobListOption> options = new ArrayList<>();
+    collectListOptions(this.filter, options);
+    return options.toArray(new Storage.BlobListOption[0]);
+  }
+
+  private static void collectListOptions(Object filter, List<Storage.BlobListOption> options) {
+    if (filter instanceof GcsListOptionsProvider listOptionsProvider) {
+      options.addAll(Arrays.asList(listOptionsProvider.getListOptions()));
+    }
+    if (filter instanceof CompositeFileListFilter<?> compositeFilter) {
+      Object nestedFilters =
+          new DirectFieldAccessor(compositeFilter).getPropertyValue("fileFilters");
+      if (nestedFilters instanceof Collection<?> filters) {
+        for (Object nestedFilter : new ArrayList<>(filters)) {
+          collectListOptions(nestedFilter, options);
+        }
+      }
+    }
+  }
+}
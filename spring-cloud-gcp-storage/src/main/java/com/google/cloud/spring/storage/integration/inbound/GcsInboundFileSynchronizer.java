@@ -18,10 +18,13 @@ package com.google.cloud.spring.storage.integration.inbound;
 
 import com.google.cloud.spring.storage.integration.GcsSessionFactory;
 import com.google.cloud.spring.storage.integration.aot.StorageIntegrationRuntimeHint;
+import com.google.cloud.spring.storage.integration.filters.GcsListOptionsProvider;
 import com.google.cloud.spring.storage.integration.filters.GcsPersistentAcceptOnceFileListFilter;
 import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
+import java.io.File;
 import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.integration.file.filters.FileListFilter;
 import org.springframework.integration.file.remote.synchronizer.AbstractInboundFileSynchronizer;
 import org.springframework.integration.metadata.SimpleMetadataStore;
 
@@ -29,15 +32,58 @@ import org.springframework.integration.metadata.SimpleMetadataStore;
 @ImportRuntimeHints(StorageIntegrationRuntimeHint.class)
 public class GcsInboundFileSynchronizer extends AbstractInboundFileSynchronizer<BlobInfo> {
 
+  private final GcsSessionFactory sessionFactory;
+
+  private final FilterListOptionsProvider filterListOptions = new FilterListOptionsProvider();
+
   public GcsInboundFileSynchronizer(Storage gcs) {
-    super(new GcsSessionFactory(gcs));
+    this(new GcsSessionFactory(gcs));
+  }
+
+  /**
+   * Create a synchronizer that reads objects through sessions of the given factory, for example
+   * to change the chunk size of the transfers.
+   *
+   * @param sessionFactory the session factory
+   * @since 6.1.2
+   */
+  public GcsInboundFileSynchronizer(GcsSessionFactory sessionFactory) {
+    super(sessionFactory);
+    this.sessionFactory = sessionFactory;
     doSetFilter(
         new GcsPersistentAcceptOnceFileListFilter(new SimpleMetadataStore(), "gcsMessageSource"));
   }
 
+  /**
+   * Set the filter of the remote files. The list options of the filter, or of the filters of a
+   * composite filter, that are {@link GcsListOptionsProvider}s are added to the list requests of
+   * this synchronizer, so that their criteria are evaluated while listing.
+   *
+   * @param filter the filter
+   */
+  @Override
+  public void setFilter(FileListFilter<BlobInfo> filter) {
+    super.setFilter(filter);
+    this.filterListOptions.setFilter(filter);
+  }
+
+  @Override
+  public void synchronizeToLocalDirectory(File localDirectory, int maxFetchSize) {
+    this.sessionFactory.doWithListOptions(
+        this.filterListOptions,
+        () -> {
+          super.synchronizeToLocalDirectory(localDirectory, maxFetchSize);
+          return null;
+        });
+  }
+
+  /**
+   * Listings with the {@link Storage.BlobListOption#currentDirectory()} delimiter contain directory
+   * entries for sub-folders, which have no contents or update time and are skipped.
+   */
   @Override
   protected boolean isFile(BlobInfo file) {
-    return true;
+    return !file.isDirectory();
   }
 
   @Override
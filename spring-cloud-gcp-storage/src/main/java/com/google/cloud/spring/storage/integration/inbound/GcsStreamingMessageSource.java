@@ -17,12 +17,15 @@
 package com.google.cloud.spring.storage.integration.inbound;
 
 import com.google.cloud.spring.storage.integration.GcsFileInfo;
+import com.google.cloud.spring.storage.integration.GcsSessionFactory;
+import com.google.cloud.spring.storage.integration.filters.GcsListOptionsProvider;
 import com.google.cloud.spring.storage.integration.filters.GcsPersistentAcceptOnceFileListFilter;
 import com.google.cloud.storage.BlobInfo;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.springframework.integration.file.filters.FileListFilter;
 import org.springframework.integration.file.remote.AbstractFileInfo;
 import org.springframework.integration.file.remote.AbstractRemoteFileStreamingMessageSource;
 import org.springframework.integration.file.remote.RemoteFileTemplate;
@@ -31,6 +34,8 @@ import org.springframework.integration.metadata.SimpleMetadataStore;
 /** A streaming message source for Google Cloud Storage. */
 public class GcsStreamingMessageSource extends AbstractRemoteFileStreamingMessageSource<BlobInfo> {
 
+  private final FilterListOptionsProvider filterListOptions = new FilterListOptionsProvider();
+
   public GcsStreamingMessageSource(RemoteFileTemplate<BlobInfo> template) {
     this(template, null);
   }
@@ -51,6 +56,30 @@ public class GcsStreamingMessageSource extends AbstractRemoteFileStreamingMessag
             new SimpleMetadataStore(), "gcsStreamingMessageSource"));
   }
 
+  /**
+   * Set the filter of the remote files. If the template uses a {@link GcsSessionFactory}, the list
+   * options of the filter, or of the filters of a composite filter, that are {@link
+   * GcsListOptionsProvider}s are added to the list requests of this source, so that their criteria
+   * are evaluated while listing.
+   *
+   * @param filter the filter
+   */
+  @Override
+  public void setFilter(FileListFilter<BlobInfo> filter) {
+    super.setFilter(filter);
+    this.filterListOptions.setFilter(filter);
+  }
+
+  @Override
+  protected Object doReceive(int maxFetchSize) {
+    if (getRemoteFileTemplate().getSessionFactory()
+        instanceof GcsSessionFactory gcsSessionFactory) {
+      return gcsSessionFactory.doWithListOptions(
+          this.filterListOptions, () -> super.doReceive(maxFetchSize));
+    }
+    return super.doReceive(maxFetchSize);
+  }
+
   @Override
   public String getComponentType() {
     return "gcp:gcs-inbound-streaming-channel-adapter";
@@ -19,18 +19,29 @@ package com.google.cloud.spring.storage;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.cloud.ReadChannel;
 import com.google.cloud.storage.Blob;
 import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Bucket;
 import com.google.cloud.storage.Storage;
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
 
 class GoogleStorageResourceTest {
 
@@ -106,4 +117,145 @@ class GoogleStorageResourceTest {
     GoogleStorageResource gsr = new GoogleStorageResource(mockStorage, "gs://my-bucket/my-object");
     assertThat(gsr.getGoogleStorageLocation().uriString()).isEqualTo("gs://my-bucket/my-object");
   }
+
+  @Test
+  void cachedMetadataIsFetchedOnce() throws IOException {
+    OffsetDateTime now = OffsetDateTime.now();
+    when(mockStorage.get(BlobId.of("my-bucket", "my-object"))).thenReturn(mockBlob);
+    when(mockBlob.getSize()).thenReturn(42L);
+    when(mockBlob.getUpdateTimeOffsetDateTime()).thenReturn(now);
+    GoogleStorageResource gsr =
+        new GoogleStorageResource(
+            mockStorage,
+            new GoogleStorageLocation("gs://my-bucket/my-object"),
+            true,
+            Duration.ofMinutes(1));
+
+    assertThat(gsr.exists()).isTrue();
+    assertThat(gsr.contentLength()).isEqualTo(42L);
+    assertThat(gsr.lastModified()).isEqualTo(now.toInstant().toEpochMilli());
+
+    verify(mockStorage, times(1)).get(BlobId.of("my-bucket", "my-object"));
+  }
+
+  @Test
+  void cachedMetadataRemembersMissingBlob() {
+    GoogleStorageResource gsr =
+        new GoogleStorageResource(
+            mockStorage,
+            new GoogleStorageLocation("gs://my-bucket/my-object"),
+            false,
+            Duration.ofMinutes(1));
+
+    assertThat(gsr.exists()).isFalse();
+    assertThat(gsr.isWritable()).isFalse();
+    assertThatExceptionOfType(FileNotFoundException.class).isThrownBy(gsr::contentLength);
+
+    verify(mockStorage, times(1)).get(BlobId.of("my-bucket", "my-object"));
+  }
+
+  @Test
+  void cachedMetadataIsRefetchedAfterTtl() throws InterruptedException {
+    when(mockStorage.get(BlobId.of("my-bucket", "my-object"))).thenReturn(mockBlob);
+    GoogleStorageResource gsr =
+        new GoogleStorageResource(
+            mockStorage,
+            new GoogleStorageLocation("gs://my-bucket/my-object"),
+            true,
+            Duration.ofMillis(1));
+
+    gsr.exists();
+    Thread.sleep(5);
+    gsr.exists();
+
+    verify(mockStorage, times(2)).get(BlobId.of("my-bucket", "my-object"));
+  }
+
+  @Test
+  void cachedMetadataIsDroppedOnCreate() {
+    GoogleStorageResource gsr =
+        new GoogleStorageResource(
+            mockStorage,
+            new GoogleStorageLocation("gs://my-bucket/my-object"),
+            true,
+            Duration.ofMinutes(1));
+
+    assertThat(gsr.exists()).isFalse();
+    gsr.createBlob();
+    when(mockStorage.get(BlobId.of("my-bucket", "my-object"))).thenReturn(mockBlob);
+
+    assertThat(gsr.exists()).isTrue();
+  }
+
+  @Test
+  void cachedMetadataPinsReadsToGeneration() throws IOException {
+    ReadChannel readChannel = mock(ReadChannel.class);
+    when(mockStorage.get(BlobId.of("my-bucket", "my-object"))).thenReturn(mockBlob);
+    when(mockBlob.reader(any(Blob.BlobSourceOption.class))).thenReturn(readChannel);
+    GoogleStorageResource gsr =
+        new GoogleStorageResource(
+            mockStorage,
+            new GoogleStorageLocation("gs://my-bucket/my-object"),
+            true,
+            Duration.ofMinutes(1));
+
+    assertThat(gsr.exists()).isTrue();
+    assertThat(gsr.getInputStream()).isNotNull();
+
+    verify(mockBlob).reader(any(Blob.BlobSourceOption.class));
+    verify(mockStorage, times(1)).get(BlobId.of("my-bucket", "my-object"));
+  }
+
+  @Test
+  void createRelativeInheritsMetadataCacheTtl() {
+    GoogleStorageResource gsr =
+        new GoogleStorageResource(
+            mockStorage,
+            new GoogleStorageLocation("gs://my-bucket/my-object"),
+            true,
+            Duration.ofMinutes(1));
+
+    assertThat(gsr.createRelative("other-object").getMetadataCacheTtl())
+        .isEqualTo(Duration.ofMinutes(1));
+    assertThat(new GoogleStorageResource(mockStorage, "gs://my-bucket/my-object")
+            .getMetadataCacheTtl())
+        .isZero();
+  }
+
+  @Test
+  void getInputStreamDownloadsLargeBlobsInParallel() throws IOException {
+    InputStream downloaded = new ByteArrayInputStream(new byte[0]);
+    ParallelBlobDownloader downloader = mock(ParallelBlobDownloader.class);
+    when(mockStorage.get(any(BlobId.class))).thenReturn(mockBlob);
+    when(downloader.isParallelDownload(mockBlob)).thenReturn(true);
+    when(downloader.openInputStream(mockBlob)).thenReturn(downloaded);
+    GoogleStorageResource gsr =
+        new GoogleStorageResource(
+            mockStorage,
+            new GoogleStorageLocation("gs://my-bucket/my-object"),
+            true,
+            Duration.ZERO,
+            downloader);
+
+    assertThat(gsr.getInputStream()).isSameAs(downloaded);
+    assertThat(gsr.createRelative("other-object").getInputStream()).isSameAs(downloaded);
+  }
+
+  @Test
+  void getOutputStreamUploadsThroughParallelUploader() throws IOException {
+    GoogleStorageProtocolResolverSettings settings = new GoogleStorageProtocolResolverSettings();
+    settings.setParallelUploadThreshold(DataSize.ofMegabytes(100));
+    settings.setParallelUploadPartCount(16);
+    GoogleStorageResource gsr =
+        new GoogleStorageResource(
+            mockStorage, new GoogleStorageLocation("gs://my-bucket/my-object"), settings);
+
+    OutputStream outputStream = gsr.getOutputStream();
+    outputStream.write(new byte[10]);
+    outputStream.close();
+
+    verify(mockStorage)
+        .createFrom(eq(BlobInfo.newBuilder("my-bucket", "my-object").build()), any(Path.class));
+    verify(mockStorage, never()).writer(any(BlobInfo.class));
+  }
 }
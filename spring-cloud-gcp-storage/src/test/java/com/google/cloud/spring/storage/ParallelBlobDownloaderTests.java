@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.ReadChannel;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests for {@link ParallelBlobDownloader}. */
+class ParallelBlobDownloaderTests {
+
+  private static final BlobId GENERATION_ID = BlobId.of("bucket", "object", 7L);
+
+  private final Storage storage = mock(Storage.class);
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  private final List<long[]> requestedRanges = new CopyOnWriteArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  void downloadsAllRangesOfGeneration(@TempDir Path tempDir) throws Exception {
+    byte[] content = randomBytes(10_000);
+    stubContent(content);
+    ParallelBlobDownloader downloader = downloader(0L, 1_000L, 4);
+    Path target = tempDir.resolve("object");
+
+    downloader.download(blobInfo(content.length), target);
+
+    assertThat(Files.readAllBytes(target)).isEqualTo(content);
+    assertThat(this.requestedRanges).hasSize(10);
+    assertThat(this.requestedRanges.stream().mapToLong(range -> range[0]).sorted().toArray())
+        .containsExactly(0, 1_000, 2_000, 3_000, 4_000, 5_000, 6_000, 7_000, 8_000, 9_000);
+    verify(this.storage, times(10)).reader(GENERATION_ID);
+  }
+
+  @Test
+  void openInputStreamDeletesFileOnClose() throws Exception {
+    byte[] content = randomBytes(2_500);
+    stubContent(content);
+    ParallelBlobDownloader downloader = downloader(0L, 1_000L, 2);
+
+    try (InputStream inputStream = downloader.openInputStream(blobInfo(content.length))) {
+      assertThat(inputStream.readAllBytes()).isEqualTo(content);
+    }
+  }
+
+  @Test
+  void openInputStreamReturnsLeadingRangesBeforeDownloadCompletes() throws Exception {
+    byte[] content = randomBytes(3_000);
+    CountDownLatch laterRanges = new CountDownLatch(1);
+    stubContent(content, 1_000L, laterRanges);
+    ParallelBlobDownloader downloader = downloader(0L, 1_000L, 2);
+
+    try (InputStream inputStream = downloader.openInputStream(blobInfo(content.length))) {
+      assertThat(inputStream.readNBytes(1_000)).isEqualTo(Arrays.copyOf(content, 1_000));
+      laterRanges.countDown();
+      assertThat(inputStream.readAllBytes())
+          .isEqualTo(Arrays.copyOfRange(content, 1_000, content.length));
+    }
+  }
+
+  @Test
+  void failedRangeFailsStreamRead() throws Exception {
+    when(this.storage.reader(GENERATION_ID)).thenThrow(new StorageException(412, "replaced"));
+    ParallelBlobDownloader downloader = downloader(0L, 1_000L, 4);
+
+    try (InputStream inputStream = downloader.openInputStream(blobInfo(5_000))) {
+      assertThatThrownBy(inputStream::read)
+          .isInstanceOf(StorageException.class)
+          .hasMessage("replaced");
+    }
+  }
+
+  @Test
+  void failedRangeFailsDownload(@TempDir Path tempDir) {
+    when(this.storage.reader(GENERATION_ID)).thenThrow(new StorageException(412, "replaced"));
+    ParallelBlobDownloader downloader = downloader(0L, 1_000L, 4);
+
+    assertThatThrownBy(() -> downloader.download(blobInfo(5_000), tempDir.resolve("object")))
+        .isInstanceOf(StorageException.class)
+        .hasMessage("replaced");
+  }
+
+  @Test
+  void onlyLargeObjectsAreDownloadedInParallel() {
+    ParallelBlobDownloader downloader = downloader(5_000L, 1_000L, 4);
+
+    assertThat(downloader.isParallelDownload(blobInfo(5_000))).isTrue();
+    assertThat(downloader.isParallelDownload(blobInfo(4_999))).isFalse();
+    assertThat(downloader.isParallelDownload(BlobInfo.newBuilder(GENERATION_ID).build()))
+        .isFalse();
+    assertThat(downloader(0L, 1_000L, 4).isParallelDownload(blobInfo(1_000))).isFalse();
+  }
+
+  private ParallelBlobDownloader downloader(long threshold, long sliceSize, int parallelism) {
+    ParallelBlobDownloader downloader =
+        new ParallelBlobDownloader(this.storage, threshold, sliceSize, parallelism);
+    downloader.setExecutor(this.executor);
+    return downloader;
+  }
+
+  private static BlobInfo blobInfo(long size) {
+    BlobInfo blobInfo = mock(BlobInfo.class);
+    when(blobInfo.getBucket()).thenReturn(GENERATION_ID.getBucket());
+    when(blobInfo.getName()).thenReturn(GENERATION_ID.getName());
+    when(blobInfo.getGeneration()).thenReturn(GENERATION_ID.getGeneration());
+    when(blobInfo.getSize()).thenReturn(size);
+    return blobInfo;
+  }
+
+  private void stubContent(byte[] content) throws Exception {
+    stubContent(content, Long.MAX_VALUE, null);
+  }
+
+  /**
+   * Serves each reader from the content, honoring the position and limit set on it. Reads at or
+   * beyond the gate offset wait for the gate to open.
+   */
+  private void stubContent(byte[] content, long gateOffset, CountDownLatch gate) throws Exception {
+    willAnswer(
+            invocation -> {
+              AtomicLong position = new AtomicLong();
+              AtomicLong limit = new AtomicLong(content.length);
+              ReadChannel reader = mock(ReadChannel.class);
+              willAnswer(
+                      seek -> {
+                        position.set(seek.getArgument(0));
+                        return null;
+                      })
+                  .given(reader)
+                  .seek(anyLong());
+              willAnswer(
+                      limitCall -> {
+                        limit.set(limitCall.getArgument(0));
+                        this.requestedRanges.add(new long[] {position.get(), limit.get()});
+                        return reader;
+                      })
+                  .given(reader)
+                  .limit(anyLong());
+              willAnswer(
+                      read -> {
+                        ByteBuffer buffer = read.getArgument(0);
+                        if (position.get() >= limit.get()) {
+                          return -1;
+                        }
+                        if (position.get() >= gateOffset) {
+                          gate.await();
+                        }
+                        int length =
+                            (int) Math.min(buffer.remaining(), limit.get() - position.get());
+                        buffer.put(content, (int) position.get(), length);
+                        position.addAndGet(length);
+                        return length;
+                      })
+                  .given(reader)
+                  .read(any(ByteBuffer.class));
+              return reader;
+            })
+        .given(this.storage)
+        .reader(GENERATION_ID);
+  }
+
+  private static byte[] randomBytes(int size) {
+    byte[] bytes = new byte[size];
+    new Random(42).nextBytes(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/** Tests for {@link ParallelCompositeUploader}. */
+class ParallelCompositeUploaderTests {
+
+  private static final BlobInfo TARGET = BlobInfo.newBuilder("bucket", "object").build();
+
+  private final Storage storage = mock(Storage.class);
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  private final Map<String, ByteArrayOutputStream> uploadedParts = new ConcurrentHashMap<>();
+
+  @AfterEach
+  void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  void uploadsLargeContentAsComposedParts() throws Exception {
+    byte[] content = randomBytes(10_000);
+    stubPartUploads();
+    Blob composed = mock(Blob.class);
+    ArgumentCaptor<Storage.ComposeRequest> composeRequest =
+        ArgumentCaptor.forClass(Storage.ComposeRequest.class);
+    when(this.storage.compose(composeRequest.capture())).thenReturn(composed);
+
+    Blob result = uploader(1_000L, 4).upload(TARGET, new ByteArrayInputStream(content));
+
+    assertThat(result).isSameAs(composed);
+    List<String> sourceNames = new ArrayList<>();
+    composeRequest.getValue().getSourceBlobs().forEach(source -> sourceNames.add(source.getName()));
+    assertThat(sourceNames).hasSize(4).allMatch(name -> name.startsWith("object.composite-"));
+    assertThat(composeRequest.getValue().getTarget()).isEqualTo(TARGET);
+
+    ByteArrayOutputStream reassembled = new ByteArrayOutputStream();
+    for (String name : sourceNames) {
+      reassembled.write(this.uploadedParts.get(name).toByteArray());
+    }
+    assertThat(reassembled.toByteArray()).isEqualTo(content);
+    verifyPartsDeleted(sourceNames);
+  }
+
+  @Test
+  void uploadsSmallContentAsSingleObject() throws Exception {
+    Blob blob = mock(Blob.class);
+    when(this.storage.createFrom(eq(TARGET), any(Path.class))).thenReturn(blob);
+
+    Blob result = uploader(1_000L, 4).upload(TARGET, new ByteArrayInputStream(new byte[999]));
+
+    assertThat(result).isSameAs(blob);
+    verify(this.storage, never()).compose(any());
+  }
+
+  @Test
+  void deletesPartsWhenComposeFails() throws Exception {
+    stubPartUploads();
+    when(this.storage.compose(any())).thenThrow(new StorageException(500, "compose failed"));
+
+    assertThatThrownBy(
+            () ->
+                uploader(1_000L, 2).upload(TARGET, new ByteArrayInputStream(randomBytes(5_000))))
+        .isInstanceOf(StorageException.class)
+        .hasMessage("compose failed");
+
+    verifyPartsDeleted(new ArrayList<>(this.uploadedParts.keySet()));
+  }
+
+  @Test
+  void outputStreamUploadsOnClose() throws Exception {
+    byte[] content = randomBytes(5_000);
+    stubPartUploads();
+    when(this.storage.compose(any())).thenReturn(mock(Blob.class));
+
+    OutputStream outputStream = uploader(1_000L, 2).openOutputStream(TARGET);
+    outputStream.write(content);
+    verify(this.storage, never()).compose(any());
+    outputStream.close();
+    outputStream.close();
+
+    verify(this.storage).compose(any());
+    assertThat(this.uploadedParts).hasSize(2);
+  }
+
+  @Test
+  void partCountIsLimitedByCompose() {
+    assertThatThrownBy(() -> new ParallelCompositeUploader(this.storage, 0L, 33))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("The part count must be between 2 and 32.");
+  }
+
+  private ParallelCompositeUploader uploader(long threshold, int partCount) {
+    ParallelCompositeUploader uploader =
+        new ParallelCompositeUploader(this.storage, threshold, partCount);
+    uploader.setExecutor(this.executor);
+    return uploader;
+  }
+
+  private void stubPartUploads() throws Exception {
+    willAnswer(
+            invocation -> {
+              BlobInfo part = invocation.getArgument(0);
+              ByteArrayOutputStream partContent = new ByteArrayOutputStream();
+              this.uploadedParts.put(part.getName(), partContent);
+              WriteChannel writer = mock(WriteChannel.class);
+              willAnswer(
+                      write -> {
+                        ByteBuffer buffer = write.getArgument(0);
+                        int length = buffer.remaining();
+                        byte[] bytes = new byte[length];
+                        buffer.get(bytes);
+                        partContent.write(bytes);
+                        return length;
+                      })
+                  .given(writer)
+                  .write(any(ByteBuffer.class));
+              return writer;
+            })
+        .given(this.storage)
+        .writer(any(BlobInfo.class));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void verifyPartsDeleted(List<String> partNames) {
+    ArgumentCaptor<Iterable<BlobId>> deleted = ArgumentCaptor.forClass(Iterable.class);
+    verify(this.storage).delete(deleted.capture());
+    List<String> deletedNames = new ArrayList<>();
+    deleted.getValue().forEach(blobId -> deletedNames.add(blobId.getName()));
+    assertThat(deletedNames).containsExactlyInAnyOrderElementsOf(partNames);
+  }
+
+  private static byte[] randomBytes(int size) {
+    byte[] bytes = new byte[size];
+    new Random(42).nextBytes(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.storage.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.PageImpl;
+import com.google.cloud.ReadChannel;
+import com.google.cloud.WriteChannel;
+import com.google.cloud.spring.storage.ParallelBlobDownloader;
+import com.google.cloud.spring.storage.ParallelCompositeUploader;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link GcsSession}. */
+class GcsSessionTests {
+
+  private static final int CHUNK_SIZE = 1024;
+
+  private final Storage gcs = mock(Storage.class);
+
+  private final GcsSession session = new GcsSession(this.gcs, CHUNK_SIZE);
+
+  @Test
+  void readStreamsObjectInChunks() throws Exception {
+    byte[] content = randomBytes(5 * CHUNK_SIZE + 17);
+    ReadableByteChannel source = Channels.newChannel(new ByteArrayInputStream(content));
+    ReadChannel readChannel = mock(ReadChannel.class);
+    List<Integer> bufferCapacities = new ArrayList<>();
+    willAnswer(
+            invocation -> {
+              ByteBuffer buffer = invocation.getArgument(0);
+              bufferCapacities.add(buffer.remaining());
+              return source.read(buffer);
+            })
+        .given(readChannel)
+        .read(isA(ByteBuffer.class));
+    when(this.gcs.reader("bucket", "folder/object")).thenReturn(readChannel);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    this.session.read("bucket/folder/object", outputStream);
+
+    assertThat(outputStream.toByteArray()).isEqualTo(content);
+    assertThat(bufferCapacities).allMatch(capacity -> capacity <= CHUNK_SIZE);
+    verify(readChannel).setChunkSize(CHUNK_SIZE);
+    verify(readChannel).close();
+    verify(this.gcs, never()).readAllBytes("bucket", "folder/object");
+  }
+
+  @Test
+  void writeStreamsObjectInChunks() throws Exception {
+    byte[] content = randomBytes(3 * CHUNK_SIZE + 5);
+    WriteChannel writeChannel = mock(WriteChannel.class);
+    ByteArrayOutputStream written = new ByteArrayOutputStream();
+    List<Integer> writeSizes = new ArrayList<>();
+    willAnswer(
+            invocation -> {
+              ByteBuffer buffer = invocation.getArgument(0);
+              int size = buffer.remaining();
+              writeSizes.add(size);
+              byte[] bytes = new byte[size];
+              buffer.get(bytes);
+              written.write(bytes);
+              return size;
+            })
+        .given(writeChannel)
+        .write(isA(ByteBuffer.class));
+    BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of("bucket", "object")).build();
+    when(this.gcs.writer(blobInfo)).thenReturn(writeChannel);
+
+    this.session.write(new ByteArrayInputStream(content), "bucket/object");
+
+    assertThat(written.toByteArray()).isEqualTo(content);
+    assertThat(writeSizes).allMatch(size -> size <= CHUNK_SIZE);
+    verify(writeChannel).setChunkSize(CHUNK_SIZE);
+    verify(writeChannel).close();
+  }
+
+  @Test
+  void readRawDownloadsListedLargeObjectsInParallel() throws Exception {
+    Blob blob = mockBlob("bucket", "object");
+    InputStream downloaded = new ByteArrayInputStream(new byte[0]);
+    ParallelBlobDownloader downloader = mock(ParallelBlobDownloader.class);
+    when(this.gcs.list("bucket")).thenReturn(new PageImpl<>(null, null, List.of(blob)));
+    when(downloader.isParallelDownload(blob)).thenReturn(true);
+    when(downloader.openInputStream(blob)).thenReturn(downloaded);
+    GcsSessionFactory sessionFactory = new GcsSessionFactory(this.gcs);
+    sessionFactory.setParallelDownloader(downloader);
+
+    assertThat(sessionFactory.getSession().list("bucket")).containsExactly(blob);
+    assertThat(sessionFactory.getSession().readRaw("bucket/object")).isSameAs(downloaded);
+    verify(this.gcs, never()).get("bucket", "object");
+    verify(this.gcs, never()).reader("bucket", "object");
+  }
+
+  @Test
+  void readRawReadsSmallObjectsSequentially() throws Exception {
+    Blob blob = mockBlob("bucket", "object");
+    ParallelBlobDownloader downloader = mock(ParallelBlobDownloader.class);
+    when(this.gcs.list("bucket")).thenReturn(new PageImpl<>(null, null, List.of(blob)));
+    when(this.gcs.reader("bucket", "object")).thenReturn(mock(ReadChannel.class));
+    GcsSession parallelSession = new GcsSession(this.gcs, CHUNK_SIZE, downloader);
+
+    assertThat(parallelSession.list("bucket")).containsExactly(blob);
+    assertThat(parallelSession.readRaw("bucket/object")).isNotNull();
+    verify(downloader, never()).openInputStream(blob);
+  }
+
+  @Test
+  void readRawReadsUnlistedObjectsSequentially() throws Exception {
+    ParallelBlobDownloader downloader = mock(ParallelBlobDownloader.class);
+    when(this.gcs.reader("bucket", "object")).thenReturn(mock(ReadChannel.class));
+    GcsSession parallelSession = new GcsSession(this.gcs, CHUNK_SIZE, downloader);
+
+    assertThat(parallelSession.readRaw("bucket/object")).isNotNull();
+    verify(this.gcs, never()).get("bucket", "object");
+  }
+
+  @Test
+  void writeUploadsThroughParallelUploader() throws Exception {
+    ParallelCompositeUploader uploader = mock(ParallelCompositeUploader.class);
+    GcsSession parallelSession = new GcsSession(this.gcs, CHUNK_SIZE, null, uploader);
+    ByteArrayInputStream inputStream = new ByteArrayInputStream(new byte[10]);
+
+    parallelSession.write(inputStream, "bucket/object");
+
+    verify(uploader)
+        .upload(BlobInfo.newBuilder(BlobId.of("bucket", "object")).build(), inputStream);
+    verify(this.gcs, never()).writer(isA(BlobInfo.class));
+  }
+
+  @Test
+  void listBucketListsAllObjects() throws Exception {
+    Blob blob = mock(Blob.class);
+    when(blob.getName()).thenReturn("folder/object");
+    when(this.gcs.list("bucket")).thenReturn(new PageImpl<>(null, null, List.of(blob)));
+
+    assertThat(this.session.list("bucket")).containsExactly(blob);
+    assertThat(this.session.listNames("bucket")).containsExactly("folder/object");
+  }
+
+  @Test
+  void listFolderUsesPrefixAndDelimiter() throws Exception {
+    Blob blob = mock(Blob.class);
+    when(this.gcs.list(
+            "bucket",
+            Storage.BlobListOption.startOffset("folder/b"),
+            Storage.BlobListOption.prefix("folder/"),
+            Storage.BlobListOption.currentDirectory()))
+        .thenReturn(new PageImpl<>(null, null, List.of(blob)));
+    this.session.setListOptions(Storage.BlobListOption.startOffset("folder/b"));
+
+    assertThat(this.session.list("bucket/folder")).containsExactly(blob);
+    assertThat(this.session.stream("bucket/folder/")).containsExactly(blob);
+  }
+
+  @Test
+  void sessionFactoryAppliesListOptions() {
+    GcsSessionFactory sessionFactory = new GcsSessionFactory(this.gcs);
+    sessionFactory.setListOptions(Storage.BlobListOption.matchGlob("**.csv"));
+    when(this.gcs.list("bucket", Storage.BlobListOption.matchGlob("**.csv")))
+        .thenReturn(new PageImpl<>(null, null, List.of()));
+
+    assertThat(((GcsSession) sessionFactory.getSession()).stream("bucket")).isEmpty();
+    verify(this.gcs).list("bucket", Storage.BlobListOption.matchGlob("**.csv"));
+  }
+
+  @Test
+  void sessionFactoryAddsProvidedListOptionsPerSession() {
+    GcsSessionFactory sessionFactory = new GcsSessionFactory(this.gcs);
+    sessionFactory.setListOptions(Storage.BlobListOption.prefix("logs/"));
+    List<String> offsets = new ArrayList<>(List.of("logs/a", "logs/b"));
+    sessionFactory.setListOptionsProvider(
+        () ->
+            new Storage.BlobListOption[] {Storage.BlobListOption.startOffset(offsets.remove(0))});
+    when(this.gcs.list(
+            "bucket",
+            Storage.BlobListOption.prefix("logs/"),
+            Storage.BlobListOption.startOffset("logs/b")))
+        .thenReturn(new PageImpl<>(null, null, List.of()));
+
+    sessionFactory.getSession();
+    assertThat(((GcsSession) sessionFactory.getSession()).stream("bucket")).isEmpty();
+    verify(this.gcs)
+        .list(
+            "bucket",
+            Storage.BlobListOption.prefix("logs/"),
+            Storage.BlobListOption.startOffset("logs/b"));
+  }
+
+  @Test
+  void sessionFactoryAppliesChunkSize() {
+    GcsSessionFactory sessionFactory = new GcsSessionFactory(this.gcs);
+    assertThat(((GcsSession) sessionFactory.getSession()).getChunkSize())
+        .isEqualTo(GcsSession.DEFAULT_CHUNK_SIZE);
+
+    sessionFactory.setChunkSize(CHUNK_SIZE);
+
+    assertThat(((GcsSession) sessionFactory.getSession()).getChunkSize()).isEqualTo(CHUNK_SIZE);
+  }
+
+  @Test
+  void chunkSizeMustBePositive() {
+    assertThatThrownBy(() -> new GcsSession(this.gcs, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("The chunk size must be positive.");
+  }
+
+  private static Blob mockBlob(String bucket, String name) {
+    Blob blob = mock(Blob.class);
+    when(blob.getBucket()).thenReturn(bucket);
+    when(blob.getName()).thenReturn(name);
+    return blob;
+  }
+
+  private static byte[] randomBytes(int size) {
+    byte[] bytes = new byte[size];
+    new Random(42).nextBytes(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.storage.integration.filters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.spring.storage.integration.filters.GcsHighWatermarkFileListFilter.Watermark;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.integration.metadata.SimpleMetadataStore;
+
+/** Tests for GcsHighWatermarkFileListFilter. */
+class GcsHighWatermarkFileListFilterTest {
+
+  private final SimpleMetadataStore store = new SimpleMetadataStore();
+
+  @Test
+  void nameWatermarkAcceptsGreaterNamesAndProvidesStartOffset() {
+    GcsHighWatermarkFileListFilter filter =
+        new GcsHighWatermarkFileListFilter(this.store, "key", Watermark.NAME);
+    assertThat(filter.getListOptions()).isEmpty();
+
+    assertThat(filter.filterFiles(blobs("2024/01/a", "2024/01/b")))
+        .extracting(BlobInfo::getName)
+        .containsExactly("2024/01/a", "2024/01/b");
+    assertThat(filter.getListOptions())
+        .containsExactly(Storage.BlobListOption.startOffset("2024/01/b"));
+
+    assertThat(filter.filterFiles(blobs("2024/01/a", "2024/01/b", "2024/01/c")))
+        .extracting(BlobInfo::getName)
+        .containsExactly("2024/01/c");
+    assertThat(this.store.get("key")).isEqualTo("2024/01/c");
+  }
+
+  @Test
+  void nameWatermarkResumesFromStore() {
+    new GcsHighWatermarkFileListFilter(this.store, "key", Watermark.NAME)
+        .filterFiles(blobs("a", "b"));
+
+    GcsHighWatermarkFileListFilter filter =
+        new GcsHighWatermarkFileListFilter(this.store, "key", Watermark.NAME);
+
+    assertThat(filter.getListOptions()).containsExactly(Storage.BlobListOption.startOffset("b"));
+    assertThat(filter.filterFiles(blobs("b", "c")))
+        .extracting(BlobInfo::getName)
+        .containsExactly("c");
+  }
+
+  @Test
+  void nameWatermarkRollsBackUnprocessedFiles() {
+    GcsHighWatermarkFileListFilter filter =
+        new GcsHighWatermarkFileListFilter(this.store, "key", Watermark.NAME);
+    List<BlobInfo> accepted = filter.filterFiles(blobs("a", "b", "c"));
+
+    filter.rollback(accepted.get(1), accepted);
+
+    assertThat(this.store.get("key")).isEqualTo("a");
+    assertThat(filter.filterFiles(blobs("a", "b", "c")))
+        .extracting(BlobInfo::getName)
+        .containsExactly("b", "c");
+  }
+
+  @Test
+  void updateTimeWatermarkAcceptsEachVersionOnce() {
+    GcsHighWatermarkFileListFilter filter =
+        new GcsHighWatermarkFileListFilter(this.store, "key", Watermark.UPDATE_TIME);
+
+    assertThat(filter.filterFiles(new BlobInfo[] {blob("a", 1L, 1000L), blob("b", 1L, 2000L)}))
+        .hasSize(2);
+    assertThat(
+            filter.filterFiles(
+                new BlobInfo[] {
+                  blob("a", 1L, 1000L),
+                  blob("b", 1L, 2000L),
+                  blob("c", 1L, 2000L),
+                  blob("a", 2L, 3000L)
+                }))
+        .extracting(BlobInfo::getName)
+        .containsExactly("c", "a");
+    assertThat(filter.getListOptions()).isEmpty();
+  }
+
+  @Test
+  void updateTimeWatermarkCompactsStateToLookback() {
+    GcsHighWatermarkFileListFilter filter =
+        new GcsHighWatermarkFileListFilter(this.store, "key", Watermark.UPDATE_TIME);
+    filter.setLookback(Duration.ofSeconds(5));
+
+    filter.filterFiles(
+        new BlobInfo[] {blob("a", 1L, 1000L), blob("b", 1L, 8000L), blob("c", 1L, 10_000L)});
+
+    assertThat(this.store.get("key").lines())
+        .containsExactlyInAnyOrder("10000", "8000 1 b", "10000 1 c");
+
+    GcsHighWatermarkFileListFilter resumed =
+        new GcsHighWatermarkFileListFilter(this.store, "key", Watermark.UPDATE_TIME);
+    resumed.setLookback(Duration.ofSeconds(5));
+    assertThat(
+            resumed.filterFiles(
+                new BlobInfo[] {
+                  blob("a", 1L, 1000L),
+                  blob("b", 1L, 8000L),
+                  blob("late", 1L, 6000L),
+                  blob("c", 1L, 10_000L)
+                }))
+        .extracting(BlobInfo::getName)
+        .containsExactly("late");
+  }
+
+  private static BlobInfo[] blobs(String... names) {
+    BlobInfo[] blobs = new BlobInfo[names.length];
+    for (int i = 0; i < names.length; i++) {
+      blobs[i] = blob(names[i], 1L, 1000L);
+    }
+    return blobs;
+  }
+
+  private static BlobInfo blob(String name, long generation, long updateTimeMillis) {
+    BlobInfo blob = mock(BlobInfo.class);
+    when(blob.getBucket()).thenReturn("bucket");
+    when(blob.getName()).thenReturn(name);
+    when(blob.getGeneration()).thenReturn(generation);
+    when(blob.getUpdateTimeOffsetDateTime())
+        .thenReturn(Instant.ofEpochMilli(updateTimeMillis).atOffset(ZoneOffset.UTC));
+    return blob;
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.storage.integration.filters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.cloud.storage.Storage;
+import org.junit.jupiter.api.Test;
+
+/** Tests for GcsSimplePatternFileListFilter. */
+class GcsSimplePatternFileListFilterTest {
+
+  @Test
+  void providesPatternAsMatchGlob() {
+    assertThat(new GcsSimplePatternFileListFilter("logs/*.json").getListOptions())
+        .containsExactly(Storage.BlobListOption.matchGlob("logs/**.json"));
+    assertThat(new GcsSimplePatternFileListFilter("**.csv").getListOptions())
+        .containsExactly(Storage.BlobListOption.matchGlob("**.csv"));
+  }
+
+  @Test
+  void providesNoOptionsForGlobSpecialCharacters() {
+    assertThat(new GcsSimplePatternFileListFilter("report-?.csv").getListOptions()).isEmpty();
+    assertThat(new GcsSimplePatternFileListFilter("data[1].csv").getListOptions()).isEmpty();
+  }
+}
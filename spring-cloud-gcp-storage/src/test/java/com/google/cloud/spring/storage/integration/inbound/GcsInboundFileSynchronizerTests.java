@@ -18,19 +18,30 @@ package com.google.cloud.spring.storage.integration.inbound;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.cloud.PageImpl;
+import com.google.cloud.ReadChannel;
+import com.google.cloud.spring.storage.integration.GcsSessionFactory;
+import com.google.cloud.spring.storage.integration.filters.GcsSimplePatternFileListFilter;
 import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.logging.Log;
@@ -45,6 +56,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.integration.config.EnableIntegration;
 import org.springframework.integration.file.filters.AcceptOnceFileListFilter;
+import org.springframework.integration.file.filters.ChainFileListFilter;
 import org.springframework.messaging.Message;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.aot.DisabledInAotMode;
@@ -113,6 +125,67 @@ class GcsInboundFileSynchronizerTests {
     assertThat(message).isNull();
   }
 
+  @Test
+  void filterListOptionsOnlyApplyToTheSynchronizerListings() {
+    Storage storage = mock(Storage.class);
+    when(storage.list(
+            "test-bucket",
+            Storage.BlobListOption.prefix("incoming/"),
+            Storage.BlobListOption.matchGlob("**.csv")))
+        .thenReturn(new PageImpl<>(null, null, List.of()));
+    GcsSessionFactory sessionFactory = new GcsSessionFactory(storage);
+    sessionFactory.setListOptions(Storage.BlobListOption.prefix("incoming/"));
+    GcsInboundFileSynchronizer synchronizer = new GcsInboundFileSynchronizer(sessionFactory);
+    synchronizer.setRemoteDirectory("test-bucket");
+    synchronizer.setFilter(
+        new ChainFileListFilter<BlobInfo>()
+            .addFilters(
+                new GcsSimplePatternFileListFilter("*.csv"), new AcceptOnceFileListFilter<>()));
+    synchronizer.setBeanFactory(mock(BeanFactory.class));
+    synchronizer.afterPropertiesSet();
+
+    synchronizer.synchronizeToLocalDirectory(new File("test"));
+
+    verify(storage)
+        .list(
+            "test-bucket",
+            Storage.BlobListOption.prefix("incoming/"),
+            Storage.BlobListOption.matchGlob("**.csv"));
+    assertThat(sessionFactory.getListOptions())
+        .containsExactly(Storage.BlobListOption.prefix("incoming/"));
+    assertThat(sessionFactory.getListOptionsProvider()).isNull();
+  }
+
+  @Test
+  void subFolderEntriesOfListingAreSkipped() throws Exception {
+    Storage storage = mock(Storage.class);
+    Blob blob = mock(Blob.class);
+    willAnswer(invocation -> "ys origin").given(blob).getName();
+    when(blob.getUpdateTimeOffsetDateTime()).thenReturn(OffsetDateTime.now());
+    // A directory entry has no update time.
+    Blob subFolder = mock(Blob.class);
+    willAnswer(invocation -> "sequels/").given(subFolder).getName();
+    when(subFolder.isDirectory()).thenReturn(true);
+    when(storage.list("test-bucket", Storage.BlobListOption.currentDirectory()))
+        .thenReturn(new PageImpl<>(null, null, List.of(blob, subFolder)));
+    willAnswer(invocation -> Config.readChannel("adol"))
+        .given(storage)
+        .reader(eq("test-bucket"), eq("ys origin"));
+    GcsSessionFactory sessionFactory = new GcsSessionFactory(storage);
+    sessionFactory.setListOptions(Storage.BlobListOption.currentDirectory());
+    GcsInboundFileSynchronizer synchronizer = new GcsInboundFileSynchronizer(sessionFactory);
+    synchronizer.setRemoteDirectory("test-bucket");
+    synchronizer.setBeanFactory(mock(BeanFactory.class));
+    synchronizer.afterPropertiesSet();
+    Files.createDirectories(Paths.get("test"));
+
+    synchronizer.synchronizeToLocalDirectory(new File("test"));
+
+    try (Stream<Path> files = Files.list(Paths.get("test"))) {
+      assertThat(files).containsExactly(Paths.get("test", "ys origin"));
+    }
+  }
+
   /** Spring config for the tests. */
   @Configuration
   @EnableIntegration
@@ -130,12 +203,12 @@ class GcsInboundFileSynchronizerTests {
       willAnswer(invocation -> "legend of heroes").given(blob1).getName();
       willAnswer(invocation -> "trails in the sky").given(blob2).getName();
 
-      willAnswer(invocation -> "estelle".getBytes())
+      willAnswer(invocation -> readChannel("estelle"))
           .given(gcsMock)
-          .readAllBytes(eq("test-bucket"), eq("legend of heroes"));
-      willAnswer(invocation -> "joshua".getBytes())
+          .reader(eq("test-bucket"), eq("legend of heroes"));
+      willAnswer(invocation -> readChannel("joshua"))
           .given(gcsMock)
-          .readAllBytes(eq("test-bucket"), eq("trails in the sky"));
+          .reader(eq("test-bucket"), eq("trails in the sky"));
 
       willAnswer(
               invocation ->
@@ -145,5 +218,15 @@ class GcsInboundFileSynchronizerTests {
 
       return gcsMock;
     }
+
+    private static ReadChannel readChannel(String content) throws IOException {
+      ReadableByteChannel source =
+          Channels.newChannel(new ByteArrayInputStream(content.getBytes()));
+      ReadChannel readChannel = mock(ReadChannel.class);
+      willAnswer(invocation -> source.read(invocation.getArgument(0)))
+          .given(readChannel)
+          .read(isA(ByteBuffer.class));
+      return readChannel;
+    }
   }
 }